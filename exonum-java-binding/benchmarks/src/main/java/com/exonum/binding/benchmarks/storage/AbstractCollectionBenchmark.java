@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * A base state of the benchmarks of the indexes holding collections of elements
+ * (i.e., lists, sets and maps). The index is populated with {@link #indexSize} elements.
+ */
+public abstract class AbstractCollectionBenchmark extends AbstractIndexBenchmark {
+
+  /** The number of elements in the index. */
+  @Param({"1000", "100000"})
+  int indexSize;
+
+  /**
+   * The keys of the elements: the first {@link #indexSize} keys are the keys of the elements
+   * in the index; the rest are the keys absent in the index.
+   */
+  private HashCode[] keys;
+
+  @Override
+  void generateData() {
+    super.generateData();
+    keys = new HashCode[2 * indexSize];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = Hashing.sha256().hashInt(i);
+    }
+  }
+
+  /**
+   * Returns a key of the element with the given number in the index.
+   */
+  HashCode key(int i) {
+    return keys[i];
+  }
+
+  /**
+   * Returns the key of a random element in the index.
+   */
+  HashCode nextPresentKey() {
+    return keys[nextIndex()];
+  }
+
+  /**
+   * Returns a random key that is absent in the index.
+   */
+  HashCode nextAbsentKey() {
+    return keys[indexSize + nextIndex()];
+  }
+
+  /**
+   * Returns the number of a random element in the index.
+   */
+  int nextIndex() {
+    return nextInt(indexSize);
+  }
+}
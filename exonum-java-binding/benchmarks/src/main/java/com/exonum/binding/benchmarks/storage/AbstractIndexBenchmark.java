@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.database.TemporaryDb;
+import com.exonum.binding.core.storage.indices.IndexAddress;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A base state of the index benchmarks. It creates a database with an index holding
+ * values of the {@linkplain #valueSize given size}.
+ *
+ * <p>The read operations are measured on a snapshot of the database, created once per trial.
+ * The write operations are measured on a fork, created once per iteration.
+ *
+ * <p>The keys and values used in the measured operations are generated once per trial,
+ * so that their generation is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@org.openjdk.jmh.annotations.Fork(1)
+public abstract class AbstractIndexBenchmark {
+
+  static final IndexAddress INDEX_ADDRESS = IndexAddress.valueOf("benchmark_index");
+  /** A fixed seed of the random values, making the benchmark data reproducible. */
+  private static final long RANDOM_SEED = 1L;
+  /** The number of the pregenerated values used in the write operations. */
+  private static final int VALUE_POOL_SIZE = 1024;
+
+  /** The size of index values in bytes. */
+  @Param({"32", "1024"})
+  int valueSize;
+
+  private TemporaryDb database;
+  private Cleaner trialCleaner;
+  private Cleaner iterationCleaner;
+  private Random random;
+  private byte[][] valuePool;
+  private int nextValueIndex;
+
+  @Setup(Level.Trial)
+  public void setUpDatabase() throws CloseFailuresException {
+    database = TemporaryDb.newInstance();
+    random = new Random(RANDOM_SEED);
+    generateData();
+    try (Cleaner cleaner = new Cleaner("populate")) {
+      Fork fork = database.createFork(cleaner);
+      populate(fork);
+      database.merge(fork);
+    }
+    trialCleaner = new Cleaner("trial");
+    Snapshot snapshot = database.createSnapshot(trialCleaner);
+    openSnapshotIndex(snapshot);
+  }
+
+  @Setup(Level.Iteration)
+  public void createFork() {
+    iterationCleaner = new Cleaner("iteration");
+    Fork fork = database.createFork(iterationCleaner);
+    openForkIndex(fork);
+  }
+
+  @TearDown(Level.Iteration)
+  public void destroyFork() throws CloseFailuresException {
+    iterationCleaner.close();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownDatabase() throws CloseFailuresException {
+    trialCleaner.close();
+    database.close();
+  }
+
+  /**
+   * Generates the keys and values used in the measured operations. Invoked before
+   * the index is {@linkplain #populate(Fork) populated}.
+   */
+  void generateData() {
+    valuePool = new byte[VALUE_POOL_SIZE][];
+    for (int i = 0; i < VALUE_POOL_SIZE; i++) {
+      valuePool[i] = newValue();
+    }
+  }
+
+  /**
+   * Adds the initial elements to the benchmarked index.
+   */
+  abstract void populate(Fork fork);
+
+  /**
+   * Opens the benchmarked index with the given snapshot to measure the read operations.
+   */
+  abstract void openSnapshotIndex(Snapshot snapshot);
+
+  /**
+   * Opens the benchmarked index with the given fork to measure the write operations.
+   */
+  abstract void openForkIndex(Fork fork);
+
+  /**
+   * Returns a new value of {@link #valueSize} bytes. Intended for populating the index;
+   * the measured operations shall use the {@linkplain #nextValue() pregenerated values}.
+   */
+  byte[] newValue() {
+    byte[] value = new byte[valueSize];
+    random.nextBytes(value);
+    return value;
+  }
+
+  /**
+   * Returns the next of the pregenerated values of {@link #valueSize} bytes.
+   */
+  byte[] nextValue() {
+    byte[] value = valuePool[nextValueIndex];
+    nextValueIndex = (nextValueIndex + 1) % VALUE_POOL_SIZE;
+    return value;
+  }
+
+  /**
+   * Returns a pseudorandom number in the range [0; bound).
+   */
+  int nextInt(int bound) {
+    return random.nextInt(bound);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.bytes;
+
+import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.indices.EntryIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of the operations on {@link com.exonum.binding.core.storage.indices.EntryIndexProxy}
+ * and {@link com.exonum.binding.core.storage.indices.ProofEntryIndexProxy}.
+ */
+public class EntryIndexBenchmark extends AbstractIndexBenchmark {
+
+  @Param
+  EntryType entryType;
+
+  private EntryIndex<byte[]> snapshotEntry;
+  private EntryIndex<byte[]> forkEntry;
+
+  @Override
+  void populate(Fork fork) {
+    entryType.open(fork)
+        .set(newValue());
+  }
+
+  @Override
+  void openSnapshotIndex(Snapshot snapshot) {
+    snapshotEntry = entryType.open(snapshot);
+  }
+
+  @Override
+  void openForkIndex(Fork fork) {
+    forkEntry = entryType.open(fork);
+  }
+
+  @Benchmark
+  public byte[] get() {
+    return snapshotEntry.get();
+  }
+
+  @Benchmark
+  public void set() {
+    forkEntry.set(nextValue());
+  }
+
+  /**
+   * A type of the benchmarked entry.
+   */
+  public enum EntryType {
+    ENTRY {
+      @Override
+      EntryIndex<byte[]> open(Access access) {
+        return access.getEntry(INDEX_ADDRESS, bytes());
+      }
+    },
+    PROOF_ENTRY {
+      @Override
+      EntryIndex<byte[]> open(Access access) {
+        return access.getProofEntry(INDEX_ADDRESS, bytes());
+      }
+    };
+
+    abstract EntryIndex<byte[]> open(Access access);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.hash;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.indices.KeySetIndexProxy;
+import java.util.Iterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the operations on {@link KeySetIndexProxy}. As the key set
+ * holds the keys only, its elements are 32-byte hashes and the value size does not affect it.
+ */
+public class KeySetIndexBenchmark extends AbstractCollectionBenchmark {
+
+  private KeySetIndexProxy<HashCode> snapshotSet;
+  private KeySetIndexProxy<HashCode> forkSet;
+
+  @Override
+  void populate(Fork fork) {
+    KeySetIndexProxy<HashCode> set = fork.getKeySet(INDEX_ADDRESS, hash());
+    for (int i = 0; i < indexSize; i++) {
+      set.add(key(i));
+    }
+  }
+
+  @Override
+  void openSnapshotIndex(Snapshot snapshot) {
+    snapshotSet = snapshot.getKeySet(INDEX_ADDRESS, hash());
+  }
+
+  @Override
+  void openForkIndex(Fork fork) {
+    forkSet = fork.getKeySet(INDEX_ADDRESS, hash());
+  }
+
+  @Benchmark
+  public boolean contains() {
+    return snapshotSet.contains(nextPresentKey());
+  }
+
+  @Benchmark
+  public void add() {
+    forkSet.add(nextAbsentKey());
+  }
+
+  @Benchmark
+  public void iterate(Blackhole blackhole) {
+    Iterator<HashCode> elements = snapshotSet.iterator();
+    while (elements.hasNext()) {
+      blackhole.consume(elements.next());
+    }
+  }
+}
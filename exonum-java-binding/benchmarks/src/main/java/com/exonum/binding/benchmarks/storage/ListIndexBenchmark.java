@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.bytes;
+
+import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.indices.ListIndex;
+import java.util.Iterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the operations on {@link com.exonum.binding.core.storage.indices.ListIndexProxy}
+ * and {@link com.exonum.binding.core.storage.indices.ProofListIndexProxy}.
+ */
+public class ListIndexBenchmark extends AbstractCollectionBenchmark {
+
+  @Param
+  ListType listType;
+
+  private ListIndex<byte[]> snapshotList;
+  private ListIndex<byte[]> forkList;
+
+  @Override
+  void populate(Fork fork) {
+    ListIndex<byte[]> list = listType.open(fork);
+    for (int i = 0; i < indexSize; i++) {
+      list.add(newValue());
+    }
+  }
+
+  @Override
+  void openSnapshotIndex(Snapshot snapshot) {
+    snapshotList = listType.open(snapshot);
+  }
+
+  @Override
+  void openForkIndex(Fork fork) {
+    forkList = listType.open(fork);
+  }
+
+  @Benchmark
+  public byte[] get() {
+    return snapshotList.get(nextIndex());
+  }
+
+  @Benchmark
+  public void set() {
+    forkList.set(nextIndex(), nextValue());
+  }
+
+  @Benchmark
+  public void add() {
+    forkList.add(nextValue());
+  }
+
+  @Benchmark
+  public void iterate(Blackhole blackhole) {
+    Iterator<byte[]> elements = snapshotList.iterator();
+    while (elements.hasNext()) {
+      blackhole.consume(elements.next());
+    }
+  }
+
+  @Benchmark
+  public void stream(Blackhole blackhole) {
+    snapshotList.stream()
+        .forEach(blackhole::consume);
+  }
+
+  /**
+   * A type of the benchmarked list.
+   */
+  public enum ListType {
+    LIST {
+      @Override
+      ListIndex<byte[]> open(Access access) {
+        return access.getList(INDEX_ADDRESS, bytes());
+      }
+    },
+    PROOF_LIST {
+      @Override
+      ListIndex<byte[]> open(Access access) {
+        return access.getProofList(INDEX_ADDRESS, bytes());
+      }
+    };
+
+    abstract ListIndex<byte[]> open(Access access);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.bytes;
+import static com.exonum.binding.common.serialization.StandardSerializers.hash;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.indices.MapIndex;
+import java.util.Iterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the operations on {@link com.exonum.binding.core.storage.indices.MapIndexProxy}
+ * and {@link com.exonum.binding.core.storage.indices.ProofMapIndexProxy}.
+ */
+public class MapIndexBenchmark extends AbstractCollectionBenchmark {
+
+  @Param
+  MapType mapType;
+
+  private MapIndex<HashCode, byte[]> snapshotMap;
+  private MapIndex<HashCode, byte[]> forkMap;
+
+  @Override
+  void populate(Fork fork) {
+    MapIndex<HashCode, byte[]> map = mapType.open(fork);
+    for (int i = 0; i < indexSize; i++) {
+      map.put(key(i), newValue());
+    }
+  }
+
+  @Override
+  void openSnapshotIndex(Snapshot snapshot) {
+    snapshotMap = mapType.open(snapshot);
+  }
+
+  @Override
+  void openForkIndex(Fork fork) {
+    forkMap = mapType.open(fork);
+  }
+
+  @Benchmark
+  public byte[] get() {
+    return snapshotMap.get(nextPresentKey());
+  }
+
+  @Benchmark
+  public boolean containsKey() {
+    return snapshotMap.containsKey(nextPresentKey());
+  }
+
+  @Benchmark
+  public void put() {
+    forkMap.put(nextPresentKey(), nextValue());
+  }
+
+  @Benchmark
+  public void iterateEntries(Blackhole blackhole) {
+    Iterator<MapEntry<HashCode, byte[]>> entries = snapshotMap.entries();
+    while (entries.hasNext()) {
+      blackhole.consume(entries.next());
+    }
+  }
+
+  @Benchmark
+  public void iterateKeys(Blackhole blackhole) {
+    Iterator<HashCode> keys = snapshotMap.keys();
+    while (keys.hasNext()) {
+      blackhole.consume(keys.next());
+    }
+  }
+
+  /**
+   * A type of the benchmarked map.
+   */
+  public enum MapType {
+    MAP {
+      @Override
+      MapIndex<HashCode, byte[]> open(Access access) {
+        return access.getMap(INDEX_ADDRESS, hash(), bytes());
+      }
+    },
+    PROOF_MAP {
+      @Override
+      MapIndex<HashCode, byte[]> open(Access access) {
+        return access.getProofMap(INDEX_ADDRESS, hash(), bytes());
+      }
+    },
+    RAW_PROOF_MAP {
+      @Override
+      MapIndex<HashCode, byte[]> open(Access access) {
+        return access.getRawProofMap(INDEX_ADDRESS, hash(), bytes());
+      }
+    };
+
+    abstract MapIndex<HashCode, byte[]> open(Access access);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.bytes;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.indices.ListProof;
+import com.exonum.binding.core.storage.indices.ProofListIndexProxy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of the proof creation with {@link ProofListIndexProxy}.
+ */
+public class ProofListIndexProofBenchmark extends AbstractCollectionBenchmark {
+
+  /** The number of elements in a range proof. */
+  @Param({"16"})
+  int rangeSize;
+
+  private ProofListIndexProxy<byte[]> snapshotList;
+
+  @Override
+  void populate(Fork fork) {
+    ProofListIndexProxy<byte[]> list = fork.getProofList(INDEX_ADDRESS, bytes());
+    for (int i = 0; i < indexSize; i++) {
+      list.add(newValue());
+    }
+  }
+
+  @Override
+  void openSnapshotIndex(Snapshot snapshot) {
+    snapshotList = snapshot.getProofList(INDEX_ADDRESS, bytes());
+  }
+
+  @Override
+  void openForkIndex(Fork fork) {
+    // No write operations
+  }
+
+  @Benchmark
+  public ListProof getProof() {
+    return snapshotList.getProof(nextIndex());
+  }
+
+  @Benchmark
+  public ListProof getRangeProof() {
+    long from = nextIndex() % (indexSize - rangeSize);
+    return snapshotList.getRangeProof(from, from + rangeSize);
+  }
+
+  @Benchmark
+  public HashCode getIndexHash() {
+    return snapshotList.getIndexHash();
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.bytes;
+import static com.exonum.binding.common.serialization.StandardSerializers.hash;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.indices.MapProof;
+import com.exonum.binding.core.storage.indices.ProofMapIndexProxy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of the proof creation with {@link ProofMapIndexProxy}.
+ */
+public class ProofMapIndexProofBenchmark extends AbstractCollectionBenchmark {
+
+  /** Whether the map hashes the keys, or uses them as is ("raw" map). */
+  @Param({"true", "false"})
+  boolean keyHashing;
+
+  private ProofMapIndexProxy<HashCode, byte[]> snapshotMap;
+
+  @Override
+  void populate(Fork fork) {
+    ProofMapIndexProxy<HashCode, byte[]> map = open(fork);
+    for (int i = 0; i < indexSize; i++) {
+      map.put(key(i), newValue());
+    }
+  }
+
+  @Override
+  void openSnapshotIndex(Snapshot snapshot) {
+    snapshotMap = open(snapshot);
+  }
+
+  @Override
+  void openForkIndex(Fork fork) {
+    // No write operations
+  }
+
+  private ProofMapIndexProxy<HashCode, byte[]> open(Access access) {
+    return keyHashing
+        ? access.getProofMap(INDEX_ADDRESS, hash(), bytes())
+        : access.getRawProofMap(INDEX_ADDRESS, hash(), bytes());
+  }
+
+  @Benchmark
+  public MapProof getProofOfPresentKey() {
+    return snapshotMap.getProof(nextPresentKey());
+  }
+
+  @Benchmark
+  public MapProof getProofOfAbsentKey() {
+    return snapshotMap.getProof(nextAbsentKey());
+  }
+
+  @Benchmark
+  public HashCode getIndexHash() {
+    return snapshotMap.getIndexHash();
+  }
+}
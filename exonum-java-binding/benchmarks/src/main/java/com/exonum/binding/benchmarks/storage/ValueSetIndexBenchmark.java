@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.storage;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.bytes;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.indices.ValueSetIndexProxy;
+import java.util.Iterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the operations on {@link ValueSetIndexProxy}.
+ */
+public class ValueSetIndexBenchmark extends AbstractCollectionBenchmark {
+
+  private HashCode[] elementHashes;
+  private ValueSetIndexProxy<byte[]> snapshotSet;
+  private ValueSetIndexProxy<byte[]> forkSet;
+
+  @Override
+  void populate(Fork fork) {
+    ValueSetIndexProxy<byte[]> set = fork.getValueSet(INDEX_ADDRESS, bytes());
+    elementHashes = new HashCode[indexSize];
+    for (int i = 0; i < indexSize; i++) {
+      byte[] element = newValue();
+      set.add(element);
+      elementHashes[i] = Hashing.defaultHashFunction().hashBytes(element);
+    }
+  }
+
+  @Override
+  void openSnapshotIndex(Snapshot snapshot) {
+    snapshotSet = snapshot.getValueSet(INDEX_ADDRESS, bytes());
+  }
+
+  @Override
+  void openForkIndex(Fork fork) {
+    forkSet = fork.getValueSet(INDEX_ADDRESS, bytes());
+  }
+
+  @Benchmark
+  public boolean containsByHash() {
+    return snapshotSet.containsByHash(elementHashes[nextIndex()]);
+  }
+
+  @Benchmark
+  public void add() {
+    forkSet.add(nextValue());
+  }
+
+  @Benchmark
+  public void iterate(Blackhole blackhole) {
+    Iterator<ValueSetIndexProxy.Entry<byte[]>> entries = snapshotSet.iterator();
+    while (entries.hasNext()) {
+      blackhole.consume(entries.next());
+    }
+  }
+
+  @Benchmark
+  public void iterateHashes(Blackhole blackhole) {
+    Iterator<HashCode> hashes = snapshotSet.hashes();
+    while (hashes.hasNext()) {
+      blackhole.consume(hashes.next());
+    }
+  }
+}
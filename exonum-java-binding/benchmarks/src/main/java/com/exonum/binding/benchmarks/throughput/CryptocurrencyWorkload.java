@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+import static com.exonum.binding.common.crypto.CryptoFunctions.ed25519;
+import static com.exonum.binding.cryptocurrency.CryptocurrencyServiceImpl.CREATE_WALLET_TX_ID;
+import static com.exonum.binding.cryptocurrency.CryptocurrencyServiceImpl.TRANSFER_TX_ID;
+
+import com.exonum.binding.common.crypto.KeyPair;
+import com.exonum.binding.common.message.TransactionMessage;
+import com.exonum.binding.common.runtime.ServiceArtifactId;
+import com.exonum.binding.cryptocurrency.transactions.TxMessageProtos.CreateWalletTx;
+import com.exonum.binding.cryptocurrency.transactions.TxMessageProtos.TransferTx;
+import com.exonum.binding.testkit.TestKit;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transfers of a single unit between the wallets of the cryptocurrency demo service,
+ * in a round-robin order.
+ */
+final class CryptocurrencyWorkload implements Workload {
+
+  private static final String SERVICE_NAME = "cryptocurrency";
+  private static final int SERVICE_ID = 42;
+  private static final int WALLET_COUNT = 128;
+  /** The initial balance, large enough for any number of transfers from a wallet. */
+  private static final long INITIAL_BALANCE = Long.MAX_VALUE / 2;
+  private static final long TRANSFER_SUM = 1L;
+
+  private final ServiceArtifactId artifactId;
+  private final String artifactFilename;
+  private final List<KeyPair> wallets;
+  private long nextSeed;
+
+  CryptocurrencyWorkload(ServiceArtifactId artifactId, String artifactFilename) {
+    this.artifactId = artifactId;
+    this.artifactFilename = artifactFilename;
+    this.wallets = new ArrayList<>(WALLET_COUNT);
+    for (int i = 0; i < WALLET_COUNT; i++) {
+      wallets.add(ed25519().generateKeyPair());
+    }
+  }
+
+  @Override
+  public TestKit.Builder configure(TestKit.Builder testKit) {
+    return testKit
+        .withDeployedArtifact(artifactId, artifactFilename)
+        .withService(artifactId, SERVICE_NAME, SERVICE_ID);
+  }
+
+  @Override
+  public List<TransactionMessage> createSetupTransactions() {
+    List<TransactionMessage> transactions = new ArrayList<>(WALLET_COUNT);
+    for (KeyPair owner : wallets) {
+      transactions.add(TransactionMessage.builder()
+          .serviceId(SERVICE_ID)
+          .transactionId(CREATE_WALLET_TX_ID)
+          .payload(CreateWalletTx.newBuilder()
+              .setInitialBalance(INITIAL_BALANCE)
+              .build())
+          .sign(owner));
+    }
+    return transactions;
+  }
+
+  @Override
+  public TransactionMessage createTransaction() {
+    long seed = nextSeed++;
+    KeyPair from = wallets.get((int) (seed % WALLET_COUNT));
+    KeyPair to = wallets.get((int) ((seed + 1) % WALLET_COUNT));
+    return TransactionMessage.builder()
+        .serviceId(SERVICE_ID)
+        .transactionId(TRANSFER_TX_ID)
+        .payload(TransferTx.newBuilder()
+            .setSeed(seed)
+            .setToWallet(ByteString.copyFrom(to.getPublicKey().toBytes()))
+            .setSum(TRANSFER_SUM)
+            .build())
+        .sign(from);
+  }
+}
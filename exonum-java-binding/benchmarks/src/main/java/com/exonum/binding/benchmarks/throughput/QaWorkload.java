@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+import static com.exonum.binding.common.crypto.CryptoFunctions.ed25519;
+
+import com.exonum.binding.common.crypto.KeyPair;
+import com.exonum.binding.common.message.TransactionMessage;
+import com.exonum.binding.common.runtime.ServiceArtifactId;
+import com.exonum.binding.qaservice.Config.QaConfiguration;
+import com.exonum.binding.qaservice.transactions.TxMessageProtos.CreateCounterTxBody;
+import com.exonum.binding.qaservice.transactions.TxMessageProtos.IncrementCounterTxBody;
+import com.exonum.binding.testkit.TestKit;
+import com.exonum.binding.testkit.TimeProvider;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Increments of the counters of the QA service, in a round-robin order.
+ */
+final class QaWorkload implements Workload {
+
+  private static final String SERVICE_NAME = "qa";
+  private static final int SERVICE_ID = 101;
+  private static final String TIME_SERVICE_NAME = "time";
+  private static final int TIME_SERVICE_ID = 100;
+  // The transaction ids as defined in QaServiceImpl
+  private static final int CREATE_COUNTER_TX_ID = 0;
+  private static final int INCREMENT_COUNTER_TX_ID = 1;
+  private static final int COUNTER_COUNT = 16;
+
+  private final ServiceArtifactId artifactId;
+  private final String artifactFilename;
+  private final KeyPair keyPair;
+  private long nextSeed;
+
+  QaWorkload(ServiceArtifactId artifactId, String artifactFilename) {
+    this.artifactId = artifactId;
+    this.artifactFilename = artifactFilename;
+    this.keyPair = ed25519().generateKeyPair();
+  }
+
+  @Override
+  public TestKit.Builder configure(TestKit.Builder testKit) {
+    QaConfiguration configuration = QaConfiguration.newBuilder()
+        .setTimeOracleName(TIME_SERVICE_NAME)
+        .build();
+    return testKit
+        .withDeployedArtifact(artifactId, artifactFilename)
+        .withService(artifactId, SERVICE_NAME, SERVICE_ID, configuration)
+        .withTimeService(TIME_SERVICE_NAME, TIME_SERVICE_ID, TimeProvider.systemTime());
+  }
+
+  @Override
+  public List<TransactionMessage> createSetupTransactions() {
+    List<TransactionMessage> transactions = new ArrayList<>(COUNTER_COUNT);
+    for (int i = 0; i < COUNTER_COUNT; i++) {
+      transactions.add(TransactionMessage.builder()
+          .serviceId(SERVICE_ID)
+          .transactionId(CREATE_COUNTER_TX_ID)
+          .payload(CreateCounterTxBody.newBuilder()
+              .setName(counterName(i))
+              .build())
+          .sign(keyPair));
+    }
+    return transactions;
+  }
+
+  @Override
+  public TransactionMessage createTransaction() {
+    long seed = nextSeed++;
+    return TransactionMessage.builder()
+        .serviceId(SERVICE_ID)
+        .transactionId(INCREMENT_COUNTER_TX_ID)
+        .payload(IncrementCounterTxBody.newBuilder()
+            .setSeed(seed)
+            .setCounterName(counterName((int) (seed % COUNTER_COUNT)))
+            .build())
+        .sign(keyPair);
+  }
+
+  private static String counterName(int i) {
+    return "counter-" + i;
+  }
+}
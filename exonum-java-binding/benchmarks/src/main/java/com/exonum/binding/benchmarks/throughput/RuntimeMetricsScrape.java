@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The runtime metrics scraped from the metrics endpoint of the service runtime, in
+ * the Prometheus text format. The samples of each metric are summed over all their labels,
+ * e.g., over the services and transactions.
+ */
+final class RuntimeMetricsScrape {
+
+  /** The path of the runtime metrics endpoint of the service web server. */
+  private static final String METRICS_PATH = "/api/runtime/metrics";
+
+  private static final HttpClient httpClient = HttpClient.newHttpClient();
+
+  private final Map<String, Double> totals;
+
+  private RuntimeMetricsScrape(Map<String, Double> totals) {
+    this.totals = totals;
+  }
+
+  /**
+   * Scrapes the runtime metrics from the service web server at the given port.
+   *
+   * @param port the port of the service web server
+   */
+  static RuntimeMetricsScrape scrape(int port) {
+    URI uri = URI.create("http://localhost:" + port + METRICS_PATH);
+    HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+    try {
+      HttpResponse<String> response = httpClient.send(request,
+          HttpResponse.BodyHandlers.ofString());
+      checkState(response.statusCode() == 200, "Failed to scrape the metrics from %s: %s",
+          uri, response.statusCode());
+      return parse(response.body());
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to scrape the metrics from " + uri, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static RuntimeMetricsScrape parse(String metrics) {
+    Map<String, Double> totals = new HashMap<>();
+    for (String line : metrics.split("\n")) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      int nameEnd = line.indexOf('{');
+      int valueStart = line.lastIndexOf(' ');
+      String name = line.substring(0, (nameEnd == -1) ? valueStart : nameEnd);
+      double value = Double.parseDouble(line.substring(valueStart + 1));
+      totals.merge(name, value, Double::sum);
+    }
+    return new RuntimeMetricsScrape(totals);
+  }
+
+  /**
+   * Returns the sum of the samples of the metric with the given name (e.g.,
+   * {@code exonum_java_transaction_duration_seconds_sum}); or zero if there are none.
+   */
+  double total(String name) {
+    return totals.getOrDefault(name, 0.0);
+  }
+
+  /**
+   * Returns the increase of the sum of the samples of the metric with the given name
+   * since the previous scrape.
+   */
+  double increaseSince(RuntimeMetricsScrape previous, String name) {
+    return total(name) - previous.total(name);
+  }
+}
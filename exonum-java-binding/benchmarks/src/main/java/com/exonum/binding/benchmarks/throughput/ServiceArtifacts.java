@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.exonum.binding.common.runtime.ServiceArtifactId;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * The ids and file names of the service artifacts used by the benchmark. They are defined
+ * in a resource filtered with the project version, so that they match the artifacts built
+ * along with the benchmarks.
+ */
+final class ServiceArtifacts {
+
+  private static final String RESOURCE = "/throughput/artifacts.properties";
+
+  private final Properties properties;
+
+  private ServiceArtifacts(Properties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Loads the artifact properties from the benchmark resources.
+   */
+  static ServiceArtifacts load() {
+    try (InputStream in = ServiceArtifacts.class.getResourceAsStream(RESOURCE)) {
+      checkState(in != null, "No resource %s", RESOURCE);
+      Properties properties = new Properties();
+      properties.load(in);
+      return new ServiceArtifacts(properties);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Returns the id of the artifact of the given service.
+   *
+   * @param service the service, e.g., {@code cryptocurrency}
+   */
+  ServiceArtifactId getArtifactId(String service) {
+    return ServiceArtifactId.parseFrom(getProperty(service + ".artifactId"));
+  }
+
+  /**
+   * Returns the file name of the artifact of the given service.
+   *
+   * @param service the service, e.g., {@code cryptocurrency}
+   */
+  String getArtifactFilename(String service) {
+    return getProperty(service + ".artifactFilename");
+  }
+
+  private String getProperty(String key) {
+    String value = properties.getProperty(key);
+    checkArgument(value != null, "No property %s in %s", key, RESOURCE);
+    return value.trim();
+  }
+}
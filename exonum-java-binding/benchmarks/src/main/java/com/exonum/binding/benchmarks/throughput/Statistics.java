@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Summary statistics of a sample of durations in nanoseconds.
+ */
+final class Statistics {
+
+  private final long[] sortedSamples;
+  private final long sum;
+
+  private Statistics(long[] sortedSamples) {
+    this.sortedSamples = sortedSamples;
+    this.sum = Arrays.stream(sortedSamples).sum();
+  }
+
+  /**
+   * Creates the statistics of the given samples.
+   *
+   * @param samples the durations in nanoseconds; must not be empty
+   */
+  static Statistics of(long[] samples) {
+    checkArgument(samples.length > 0, "No samples");
+    long[] sorted = samples.clone();
+    Arrays.sort(sorted);
+    return new Statistics(sorted);
+  }
+
+  /** Returns the number of samples. */
+  int count() {
+    return sortedSamples.length;
+  }
+
+  /** Returns the sum of the samples. */
+  long sum() {
+    return sum;
+  }
+
+  /** Returns the mean of the samples. */
+  double mean() {
+    return (double) sum / sortedSamples.length;
+  }
+
+  /**
+   * Returns the given percentile of the samples, using the nearest-rank method.
+   *
+   * @param p the percentile in range (0; 100]
+   */
+  long percentile(double p) {
+    checkArgument(0 < p && p <= 100, "Percentile (%s) must be in range (0; 100]", p);
+    int rank = (int) Math.ceil(p / 100 * sortedSamples.length);
+    return sortedSamples[rank - 1];
+  }
+
+  /** Returns the maximum sample. */
+  long max() {
+    return sortedSamples[sortedSamples.length - 1];
+  }
+}
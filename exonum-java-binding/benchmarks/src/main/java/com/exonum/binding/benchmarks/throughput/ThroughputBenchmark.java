@@ -0,0 +1,250 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.exonum.binding.common.message.TransactionMessage;
+import com.exonum.binding.core.blockchain.Block;
+import com.exonum.binding.core.blockchain.Blockchain;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.testkit.TestKit;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An end-to-end throughput benchmark of the Java service runtime. It executes blocks
+ * of signed transactions of the given {@linkplain Workload workload} with the testkit, and
+ * reports the throughput, the transaction latency percentiles, and the time spent in
+ * the phases of transaction processing.
+ *
+ * <p>The phases are read from the {@linkplain RuntimeMetricsScrape runtime metrics}
+ * of the measured blocks:
+ * <ul>
+ *   <li>transaction execution — the time the runtime spends executing the transactions:
+ *   parsing their arguments, the transaction methods and their storage operations
+ *   <li>block hooks — the time of the block hooks of the services, amortized over
+ *   the transactions of a block
+ *   <li>outside of the Java runtime — the rest of the block time: the block creation
+ *   and commit in the core, and the native calls of the runtime adapter
+ * </ul>
+ * The signing time — the time to create and sign the transactions on the client side — is
+ * measured by the benchmark and is not included in the throughput.
+ *
+ * <p>When the {@linkplain NativeCallStatistics native call statistics} are enabled
+ * (e.g., with {@code -Dexonum.runtime.nativeCallStats=calls}), the benchmark also reports
+ * the native calls, the bytes passed through JNI and the native handles created
+ * per transaction. To get a finer split of the execution time, run the benchmark
+ * with a profiler.
+ *
+ * <p>As the testkit commits all transactions of a block at once, the latency of each
+ * transaction is the time to create its block.
+ *
+ * @see ThroughputOptions
+ */
+public final class ThroughputBenchmark {
+
+  private static final double[] PERCENTILES = {50, 90, 99, 100};
+
+  private final TestKit testKit;
+  private final Workload workload;
+  private final ThroughputOptions options;
+
+  private ThroughputBenchmark(TestKit testKit, Workload workload, ThroughputOptions options) {
+    this.testKit = testKit;
+    this.workload = workload;
+    this.options = options;
+  }
+
+  /**
+   * Runs the benchmark with the parameters specified in the system properties.
+   *
+   * @see ThroughputOptions
+   */
+  public static void main(String[] args) {
+    ThroughputOptions options = ThroughputOptions.fromSystemProperties();
+    Workload workload = options.getWorkload().create(ServiceArtifacts.load());
+    TestKit.Builder testKitBuilder = TestKit.builder()
+        .withArtifactsDirectory(options.getArtifactsDir());
+    try (TestKit testKit = workload.configure(testKitBuilder).build()) {
+      ThroughputBenchmark benchmark = new ThroughputBenchmark(testKit, workload, options);
+      benchmark.setUp();
+      Results results = benchmark.run();
+      results.print(System.out);
+    }
+  }
+
+  private void setUp() {
+    Block block = testKit.createBlockWithTransactions(workload.createSetupTransactions());
+    int failures = countFailedCalls(block);
+    checkState(failures == 0, "%s setup transactions failed", failures);
+  }
+
+  private Results run() {
+    Results warmupResults = new Results(1);
+    for (int i = 0; i < options.getWarmupBlocks(); i++) {
+      runBlock(warmupResults);
+    }
+
+    int blocks = options.getBlocks();
+    Results results = new Results(blocks);
+    RuntimeMetricsScrape metricsBefore = RuntimeMetricsScrape.scrape(testKit.getPort());
+    for (int i = 0; i < blocks; i++) {
+      runBlock(results);
+    }
+    RuntimeMetricsScrape metricsAfter = RuntimeMetricsScrape.scrape(testKit.getPort());
+    results.setRuntimeMetrics(metricsBefore, metricsAfter);
+    return results;
+  }
+
+  private void runBlock(Results results) {
+    int batchSize = options.getBatchSize();
+    List<TransactionMessage> transactions = new ArrayList<>(batchSize);
+
+    long signingStart = System.nanoTime();
+    for (int i = 0; i < batchSize; i++) {
+      transactions.add(workload.createTransaction());
+    }
+
+    long blockStart = System.nanoTime();
+    Block block = testKit.createBlockWithTransactions(transactions);
+    long blockEnd = System.nanoTime();
+
+    checkState(block.getNumTransactions() == batchSize,
+        "Block %s has %s transactions instead of %s", block.getHeight(),
+        block.getNumTransactions(), batchSize);
+    results.add(blockStart - signingStart, blockEnd - blockStart, countFailedCalls(block));
+  }
+
+  private int countFailedCalls(Block block) {
+    return testKit.applySnapshot(snapshot -> Blockchain.newInstance(snapshot)
+        .getCallRecords(block.getHeight())
+        .getErrors()
+        .size());
+  }
+
+  /**
+   * The durations of the measured blocks.
+   */
+  private final class Results {
+
+    final long[] signingNanos;
+    final long[] blockNanos;
+    int blocks;
+    int failedCalls;
+    RuntimeMetricsScrape metricsBefore;
+    RuntimeMetricsScrape metricsAfter;
+
+    Results(int capacity) {
+      signingNanos = new long[capacity];
+      blockNanos = new long[capacity];
+    }
+
+    void add(long signing, long block, int failures) {
+      // The warmup results are overwritten
+      int i = blocks % blockNanos.length;
+      signingNanos[i] = signing;
+      blockNanos[i] = block;
+      blocks++;
+      failedCalls += failures;
+    }
+
+    /**
+     * Sets the runtime metrics scraped before and after the measured blocks.
+     */
+    void setRuntimeMetrics(RuntimeMetricsScrape before, RuntimeMetricsScrape after) {
+      metricsBefore = before;
+      metricsAfter = after;
+    }
+
+    /**
+     * Returns the increase of the given runtime metric in the measured blocks.
+     */
+    double metricIncrease(String name) {
+      return metricsAfter.increaseSince(metricsBefore, name);
+    }
+
+    void print(PrintStream out) {
+      int batchSize = options.getBatchSize();
+      Statistics block = Statistics.of(blockNanos);
+      long transactions = (long) block.count() * batchSize;
+      double seconds = block.sum() / 1e9;
+
+      out.printf("Throughput benchmark: %s%n", options);
+      out.printf("Throughput: %.1f tx/s (%d transactions in %.3f s)%n",
+          transactions / seconds, transactions, seconds);
+
+      out.println("Transaction latency (the time to create its block), ms:");
+      for (double p : PERCENTILES) {
+        out.printf("  p%-5s %10.3f%n", formatPercentile(p), toMillis(block.percentile(p)));
+      }
+
+      double executedTransactions =
+          metricIncrease("exonum_java_transaction_duration_seconds_count");
+      double execution = toNanos(
+          metricIncrease("exonum_java_transaction_duration_seconds_sum")) / executedTransactions;
+      double hooks = toNanos(
+          metricIncrease("exonum_java_block_hook_duration_seconds_sum")) / transactions;
+      double outsideOfRuntime = block.mean() / batchSize - execution - hooks;
+      out.println("Phases, mean per transaction, us:");
+      printPhase(out, "signing (client side, not included)",
+          Statistics.of(signingNanos).mean() / batchSize);
+      printPhase(out, "transaction execution", execution);
+      printPhase(out, "block hooks", hooks);
+      printPhase(out, "outside of the Java runtime", outsideOfRuntime);
+
+      double nativeCallTransactions =
+          metricIncrease("exonum_java_transaction_native_calls_count");
+      if (nativeCallTransactions > 0) {
+        out.println("Native calls, mean per transaction:");
+        printNativeMetric(out, "calls",
+            metricIncrease("exonum_java_transaction_native_calls_sum")
+                / nativeCallTransactions);
+        // The bytes histogram has a series per direction, each observed once per transaction
+        printNativeMetric(out, "bytes",
+            metricIncrease("exonum_java_transaction_native_bytes_sum")
+                / nativeCallTransactions);
+        printNativeMetric(out, "handles created and freed",
+            metricIncrease("exonum_java_transaction_native_handles_sum")
+                / nativeCallTransactions);
+      }
+      out.printf("Failed calls: %d%n", failedCalls);
+    }
+
+    private void printNativeMetric(PrintStream out, String metric, double value) {
+      out.printf("  %-42s %10.1f%n", metric, value);
+    }
+
+    private void printPhase(PrintStream out, String phase, double nanos) {
+      out.printf("  %-42s %10.3f%n", phase, nanos / TimeUnit.MICROSECONDS.toNanos(1));
+    }
+
+    private String formatPercentile(double p) {
+      return (p == 100) ? "max" : String.valueOf((int) p);
+    }
+
+    private double toNanos(double seconds) {
+      return seconds * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private double toMillis(long nanos) {
+      return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+}
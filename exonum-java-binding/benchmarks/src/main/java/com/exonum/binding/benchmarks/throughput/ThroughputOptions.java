@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Strings;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * The parameters of a {@linkplain ThroughputBenchmark throughput benchmark} run. They are
+ * specified with the system properties:
+ * <ul>
+ *   <li>{@value #ARTIFACTS_DIR_PROPERTY} — the directory with the service artifacts. Required
+ *   <li>{@value #WORKLOAD_PROPERTY} — the workload: {@code cryptocurrency} (the default)
+ *   or {@code qa}
+ *   <li>{@value #BATCH_SIZE_PROPERTY} — the number of transactions in a block; 1000
+ *   by default
+ *   <li>{@value #BLOCKS_PROPERTY} — the number of measured blocks; 50 by default
+ *   <li>{@value #WARMUP_BLOCKS_PROPERTY} — the number of warmup blocks, which are not
+ *   measured; 20 by default
+ * </ul>
+ */
+final class ThroughputOptions {
+
+  static final String ARTIFACTS_DIR_PROPERTY = "throughput.artifactsDir";
+  static final String WORKLOAD_PROPERTY = "throughput.workload";
+  static final String BATCH_SIZE_PROPERTY = "throughput.batchSize";
+  static final String BLOCKS_PROPERTY = "throughput.blocks";
+  static final String WARMUP_BLOCKS_PROPERTY = "throughput.warmupBlocks";
+
+  private final Path artifactsDir;
+  private final WorkloadType workload;
+  private final int batchSize;
+  private final int blocks;
+  private final int warmupBlocks;
+
+  private ThroughputOptions(Path artifactsDir, WorkloadType workload, int batchSize,
+      int blocks, int warmupBlocks) {
+    checkArgument(batchSize > 0, "batchSize (%s) must be positive", batchSize);
+    checkArgument(blocks > 0, "blocks (%s) must be positive", blocks);
+    checkArgument(warmupBlocks >= 0, "warmupBlocks (%s) must not be negative", warmupBlocks);
+    this.artifactsDir = artifactsDir;
+    this.workload = workload;
+    this.batchSize = batchSize;
+    this.blocks = blocks;
+    this.warmupBlocks = warmupBlocks;
+  }
+
+  /**
+   * Returns the options specified with the system properties.
+   *
+   * @throws IllegalStateException if the required properties are not set
+   * @throws IllegalArgumentException if the properties have invalid values
+   */
+  static ThroughputOptions fromSystemProperties() {
+    Properties properties = System.getProperties();
+    String artifactsDir = properties.getProperty(ARTIFACTS_DIR_PROPERTY);
+    checkState(!Strings.isNullOrEmpty(artifactsDir), "Absent property: %s",
+        ARTIFACTS_DIR_PROPERTY);
+    WorkloadType workload = WorkloadType.valueOf(
+        properties.getProperty(WORKLOAD_PROPERTY, "cryptocurrency").toUpperCase(Locale.ROOT));
+    return new ThroughputOptions(Paths.get(artifactsDir), workload,
+        getInt(properties, BATCH_SIZE_PROPERTY, 1000),
+        getInt(properties, BLOCKS_PROPERTY, 50),
+        getInt(properties, WARMUP_BLOCKS_PROPERTY, 20));
+  }
+
+  private static int getInt(Properties properties, String key, int defaultValue) {
+    String value = properties.getProperty(key);
+    return (value == null) ? defaultValue : Integer.parseInt(value);
+  }
+
+  /** Returns the directory with the service artifacts. */
+  Path getArtifactsDir() {
+    return artifactsDir;
+  }
+
+  /** Returns the type of the workload to run. */
+  WorkloadType getWorkload() {
+    return workload;
+  }
+
+  /** Returns the number of transactions in each block. */
+  int getBatchSize() {
+    return batchSize;
+  }
+
+  /** Returns the number of measured blocks. */
+  int getBlocks() {
+    return blocks;
+  }
+
+  /** Returns the number of warmup blocks. */
+  int getWarmupBlocks() {
+    return warmupBlocks;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("workload=%s, batchSize=%d, blocks=%d, warmupBlocks=%d",
+        workload, batchSize, blocks, warmupBlocks);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+import com.exonum.binding.common.message.TransactionMessage;
+import com.exonum.binding.testkit.TestKit;
+import java.util.List;
+
+/**
+ * A workload of the throughput benchmark: a set of services and a generator
+ * of their transactions.
+ */
+interface Workload {
+
+  /**
+   * Adds the services of this workload to the testkit.
+   *
+   * @param testKit a testkit builder with the artifacts directory set
+   */
+  TestKit.Builder configure(TestKit.Builder testKit);
+
+  /**
+   * Returns the transactions that prepare the service state for the benchmark, e.g., create
+   * the accounts. They are executed in a single block before any benchmark blocks.
+   */
+  List<TransactionMessage> createSetupTransactions();
+
+  /**
+   * Creates the next benchmark transaction. Each transaction must be unique and succeed
+   * if executed after all the previous ones.
+   */
+  TransactionMessage createTransaction();
+}
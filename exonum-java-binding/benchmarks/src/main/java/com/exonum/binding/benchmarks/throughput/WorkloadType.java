@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.throughput;
+
+/**
+ * The workloads of the throughput benchmark.
+ */
+enum WorkloadType {
+  /**
+   * Transfers between the wallets in the cryptocurrency demo service.
+   */
+  CRYPTOCURRENCY {
+    @Override
+    Workload create(ServiceArtifacts artifacts) {
+      return new CryptocurrencyWorkload(artifacts.getArtifactId("cryptocurrency"),
+          artifacts.getArtifactFilename("cryptocurrency"));
+    }
+  },
+  /**
+   * Increments of the counters in the QA service.
+   */
+  QA {
+    @Override
+    Workload create(ServiceArtifacts artifacts) {
+      return new QaWorkload(artifacts.getArtifactId("qa"),
+          artifacts.getArtifactFilename("qa"));
+    }
+  };
+
+  /**
+   * Creates a new workload of this type.
+   */
+  abstract Workload create(ServiceArtifacts artifacts);
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the lifecycle of the native proxies in a scope, e.g., a transaction:
+ * a nested {@link Cleaner} is created, the proxies register their handles in it, and
+ * it destroys them once closed. Compares the proxies registered with a {@link ProxyDestructor}
+ * per proxy against the ones registered with a {@link NativeDestructor} per proxy class.
+ *
+ * <p>The destructors are no-ops, so that the benchmark needs no native library.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CleanerBenchmark {
+
+  private static final LongConsumer DESTRUCTOR_FUNCTION = CleanerBenchmark::nativeFree;
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(CleanerBenchmark.class, DESTRUCTOR_FUNCTION);
+
+  /** The number of proxies created in a scope. */
+  @Param({"8", "64", "512"})
+  int numProxies;
+
+  private Cleaner parent;
+
+  @Setup
+  public void setUp() {
+    parent = new Cleaner("benchmark");
+  }
+
+  @TearDown
+  public void tearDown() throws CloseFailuresException {
+    parent.close();
+  }
+
+  @Benchmark
+  public void proxyDestructors() throws CloseFailuresException {
+    try (Cleaner scope = parent.newNested()) {
+      for (int i = 1; i <= numProxies; i++) {
+        ProxyDestructor.newRegistered(scope, new NativeHandle(i), CleanerBenchmark.class,
+            DESTRUCTOR_FUNCTION);
+      }
+    }
+  }
+
+  @Benchmark
+  public void nativeDestructors() throws CloseFailuresException {
+    try (Cleaner scope = parent.newNested()) {
+      for (int i = 1; i <= numProxies; i++) {
+        scope.add(new NativeHandle(i), DESTRUCTOR);
+      }
+    }
+  }
+
+  private static void nativeFree(long handle) {
+    // Nothing to destroy
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import com.exonum.binding.common.serialization.Serializer;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import com.exonum.binding.core.service.ExecutionContext;
+import com.exonum.binding.core.service.Node;
+import com.exonum.binding.core.service.Service;
+import com.exonum.binding.core.transaction.Transaction;
+import com.google.protobuf.Int64Value;
+import io.vertx.ext.web.Router;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the dispatch of a transaction to its method: the generated handlers
+ * of {@link TransactionInvoker} against the reflective invocation of the method handles,
+ * which the invoker used before.
+ *
+ * <p>The benchmark is in the runtime package to access the package-private invoker.
+ * It needs no native library.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TransactionInvokerBenchmark {
+
+  private static final int RAW_TX_ID = 1;
+  private static final int PROTOBUF_TX_ID = 2;
+
+  /** The type of the transaction arguments. */
+  @Param({"RAW", "PROTOBUF"})
+  ArgumentsType argumentsType;
+
+  private BenchmarkService service;
+  private TransactionInvoker invoker;
+  private Map<Integer, ReflectiveTransactionMethod> reflectiveMethods;
+  private int transactionId;
+  private byte[] arguments;
+  // The transaction methods do not use the context
+  private final ExecutionContext context = null;
+
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    service = new BenchmarkService();
+    invoker = new TransactionInvoker(service);
+    reflectiveMethods = new HashMap<>();
+    reflectiveMethods.put(RAW_TX_ID, ReflectiveTransactionMethod.of(
+        "rawTransaction", byte[].class, StandardSerializers.bytes()));
+    reflectiveMethods.put(PROTOBUF_TX_ID, ReflectiveTransactionMethod.of(
+        "protobufTransaction", Int64Value.class, StandardSerializers.protobuf(Int64Value.class)));
+    transactionId = argumentsType.transactionId;
+    arguments = argumentsType.arguments;
+  }
+
+  @Benchmark
+  public long generatedHandler() {
+    invoker.invokeTransaction(transactionId, arguments, context);
+    return service.sum;
+  }
+
+  @Benchmark
+  public long reflectiveMethodHandle() throws Throwable {
+    // The former dispatch: a boxed-key lookup and a non-exact MethodHandle#invoke
+    if (!reflectiveMethods.containsKey(transactionId)) {
+      throw new IllegalArgumentException("No method with transaction id " + transactionId);
+    }
+    reflectiveMethods.get(transactionId).invoke(service, arguments, context);
+    return service.sum;
+  }
+
+  /**
+   * A type of the transaction arguments.
+   */
+  public enum ArgumentsType {
+    RAW(RAW_TX_ID, new byte[] {1, 2, 3, 4, 5, 6, 7, 8}),
+    PROTOBUF(PROTOBUF_TX_ID, Int64Value.of(123_456_789L).toByteArray());
+
+    final int transactionId;
+    final byte[] arguments;
+
+    ArgumentsType(int transactionId, byte[] arguments) {
+      this.transactionId = transactionId;
+      this.arguments = arguments;
+    }
+  }
+
+  /**
+   * A service with transaction methods that do some trivial work on the arguments.
+   */
+  public static class BenchmarkService implements Service {
+
+    long sum;
+
+    @Transaction(RAW_TX_ID)
+    public void rawTransaction(byte[] arguments, ExecutionContext context) {
+      sum += arguments.length;
+    }
+
+    @Transaction(PROTOBUF_TX_ID)
+    public void protobufTransaction(Int64Value arguments, ExecutionContext context) {
+      sum += arguments.getValue();
+    }
+
+    @Override
+    public void createPublicApiHandlers(Node node, Router router) {
+      // No handlers
+    }
+  }
+
+  private static final class ReflectiveTransactionMethod {
+
+    final MethodHandle methodHandle;
+    final Serializer<?> argumentsSerializer;
+
+    ReflectiveTransactionMethod(MethodHandle methodHandle, Serializer<?> argumentsSerializer) {
+      this.methodHandle = methodHandle;
+      this.argumentsSerializer = argumentsSerializer;
+    }
+
+    static ReflectiveTransactionMethod of(String name, Class<?> argumentsType,
+        Serializer<?> argumentsSerializer) throws ReflectiveOperationException {
+      MethodHandle methodHandle = MethodHandles.publicLookup()
+          .findVirtual(BenchmarkService.class, name,
+              MethodType.methodType(void.class, argumentsType, ExecutionContext.class));
+      return new ReflectiveTransactionMethod(methodHandle, argumentsSerializer);
+    }
+
+    void invoke(Service service, byte[] arguments, ExecutionContext context) throws Throwable {
+      Object argumentsObject = argumentsSerializer.fromBytes(arguments);
+      methodHandle.invoke(service, argumentsObject, context);
+    }
+  }
+}
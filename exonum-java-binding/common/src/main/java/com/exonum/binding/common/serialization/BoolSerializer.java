@@ -18,9 +18,12 @@
 package com.exonum.binding.common.serialization;
 
 import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
 import static com.google.common.base.Preconditions.checkArgument;
 
-enum BoolSerializer implements Serializer<Boolean> {
+import java.nio.ByteBuffer;
+
+enum BoolSerializer implements BufferSerializer<Boolean> {
   INSTANCE;
 
   private static final int BOOLEAN_BYTES = 1;
@@ -42,6 +45,24 @@ enum BoolSerializer implements Serializer<Boolean> {
     return value == BOOLEAN_TRUE;
   }
 
+  @Override
+  public int serializedSize(Boolean value) {
+    return BOOLEAN_BYTES;
+  }
+
+  @Override
+  public void writeTo(Boolean value, ByteBuffer buffer) {
+    buffer.put(value ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+  }
+
+  @Override
+  public Boolean readFrom(ByteBuffer buffer) {
+    checkRemaining(buffer, BOOLEAN_BYTES);
+    byte value = buffer.get();
+    checkArgument(isValidBoolean(value), "%s is not a boolean value", value);
+    return value == BOOLEAN_TRUE;
+  }
+
   private static boolean isValidBoolean(byte value) {
     return value == BOOLEAN_FALSE || value == BOOLEAN_TRUE;
   }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A serializer that can also write values into and read them from byte buffers.
+ *
+ * <p>It allows to pass the serialized values to the native code in reusable direct buffers,
+ * without allocating intermediate byte arrays: the storage proxies use this interface when
+ * both the key and the value serializers implement it. All the {@linkplain StandardSerializers
+ * standard serializers} implement it.
+ *
+ * <p>Implementations <strong>must</strong> produce the same binary representation as
+ * {@link #toBytes(Object)} in {@link #writeTo(Object, ByteBuffer)}, and accept the same
+ * representations in {@link #readFrom(ByteBuffer)} as {@link #fromBytes(byte[])} does.
+ * The byte order of the buffers does not affect the binary representation.
+ *
+ * @param <T> a type of serializable object
+ */
+public interface BufferSerializer<T> extends Serializer<T> {
+
+  /**
+   * Returns the size of the binary representation of the given value in bytes.
+   *
+   * @param value a value to serialize, must not be null
+   * @throws NullPointerException if value is null
+   */
+  int serializedSize(T value);
+
+  /**
+   * Serializes a given value into the buffer, starting at its current position. The position
+   * is advanced by the {@linkplain #serializedSize(Object) size} of the serialized value.
+   *
+   * @param value a value to serialize, must not be null
+   * @param buffer a buffer to write the value to
+   * @throws NullPointerException if value is null
+   * @throws BufferOverflowException if the buffer has not enough remaining space;
+   *     its position is unspecified in this case
+   */
+  void writeTo(T value, ByteBuffer buffer);
+
+  /**
+   * De-serializes a value from the remaining bytes of the given buffer, i.e., from its
+   * current position to its limit. The position is advanced to the limit.
+   *
+   * @param buffer a buffer containing a serialized value of type T
+   * @return a value
+   * @throws IllegalArgumentException if the remaining bytes cannot be decoded into a value
+   *     of type T
+   */
+  T readFrom(ByteBuffer buffer);
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A buffer serializer decorator, that performs some extra checks to ensure that a user-supplied
+ * serializer adheres to {@link BufferSerializer} contract.
+ *
+ * @param <T> a type of serializable object
+ * @see CheckingSerializerDecorator
+ */
+public final class CheckingBufferSerializerDecorator<T> implements BufferSerializer<T> {
+
+  private final BufferSerializer<T> delegate;
+  private final CheckingSerializerDecorator<T> arraySerializer;
+
+  /**
+   * Creates a checking buffer serializer decorator. Will not decorate itself.
+   *
+   * @param serializer a serializer to decorate
+   */
+  public static <T> CheckingBufferSerializerDecorator<T> from(BufferSerializer<T> serializer) {
+    if (serializer instanceof CheckingBufferSerializerDecorator) {
+      return (CheckingBufferSerializerDecorator<T>) serializer;
+    }
+    return new CheckingBufferSerializerDecorator<>(serializer);
+  }
+
+  private CheckingBufferSerializerDecorator(BufferSerializer<T> delegate) {
+    this.delegate = checkNotNull(delegate);
+    this.arraySerializer = CheckingSerializerDecorator.from(delegate);
+  }
+
+  @Override
+  public byte[] toBytes(T value) {
+    return arraySerializer.toBytes(value);
+  }
+
+  @Override
+  public T fromBytes(byte[] serializedValue) {
+    return arraySerializer.fromBytes(serializedValue);
+  }
+
+  @Override
+  public int serializedSize(T value) {
+    int size = delegate.serializedSize(checkNotNull(value, "value is null"));
+    checkState(size >= 0, "Broken serializer (%s): produces a negative size (%s)", delegate,
+        size);
+    return size;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException if the number of written bytes does not match
+   *     the {@linkplain #serializedSize(Object) size} of the serialized value
+   */
+  @Override
+  public void writeTo(T value, ByteBuffer buffer) {
+    checkNotNull(buffer, "buffer is null");
+    int expectedSize = serializedSize(value);
+    if (buffer.remaining() < expectedSize) {
+      throw new BufferOverflowException();
+    }
+    int start = buffer.position();
+    delegate.writeTo(value, buffer);
+    int size = buffer.position() - start;
+    checkState(size == expectedSize, "Broken serializer (%s): writes %s bytes, but the size "
+        + "of the serialized value is %s", delegate, size, expectedSize);
+  }
+
+  @Override
+  public T readFrom(ByteBuffer buffer) {
+    T value = delegate.readFrom(checkNotNull(buffer, "buffer is null"));
+    checkState(value != null, "Broken serializer (%s): produces a null value for a non-null buffer."
+        + " You must throw an exception if a serialized value cannot be converted "
+        + "to an instance of the given type.", delegate);
+    return value;
+  }
+}
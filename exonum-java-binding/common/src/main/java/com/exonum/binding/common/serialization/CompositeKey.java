@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Builds and reads the composite keys: the keys that are concatenations of several components,
+ * each serialized with an {@linkplain OrderedSerializer ordered serializer}.
+ *
+ * <p>The binary representations of the composite keys are in the lexicographical order
+ * of the tuples of their components. A key built of the first several components is
+ * a prefix of the keys with the same first components, which allows to iterate over them
+ * with the prefix or range iteration of the map indexes. For example, an index of
+ * the transfers of each wallet, ordered by the block height, may use the following keys:
+ *
+ * <pre>{@code
+ * byte[] key = transferKey(walletId, height);
+ * transfers.put(key, transfer);
+ *
+ * // Iterate over the transfers of the wallet in the order of the block heights:
+ * byte[] walletPrefix = CompositeKey.builder()
+ *     .add(StandardSerializers.orderedString(), walletId)
+ *     .build();
+ * Iterator<MapEntry<byte[], Transfer>> walletTransfers =
+ *     transfers.entriesWithPrefix(walletPrefix);
+ *
+ * // Iterate over the transfers of the wallet in the given range of heights:
+ * Iterator<MapEntry<byte[], Transfer>> rangeTransfers =
+ *     transfers.entries(transferKey(walletId, fromHeight), transferKey(walletId, toHeight));
+ *
+ * // Read the components of a key:
+ * CompositeKey.Reader reader = CompositeKey.reader(key);
+ * String walletId = reader.next(StandardSerializers.orderedString());
+ * long height = reader.next(StandardSerializers.orderedUint64());
+ *
+ * static byte[] transferKey(String walletId, long height) {
+ *   return CompositeKey.builder()
+ *       .add(StandardSerializers.orderedString(), walletId)
+ *       .add(StandardSerializers.orderedUint64(), height)
+ *       .build();
+ * }
+ * }</pre>
+ *
+ * <p>The composite keys are usually stored in the indexes with the
+ * {@linkplain StandardSerializers#bytes() no-op} key serializer.
+ */
+public final class CompositeKey {
+
+  /**
+   * Returns a new builder of a composite key.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns a reader of the components of the given composite key.
+   *
+   * @param key a composite key
+   */
+  public static Reader reader(byte[] key) {
+    return new Reader(ByteBuffer.wrap(key));
+  }
+
+  /**
+   * A builder of a composite key.
+   */
+  public static final class Builder {
+
+    private final ByteArrayOutputStream key = new ByteArrayOutputStream();
+
+    private Builder() {}
+
+    /**
+     * Appends the next component to the key.
+     *
+     * @param serializer a serializer of the component
+     * @param component the value of the component
+     * @param <T> the type of the component
+     */
+    public <T> Builder add(OrderedSerializer<? super T> serializer, T component) {
+      checkNotNull(serializer);
+      checkNotNull(component);
+      byte[] serialized = serializer.toBytes(component);
+      key.write(serialized, 0, serialized.length);
+      return this;
+    }
+
+    /**
+     * Returns the key made of the components added so far.
+     */
+    public byte[] build() {
+      return key.toByteArray();
+    }
+  }
+
+  /**
+   * A reader of the components of a composite key. The components must be read in the order
+   * they were added, with the same serializers.
+   */
+  public static final class Reader {
+
+    private final ByteBuffer key;
+
+    private Reader(ByteBuffer key) {
+      this.key = key;
+    }
+
+    /**
+     * Reads the next component of the key.
+     *
+     * @param serializer a serializer of the component
+     * @param <T> the type of the component
+     * @throws IllegalArgumentException if the next component cannot be read with the given
+     *     serializer, e.g., if the key has no more components
+     */
+    public <T> T next(OrderedSerializer<T> serializer) {
+      return serializer.readNext(key);
+    }
+
+    /**
+     * Returns true if the key has more components to read.
+     */
+    public boolean hasNext() {
+      return key.hasRemaining();
+    }
+  }
+
+  private CompositeKey() {}
+}
@@ -18,11 +18,14 @@
 package com.exonum.binding.common.serialization;
 
 import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
+import static com.exonum.binding.common.serialization.SerializationUtils.getLongLe;
+import static com.exonum.binding.common.serialization.SerializationUtils.putLongLe;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
-enum DoubleSerializer implements Serializer<Double> {
+enum DoubleSerializer implements BufferSerializer<Double> {
   INSTANCE;
 
   @Override
@@ -42,4 +45,20 @@ enum DoubleSerializer implements Serializer<Double> {
         .getDouble();
   }
 
+  @Override
+  public int serializedSize(Double value) {
+    return Double.BYTES;
+  }
+
+  @Override
+  public void writeTo(Double value, ByteBuffer buffer) {
+    putLongLe(buffer, Double.doubleToRawLongBits(value));
+  }
+
+  @Override
+  public Double readFrom(ByteBuffer buffer) {
+    checkRemaining(buffer, Double.BYTES);
+    return Double.longBitsToDouble(getLongLe(buffer));
+  }
+
 }
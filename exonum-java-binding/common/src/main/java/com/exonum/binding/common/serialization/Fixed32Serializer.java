@@ -18,11 +18,14 @@
 package com.exonum.binding.common.serialization;
 
 import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
+import static com.exonum.binding.common.serialization.SerializationUtils.getIntLe;
+import static com.exonum.binding.common.serialization.SerializationUtils.putIntLe;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
-enum Fixed32Serializer implements Serializer<Integer> {
+enum Fixed32Serializer implements BufferSerializer<Integer> {
   INSTANCE;
 
   @Override
@@ -42,4 +45,20 @@ enum Fixed32Serializer implements Serializer<Integer> {
         .getInt();
   }
 
+  @Override
+  public int serializedSize(Integer value) {
+    return Integer.BYTES;
+  }
+
+  @Override
+  public void writeTo(Integer value, ByteBuffer buffer) {
+    putIntLe(buffer, value);
+  }
+
+  @Override
+  public Integer readFrom(ByteBuffer buffer) {
+    checkRemaining(buffer, Integer.BYTES);
+    return getIntLe(buffer);
+  }
+
 }
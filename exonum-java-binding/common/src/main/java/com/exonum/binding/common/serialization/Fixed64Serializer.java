@@ -18,11 +18,14 @@
 package com.exonum.binding.common.serialization;
 
 import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
+import static com.exonum.binding.common.serialization.SerializationUtils.getLongLe;
+import static com.exonum.binding.common.serialization.SerializationUtils.putLongLe;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
-enum Fixed64Serializer implements Serializer<Long> {
+enum Fixed64Serializer implements BufferSerializer<Long> {
   INSTANCE;
 
   @Override
@@ -42,4 +45,20 @@ enum Fixed64Serializer implements Serializer<Long> {
         .getLong();
   }
 
+  @Override
+  public int serializedSize(Long value) {
+    return Long.BYTES;
+  }
+
+  @Override
+  public void writeTo(Long value, ByteBuffer buffer) {
+    putLongLe(buffer, value);
+  }
+
+  @Override
+  public Long readFrom(ByteBuffer buffer) {
+    checkRemaining(buffer, Long.BYTES);
+    return getLongLe(buffer);
+  }
+
 }
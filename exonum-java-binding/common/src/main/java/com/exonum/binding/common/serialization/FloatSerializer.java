@@ -18,11 +18,14 @@
 package com.exonum.binding.common.serialization;
 
 import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
+import static com.exonum.binding.common.serialization.SerializationUtils.getIntLe;
+import static com.exonum.binding.common.serialization.SerializationUtils.putIntLe;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
-enum FloatSerializer implements Serializer<Float> {
+enum FloatSerializer implements BufferSerializer<Float> {
   INSTANCE;
 
   @Override
@@ -42,4 +45,20 @@ enum FloatSerializer implements Serializer<Float> {
         .getFloat();
   }
 
+  @Override
+  public int serializedSize(Float value) {
+    return Float.BYTES;
+  }
+
+  @Override
+  public void writeTo(Float value, ByteBuffer buffer) {
+    putIntLe(buffer, Float.floatToRawIntBits(value));
+  }
+
+  @Override
+  public Float readFrom(ByteBuffer buffer) {
+    checkRemaining(buffer, Float.BYTES);
+    return Float.intBitsToFloat(getIntLe(buffer));
+  }
+
 }
@@ -17,9 +17,12 @@
 
 package com.exonum.binding.common.serialization;
 
+import static com.exonum.binding.common.serialization.SerializationUtils.readRemaining;
+
 import com.exonum.binding.common.hash.HashCode;
+import java.nio.ByteBuffer;
 
-enum HashCodeSerializer implements Serializer<HashCode> {
+enum HashCodeSerializer implements BufferSerializer<HashCode> {
   INSTANCE;
 
   @Override
@@ -32,4 +35,19 @@ enum HashCodeSerializer implements Serializer<HashCode> {
     return HashCode.fromBytes(serializedValue);
   }
 
+  @Override
+  public int serializedSize(HashCode value) {
+    return value.bits() / Byte.SIZE;
+  }
+
+  @Override
+  public void writeTo(HashCode value, ByteBuffer buffer) {
+    buffer.put(toBytes(value));
+  }
+
+  @Override
+  public HashCode readFrom(ByteBuffer buffer) {
+    return fromBytes(readRemaining(buffer));
+  }
+
 }
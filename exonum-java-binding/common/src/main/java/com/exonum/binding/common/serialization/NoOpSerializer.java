@@ -17,7 +17,11 @@
 
 package com.exonum.binding.common.serialization;
 
-enum NoOpSerializer implements Serializer<byte[]> {
+import static com.exonum.binding.common.serialization.SerializationUtils.readRemaining;
+
+import java.nio.ByteBuffer;
+
+enum NoOpSerializer implements BufferSerializer<byte[]> {
   INSTANCE;
 
   @Override
@@ -30,4 +34,19 @@ enum NoOpSerializer implements Serializer<byte[]> {
     return serializedValue;
   }
 
+  @Override
+  public int serializedSize(byte[] value) {
+    return value.length;
+  }
+
+  @Override
+  public void writeTo(byte[] value, ByteBuffer buffer) {
+    buffer.put(value);
+  }
+
+  @Override
+  public byte[] readFrom(ByteBuffer buffer) {
+    return readRemaining(buffer);
+  }
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemainingAtLeast;
+import static com.exonum.binding.common.serialization.SerializationUtils.getIntBe;
+import static com.exonum.binding.common.serialization.SerializationUtils.putIntBe;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes integers as four bytes in big-endian byte order. The signed variant flips
+ * the sign bit so that the negative values precede the non-negative ones.
+ */
+enum OrderedFixed32Serializer implements OrderedSerializer<Integer> {
+  UNSIGNED(0),
+  SIGNED(Integer.MIN_VALUE);
+
+  private final int mask;
+
+  OrderedFixed32Serializer(int mask) {
+    this.mask = mask;
+  }
+
+  @Override
+  public byte[] toBytes(Integer value) {
+    return ByteBuffer.allocate(Integer.BYTES)
+        .putInt(value ^ mask)
+        .array();
+  }
+
+  @Override
+  public Integer fromBytes(byte[] serializedValue) {
+    checkLength(serializedValue, Integer.BYTES);
+    return readNext(ByteBuffer.wrap(serializedValue));
+  }
+
+  @Override
+  public int serializedSize(Integer value) {
+    return Integer.BYTES;
+  }
+
+  @Override
+  public void writeTo(Integer value, ByteBuffer buffer) {
+    putIntBe(buffer, value ^ mask);
+  }
+
+  @Override
+  public Integer readFrom(ByteBuffer buffer) {
+    checkRemaining(buffer, Integer.BYTES);
+    return readNext(buffer);
+  }
+
+  @Override
+  public Integer readNext(ByteBuffer buffer) {
+    checkRemainingAtLeast(buffer, Integer.BYTES);
+    return getIntBe(buffer) ^ mask;
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemainingAtLeast;
+import static com.exonum.binding.common.serialization.SerializationUtils.getLongBe;
+import static com.exonum.binding.common.serialization.SerializationUtils.putLongBe;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes longs as eight bytes in big-endian byte order. The signed variant flips
+ * the sign bit so that the negative values precede the non-negative ones.
+ */
+enum OrderedFixed64Serializer implements OrderedSerializer<Long> {
+  UNSIGNED(0L),
+  SIGNED(Long.MIN_VALUE);
+
+  private final long mask;
+
+  OrderedFixed64Serializer(long mask) {
+    this.mask = mask;
+  }
+
+  @Override
+  public byte[] toBytes(Long value) {
+    return ByteBuffer.allocate(Long.BYTES)
+        .putLong(value ^ mask)
+        .array();
+  }
+
+  @Override
+  public Long fromBytes(byte[] serializedValue) {
+    checkLength(serializedValue, Long.BYTES);
+    return readNext(ByteBuffer.wrap(serializedValue));
+  }
+
+  @Override
+  public int serializedSize(Long value) {
+    return Long.BYTES;
+  }
+
+  @Override
+  public void writeTo(Long value, ByteBuffer buffer) {
+    putLongBe(buffer, value ^ mask);
+  }
+
+  @Override
+  public Long readFrom(ByteBuffer buffer) {
+    checkRemaining(buffer, Long.BYTES);
+    return readNext(buffer);
+  }
+
+  @Override
+  public Long readNext(ByteBuffer buffer) {
+    checkRemainingAtLeast(buffer, Long.BYTES);
+    return getLongBe(buffer) ^ mask;
+  }
+
+}
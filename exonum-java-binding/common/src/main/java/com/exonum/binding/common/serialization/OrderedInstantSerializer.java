@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+
+/**
+ * Serializes instants as the {@linkplain OrderedFixed64Serializer#SIGNED ordered signed}
+ * seconds since the epoch, followed by the nanoseconds of the second as four bytes
+ * in big-endian byte order.
+ */
+enum OrderedInstantSerializer implements OrderedSerializer<Instant> {
+  INSTANCE;
+
+  private static final int SIZE = Long.BYTES + Integer.BYTES;
+  private static final int NANOS_PER_SECOND = 1_000_000_000;
+
+  @Override
+  public byte[] toBytes(Instant value) {
+    ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+    writeTo(value, buffer);
+    return buffer.array();
+  }
+
+  @Override
+  public Instant fromBytes(byte[] serializedValue) {
+    checkLength(serializedValue, SIZE);
+    return readNext(ByteBuffer.wrap(serializedValue));
+  }
+
+  @Override
+  public int serializedSize(Instant value) {
+    return SIZE;
+  }
+
+  @Override
+  public void writeTo(Instant value, ByteBuffer buffer) {
+    OrderedFixed64Serializer.SIGNED.writeTo(value.getEpochSecond(), buffer);
+    OrderedFixed32Serializer.UNSIGNED.writeTo(value.getNano(), buffer);
+  }
+
+  @Override
+  public Instant readFrom(ByteBuffer buffer) {
+    checkRemaining(buffer, SIZE);
+    return readNext(buffer);
+  }
+
+  @Override
+  public Instant readNext(ByteBuffer buffer) {
+    long seconds = OrderedFixed64Serializer.SIGNED.readNext(buffer);
+    int nanos = OrderedFixed32Serializer.UNSIGNED.readNext(buffer);
+    checkArgument(0 <= nanos && nanos < NANOS_PER_SECOND, "Invalid nanoseconds: %s", nanos);
+    try {
+      return Instant.ofEpochSecond(seconds, nanos);
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Invalid instant", e);
+    }
+  }
+
+}
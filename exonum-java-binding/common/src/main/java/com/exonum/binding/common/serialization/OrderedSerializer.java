@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A serializer that preserves the order of the values: the binary representations,
+ * compared lexicographically as sequences of unsigned bytes, are in the same order as
+ * the values themselves. As the storage iterates over the index keys in the lexicographical
+ * order of their binary representations, the map indexes with the keys serialized by
+ * an ordered serializer iterate over them in the natural order of the keys. That allows
+ * to use the range iteration (e.g., {@code MapIndex#entries(fromKey, toKeyExclusive)})
+ * to answer range queries.
+ *
+ * <p>The binary representations are also <em>self-delimiting</em>: a serializer
+ * can {@linkplain #readNext(ByteBuffer) read} a value from the buffer that has some
+ * other bytes after the value. Such serializers can be used to encode the components
+ * of a {@link CompositeKey}, which then preserves the order of the tuples of components.
+ *
+ * @param <T> a type of serializable object
+ * @see StandardSerializers
+ */
+public interface OrderedSerializer<T> extends BufferSerializer<T> {
+
+  /**
+   * De-serializes a value from the given buffer, starting at its current position.
+   * The position is advanced past the value; unlike {@link #readFrom(ByteBuffer)}, the buffer
+   * may have some remaining bytes after the value.
+   *
+   * @param buffer a buffer containing a serialized value of type T at its current position
+   * @return a value
+   * @throws IllegalArgumentException if the bytes at the current position cannot be decoded
+   *     into a value of type T
+   */
+  T readNext(ByteBuffer buffer);
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.SerializationUtils.checkRemaining;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes strings in UTF-8, escaping each zero byte as {@code 0x00 0x01}
+ * and terminating the string with {@code 0x00 0x00}.
+ *
+ * <p>As the order of UTF-8 byte sequences matches the order of the code points, and
+ * the terminator is less than any escaped or non-zero byte, the binary representations
+ * are in the order of the code points of the strings, with a string preceding any longer one
+ * that it is a prefix of. The order of the code points matches {@link String#compareTo(String)}
+ * unless the strings contain supplementary characters.
+ */
+enum OrderedStringSerializer implements OrderedSerializer<String> {
+  INSTANCE;
+
+  private static final byte ZERO = 0x00;
+  private static final byte ESCAPED_ZERO = 0x01;
+  private static final byte TERMINATOR = 0x00;
+  private static final int TERMINATOR_SIZE = 2;
+
+  @Override
+  public byte[] toBytes(String value) {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.allocate(escapedSize(utf8));
+    writeEscaped(utf8, buffer);
+    return buffer.array();
+  }
+
+  @Override
+  public String fromBytes(byte[] serializedValue) {
+    return readFrom(ByteBuffer.wrap(serializedValue));
+  }
+
+  @Override
+  public int serializedSize(String value) {
+    return escapedSize(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void writeTo(String value, ByteBuffer buffer) {
+    writeEscaped(value.getBytes(StandardCharsets.UTF_8), buffer);
+  }
+
+  @Override
+  public String readFrom(ByteBuffer buffer) {
+    String value = readNext(buffer);
+    checkRemaining(buffer, 0);
+    return value;
+  }
+
+  @Override
+  public String readNext(ByteBuffer buffer) {
+    ByteArrayOutputStream utf8 = new ByteArrayOutputStream(buffer.remaining());
+    while (true) {
+      if (!buffer.hasRemaining()) {
+        throw new IllegalArgumentException("No string terminator in the buffer");
+      }
+      byte b = buffer.get();
+      if (b != ZERO) {
+        utf8.write(b);
+        continue;
+      }
+      if (!buffer.hasRemaining()) {
+        throw new IllegalArgumentException("Truncated string terminator in the buffer");
+      }
+      byte next = buffer.get();
+      if (next == TERMINATOR) {
+        // Reject malformed input, as the standard string serializer does
+        return StringSerializer.INSTANCE.fromBytes(utf8.toByteArray());
+      } else if (next == ESCAPED_ZERO) {
+        utf8.write(ZERO);
+      } else {
+        throw new IllegalArgumentException(
+            String.format("Invalid escape sequence: 0x00 0x%02x", next & 0xFF));
+      }
+    }
+  }
+
+  private static int escapedSize(byte[] utf8) {
+    int size = utf8.length + TERMINATOR_SIZE;
+    for (byte b : utf8) {
+      if (b == ZERO) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  private static void writeEscaped(byte[] utf8, ByteBuffer buffer) {
+    for (byte b : utf8) {
+      buffer.put(b);
+      if (b == ZERO) {
+        buffer.put(ESCAPED_ZERO);
+      }
+    }
+    buffer.put(ZERO)
+        .put(TERMINATOR);
+  }
+}
@@ -17,9 +17,12 @@
 
 package com.exonum.binding.common.serialization;
 
+import static com.exonum.binding.common.serialization.SerializationUtils.readRemaining;
+
 import com.exonum.binding.common.crypto.PrivateKey;
+import java.nio.ByteBuffer;
 
-enum PrivateKeySerializer implements Serializer<PrivateKey> {
+enum PrivateKeySerializer implements BufferSerializer<PrivateKey> {
   INSTANCE;
 
   @Override
@@ -32,4 +35,19 @@ enum PrivateKeySerializer implements Serializer<PrivateKey> {
     return PrivateKey.fromBytes(serializedValue);
   }
 
+  @Override
+  public int serializedSize(PrivateKey value) {
+    return value.size();
+  }
+
+  @Override
+  public void writeTo(PrivateKey value, ByteBuffer buffer) {
+    buffer.put(toBytes(value));
+  }
+
+  @Override
+  public PrivateKey readFrom(ByteBuffer buffer) {
+    return fromBytes(readRemaining(buffer));
+  }
+
 }
@@ -16,6 +16,7 @@
 
 package com.exonum.binding.common.serialization;
 
+import static com.exonum.binding.common.serialization.SerializationUtils.readRemaining;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.protobuf.CodedOutputStream;
@@ -25,6 +26,9 @@ import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
 
 /**
  * A reflective serializer-adapter of protobuf messages.
@@ -34,13 +38,21 @@ import java.lang.invoke.MethodType;
  *
  * @param <MessageT> a type of a protobuf message. Usually, autogenerated with protoc
  */
-class ProtobufReflectiveSerializer<MessageT extends MessageLite> implements Serializer<MessageT> {
+class ProtobufReflectiveSerializer<MessageT extends MessageLite>
+    implements BufferSerializer<MessageT> {
 
   /**
    * The handle to a static `MessageT#parseFrom(byte[]) -> MessageT`.
    */
   private final MethodHandle messageParseFrom;
 
+  /**
+   * The handle to a static `MessageT#parseFrom(ByteBuffer) -> MessageT`, or null if
+   * the message has no such method.
+   */
+  @Nullable
+  private final MethodHandle messageParseFromBuffer;
+
   ProtobufReflectiveSerializer(Class<MessageT> messageType) {
     // As the same message class may be loaded by multiple classloaders (e.g., several PF4J
     // classloaders if several instances of the same artifact are loaded; or PF4J and TestKit
@@ -54,6 +66,19 @@ class ProtobufReflectiveSerializer<MessageT extends MessageLite> implements Seri
       throw new IllegalArgumentException("Invalid message: cannot find public static parseFrom "
           + "method in " + messageType, e);
     }
+    messageParseFromBuffer = findParseFromBuffer(lookup, messageType);
+  }
+
+  @Nullable
+  private static MethodHandle findParseFromBuffer(MethodHandles.Lookup lookup,
+      Class<?> messageType) {
+    try {
+      return lookup.findStatic(messageType, "parseFrom",
+          MethodType.methodType(messageType, ByteBuffer.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      // Messages generated by older protoc versions do not have this method
+      return null;
+    }
   }
 
   @Override
@@ -89,4 +114,45 @@ class ProtobufReflectiveSerializer<MessageT extends MessageLite> implements Seri
       throw new AssertionError("Unexpected exception in MessageT#parseFrom", throwable);
     }
   }
+
+  @Override
+  public int serializedSize(MessageT value) {
+    return value.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(MessageT value, ByteBuffer buffer) {
+    if (buffer.remaining() < value.getSerializedSize()) {
+      throw new BufferOverflowException();
+    }
+    CodedOutputStream output = CodedOutputStream.newInstance(buffer);
+    output.useDeterministicSerialization();
+    try {
+      value.writeTo(output);
+      // Advances the position of the buffer
+      output.flush();
+    } catch (IOException e) {
+      throw new AssertionError("Failed to serialize " + value
+          + " to a byte buffer (should never happen)", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public MessageT readFrom(ByteBuffer buffer) {
+    checkNotNull(buffer);
+    if (messageParseFromBuffer == null) {
+      return fromBytes(readRemaining(buffer));
+    }
+    try {
+      MessageT message = (MessageT) messageParseFromBuffer.invoke(buffer);
+      // MessageT#parseFrom does not advance the position of the buffer
+      buffer.position(buffer.limit());
+      return message;
+    } catch (InvalidProtocolBufferException e) {
+      throw new IllegalArgumentException(e);
+    } catch (Throwable throwable) {
+      throw new AssertionError("Unexpected exception in MessageT#parseFrom", throwable);
+    }
+  }
 }
@@ -17,9 +17,12 @@
 
 package com.exonum.binding.common.serialization;
 
+import static com.exonum.binding.common.serialization.SerializationUtils.readRemaining;
+
 import com.exonum.binding.common.crypto.PublicKey;
+import java.nio.ByteBuffer;
 
-enum PublicKeySerializer implements Serializer<PublicKey> {
+enum PublicKeySerializer implements BufferSerializer<PublicKey> {
   INSTANCE;
 
   @Override
@@ -32,4 +35,19 @@ enum PublicKeySerializer implements Serializer<PublicKey> {
     return PublicKey.fromBytes(serializedValue);
   }
 
+  @Override
+  public int serializedSize(PublicKey value) {
+    return value.size();
+  }
+
+  @Override
+  public void writeTo(PublicKey value, ByteBuffer buffer) {
+    buffer.put(toBytes(value));
+  }
+
+  @Override
+  public PublicKey readFrom(ByteBuffer buffer) {
+    return fromBytes(readRemaining(buffer));
+  }
+
 }
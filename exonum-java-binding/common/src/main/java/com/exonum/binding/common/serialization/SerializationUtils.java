@@ -19,6 +19,9 @@ package com.exonum.binding.common.serialization;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 final class SerializationUtils {
 
   /**
@@ -33,6 +36,104 @@ final class SerializationUtils {
         "Expected an array of size %s, but was %s", length, array.length);
   }
 
+  /**
+   * Performs check that the buffer has the correct number of remaining bytes.
+   *
+   * @param buffer a buffer
+   * @param length expected number of remaining bytes
+   * @throws IllegalArgumentException thrown if the number is incorrect
+   */
+  static void checkRemaining(ByteBuffer buffer, int length) {
+    checkArgument(buffer.remaining() == length,
+        "Expected a buffer with %s remaining bytes, but was %s", length, buffer.remaining());
+  }
+
+  /**
+   * Performs check that the buffer has at least the given number of remaining bytes.
+   *
+   * @param buffer a buffer
+   * @param length the minimal expected number of remaining bytes
+   * @throws IllegalArgumentException thrown if the buffer has fewer remaining bytes
+   */
+  static void checkRemainingAtLeast(ByteBuffer buffer, int length) {
+    checkArgument(buffer.remaining() >= length,
+        "Expected a buffer with at least %s remaining bytes, but was %s", length,
+        buffer.remaining());
+  }
+
+  /**
+   * Reads the remaining bytes of the buffer into a new array.
+   */
+  static byte[] readRemaining(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Writes the integer in little-endian byte order, regardless of the order of the buffer.
+   */
+  static void putIntLe(ByteBuffer buffer, int value) {
+    buffer.putInt(isLittleEndian(buffer) ? value : Integer.reverseBytes(value));
+  }
+
+  /**
+   * Reads an integer in little-endian byte order, regardless of the order of the buffer.
+   */
+  static int getIntLe(ByteBuffer buffer) {
+    int value = buffer.getInt();
+    return isLittleEndian(buffer) ? value : Integer.reverseBytes(value);
+  }
+
+  /**
+   * Writes the long in little-endian byte order, regardless of the order of the buffer.
+   */
+  static void putLongLe(ByteBuffer buffer, long value) {
+    buffer.putLong(isLittleEndian(buffer) ? value : Long.reverseBytes(value));
+  }
+
+  /**
+   * Reads a long in little-endian byte order, regardless of the order of the buffer.
+   */
+  static long getLongLe(ByteBuffer buffer) {
+    long value = buffer.getLong();
+    return isLittleEndian(buffer) ? value : Long.reverseBytes(value);
+  }
+
+  /**
+   * Writes the integer in big-endian byte order, regardless of the order of the buffer.
+   */
+  static void putIntBe(ByteBuffer buffer, int value) {
+    buffer.putInt(isLittleEndian(buffer) ? Integer.reverseBytes(value) : value);
+  }
+
+  /**
+   * Reads an integer in big-endian byte order, regardless of the order of the buffer.
+   */
+  static int getIntBe(ByteBuffer buffer) {
+    int value = buffer.getInt();
+    return isLittleEndian(buffer) ? Integer.reverseBytes(value) : value;
+  }
+
+  /**
+   * Writes the long in big-endian byte order, regardless of the order of the buffer.
+   */
+  static void putLongBe(ByteBuffer buffer, long value) {
+    buffer.putLong(isLittleEndian(buffer) ? Long.reverseBytes(value) : value);
+  }
+
+  /**
+   * Reads a long in big-endian byte order, regardless of the order of the buffer.
+   */
+  static long getLongBe(ByteBuffer buffer) {
+    long value = buffer.getLong();
+    return isLittleEndian(buffer) ? Long.reverseBytes(value) : value;
+  }
+
+  private static boolean isLittleEndian(ByteBuffer buffer) {
+    return buffer.order() == ByteOrder.LITTLE_ENDIAN;
+  }
+
   private SerializationUtils() {
   }
 }
@@ -17,7 +17,9 @@
 
 package com.exonum.binding.common.serialization;
 
-enum Sint32Serializer implements Serializer<Integer> {
+import java.nio.ByteBuffer;
+
+enum Sint32Serializer implements BufferSerializer<Integer> {
   INSTANCE;
 
   private static final Uint32Serializer WRITER = Uint32Serializer.INSTANCE;
@@ -32,6 +34,21 @@ enum Sint32Serializer implements Serializer<Integer> {
     return decodeZigZag32(WRITER.fromBytes(serializedValue));
   }
 
+  @Override
+  public int serializedSize(Integer value) {
+    return WRITER.serializedSize(encodeZigZag32(value));
+  }
+
+  @Override
+  public void writeTo(Integer value, ByteBuffer buffer) {
+    WRITER.writeTo(encodeZigZag32(value), buffer);
+  }
+
+  @Override
+  public Integer readFrom(ByteBuffer buffer) {
+    return decodeZigZag32(WRITER.readFrom(buffer));
+  }
+
   /**
    * Encode a ZigZag-encoded 32-bit value. ZigZag encodes signed integers into values that can be
    * efficiently encoded with varint. (Otherwise, negative values must be sign-extended to 64 bits
@@ -17,7 +17,9 @@
 
 package com.exonum.binding.common.serialization;
 
-enum Sint64Serializer implements Serializer<Long> {
+import java.nio.ByteBuffer;
+
+enum Sint64Serializer implements BufferSerializer<Long> {
   INSTANCE;
 
   private static final Uint64Serializer WRITER = Uint64Serializer.INSTANCE;
@@ -32,6 +34,21 @@ enum Sint64Serializer implements Serializer<Long> {
     return decodeZigZag64(WRITER.fromBytes(serializedValue));
   }
 
+  @Override
+  public int serializedSize(Long value) {
+    return WRITER.serializedSize(encodeZigZag64(value));
+  }
+
+  @Override
+  public void writeTo(Long value, ByteBuffer buffer) {
+    WRITER.writeTo(encodeZigZag64(value), buffer);
+  }
+
+  @Override
+  public Long readFrom(ByteBuffer buffer) {
+    return decodeZigZag64(WRITER.readFrom(buffer));
+  }
+
   /**
    * Encode a ZigZag-encoded 64-bit value. ZigZag encodes signed integers into values that can be
    * efficiently encoded with varint. (Otherwise, negative values must be sign-extended to 64 bits
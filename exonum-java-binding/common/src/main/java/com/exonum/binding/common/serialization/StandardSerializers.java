@@ -22,9 +22,13 @@ import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.message.TransactionMessage;
 import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.MessageLite;
+import java.time.Instant;
 
 /**
  * A collection of pre-defined serializers.
+ *
+ * <p>All the serializers also implement {@link BufferSerializer}, which allows the storage proxies
+ * to pass the serialized values to the native code without intermediate byte arrays.
  */
 public final class StandardSerializers {
 
@@ -123,6 +127,80 @@ public final class StandardSerializers {
     return StringSerializer.INSTANCE;
   }
 
+  /**
+   * Returns an ordered serializer of integers as four bytes in big-endian byte order.
+   * The order of the binary representations matches the
+   * {@linkplain Integer#compareUnsigned(int, int) unsigned} order of the integers,
+   * therefore, this serializer is suitable for the non-negative values.
+   *
+   * @see OrderedSerializer
+   */
+  public static OrderedSerializer<Integer> orderedUint32() {
+    return OrderedFixed32Serializer.UNSIGNED;
+  }
+
+  /**
+   * Returns an ordered serializer of integers as four bytes in big-endian byte order,
+   * with the sign bit flipped. The order of the binary representations matches the
+   * signed order of the integers.
+   *
+   * @see OrderedSerializer
+   */
+  public static OrderedSerializer<Integer> orderedSint32() {
+    return OrderedFixed32Serializer.SIGNED;
+  }
+
+  /**
+   * Returns an ordered serializer of longs as eight bytes in big-endian byte order.
+   * The order of the binary representations matches the
+   * {@linkplain Long#compareUnsigned(long, long) unsigned} order of the longs,
+   * therefore, this serializer is suitable for the non-negative values, e.g., block heights.
+   *
+   * @see OrderedSerializer
+   */
+  public static OrderedSerializer<Long> orderedUint64() {
+    return OrderedFixed64Serializer.UNSIGNED;
+  }
+
+  /**
+   * Returns an ordered serializer of longs as eight bytes in big-endian byte order,
+   * with the sign bit flipped. The order of the binary representations matches the
+   * signed order of the longs.
+   *
+   * @see OrderedSerializer
+   */
+  public static OrderedSerializer<Long> orderedSint64() {
+    return OrderedFixed64Serializer.SIGNED;
+  }
+
+  /**
+   * Returns an ordered serializer of strings in UTF-8, with each zero byte escaped
+   * and a two-byte terminator. The order of the binary representations matches
+   * the order of the code points of the strings, which is the same as
+   * {@linkplain String#compareTo(String) the natural order} unless the strings
+   * contain supplementary characters. Deserializer will reject malformed input.
+   *
+   * <p>Unlike {@link #string()}, this serializer can encode a component of
+   * a {@link CompositeKey} followed by other components.
+   *
+   * @see OrderedSerializer
+   */
+  public static OrderedSerializer<String> orderedString() {
+    return OrderedStringSerializer.INSTANCE;
+  }
+
+  /**
+   * Returns an ordered serializer of instants as twelve bytes: the seconds since the epoch,
+   * serialized as {@link #orderedSint64()}, followed by the nanoseconds of the second
+   * as four bytes in big-endian byte order. The order of the binary representations
+   * matches the order of the instants on the time-line.
+   *
+   * @see OrderedSerializer
+   */
+  public static OrderedSerializer<Instant> orderedInstant() {
+    return OrderedInstantSerializer.INSTANCE;
+  }
+
   /**
    * Returns a serializer of hash codes.
    */
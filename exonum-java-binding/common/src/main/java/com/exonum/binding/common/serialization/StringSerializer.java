@@ -17,14 +17,18 @@
 
 package com.exonum.binding.common.serialization;
 
+import com.google.common.base.Utf8;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 
-enum StringSerializer implements Serializer<String> {
+enum StringSerializer implements BufferSerializer<String> {
   INSTANCE;
 
   @Override
@@ -34,6 +38,37 @@ enum StringSerializer implements Serializer<String> {
 
   @Override
   public String fromBytes(byte[] serializedValue) {
+    return readFrom(ByteBuffer.wrap(serializedValue));
+  }
+
+  @Override
+  public int serializedSize(String value) {
+    try {
+      return Utf8.encodedLength(value);
+    } catch (IllegalArgumentException e) {
+      // Unpaired surrogates, which are replaced when encoded
+      return toBytes(value).length;
+    }
+  }
+
+  @Override
+  public void writeTo(String value, ByteBuffer buffer) {
+    // Replace the malformed input as String#getBytes does
+    CharsetEncoder encoder = StandardCharsets.UTF_8
+        .newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    CoderResult result = encoder.encode(CharBuffer.wrap(value), buffer, true);
+    if (result.isUnderflow()) {
+      result = encoder.flush(buffer);
+    }
+    if (result.isOverflow()) {
+      throw new BufferOverflowException();
+    }
+  }
+
+  @Override
+  public String readFrom(ByteBuffer buffer) {
     try {
       // Since the String(bytes, charset) constructor is specified so that
       // it "… always replaces malformed-input and unmappable-character sequences …",
@@ -49,7 +84,7 @@ enum StringSerializer implements Serializer<String> {
           .onUnmappableCharacter(CodingErrorAction.REPLACE);
 
       // Decode the buffer in a character buffer
-      CharBuffer strBuffer = decoder.decode(ByteBuffer.wrap(serializedValue));
+      CharBuffer strBuffer = decoder.decode(buffer);
       return new String(strBuffer.array(), strBuffer.arrayOffset(), strBuffer.remaining());
     } catch (CharacterCodingException e) {
       throw new IllegalArgumentException("Cannot decode the input", e);
@@ -16,9 +16,12 @@
 
 package com.exonum.binding.common.serialization;
 
+import static com.exonum.binding.common.serialization.SerializationUtils.readRemaining;
+
 import com.exonum.binding.common.message.TransactionMessage;
+import java.nio.ByteBuffer;
 
-enum TransactionMessageSerializer implements Serializer<TransactionMessage> {
+enum TransactionMessageSerializer implements BufferSerializer<TransactionMessage> {
   INSTANCE;
 
   @Override
@@ -31,4 +34,19 @@ enum TransactionMessageSerializer implements Serializer<TransactionMessage> {
     return TransactionMessage.fromBytes(serializedValue);
   }
 
+  @Override
+  public int serializedSize(TransactionMessage value) {
+    return toBytes(value).length;
+  }
+
+  @Override
+  public void writeTo(TransactionMessage value, ByteBuffer buffer) {
+    buffer.put(toBytes(value));
+  }
+
+  @Override
+  public TransactionMessage readFrom(ByteBuffer buffer) {
+    return fromBytes(readRemaining(buffer));
+  }
+
 }
@@ -18,15 +18,17 @@
 package com.exonum.binding.common.serialization;
 
 import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.readRemaining;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Arrays.copyOf;
 
+import com.google.protobuf.CodedOutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
 
-enum Uint32Serializer implements Serializer<Integer> {
+enum Uint32Serializer implements BufferSerializer<Integer> {
   INSTANCE;
 
   private static final int VARINT32_MAX_BYTES = 5;
@@ -88,4 +90,27 @@ enum Uint32Serializer implements Serializer<Integer> {
     }
   }
 
+  @Override
+  public int serializedSize(Integer value) {
+    return CodedOutputStream.computeUInt32SizeNoTag(value);
+  }
+
+  @Override
+  public void writeTo(Integer value, ByteBuffer buffer) {
+    int val = value; // un-box the value
+    while ((val & ~0x7F) != 0) {
+      buffer.put((byte) ((val & 0x7F) | 0x80));
+      val >>>= 7;
+    }
+    buffer.put((byte) val);
+  }
+
+  @Override
+  public Integer readFrom(ByteBuffer buffer) {
+    checkArgument(buffer.remaining() <= VARINT32_MAX_BYTES,
+        "Expected a buffer with less than %s remaining bytes, but was %s",
+        VARINT32_MAX_BYTES, buffer.remaining());
+    return fromBytes(readRemaining(buffer));
+  }
+
 }
@@ -18,15 +18,17 @@
 package com.exonum.binding.common.serialization;
 
 import static com.exonum.binding.common.serialization.SerializationUtils.checkLength;
+import static com.exonum.binding.common.serialization.SerializationUtils.readRemaining;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Arrays.copyOf;
 
+import com.google.protobuf.CodedOutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
 
-enum Uint64Serializer implements Serializer<Long> {
+enum Uint64Serializer implements BufferSerializer<Long> {
   INSTANCE;
 
   private static final int VARINT64_MAX_BYTES = 10;
@@ -108,4 +110,27 @@ enum Uint64Serializer implements Serializer<Long> {
     }
   }
 
+  @Override
+  public int serializedSize(Long value) {
+    return CodedOutputStream.computeUInt64SizeNoTag(value);
+  }
+
+  @Override
+  public void writeTo(Long value, ByteBuffer buffer) {
+    long val = value; // un-box the value
+    while ((val & ~0x7FL) != 0) {
+      buffer.put((byte) (((int) val & 0x7F) | 0x80));
+      val >>>= 7;
+    }
+    buffer.put((byte) val);
+  }
+
+  @Override
+  public Long readFrom(ByteBuffer buffer) {
+    checkArgument(buffer.remaining() <= VARINT64_MAX_BYTES,
+        "Expected a buffer with less than %s remaining bytes, but was %s",
+        VARINT64_MAX_BYTES, buffer.remaining());
+    return fromBytes(readRemaining(buffer));
+  }
+
 }
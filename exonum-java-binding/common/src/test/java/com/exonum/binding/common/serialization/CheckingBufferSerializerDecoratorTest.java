@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+@SuppressWarnings("unchecked") // No type parameters for clarity
+class CheckingBufferSerializerDecoratorTest {
+
+  private BufferSerializer delegateMock;
+
+  private CheckingBufferSerializerDecorator decorator;
+
+  @BeforeEach
+  void setUp() {
+    delegateMock = mock(BufferSerializer.class);
+    decorator = CheckingBufferSerializerDecorator.from(delegateMock);
+  }
+
+  @Test
+  void fromSelf() {
+    assertThat(CheckingBufferSerializerDecorator.from(decorator), sameInstance(decorator));
+  }
+
+  @Test
+  void serializedSize() {
+    Object value = new Object();
+    when(delegateMock.serializedSize(value)).thenReturn(2);
+
+    assertThat(decorator.serializedSize(value), equalTo(2));
+  }
+
+  @Test
+  void serializedSize_NullValue() {
+    assertThrows(NullPointerException.class, () -> decorator.serializedSize(null));
+  }
+
+  @Test
+  void serializedSize_NegativeFromDelegate() {
+    when(delegateMock.serializedSize(any())).thenReturn(-1);
+
+    expectBrokenSerializerException(() -> decorator.serializedSize(new Object()));
+  }
+
+  @Test
+  void writeTo() {
+    Object value = new Object();
+    ByteBuffer buffer = ByteBuffer.allocate(4);
+    when(delegateMock.serializedSize(value)).thenReturn(2);
+    doAnswer(invocation -> buffer.put((byte) 1).put((byte) 2))
+        .when(delegateMock).writeTo(value, buffer);
+
+    decorator.writeTo(value, buffer);
+
+    assertThat(buffer.position(), equalTo(2));
+  }
+
+  @Test
+  void writeTo_InsufficientSpace() {
+    Object value = new Object();
+    ByteBuffer buffer = ByteBuffer.allocate(1);
+    when(delegateMock.serializedSize(value)).thenReturn(2);
+
+    assertThrows(BufferOverflowException.class, () -> decorator.writeTo(value, buffer));
+    verify(delegateMock, never()).writeTo(any(), any());
+  }
+
+  @Test
+  void writeTo_SizeMismatch() {
+    Object value = new Object();
+    ByteBuffer buffer = ByteBuffer.allocate(4);
+    when(delegateMock.serializedSize(value)).thenReturn(2);
+    doAnswer(invocation -> buffer.put((byte) 1))
+        .when(delegateMock).writeTo(value, buffer);
+
+    expectBrokenSerializerException(() -> decorator.writeTo(value, buffer));
+  }
+
+  @Test
+  void readFrom() {
+    Object value = new Object();
+    ByteBuffer buffer = ByteBuffer.allocate(0);
+    when(delegateMock.readFrom(buffer)).thenReturn(value);
+
+    assertThat(decorator.readFrom(buffer), equalTo(value));
+  }
+
+  @Test
+  void readFrom_NullBuffer() {
+    assertThrows(NullPointerException.class, () -> decorator.readFrom(null));
+  }
+
+  @Test
+  void readFrom_NullFromDelegate() {
+    when(delegateMock.readFrom(any())).thenReturn(null);
+
+    expectBrokenSerializerException(() -> decorator.readFrom(ByteBuffer.allocate(0)));
+  }
+
+  private void expectBrokenSerializerException(Executable function) {
+    IllegalStateException thrown = assertThrows(IllegalStateException.class, function);
+    assertThat(thrown.getMessage(), containsString("Broken serializer"));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.orderedInstant;
+import static com.exonum.binding.common.serialization.StandardSerializers.orderedSint64;
+import static com.exonum.binding.common.serialization.StandardSerializers.orderedString;
+import static com.exonum.binding.common.serialization.StandardSerializers.orderedUint64;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.UnsignedBytes;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class CompositeKeyTest {
+
+  @Test
+  void buildEmpty() {
+    byte[] key = CompositeKey.builder().build();
+
+    assertThat(key.length, equalTo(0));
+    assertThat(CompositeKey.reader(key).hasNext(), equalTo(false));
+  }
+
+  @Test
+  void buildConcatenatesComponents() {
+    byte[] key = CompositeKey.builder()
+        .add(orderedString(), "wallet")
+        .add(orderedUint64(), 10L)
+        .build();
+
+    byte[] expected = Bytes.concat(orderedString().toBytes("wallet"),
+        orderedUint64().toBytes(10L));
+    assertThat(key, equalTo(expected));
+  }
+
+  @Test
+  void readComponents() {
+    Instant time = Instant.parse("2020-04-03T10:15:30Z");
+    byte[] key = CompositeKey.builder()
+        .add(orderedString(), "wallet")
+        .add(orderedSint64(), -1L)
+        .add(orderedInstant(), time)
+        .build();
+
+    CompositeKey.Reader reader = CompositeKey.reader(key);
+
+    assertThat(reader.next(orderedString()), equalTo("wallet"));
+    assertThat(reader.next(orderedSint64()), equalTo(-1L));
+    assertThat(reader.hasNext(), equalTo(true));
+    assertThat(reader.next(orderedInstant()), equalTo(time));
+    assertThat(reader.hasNext(), equalTo(false));
+  }
+
+  @Test
+  void readPastTheEnd() {
+    byte[] key = CompositeKey.builder()
+        .add(orderedUint64(), 1L)
+        .build();
+    CompositeKey.Reader reader = CompositeKey.reader(key);
+    reader.next(orderedUint64());
+
+    assertThrows(IllegalArgumentException.class, () -> reader.next(orderedUint64()));
+  }
+
+  @Test
+  void prefixKeyIsPrefix() {
+    byte[] prefix = CompositeKey.builder()
+        .add(orderedString(), "wallet")
+        .build();
+    byte[] key = CompositeKey.builder()
+        .add(orderedString(), "wallet")
+        .add(orderedUint64(), 1L)
+        .build();
+
+    assertThat(Bytes.indexOf(key, prefix), equalTo(0));
+  }
+
+  @Test
+  void preservesOrderOfTuples() {
+    byte[][] keys = {
+        key("a", 2L),
+        key("a", 10L),
+        key("a", 256L),
+        key("aa", 0L),
+        key("b", 1L),
+    };
+
+    for (int i = 1; i < keys.length; i++) {
+      assertThat(UnsignedBytes.lexicographicalComparator().compare(keys[i - 1], keys[i]),
+          lessThan(0));
+    }
+  }
+
+  private static byte[] key(String name, long height) {
+    return CompositeKey.builder()
+        .add(orderedString(), name)
+        .add(orderedUint64(), height)
+        .build();
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.invalidBytesValueTest;
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.orderPreservingTest;
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.roundTripTest;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.exonum.binding.test.Bytes;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class OrderedFixed32SerializerTest {
+
+  @ParameterizedTest
+  @MethodSource("com.exonum.binding.common.serialization.StandardSerializersTestUtils#intValues")
+  void roundTrip(Integer value) {
+    roundTripTest(value, OrderedFixed32Serializer.UNSIGNED);
+    roundTripTest(value, OrderedFixed32Serializer.SIGNED);
+  }
+
+  @Test
+  void unsignedIsBigEndian() {
+    byte[] bytes = OrderedFixed32Serializer.UNSIGNED.toBytes(0x01020304);
+
+    assertThat(bytes, equalTo(Bytes.bytes(1, 2, 3, 4)));
+  }
+
+  @Test
+  void signedFlipsSignBit() {
+    assertThat(OrderedFixed32Serializer.SIGNED.toBytes(0), equalTo(Bytes.bytes(0x80, 0, 0, 0)));
+    assertThat(OrderedFixed32Serializer.SIGNED.toBytes(-1),
+        equalTo(Bytes.bytes(0x7F, 0xFF, 0xFF, 0xFF)));
+  }
+
+  @Test
+  void unsignedPreservesOrder() {
+    List<Integer> values = StandardSerializersTestUtils.intValues()
+        .boxed()
+        .sorted(Integer::compareUnsigned)
+        .distinct()
+        .collect(toList());
+
+    orderPreservingTest(values, OrderedFixed32Serializer.UNSIGNED);
+  }
+
+  @Test
+  void signedPreservesOrder() {
+    List<Integer> values = StandardSerializersTestUtils.intValues()
+        .sorted()
+        .distinct()
+        .boxed()
+        .collect(toList());
+
+    orderPreservingTest(values, OrderedFixed32Serializer.SIGNED);
+  }
+
+  @ParameterizedTest
+  @EnumSource(OrderedFixed32Serializer.class)
+  void deserializeInvalidValue(OrderedFixed32Serializer serializer) {
+    for (byte[] value : invalidInts()) {
+      invalidBytesValueTest(value, serializer);
+    }
+  }
+
+  private static List<byte[]> invalidInts() {
+    return ImmutableList.of(
+        Bytes.bytes(),
+        Bytes.bytes((byte) 0),
+        Bytes.bytes(1, 2, 3),
+        Bytes.bytes(1, 2, 3, 4, 5)
+    );
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.invalidBytesValueTest;
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.orderPreservingTest;
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.roundTripTest;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.exonum.binding.test.Bytes;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class OrderedFixed64SerializerTest {
+
+  @ParameterizedTest
+  @MethodSource("com.exonum.binding.common.serialization.StandardSerializersTestUtils#longValues")
+  void roundTrip(Long value) {
+    roundTripTest(value, OrderedFixed64Serializer.UNSIGNED);
+    roundTripTest(value, OrderedFixed64Serializer.SIGNED);
+  }
+
+  @Test
+  void unsignedIsBigEndian() {
+    byte[] bytes = OrderedFixed64Serializer.UNSIGNED.toBytes(0x0102030405060708L);
+
+    assertThat(bytes, equalTo(Bytes.bytes(1, 2, 3, 4, 5, 6, 7, 8)));
+  }
+
+  @Test
+  void signedFlipsSignBit() {
+    assertThat(OrderedFixed64Serializer.SIGNED.toBytes(0L),
+        equalTo(Bytes.bytes(0x80, 0, 0, 0, 0, 0, 0, 0)));
+    assertThat(OrderedFixed64Serializer.SIGNED.toBytes(-1L),
+        equalTo(Bytes.bytes(0x7F, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF)));
+  }
+
+  @Test
+  void unsignedPreservesOrder() {
+    List<Long> values = StandardSerializersTestUtils.longValues()
+        .boxed()
+        .sorted(Long::compareUnsigned)
+        .distinct()
+        .collect(toList());
+
+    orderPreservingTest(values, OrderedFixed64Serializer.UNSIGNED);
+  }
+
+  @Test
+  void signedPreservesOrder() {
+    List<Long> values = StandardSerializersTestUtils.longValues()
+        .sorted()
+        .distinct()
+        .boxed()
+        .collect(toList());
+
+    orderPreservingTest(values, OrderedFixed64Serializer.SIGNED);
+  }
+
+  @ParameterizedTest
+  @EnumSource(OrderedFixed64Serializer.class)
+  void deserializeInvalidValue(OrderedFixed64Serializer serializer) {
+    for (byte[] value : invalidLongs()) {
+      invalidBytesValueTest(value, serializer);
+    }
+  }
+
+  private static List<byte[]> invalidLongs() {
+    return ImmutableList.of(
+        Bytes.bytes(),
+        Bytes.bytes((byte) 0),
+        Bytes.bytes(1, 2, 3, 4),
+        Bytes.bytes(1, 2, 3, 4, 5, 6, 7),
+        Bytes.bytes(1, 2, 3, 4, 5, 6, 7, 8, 9)
+    );
+  }
+
+}
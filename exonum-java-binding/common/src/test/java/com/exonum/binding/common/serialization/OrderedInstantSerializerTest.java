@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.invalidBytesValueTest;
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.orderPreservingTest;
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.roundTripTest;
+
+import com.exonum.binding.test.Bytes;
+import com.google.common.collect.ImmutableList;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class OrderedInstantSerializerTest {
+
+  private OrderedSerializer<Instant> serializer = OrderedInstantSerializer.INSTANCE;
+
+  @ParameterizedTest
+  @MethodSource("instants")
+  void roundTrip(Instant value) {
+    roundTripTest(value, serializer);
+  }
+
+  @Test
+  void preservesOrder() {
+    orderPreservingTest(instants(), serializer);
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidInstants")
+  void deserializeInvalidValue(byte[] value) {
+    invalidBytesValueTest(value, serializer);
+  }
+
+  private static List<Instant> instants() {
+    return ImmutableList.of(
+        Instant.MIN,
+        Instant.ofEpochSecond(-1, 0),
+        Instant.ofEpochSecond(-1, 999_999_999),
+        Instant.EPOCH,
+        Instant.ofEpochSecond(0, 1),
+        Instant.ofEpochSecond(1, 0),
+        Instant.parse("2020-04-03T10:15:30.123Z"),
+        Instant.MAX
+    );
+  }
+
+  private static List<byte[]> invalidInstants() {
+    return ImmutableList.of(
+        Bytes.bytes(),
+        Bytes.bytes(0x80, 0, 0, 0, 0, 0, 0, 0),
+        Bytes.bytes(0x80, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0),
+        // Nanoseconds out of range
+        Bytes.bytes(0x80, 0, 0, 0, 0, 0, 0, 0, 0x3B, 0x9A, 0xCA, 0x00),
+        // Seconds out of range
+        Bytes.bytes(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0, 0, 0, 0)
+    );
+  }
+
+}
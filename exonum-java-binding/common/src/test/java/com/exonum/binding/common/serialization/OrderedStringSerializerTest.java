@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.serialization;
+
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.invalidBytesValueTest;
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.orderPreservingTest;
+import static com.exonum.binding.common.serialization.StandardSerializersTestUtils.roundTripTest;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+import com.exonum.binding.test.Bytes;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.UnsignedBytes;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class OrderedStringSerializerTest {
+
+  private OrderedSerializer<String> serializer = OrderedStringSerializer.INSTANCE;
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "",
+      "a",
+      "\u0000",
+      "a\u0000b",
+      "\u0000\u0000",
+      "δ", // A two-byte character
+      "🤷", // A four-byte character: a shrug emoji
+      "Iñtërnâtiônàlizætiøn"})
+  void roundTrip(String value) {
+    roundTripTest(value, serializer);
+  }
+
+  @Test
+  void escapesZeroBytes() {
+    byte[] bytes = serializer.toBytes("a\u0000");
+
+    assertThat(bytes, equalTo(Bytes.bytes('a', 0x00, 0x01, 0x00, 0x00)));
+  }
+
+  @Test
+  void preservesOrder() {
+    List<String> values = ImmutableList.of(
+        "",
+        "\u0000",
+        "\u0000\u0000",
+        "\u0001",
+        "a",
+        "a\u0000",
+        "a\u0000a",
+        "a\u0001",
+        "aa",
+        "ab",
+        "b",
+        "δ",
+        "🤷");
+
+    orderPreservingTest(values, serializer);
+  }
+
+  @Test
+  void preservesOrderOfCompositeKeys() {
+    // A shorter string must precede the longer ones regardless of the next components
+    byte[] shorter = CompositeKey.builder()
+        .add(serializer, "a")
+        .add(StandardSerializers.orderedUint32(), -1)
+        .build();
+    byte[] longer = CompositeKey.builder()
+        .add(serializer, "a\u0000")
+        .add(StandardSerializers.orderedUint32(), 0)
+        .build();
+
+    assertThat(UnsignedBytes.lexicographicalComparator().compare(shorter, longer),
+        lessThan(0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidStrings")
+  void deserializeInvalidValue(byte[] value) {
+    invalidBytesValueTest(value, serializer);
+  }
+
+  private static List<byte[]> invalidStrings() {
+    return ImmutableList.of(
+        Bytes.bytes(),
+        Bytes.bytes('a'),
+        Bytes.bytes('a', 0x00),
+        Bytes.bytes('a', 0x00, 0x02),
+        Bytes.bytes(0xFF, 0x00, 0x00), // Malformed UTF-8
+        Bytes.bytes('a', 0x00, 0x00, 'b') // Trailing bytes
+    );
+  }
+
+}
@@ -16,12 +16,17 @@
 
 package com.exonum.binding.common.serialization;
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Stream.concat;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.exonum.binding.test.Bytes;
+import com.google.common.primitives.UnsignedBytes;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
@@ -29,7 +34,10 @@ import java.util.stream.Stream;
 class StandardSerializersTestUtils {
 
   /**
-   * Performs a round trip tests: ObjectT -> Binary -> ObjectT.
+   * Performs a round trip tests: ObjectT -> Binary -> ObjectT. If the serializer is
+   * a {@link BufferSerializer}, also checks that it writes the same bytes to the buffers
+   * and reads them back; if it is an {@link OrderedSerializer}, also checks that it reads
+   * the value followed by other bytes.
    */
   static <ObjectT, SerializerT extends Serializer<ObjectT>> void roundTripTest(
       ObjectT expected, SerializerT serializer) {
@@ -37,13 +45,90 @@ class StandardSerializersTestUtils {
     ObjectT actual = serializer.fromBytes(bytes);
 
     assertThat(actual, equalTo(expected));
+
+    if (serializer instanceof BufferSerializer) {
+      bufferRoundTripTest(expected, bytes, (BufferSerializer<ObjectT>) serializer);
+    }
+    if (serializer instanceof OrderedSerializer) {
+      readNextTest(expected, bytes, (OrderedSerializer<ObjectT>) serializer);
+    }
+  }
+
+  private static <T> void bufferRoundTripTest(T expected, byte[] expectedBytes,
+      BufferSerializer<T> serializer) {
+    assertThat(serializer.serializedSize(expected), equalTo(expectedBytes.length));
+
+    for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      // Write at a non-zero position to check the serializer respects it
+      int offset = 3;
+      ByteBuffer buffer = ByteBuffer.allocateDirect(offset + expectedBytes.length + 5)
+          .order(order);
+      buffer.position(offset);
+      serializer.writeTo(expected, buffer);
+
+      assertThat(buffer.position(), equalTo(offset + expectedBytes.length));
+
+      buffer.flip()
+          .position(offset);
+      ByteBuffer written = buffer.slice();
+      byte[] actualBytes = new byte[written.remaining()];
+      written.duplicate().get(actualBytes);
+      assertThat(actualBytes, equalTo(expectedBytes));
+
+      T actual = serializer.readFrom(written.order(order));
+      assertThat(actual, equalTo(expected));
+      assertThat(written.hasRemaining(), equalTo(false));
+    }
+  }
+
+  private static <T> void readNextTest(T expected, byte[] expectedBytes,
+      OrderedSerializer<T> serializer) {
+    byte[] trailingBytes = Bytes.bytes(0x00, 0x01, 0xFF);
+    ByteBuffer buffer = ByteBuffer.wrap(
+        com.google.common.primitives.Bytes.concat(expectedBytes, trailingBytes));
+
+    T actual = serializer.readNext(buffer);
+
+    assertThat(actual, equalTo(expected));
+    assertThat(buffer.remaining(), equalTo(trailingBytes.length));
   }
 
   /**
-   * Performs check for invalid argument.
+   * Checks that the binary representations of the given values are in the strictly
+   * increasing lexicographical order.
+   *
+   * @param sortedValues the values in the strictly increasing order
+   * @param serializer an ordered serializer
+   */
+  static <T> void orderPreservingTest(List<T> sortedValues, OrderedSerializer<T> serializer) {
+    List<byte[]> serialized = sortedValues.stream()
+        .map(serializer::toBytes)
+        .collect(toList());
+
+    for (int i = 1; i < serialized.size(); i++) {
+      byte[] previous = serialized.get(i - 1);
+      byte[] next = serialized.get(i);
+      assertThat(String.format("%s must precede %s", sortedValues.get(i - 1),
+          sortedValues.get(i)),
+          UnsignedBytes.lexicographicalComparator().compare(previous, next) < 0,
+          equalTo(true));
+    }
+  }
+
+  /**
+   * Performs check for invalid argument. If the serializer is a {@link BufferSerializer},
+   * also checks that it rejects the value in a buffer.
    */
   static <T> void invalidBytesValueTest(byte[] invalidValue, Serializer<T> serializer) {
     assertThrows(IllegalArgumentException.class, () -> serializer.fromBytes(invalidValue));
+
+    if (serializer instanceof BufferSerializer) {
+      BufferSerializer<T> bufferSerializer = (BufferSerializer<T>) serializer;
+      ByteBuffer buffer = ByteBuffer.allocateDirect(invalidValue.length)
+          .put(invalidValue)
+          .flip();
+      assertThrows(IllegalArgumentException.class, () -> bufferSerializer.readFrom(buffer));
+    }
   }
 
   static IntStream intValues() {
@@ -16,8 +16,8 @@
 
 use exonum::{
     blockchain::Blockchain,
-    crypto::{Hash, PublicKey},
-    merkledb::{BinaryValue, Snapshot},
+    crypto::{Hash, PublicKey, HASH_SIZE, PUBLIC_KEY_LENGTH},
+    merkledb::Snapshot,
     runtime::{
         migrations::{InitMigrationError, MigrationScript},
         oneshot,
@@ -30,17 +30,17 @@ use jni::{
     objects::{GlobalRef, JObject, JValue},
     signature::{JavaType, Primitive},
     sys::jint,
-    Executor,
+    Executor, JNIEnv,
 };
 
-use std::fmt;
+use std::{cell::RefCell, collections::HashMap, fmt};
 
 use crate::{
     runtime::{jni_call_default, jni_call_transaction, Error},
     storage::{blockchain_data_from_execution_context, into_erased_access},
     to_handle,
     utils::{jni_cache::runtime_adapter, panic_on_exception, proto_to_java_bytes, unwrap_jni},
-    Node,
+    JniResult, Node,
 };
 use exonum::runtime::InstanceState;
 
@@ -48,6 +48,21 @@ use exonum::runtime::InstanceState;
 const DEFAULT_VALIDATOR_ID: i32 = -1;
 /// Java Runtime ID.
 pub const JAVA_RUNTIME_ID: u32 = RuntimeIdentifier::Java as u32;
+/// The flag of a service that overrides `Service#beforeTransactions`.
+/// See `ServiceWrapper#BEFORE_TRANSACTIONS_HOOK` in the Java code.
+const BEFORE_TRANSACTIONS_HOOK: jint = 1;
+/// The flag of a service that overrides `Service#afterTransactions`.
+const AFTER_TRANSACTIONS_HOOK: jint = 1 << 1;
+/// The size of the transaction info passed to `ServiceRuntimeAdapter#executeTransaction`:
+/// the transaction message hash followed by the author public key.
+/// See `ServiceRuntimeAdapter#TX_INFO_SIZE` in the Java code.
+const TX_INFO_SIZE: usize = HASH_SIZE + PUBLIC_KEY_LENGTH;
+
+thread_local! {
+    /// The buffer passing the transaction info to Java, reused by the transactions
+    /// executed in this thread instead of allocating two Java arrays for each.
+    static TX_INFO_BUFFER: RefCell<Option<TxInfoBuffer>> = RefCell::new(None);
+}
 
 /// A proxy for `ServiceRuntimeAdapter`s.
 #[derive(Clone)]
@@ -55,6 +70,9 @@ pub struct JavaRuntimeProxy {
     exec: Executor,
     runtime_adapter: GlobalRef,
     blockchain: Option<Blockchain>,
+    /// The block hooks the services override, reported by the Java runtime
+    /// when a service status is updated.
+    block_hooks: HashMap<InstanceId, jint>,
 }
 
 impl JavaRuntimeProxy {
@@ -64,9 +82,18 @@ impl JavaRuntimeProxy {
             exec: executor,
             runtime_adapter: adapter,
             blockchain: None,
+            block_hooks: HashMap::new(),
         }
     }
 
+    /// Returns true if the service overrides the given block hook, or if it is unknown
+    /// whether it does, so that the hook shall be called in the Java runtime.
+    fn has_block_hook(&self, instance_id: InstanceId, hook: jint) -> bool {
+        self.block_hooks
+            .get(&instance_id)
+            .map_or(true, |hooks| hooks & hook != 0)
+    }
+
     /// If the current node is a validator, returns its ID, otherwise returns `-1`.
     fn validator_id(snapshot: &dyn Snapshot, pub_key: &PublicKey) -> i32 {
         snapshot
@@ -202,7 +229,7 @@ impl Runtime for JavaRuntimeProxy {
     }
 
     fn update_service_status(&mut self, _snapshot: &dyn Snapshot, state: &InstanceState) {
-        unwrap_jni(self.exec.with_attached(|env| {
+        let hooks = unwrap_jni(self.exec.with_attached(|env| {
             let instance_spec = JObject::from(proto_to_java_bytes(env, &state.spec)?);
             let instance_status =
                 JObject::from(proto_to_java_bytes(env, state.status.as_ref().unwrap())?);
@@ -212,12 +239,13 @@ impl Runtime for JavaRuntimeProxy {
                 env.call_method_unchecked(
                     self.runtime_adapter.as_obj(),
                     runtime_adapter::update_service_status_id(),
-                    JavaType::Primitive(Primitive::Void),
+                    JavaType::Primitive(Primitive::Int),
                     &[JValue::from(instance_spec), JValue::from(instance_status)],
                 ),
-            );
-            Ok(())
+            )
+            .i()
         }));
+        self.block_hooks.insert(state.spec.id, hooks);
     }
 
     fn migrate(
@@ -252,37 +280,46 @@ impl Runtime for JavaRuntimeProxy {
 
         jni_call_transaction(&self.exec, |env| {
             let service_id = context.instance().id as i32;
-            let interface_name = JObject::from(env.new_string(context.interface_name())?);
+            // Most transactions belong to the default interface: pass null instead
+            // of allocating an empty string for each
+            let interface_name = context.interface_name();
+            let interface_name = if interface_name.is_empty() {
+                JObject::null()
+            } else {
+                JObject::from(env.new_string(interface_name)?)
+            };
             let tx_id = method_id as i32;
             let args = JObject::from(env.byte_array_from_slice(arguments)?);
             let blockchain_data_handle =
                 unsafe { blockchain_data_from_execution_context(&context) };
             let caller_id = tx_info.0;
-            let message_hash = tx_info.1.to_bytes();
-            let message_hash = JObject::from(env.byte_array_from_slice(&message_hash)?);
-            let author_pk = tx_info.2.to_bytes();
-            let author_pk = JObject::from(env.byte_array_from_slice(&author_pk)?);
 
-            env.call_method_unchecked(
-                self.runtime_adapter.as_obj(),
-                runtime_adapter::execute_tx_id(),
-                JavaType::Primitive(Primitive::Void),
-                &[
-                    JValue::from(service_id),
-                    JValue::from(interface_name),
-                    JValue::from(tx_id),
-                    JValue::from(args),
-                    JValue::from(blockchain_data_handle),
-                    JValue::from(caller_id as jint),
-                    JValue::from(message_hash),
-                    JValue::from(author_pk),
-                ],
-            )
-            .and_then(JValue::v)
+            with_tx_info_buffer(env, &tx_info.1, &tx_info.2, |tx_info_buffer| {
+                env.call_method_unchecked(
+                    self.runtime_adapter.as_obj(),
+                    runtime_adapter::execute_tx_id(),
+                    JavaType::Primitive(Primitive::Void),
+                    &[
+                        JValue::from(service_id),
+                        JValue::from(interface_name),
+                        JValue::from(tx_id),
+                        JValue::from(args),
+                        JValue::from(blockchain_data_handle),
+                        JValue::from(caller_id as jint),
+                        JValue::from(tx_info_buffer),
+                    ],
+                )
+                .and_then(JValue::v)
+            })
         })
     }
 
     fn before_transactions(&self, context: ExecutionContext) -> Result<(), ExecutionError> {
+        // Skip the JNI call (and the proxies Java creates for it) if the service
+        // does not override the hook
+        if !self.has_block_hook(context.instance().id, BEFORE_TRANSACTIONS_HOOK) {
+            return Ok(());
+        }
         jni_call_transaction(&self.exec, |env| {
             let instance_id = context.instance().id;
             let blockchain_data_handle =
@@ -301,6 +338,9 @@ impl Runtime for JavaRuntimeProxy {
     }
 
     fn after_transactions(&self, context: ExecutionContext) -> Result<(), ExecutionError> {
+        if !self.has_block_hook(context.instance().id, AFTER_TRANSACTIONS_HOOK) {
+            return Ok(());
+        }
         jni_call_transaction(&self.exec, |env| {
             let instance_id = context.instance().id;
             let blockchain_data_handle =
@@ -365,6 +405,52 @@ impl Drop for JavaRuntimeProxy {
     }
 }
 
+/// A direct `ByteBuffer` over the memory owned by this struct, passing the transaction
+/// info to Java.
+struct TxInfoBuffer {
+    memory: Box<[u8; TX_INFO_SIZE]>,
+    buffer: GlobalRef,
+}
+
+impl TxInfoBuffer {
+    fn new(env: &JNIEnv) -> JniResult<Self> {
+        let mut memory = Box::new([0; TX_INFO_SIZE]);
+        // The buffer refers to the heap memory of the box, which does not move
+        // when the box does
+        let buffer = env.new_direct_byte_buffer(&mut memory[..])?;
+        let buffer = env.new_global_ref(buffer)?;
+        Ok(TxInfoBuffer { memory, buffer })
+    }
+
+    fn write(&mut self, message_hash: &Hash, author_pk: &PublicKey) {
+        self.memory[..HASH_SIZE].copy_from_slice(message_hash.as_ref());
+        self.memory[HASH_SIZE..].copy_from_slice(author_pk.as_ref());
+    }
+}
+
+/// Invokes the function with a direct buffer containing the transaction info.
+///
+/// The buffer of the current thread is taken for the duration of the call, so that
+/// a nested call, if any, gets its own buffer. Java must not use the buffer after the call.
+fn with_tx_info_buffer<R, F>(
+    env: &JNIEnv,
+    message_hash: &Hash,
+    author_pk: &PublicKey,
+    f: F,
+) -> JniResult<R>
+where
+    F: FnOnce(JObject) -> JniResult<R>,
+{
+    let mut tx_info = match TX_INFO_BUFFER.with(|buffer| buffer.borrow_mut().take()) {
+        Some(tx_info) => tx_info,
+        None => TxInfoBuffer::new(env)?,
+    };
+    tx_info.write(message_hash, author_pk);
+    let result = f(tx_info.buffer.as_obj());
+    TX_INFO_BUFFER.with(|buffer| *buffer.borrow_mut() = Some(tx_info));
+    result
+}
+
 impl fmt::Debug for JavaRuntimeProxy {
     fn fmt(&self, f: &mut fmt::Formatter) -> fmt::Result {
         write!(f, "JavaRuntimeProxy()")
@@ -0,0 +1,140 @@
+// Copyright 2020 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+use exonum::merkledb::{
+    generic::{ErasedAccess, GenericAccess, GenericRawAccess},
+    Snapshot,
+};
+use jni::{objects::JClass, JNIEnv};
+
+use std::panic;
+
+use crate::{handle, into_erased_access, utils::unwrap_exc_or_default, Handle};
+
+/// Creates an access to the snapshot of the base access (passed as `snapshot_handle`) for
+/// a thread of the concurrent view of that snapshot.
+///
+/// The created access borrows the snapshot instead of sharing its ownership. Hence neither
+/// the created access nor the indexes created with it update the (non-atomic) reference
+/// counter of the owned snapshot, and they may be created, used and destroyed in different
+/// threads concurrently. The snapshot itself is `Sync`. The base access must outlive
+/// the created access, which the Java view guarantees.
+///
+/// Throws exception and returns null if the base access is not snapshot-based.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_database_ConcurrentSnapshotView_nativeCreateThreadAccess(
+    env: JNIEnv,
+    _: JClass,
+    snapshot_handle: Handle,
+) -> Handle {
+    let res = panic::catch_unwind(|| {
+        let access = handle::cast_handle::<ErasedAccess>(snapshot_handle);
+        let thread_access = unsafe { borrow_snapshot(access) };
+        let handle = handle::to_handle(thread_access);
+        Ok(handle)
+    });
+
+    unwrap_exc_or_default(&env, res)
+}
+
+/// Creates an access borrowing the snapshot of the given access.
+///
+/// # Safety
+///
+/// The caller is responsible for the given access to outlive the returned one.
+///
+/// # Panics
+///
+/// Panics if the given access is not snapshot-based.
+unsafe fn borrow_snapshot(access: &ErasedAccess) -> ErasedAccess<'static> {
+    let snapshot: &dyn Snapshot = match access {
+        GenericAccess::Raw(GenericRawAccess::Snapshot(snapshot)) => *snapshot,
+        GenericAccess::Raw(GenericRawAccess::OwnedSnapshot(snapshot)) => snapshot.as_ref(),
+        _ => panic!(
+            "Attempt to create a concurrent view of non-Snapshot access: {:?}",
+            access
+        ),
+    };
+    into_erased_access(snapshot)
+}
+
+#[cfg(test)]
+mod tests {
+    use exonum::merkledb::{
+        access::{Access, AccessExt},
+        Database, Entry, TemporaryDB,
+    };
+
+    use std::rc::Rc;
+
+    use super::*;
+
+    const TEST_ENTRY_NAME: &str = "test";
+    const TEST_VALUE: i32 = 42;
+
+    #[test]
+    fn borrowed_snapshot_reads_same_state() {
+        let db = setup_database();
+        let access = unsafe { into_erased_access(db.snapshot()) };
+
+        let thread_access = unsafe { borrow_snapshot(&access) };
+
+        assert_eq!(Some(TEST_VALUE), entry(thread_access.clone()).get());
+        assert!(!thread_access.is_mutable());
+    }
+
+    #[test]
+    fn borrowed_snapshot_does_not_share_ownership() {
+        let db = setup_database();
+        let snapshot: Rc<dyn Snapshot> = Rc::from(db.snapshot());
+        let access =
+            unsafe { into_erased_access(GenericRawAccess::OwnedSnapshot(Rc::clone(&snapshot))) };
+        assert_eq!(2, Rc::strong_count(&snapshot));
+
+        let thread_access = unsafe { borrow_snapshot(&access) };
+        {
+            let index = entry(thread_access.clone());
+            assert_eq!(Some(TEST_VALUE), index.get());
+            assert_eq!(2, Rc::strong_count(&snapshot));
+        }
+        drop(thread_access);
+
+        assert_eq!(2, Rc::strong_count(&snapshot));
+    }
+
+    #[test]
+    #[should_panic(expected = "non-Snapshot access")]
+    fn borrow_fork_fails() {
+        let db = TemporaryDB::new();
+        let access = unsafe { into_erased_access(db.fork()) };
+
+        let _thread_access = unsafe { borrow_snapshot(&access) };
+    }
+
+    // Creates database with a prepared state.
+    fn setup_database() -> TemporaryDB {
+        let db = TemporaryDB::new();
+        let fork = db.fork();
+        entry(&fork).set(TEST_VALUE);
+        db.merge(fork.into_patch()).unwrap();
+        db
+    }
+
+    fn entry<T>(access: T) -> Entry<T::Base, i32>
+    where
+        T: Access,
+    {
+        access.get_entry(TEST_ENTRY_NAME)
+    }
+}
@@ -22,7 +22,7 @@ use exonum::merkledb::{
 };
 use jni::{
     objects::{JClass, JObject, JString},
-    sys::{jboolean, jbyteArray},
+    sys::{jboolean, jbyteArray, jint},
     JNIEnv,
 };
 
@@ -176,6 +176,25 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_KeySetIndexP
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed batch of the next elements from the iterator. Returns an empty array
+/// when iteration is finished.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_KeySetIndexProxy_nativeIteratorNextBatch(
+    env: JNIEnv,
+    _: JObject,
+    iter_handle: Handle,
+    max_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let iter = handle::cast_handle::<KeyIter>(iter_handle);
+        let batch = utils::pack_batch(iter, max_size as usize, |packed, element| {
+            utils::pack_byte_array(packed, &element)
+        });
+        env.byte_array_from_slice(&batch)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Destroys underlying `KeySetIndex` iterator object and frees memory.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_KeySetIndexProxy_nativeIteratorFree(
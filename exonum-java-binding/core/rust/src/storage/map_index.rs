@@ -21,8 +21,8 @@ use exonum::merkledb::{
     MapIndex,
 };
 use jni::{
-    objects::{JClass, JObject, JString},
-    sys::{jboolean, jbyteArray, jobject},
+    objects::{JByteBuffer, JClass, JObject, JString},
+    sys::{jboolean, jbyteArray, jint, jobject},
     JNIEnv,
 };
 
@@ -102,6 +102,83 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Writes the size of the value identified by the key in the direct `buffer` at the start
+/// of the buffer, followed by the value if it fits in it; or -1 if value is not found.
+/// Returns the value that does not fit in the buffer; or null otherwise.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeGetDirect(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    buffer: JByteBuffer,
+    key_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let buffer = utils::direct_buffer(&env, buffer)?;
+        let value = map.get(utils::buffer_key(buffer, key_size));
+        let overflow = utils::write_optional_value(buffer, value);
+        utils::optional_array_to_java(&env, overflow)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Returns `true` if the map contains a value for the key in the direct `buffer`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeContainsKeyDirect(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    buffer: JByteBuffer,
+    key_size: jint,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let buffer = utils::direct_buffer(&env, buffer)?;
+        let contains = map.contains(utils::buffer_key(buffer, key_size));
+        Ok(contains as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Returns the values identified by the packed `keys` as a packed array. Absent values are
+/// encoded as absent elements of the packed array.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeGetAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    keys: jbyteArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let keys = env.convert_byte_array(keys)?;
+        let keys = utils::unpack_byte_arrays(&keys);
+        let values = keys.iter().map(|key| map.get(key));
+        let values = utils::pack_optional_byte_arrays(values);
+        env.byte_array_from_slice(&values)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Returns `true` if the map contains a value for each of the packed `keys`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeContainsAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    keys: jbyteArray,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let keys = env.convert_byte_array(keys)?;
+        let keys = utils::unpack_byte_arrays(&keys);
+        let contains = keys.iter().all(|key| map.contains(key));
+        Ok(contains as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Returns the pointer to the iterator over a map keys and values.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeCreateEntriesIter(
@@ -170,7 +247,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeKeysFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -187,7 +264,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeValuesFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -219,6 +296,95 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Sets the value identified by the key into the index if there is no value for the key.
+/// Returns the current value if it is present, or null.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativePutIfAbsent(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+    value: jbyteArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        let current = map.get(&key);
+        if current.is_none() {
+            let value = env.convert_byte_array(value)?;
+            map.put(&key, value);
+        }
+        utils::optional_array_to_java(&env, current)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Sets the value identified by the key into the index if there is a value for the key.
+/// Returns the previous value if it is present, or null.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeReplace(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+    value: jbyteArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        let previous = map.get(&key);
+        if previous.is_some() {
+            let value = env.convert_byte_array(value)?;
+            map.put(&key, value);
+        }
+        utils::optional_array_to_java(&env, previous)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Sets the value identified by the key into the index; both are passed
+/// in the direct `buffer`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativePutDirect(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    buffer: JByteBuffer,
+    key_size: jint,
+    value_size: jint,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let buffer = utils::direct_buffer(&env, buffer)?;
+        let (key, value) = utils::buffer_entry(buffer, key_size, value_size);
+        map.put(&key.to_vec(), value.to_vec());
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Sets the packed `entries` into the index. The entries are packed as a sequence
+/// of alternating keys and values.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativePutAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    entries: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let entries = env.convert_byte_array(entries)?;
+        let mut entries = utils::unpack_byte_arrays(&entries).into_iter();
+        while let Some(key) = entries.next() {
+            let value = entries.next().expect("No value for the last key");
+            map.put(&key, value);
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Removes value identified by the `key` from the index.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeRemove(
@@ -236,6 +402,25 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Removes values identified by the packed `keys` from the index.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeRemoveAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    keys: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let keys = env.convert_byte_array(keys)?;
+        for key in utils::unpack_byte_arrays(&keys) {
+            map.remove(&key);
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Clears the index, removing all values.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeClear(
@@ -278,6 +463,30 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed batch of the next entries from the iterator, with keys and values
+/// alternating. Returns an empty array when iteration is finished.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeEntriesIterNextBatch(
+    env: JNIEnv,
+    _: JObject,
+    iter_handle: Handle,
+    max_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let iter_wrapper = handle::cast_handle::<Iter>(iter_handle);
+        let batch = utils::pack_batch(
+            &mut iter_wrapper.iter,
+            max_size as usize,
+            |packed, (key, value)| {
+                utils::pack_byte_array(packed, &key);
+                utils::pack_byte_array(packed, &value);
+            },
+        );
+        env.byte_array_from_slice(&batch)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Destroys the underlying `MapIndex` iterator object and frees memory.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeEntriesIterFree(
@@ -302,6 +511,25 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed batch of the next keys from the keys-iterator. Returns an empty array
+/// when iteration is finished.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeKeysIterNextBatch(
+    env: JNIEnv,
+    _: JObject,
+    iter_handle: Handle,
+    max_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let iter = handle::cast_handle::<KeysIter>(iter_handle);
+        let batch = utils::pack_batch(iter, max_size as usize, |packed, key| {
+            utils::pack_byte_array(packed, &key)
+        });
+        env.byte_array_from_slice(&batch)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Destroys the underlying `MapIndex` keys-iterator object and frees memory.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeKeysIterFree(
@@ -326,6 +554,25 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProx
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed batch of the next values from the values-iterator. Returns an empty array
+/// when iteration is finished.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeValuesIterNextBatch(
+    env: JNIEnv,
+    _: JObject,
+    iter_handle: Handle,
+    max_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let iter = handle::cast_handle::<ValuesIter>(iter_handle);
+        let batch = utils::pack_batch(iter, max_size as usize, |packed, value| {
+            utils::pack_byte_array(packed, &value)
+        });
+        env.byte_array_from_slice(&batch)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Destroys the underlying `MapIndex` values-iterator object and frees memory.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_MapIndexProxy_nativeValuesIterFree(
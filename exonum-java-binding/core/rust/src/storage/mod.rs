@@ -15,6 +15,7 @@
 pub use self::access::*;
 pub use self::blockchain::*;
 pub use self::blockchain_data::*;
+pub use self::concurrent_snapshot_view::*;
 pub use self::key_set_index::*;
 pub use self::list_index::*;
 pub use self::map_index::*;
@@ -36,6 +37,7 @@ use std::sync::Arc;
 mod access;
 mod blockchain;
 mod blockchain_data;
+mod concurrent_snapshot_view;
 mod entry;
 mod fork;
 mod key_set_index;
@@ -80,6 +80,26 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListInd
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed array of the values in the range [from, to). The range must be valid.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListIndexProxy_nativeGetRange(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    from: jlong,
+    to: jlong,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let list = handle::cast_handle::<Index>(list_handle);
+        let mut packed = Vec::new();
+        for value in list.iter_from(from as u64).take((to - from) as usize) {
+            utils::pack_byte_array(&mut packed, &value);
+        }
+        env.byte_array_from_slice(&packed)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Returns the last value or null pointer if the list is empty.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofListIndexProxy_nativeGetLast(
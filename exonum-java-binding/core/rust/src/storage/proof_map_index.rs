@@ -22,8 +22,8 @@ use exonum::merkledb::{
 };
 use exonum_proto::ProtobufConvert;
 use jni::{
-    objects::{GlobalRef, JClass, JMethodID, JObject, JString},
-    sys::{jboolean, jbyteArray, jobject, jobjectArray, JNI_TRUE},
+    objects::{GlobalRef, JByteBuffer, JClass, JMethodID, JObject, JString},
+    sys::{jboolean, jbyteArray, jint, jobject, jobjectArray, JNI_TRUE},
     JNIEnv,
 };
 use protobuf::Message;
@@ -180,6 +180,97 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Writes the size of the value identified by the key in the direct `buffer` at the start
+/// of the buffer, followed by the value if it fits in it; or -1 if value is not found.
+/// Returns the value that does not fit in the buffer; or null otherwise.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeGetDirect(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    buffer: JByteBuffer,
+    key_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let buffer = utils::direct_buffer(&env, buffer)?;
+        let key = utils::buffer_key(buffer, key_size).to_vec();
+        let value = match map {
+            Index::Raw(map) => map.get(&key.to_raw()),
+            Index::Hashed(map) => map.get(&key),
+        };
+        let overflow = utils::write_optional_value(buffer, value);
+        utils::optional_array_to_java(&env, overflow)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Returns `true` if the map contains a value for the key in the direct `buffer`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeContainsKeyDirect(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    buffer: JByteBuffer,
+    key_size: jint,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let buffer = utils::direct_buffer(&env, buffer)?;
+        let key = utils::buffer_key(buffer, key_size).to_vec();
+        let contains = match map {
+            Index::Raw(map) => map.contains(&key.to_raw()),
+            Index::Hashed(map) => map.contains(&key),
+        };
+        Ok(contains as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Returns the values identified by the packed `keys` as a packed array. Absent values are
+/// encoded as absent elements of the packed array.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeGetAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    keys: jbyteArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let keys = env.convert_byte_array(keys)?;
+        let keys = utils::unpack_byte_arrays(&keys);
+        let values: Vec<Option<Value>> = match map {
+            Index::Raw(map) => keys.iter().map(|key| map.get(&key.to_raw())).collect(),
+            Index::Hashed(map) => keys.iter().map(|key| map.get(key)).collect(),
+        };
+        let values = utils::pack_optional_byte_arrays(values);
+        env.byte_array_from_slice(&values)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Returns `true` if the map contains a value for each of the packed `keys`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeContainsAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    keys: jbyteArray,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let keys = env.convert_byte_array(keys)?;
+        let keys = utils::unpack_byte_arrays(&keys);
+        let contains = match map {
+            Index::Raw(map) => keys.iter().all(|key| map.contains(&key.to_raw())),
+            Index::Hashed(map) => keys.iter().all(|key| map.contains(key)),
+        };
+        Ok(contains as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Returns proof that is serialized in protobuf.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeGetProof(
@@ -300,7 +391,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeKeysFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -320,7 +411,7 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeValuesFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -358,6 +449,126 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Sets the value identified by the key into the index if there is no value for the key.
+/// Returns the current value if it is present, or null.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativePutIfAbsent(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+    value: jbyteArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        let current = match map {
+            Index::Raw(map) => {
+                let key = key.to_raw();
+                let current = map.get(&key);
+                if current.is_none() {
+                    map.put(&key, env.convert_byte_array(value)?);
+                }
+                current
+            }
+            Index::Hashed(map) => {
+                let current = map.get(&key);
+                if current.is_none() {
+                    map.put(&key, env.convert_byte_array(value)?);
+                }
+                current
+            }
+        };
+        utils::optional_array_to_java(&env, current)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Sets the value identified by the key into the index if there is a value for the key.
+/// Returns the previous value if it is present, or null.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeReplace(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    key: jbyteArray,
+    value: jbyteArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let key = env.convert_byte_array(key)?;
+        let previous = match map {
+            Index::Raw(map) => {
+                let key = key.to_raw();
+                let previous = map.get(&key);
+                if previous.is_some() {
+                    map.put(&key, env.convert_byte_array(value)?);
+                }
+                previous
+            }
+            Index::Hashed(map) => {
+                let previous = map.get(&key);
+                if previous.is_some() {
+                    map.put(&key, env.convert_byte_array(value)?);
+                }
+                previous
+            }
+        };
+        utils::optional_array_to_java(&env, previous)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Sets the value identified by the key into the index; both are passed
+/// in the direct `buffer`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativePutDirect(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    buffer: JByteBuffer,
+    key_size: jint,
+    value_size: jint,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let buffer = utils::direct_buffer(&env, buffer)?;
+        let (key, value) = utils::buffer_entry(buffer, key_size, value_size);
+        let key = key.to_vec();
+        match map {
+            Index::Raw(map) => map.put(&key.to_raw(), value.to_vec()),
+            Index::Hashed(map) => map.put(&key, value.to_vec()),
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Sets the packed `entries` into the index. The entries are packed as a sequence
+/// of alternating keys and values.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativePutAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    entries: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let entries = env.convert_byte_array(entries)?;
+        let mut entries = utils::unpack_byte_arrays(&entries).into_iter();
+        while let Some(key) = entries.next() {
+            let value = entries.next().expect("No value for the last key");
+            match map {
+                Index::Raw(map) => map.put(&key.to_raw(), value),
+                Index::Hashed(map) => map.put(&key, value),
+            }
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Removes value identified by the `key` from the index.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeRemove(
@@ -378,6 +589,28 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Removes values identified by the packed `keys` from the index.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeRemoveAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    keys: jbyteArray,
+) {
+    let res = panic::catch_unwind(|| {
+        let map = handle::cast_handle::<Index>(map_handle);
+        let keys = env.convert_byte_array(keys)?;
+        for key in utils::unpack_byte_arrays(&keys) {
+            match map {
+                Index::Raw(map) => map.remove(&key.to_raw()),
+                Index::Hashed(map) => map.remove(&key),
+            }
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
 /// Removes all entries of the map.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeClear(
@@ -432,6 +665,36 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed batch of the next entries from the iterator, with keys and values
+/// alternating. Returns an empty array when iteration is finished.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeEntriesIterNextBatch(
+    env: JNIEnv,
+    _: JObject,
+    iter_handle: Handle,
+    max_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let max_size = max_size as usize;
+        let batch = match *handle::cast_handle::<Iter>(iter_handle) {
+            Iter::Raw(ref mut wrapper) => {
+                utils::pack_batch(&mut wrapper.iter, max_size, |packed, (key, value)| {
+                    utils::pack_byte_array(packed, &key[..]);
+                    utils::pack_byte_array(packed, &value);
+                })
+            }
+            Iter::Hashed(ref mut wrapper) => {
+                utils::pack_batch(&mut wrapper.iter, max_size, |packed, (key, value)| {
+                    utils::pack_byte_array(packed, &key);
+                    utils::pack_byte_array(packed, &value);
+                })
+            }
+        };
+        env.byte_array_from_slice(&batch)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Destroys the underlying `ProofMapIndex` iterator object and frees memory.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeEntriesIterFree(
@@ -459,6 +722,30 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed batch of the next keys from the keys-iterator. Returns an empty array
+/// when iteration is finished.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeKeysIterNextBatch(
+    env: JNIEnv,
+    _: JObject,
+    iter_handle: Handle,
+    max_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let max_size = max_size as usize;
+        let batch = match *handle::cast_handle::<KeysIter>(iter_handle) {
+            KeysIter::Raw(ref mut iter) => utils::pack_batch(iter, max_size, |packed, key| {
+                utils::pack_byte_array(packed, &key[..])
+            }),
+            KeysIter::Hashed(ref mut iter) => utils::pack_batch(iter, max_size, |packed, key| {
+                utils::pack_byte_array(packed, &key)
+            }),
+        };
+        env.byte_array_from_slice(&batch)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Destroys the underlying `ProofMapIndex` keys-iterator object and frees memory.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeKeysIterFree(
@@ -483,6 +770,25 @@ pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapInde
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the packed batch of the next values from the values-iterator. Returns an empty array
+/// when iteration is finished.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeValuesIterNextBatch(
+    env: JNIEnv,
+    _: JObject,
+    iter_handle: Handle,
+    max_size: jint,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let iter = handle::cast_handle::<ValuesIter>(iter_handle);
+        let batch = utils::pack_batch(iter, max_size as usize, |packed, value| {
+            utils::pack_byte_array(packed, &value)
+        });
+        env.byte_array_from_slice(&batch)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Destroys the underlying `ProofMapIndex` values-iterator object and frees memory.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_core_storage_indices_ProofMapIndexProxy_nativeValuesIterFree(
@@ -0,0 +1,147 @@
+// Copyright 2020 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+//! Access to the direct byte buffers that pass the keys and values of the indexes
+//! without intermediate Java arrays.
+//!
+//! A buffer holds a key at offset zero, followed by a value for the write operations.
+//! The read operations write the size of the value at offset zero, followed by the value.
+//! See `DirectBufferCodec` in the Java code for the counterpart of these functions.
+
+use std::convert::TryFrom;
+
+use jni::{objects::JByteBuffer, sys::jint, JNIEnv};
+
+use crate::JniResult;
+
+/// The value size written for Java when there is no value.
+const ABSENT_VALUE_SIZE: jint = -1;
+
+/// The size of the header preceding a value, which holds the size of the value
+/// as a big-endian `jint`.
+const VALUE_SIZE_HEADER: usize = 4;
+
+/// Returns the contents of the direct `buffer`.
+pub fn direct_buffer<'a>(env: &'a JNIEnv, buffer: JByteBuffer) -> JniResult<&'a mut [u8]> {
+    env.get_direct_buffer_address(buffer)
+}
+
+/// Returns the key of the given size at the start of the buffer.
+///
+/// Panics if the size is invalid.
+pub fn buffer_key(buffer: &[u8], key_size: jint) -> &[u8] {
+    &buffer[..to_size(key_size, buffer.len())]
+}
+
+/// Returns the key and the value of the given sizes at the start of the buffer.
+///
+/// Panics if the sizes are invalid.
+pub fn buffer_entry(buffer: &[u8], key_size: jint, value_size: jint) -> (&[u8], &[u8]) {
+    let key_size = to_size(key_size, buffer.len());
+    let value_size = to_size(value_size, buffer.len() - key_size);
+    let (key, rest) = buffer.split_at(key_size);
+    (key, &rest[..value_size])
+}
+
+/// Writes the size of the value at the start of the buffer, followed by the value if it fits
+/// in the buffer. Writes `ABSENT_VALUE_SIZE` if there is no value.
+///
+/// Returns the value that does not fit, so that it is passed to Java as an array instead.
+///
+/// Panics if the buffer is smaller than the header with the value size.
+pub fn write_optional_value<B: AsRef<[u8]>>(buffer: &mut [u8], value: Option<B>) -> Option<B> {
+    let (header, rest) = buffer.split_at_mut(VALUE_SIZE_HEADER);
+    match value {
+        Some(value) => {
+            let value_size = value.as_ref().len();
+            let size = jint::try_from(value_size).expect("Too big value");
+            header.copy_from_slice(&size.to_be_bytes());
+            if value_size <= rest.len() {
+                rest[..value_size].copy_from_slice(value.as_ref());
+                None
+            } else {
+                Some(value)
+            }
+        }
+        None => {
+            header.copy_from_slice(&ABSENT_VALUE_SIZE.to_be_bytes());
+            None
+        }
+    }
+}
+
+fn to_size(size: jint, max_size: usize) -> usize {
+    let size = usize::try_from(size).expect("Negative size");
+    assert!(
+        size <= max_size,
+        "Invalid size: {}, but only {} bytes available in the buffer",
+        size,
+        max_size
+    );
+    size
+}
+
+#[cfg(test)]
+mod tests {
+    use super::*;
+    use crate::utils::assert_panics;
+
+    #[test]
+    fn buffer_key_of_valid_size() {
+        let buffer = [1, 2, 3, 4];
+        assert_eq!(buffer_key(&buffer, 2), &[1, 2]);
+    }
+
+    #[test]
+    fn buffer_key_exceeding_buffer() {
+        assert_panics("Invalid size", || buffer_key(&[1, 2], 3));
+    }
+
+    #[test]
+    fn buffer_entry_of_valid_sizes() {
+        let buffer = [1, 2, 3, 4, 5];
+        let (key, value) = buffer_entry(&buffer, 1, 3);
+        assert_eq!(key, &[1]);
+        assert_eq!(value, &[2, 3, 4]);
+    }
+
+    #[test]
+    fn buffer_entry_exceeding_buffer() {
+        assert_panics("Invalid size", || buffer_entry(&[1, 2, 3], 2, 2));
+    }
+
+    #[test]
+    fn write_present_value() {
+        let mut buffer = [0; 7];
+        let overflow = write_optional_value(&mut buffer, Some(vec![7, 8]));
+        assert_eq!(overflow, None);
+        assert_eq!(buffer, [0, 0, 0, 2, 7, 8, 0]);
+    }
+
+    #[test]
+    fn write_value_not_fitting() {
+        let mut buffer = [0; 5];
+        let overflow = write_optional_value(&mut buffer, Some(vec![7, 8]));
+        assert_eq!(overflow, Some(vec![7, 8]));
+        assert_eq!(buffer, [0, 0, 0, 2, 0]);
+    }
+
+    #[test]
+    fn write_absent_value() {
+        let mut buffer = [0; 4];
+        let overflow = write_optional_value(&mut buffer, None::<Vec<u8>>);
+        assert_eq!(overflow, None);
+        assert_eq!(buffer, [0xFF; 4]);
+    }
+}
@@ -131,13 +131,13 @@ unsafe fn cache_methods(env: &JNIEnv) {
         &env,
         SERVICE_RUNTIME_ADAPTER_CLASS,
         "updateServiceStatus",
-        "([B[B)V",
+        "([B[B)I",
     );
     RUNTIME_ADAPTER_EXECUTE_TX = get_method_id(
         &env,
         SERVICE_RUNTIME_ADAPTER_CLASS,
         "executeTransaction",
-        "(ILjava/lang/String;I[BJI[B[B)V",
+        "(ILjava/lang/String;I[BJILjava/nio/ByteBuffer;)V",
     );
     RUNTIME_ADAPTER_BEFORE_TRANSACTIONS = get_method_id(
         &env,
@@ -16,6 +16,7 @@
 
 #![deny(non_snake_case)]
 
+pub use self::buffers::{buffer_entry, buffer_key, direct_buffer, write_optional_value};
 pub use self::conversion::{
     convert_hash, convert_to_hash, convert_to_index_address, convert_to_string,
     java_arrays_to_rust, optional_array_to_java, proto_to_java_bytes,
@@ -26,11 +27,14 @@ pub use self::errors::{
     unwrap_jni_verbose,
 };
 pub use self::jni::{get_class_name, get_exception_message};
+pub use self::packed::{pack_batch, pack_byte_array, pack_optional_byte_arrays, unpack_byte_arrays};
 
+mod buffers;
 mod conversion;
 mod errors;
 mod jni;
 pub mod jni_cache;
+mod packed;
 
 /// Asserts that given closure panics while executed and the resulting error message contains given
 /// substring.
@@ -0,0 +1,177 @@
+// Copyright 2020 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+//! Conversions of the packed byte arrays used by the bulk index operations
+//! and the batched index iterators.
+//!
+//! A packed array is a sequence of elements, each prefixed with its length as a big-endian
+//! 32-bit signed integer. A negative length denotes an absent element that has no bytes.
+//! See `PackedArrays` in the Java code for the counterpart of these functions.
+
+use std::convert::TryFrom;
+
+const LENGTH_BYTES: usize = 4;
+const ABSENT_LENGTH: i32 = -1;
+/// The size of a batch in bytes after which no more elements are added to it.
+const MAX_BATCH_BYTES: usize = 1 << 20;
+
+/// Splits the packed array into its elements.
+///
+/// Panics if the array is malformed or contains absent elements.
+pub fn unpack_byte_arrays(packed: &[u8]) -> Vec<Vec<u8>> {
+    let mut elements = Vec::new();
+    let mut rest = packed;
+    while !rest.is_empty() {
+        assert!(
+            rest.len() >= LENGTH_BYTES,
+            "Truncated element length in the packed array"
+        );
+        let (length, tail) = rest.split_at(LENGTH_BYTES);
+        let length = decode_length(length);
+        let length = usize::try_from(length).expect("Absent element in the packed array");
+        assert!(
+            tail.len() >= length,
+            "Truncated element in the packed array: expected {} bytes, but only {} left",
+            length,
+            tail.len()
+        );
+        let (element, tail) = tail.split_at(length);
+        elements.push(element.to_vec());
+        rest = tail;
+    }
+    elements
+}
+
+/// Packs the optional elements into a single array, encoding `None` as an absent element.
+pub fn pack_optional_byte_arrays<I, B>(elements: I) -> Vec<u8>
+where
+    I: IntoIterator<Item = Option<B>>,
+    B: AsRef<[u8]>,
+{
+    let mut packed = Vec::new();
+    for element in elements {
+        match element {
+            Some(element) => pack_byte_array(&mut packed, element.as_ref()),
+            None => packed.extend_from_slice(&ABSENT_LENGTH.to_be_bytes()),
+        }
+    }
+    packed
+}
+
+/// Appends the element to the packed array.
+pub fn pack_byte_array(packed: &mut Vec<u8>, element: &[u8]) {
+    let length = i32::try_from(element.len()).expect("Too big element to pack");
+    packed.extend_from_slice(&length.to_be_bytes());
+    packed.extend_from_slice(element);
+}
+
+/// Packs a batch of the next elements of the iterator, using `pack_element` to append
+/// each element to the packed array.
+///
+/// The batch contains at most `max_count` elements; it is also completed as soon as its size
+/// exceeds `MAX_BATCH_BYTES`, so that large values do not produce huge batches. A batch
+/// is empty only if the iterator is exhausted.
+pub fn pack_batch<I, F>(iter: &mut I, max_count: usize, mut pack_element: F) -> Vec<u8>
+where
+    I: Iterator,
+    F: FnMut(&mut Vec<u8>, I::Item),
+{
+    let mut packed = Vec::new();
+    for element in iter.take(max_count) {
+        pack_element(&mut packed, element);
+        if packed.len() >= MAX_BATCH_BYTES {
+            break;
+        }
+    }
+    packed
+}
+
+fn decode_length(bytes: &[u8]) -> i32 {
+    let mut length = [0; LENGTH_BYTES];
+    length.copy_from_slice(bytes);
+    i32::from_be_bytes(length)
+}
+
+#[cfg(test)]
+mod tests {
+    use super::*;
+    use crate::utils::assert_panics;
+
+    #[test]
+    fn unpack_empty() {
+        assert!(unpack_byte_arrays(&[]).is_empty());
+    }
+
+    #[test]
+    fn unpack_several() {
+        let packed = [0, 0, 0, 1, 10, 0, 0, 0, 0, 0, 0, 0, 2, 20, 21];
+        let expected = vec![vec![10], vec![], vec![20, 21]];
+        assert_eq!(unpack_byte_arrays(&packed), expected);
+    }
+
+    #[test]
+    fn unpack_truncated_length() {
+        assert_panics("Truncated element length", || unpack_byte_arrays(&[0, 0]));
+    }
+
+    #[test]
+    fn unpack_truncated_element() {
+        assert_panics("Truncated element", || {
+            unpack_byte_arrays(&[0, 0, 0, 2, 10])
+        });
+    }
+
+    #[test]
+    fn unpack_absent() {
+        assert_panics("Absent element", || {
+            unpack_byte_arrays(&[0xFF, 0xFF, 0xFF, 0xFF])
+        });
+    }
+
+    #[test]
+    fn pack_optional() {
+        let elements = vec![Some(vec![10]), None, Some(vec![])];
+        let expected = vec![0, 0, 0, 1, 10, 0xFF, 0xFF, 0xFF, 0xFF, 0, 0, 0, 0];
+        assert_eq!(pack_optional_byte_arrays(elements), expected);
+    }
+
+    #[test]
+    fn pack_batch_takes_at_most_max_count() {
+        let mut iter = vec![vec![1], vec![2], vec![3]].into_iter();
+
+        let batch = pack_batch(&mut iter, 2, |packed, e| pack_byte_array(packed, &e));
+
+        assert_eq!(batch, vec![0, 0, 0, 1, 1, 0, 0, 0, 1, 2]);
+        assert_eq!(iter.next(), Some(vec![3]));
+    }
+
+    #[test]
+    fn pack_batch_stops_at_max_bytes() {
+        let mut iter = vec![vec![0; MAX_BATCH_BYTES], vec![1]].into_iter();
+
+        let batch = pack_batch(&mut iter, 10, |packed, e| pack_byte_array(packed, &e));
+
+        assert_eq!(batch.len(), LENGTH_BYTES + MAX_BATCH_BYTES);
+        assert_eq!(iter.next(), Some(vec![1]));
+    }
+
+    #[test]
+    fn pack_batch_of_exhausted_iter() {
+        let mut iter = Vec::<Vec<u8>>::new().into_iter();
+
+        let batch = pack_batch(&mut iter, 10, |packed, e| pack_byte_array(packed, &e));
+
+        assert!(batch.is_empty());
+    }
+}
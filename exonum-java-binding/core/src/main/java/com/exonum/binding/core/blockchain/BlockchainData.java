@@ -17,17 +17,21 @@
 package com.exonum.binding.core.blockchain;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.exonum.binding.core.blockchain.proofs.IndexProof;
 import com.exonum.binding.core.proxy.AbstractNativeProxy;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
+import com.exonum.binding.core.proxy.ProxyScope;
 import com.exonum.binding.core.runtime.DispatcherSchema;
 import com.exonum.binding.core.runtime.ServiceInstanceSpec;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Prefixed;
 import com.exonum.binding.core.storage.database.RoErasedAccess;
+import com.exonum.binding.core.storage.indices.WriteBackCache;
 import com.exonum.binding.core.util.LibraryLoader;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.Optional;
@@ -57,8 +61,12 @@ public final class BlockchainData extends AbstractNativeProxy {
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(BlockchainData.class, BlockchainData::nativeFree);
+
   private final Cleaner cleaner;
   @Nullable private Prefixed executingServiceAccess;
+  @Nullable private WriteBackCache writeBackCache;
 
   private BlockchainData(NativeHandle handle, Cleaner cleaner) {
     super(handle);
@@ -85,7 +93,24 @@ public final class BlockchainData extends AbstractNativeProxy {
    */
   @VisibleForTesting
   public static BlockchainData fromRawAccess(AbstractAccess baseAccess, String serviceName) {
-    Cleaner cleaner = baseAccess.getCleaner();
+    return fromRawAccess(baseAccess, baseAccess.getCleaner(), serviceName);
+  }
+
+  /**
+   * Creates a BlockchainData for the service with the given name, registering it
+   * in the given cleaner. The cleaner is typically {@linkplain Cleaner#newNested() nested}
+   * in the cleaner of the base access so that the BlockchainData and the indexes created
+   * with it can be destroyed before the base access.
+   *
+   * @param baseAccess the base database access, must be a "RawAccess"
+   * @param cleaner a cleaner to destroy the native peer and any dependent objects;
+   *     must not be closed later than the cleaner of the base access
+   * @param serviceName a service instance name
+   */
+  public static BlockchainData fromRawAccess(AbstractAccess baseAccess, Cleaner cleaner,
+      String serviceName) {
+    checkNotNull(cleaner);
+    NativeCallStatistics.recordCall(BlockchainData.class, "create");
     long bdNativeHandle = nativeCreate(baseAccess.getAccessNativeHandle(), serviceName);
     return fromHandleInternal(bdNativeHandle, cleaner);
   }
@@ -98,13 +123,22 @@ public final class BlockchainData extends AbstractNativeProxy {
    */
   private static BlockchainData fromHandleInternal(long bdNativeHandle, Cleaner cleaner) {
     NativeHandle handle = new NativeHandle(bdNativeHandle);
-    ProxyDestructor.newRegistered(cleaner, handle, BlockchainData.class,
-        BlockchainData::nativeFree);
+    cleaner.add(handle, DESTRUCTOR);
     return new BlockchainData(handle, cleaner);
   }
 
   private static native void nativeFree(long bdNativeHandle);
 
+  /**
+   * Returns the native handle of this BlockchainData, checking that it is used
+   * in the {@linkplain ProxyScope scope} of its cleaner, if any.
+   */
+  @Override
+  protected long getNativeHandle() {
+    cleaner.getScope().ifPresent(ProxyScope::checkActive);
+    return super.getNativeHandle();
+  }
+
   /**
    * Returns the database access for the data of the current executing service.
    *
@@ -121,14 +155,55 @@ public final class BlockchainData extends AbstractNativeProxy {
     // pooling works for read-write-based Accesses.
     if (executingServiceAccess == null) {
       long nativeHandle = getNativeHandle();
+      recordNativeCall("getExecutingServiceAccess");
       long prefixedHandle = nativeGetExecutingServiceAccess(nativeHandle);
-      executingServiceAccess = Prefixed.fromHandle(prefixedHandle, cleaner);
+      executingServiceAccess = (writeBackCache == null)
+          ? Prefixed.fromHandle(prefixedHandle, cleaner)
+          : Prefixed.fromHandle(prefixedHandle, cleaner, writeBackCache);
     }
     return executingServiceAccess;
   }
 
+  /**
+   * Enables the write-back cache of the indexes of the executing service data.
+   * The map indexes created with the {@linkplain #getExecutingServiceData() executing service
+   * access} will keep the values they read and buffer the modifications in Java.
+   *
+   * <p>The caller is responsible for {@linkplain WriteBackCache#flush() flushing} the cache
+   * once the modifications are complete, or for {@linkplain WriteBackCache#discard() discarding}
+   * it if the modifications must be rolled back. The cache must not be used after
+   * this BlockchainData is closed.
+   *
+   * <p>The buffered modifications are invisible to the other accesses to the database.
+   * Therefore, the cache is flushed each time this BlockchainData creates another access
+   * (e.g., in {@link #findServiceData(String)} or {@link #getBlockchain()}), so that it
+   * sees the modifications made so far. The modifications made after that become visible
+   * to such an access on the next flush only.
+   *
+   * @return the write-back cache
+   * @throws IllegalStateException if the cache is already enabled, or the executing
+   *     service access is already created
+   */
+  public WriteBackCache enableWriteBackCache() {
+    checkState(writeBackCache == null, "The write-back cache is already enabled");
+    checkState(executingServiceAccess == null,
+        "Cannot enable the write-back cache: the executing service access is already created");
+    writeBackCache = new WriteBackCache();
+    return writeBackCache;
+  }
+
   private static native long nativeGetExecutingServiceAccess(long bdNativeHandle);
 
+  /**
+   * Writes the modifications buffered in the write-back cache, if it is enabled, to
+   * the database, so that they are visible to the other accesses.
+   */
+  private void flushWriteBackCache() {
+    if (writeBackCache != null) {
+      writeBackCache.flush();
+    }
+  }
+
   /**
    * Returns a <em>readonly</em> database access for the data of the service instance with
    * the given name, if it is started; or {@code Optional.empty} if no such service started.
@@ -140,6 +215,8 @@ public final class BlockchainData extends AbstractNativeProxy {
    * @param serviceName the name of the service instance to which data to provide access
    */
   public Optional<Prefixed> findServiceData(String serviceName) {
+    flushWriteBackCache();
+    recordNativeCall("findServiceData");
     long prefixedHandle = nativeFindServiceData(getNativeHandle(), serviceName);
     if (prefixedHandle == NativeHandle.INVALID_NATIVE_HANDLE) {
       return Optional.empty();
@@ -167,6 +244,7 @@ public final class BlockchainData extends AbstractNativeProxy {
    * @see Blockchain#createIndexProof(String)
    */
   public IndexProof createIndexProof(String simpleIndexName) {
+    recordNativeCall("getServiceName");
     String serviceName = nativeGetServiceName(getNativeHandle());
     String fullIndexName = serviceName + "." + simpleIndexName;
     return getBlockchain().createIndexProof(fullIndexName);
@@ -190,6 +268,8 @@ public final class BlockchainData extends AbstractNativeProxy {
   }
 
   private RoErasedAccess getUnstructuredAccess() {
+    flushWriteBackCache();
+    recordNativeCall("getUnstructuredAccess");
     long roAccessHandle = nativeGetUnstructuredAccess(getNativeHandle());
     return RoErasedAccess.fromHandle(roAccessHandle, cleaner);
   }
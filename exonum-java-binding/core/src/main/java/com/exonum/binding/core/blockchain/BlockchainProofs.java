@@ -16,6 +16,7 @@
 
 package com.exonum.binding.core.blockchain;
 
+import com.exonum.binding.core.proxy.NativeCallStatistics;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
 import com.exonum.messages.core.Proofs.BlockProof;
@@ -40,7 +41,9 @@ final class BlockchainProofs {
    * @param height the height of the block
    */
   static BlockProof createBlockProof(Access access, long height) {
+    NativeCallStatistics.recordCall(BlockchainProofs.class, "createBlockProof");
     byte[] blockProof = nativeCreateBlockProof(access.getAccessNativeHandle(), height);
+    NativeCallStatistics.recordBytesFromNative(blockProof);
     try {
       return BlockProof.parseFrom(blockProof);
     } catch (InvalidProtocolBufferException e) {
@@ -58,8 +61,10 @@ final class BlockchainProofs {
     // IndexProof for non-existent index is not supported because it doesn't make sense
     // to combine a proof from an uninitialized index (which is not aggregated) with
     // a proof of absence in the aggregating collection.
-    return Optional
-        .ofNullable(nativeCreateIndexProof(snapshot.getAccessNativeHandle(), fullIndexName))
+    NativeCallStatistics.recordCall(BlockchainProofs.class, "createIndexProof");
+    byte[] indexProof = nativeCreateIndexProof(snapshot.getAccessNativeHandle(), fullIndexName);
+    NativeCallStatistics.recordBytesFromNative(indexProof);
+    return Optional.ofNullable(indexProof)
         .map(proof -> {
           try {
             return IndexProof.parseFrom(proof);
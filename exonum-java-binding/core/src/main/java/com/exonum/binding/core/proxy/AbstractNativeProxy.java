@@ -43,6 +43,16 @@ public abstract class AbstractNativeProxy {
     return nativeHandle.get();
   }
 
+  /**
+   * Records a native call of this proxy in the {@link NativeCallStatistics}, if they
+   * are enabled. The proxies call it right before each native method, except destructors.
+   *
+   * @param operation the name of the native operation
+   */
+  protected final void recordNativeCall(String operation) {
+    NativeCallStatistics.recordCall(getClass(), operation);
+  }
+
   /**
    * Returns true if this proxy has a valid native handle.
    */
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A stack of the clean actions of a {@link Cleaner}. It keeps either a clean action
+ * or a native handle with the id of its {@linkplain NativeDestructor destructor} in each entry,
+ * stored in the parallel arrays, so that registering a native proxy allocates nothing.
+ *
+ * <p>The stacks are pooled: a closed cleaner {@linkplain #release() releases} its stack
+ * to a pool of the current thread, and a new cleaner {@linkplain #acquire() acquires} one
+ * from it, so that the arrays are reused across the scopes (e.g., transactions) processed
+ * by the thread.
+ *
+ * <p>This class is not thread-safe; a stack is owned by a single cleaner, which guards
+ * its access.
+ */
+final class CleanActionStack {
+
+  /** The destructor id of the entries that are clean actions. */
+  private static final int CLEAN_ACTION_ID = -1;
+
+  private static final int INITIAL_CAPACITY = 16;
+  /**
+   * The maximum capacity of a stack returned to the pool. Larger stacks are discarded so that
+   * a single large scope does not keep its arrays for the lifetime of the thread.
+   */
+  static final int MAX_POOLED_CAPACITY = 1024;
+  /**
+   * The maximum number of stacks in the pool of a thread. Several stacks are needed
+   * as the thread may use nested cleaners.
+   */
+  static final int MAX_POOLED_STACKS = 8;
+
+  private static final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+  private Object[] entries;
+  private int[] destructorIds;
+  private int size;
+
+  private CleanActionStack() {
+    entries = new Object[INITIAL_CAPACITY];
+    destructorIds = new int[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  /**
+   * Returns an empty stack from the pool of the current thread, or a new stack if the pool
+   * is empty.
+   */
+  static CleanActionStack acquire() {
+    CleanActionStack stack = pools.get().poll();
+    return (stack != null) ? stack : new CleanActionStack();
+  }
+
+  /**
+   * Returns this empty stack to the pool of the current thread. The stack must no longer be used
+   * by its owner.
+   */
+  void release() {
+    checkState(isEmpty(), "Cannot release a non-empty stack (size=%s)", size);
+    if (entries.length <= MAX_POOLED_CAPACITY) {
+      pools.get().offer(this);
+    }
+  }
+
+  /** Pushes a clean action. */
+  void push(CleanAction<?> cleanAction) {
+    push(cleanAction, CLEAN_ACTION_ID);
+  }
+
+  /** Pushes a native handle, destroyed with the given destructor. */
+  void push(NativeHandle nativeHandle, NativeDestructor destructor) {
+    push(nativeHandle, destructor.getId());
+  }
+
+  private void push(Object entry, int destructorId) {
+    if (size == entries.length) {
+      int newCapacity = 2 * size;
+      entries = Arrays.copyOf(entries, newCapacity);
+      destructorIds = Arrays.copyOf(destructorIds, newCapacity);
+    }
+    entries[size] = entry;
+    destructorIds[size] = destructorId;
+    size++;
+  }
+
+  /**
+   * Removes the topmost occurrence of the given clean action, shifting the entries above it.
+   *
+   * @return true if the stack contained the clean action
+   */
+  boolean remove(CleanAction<?> cleanAction) {
+    // The actions pushed recently, which are the most likely to be removed,
+    // are at the top of the stack
+    for (int i = size - 1; i >= 0; i--) {
+      if (destructorIds[i] == CLEAN_ACTION_ID && cleanAction.equals(entries[i])) {
+        int numMoved = size - i - 1;
+        System.arraycopy(entries, i + 1, entries, i, numMoved);
+        System.arraycopy(destructorIds, i + 1, destructorIds, i, numMoved);
+        size--;
+        entries[size] = null;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Performs the topmost entry without removing it: runs the clean action, or destroys
+   * the native handle.
+   *
+   * @throws IllegalStateException if the stack is empty
+   * @throws Exception if the clean action or the destructor fails
+   */
+  void cleanTop() throws Exception {
+    checkState(!isEmpty(), "Empty stack");
+    int top = size - 1;
+    int destructorId = destructorIds[top];
+    if (destructorId == CLEAN_ACTION_ID) {
+      ((CleanAction<?>) entries[top]).clean();
+    } else {
+      NativeDestructor.forId(destructorId)
+          .destroy((NativeHandle) entries[top]);
+    }
+  }
+
+  /**
+   * Returns a description of the topmost entry: the clean action, or the native handle
+   * with its destructor.
+   *
+   * @throws IllegalStateException if the stack is empty
+   */
+  Object describeTop() {
+    checkState(!isEmpty(), "Empty stack");
+    int top = size - 1;
+    int destructorId = destructorIds[top];
+    if (destructorId == CLEAN_ACTION_ID) {
+      return entries[top];
+    } else {
+      return NativeDestructor.forId(destructorId) + " of " + entries[top];
+    }
+  }
+
+  /**
+   * Removes the topmost entry.
+   *
+   * @throws IllegalStateException if the stack is empty
+   */
+  void pop() {
+    checkState(!isEmpty(), "Empty stack");
+    size--;
+    entries[size] = null;
+  }
+
+  /** Returns the number of entries in this stack. */
+  int size() {
+    return size;
+  }
+
+  /** Returns true if this stack is empty. */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns a view of the resource types of the entries, from the topmost one: the resource
+   * type of a clean action, if any, or the class of the proxy of a native handle.
+   */
+  List<Object> resourceTypes() {
+    return new AbstractList<Object>() {
+      @Override
+      public Object get(int index) {
+        int i = size - 1 - index;
+        int destructorId = destructorIds[i];
+        if (destructorId == CLEAN_ACTION_ID) {
+          return ((CleanAction<?>) entries[i]).resourceType()
+              .map(Object.class::cast)
+              .orElse("Unknown");
+        } else {
+          return NativeDestructor.forId(destructorId).getProxyClass();
+        }
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * A pool of the stacks of a thread.
+   */
+  private static final class Pool {
+    final CleanActionStack[] stacks = new CleanActionStack[MAX_POOLED_STACKS];
+    int size = 0;
+
+    CleanActionStack poll() {
+      if (size == 0) {
+        return null;
+      }
+      size--;
+      CleanActionStack stack = stacks[size];
+      stacks[size] = null;
+      return stack;
+    }
+
+    void offer(CleanActionStack stack) {
+      if (size < stacks.length) {
+        stacks[size] = stack;
+        size++;
+      }
+    }
+  }
+}
@@ -17,13 +17,14 @@
 package com.exonum.binding.core.proxy;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.MoreObjects;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -37,9 +38,25 @@ import org.apache.logging.log4j.Logger;
  * <p>The context might have a description of its origin so that it can be identified
  * for a particular context.
  *
+ * <p>A context may have {@linkplain #newNested(String) nested} contexts, which allow to destroy
+ * the proxies created in some scope (e.g., in a single service handler) as soon as the scope
+ * is exited, while the objects registered in the parent context remain valid.
+ * A nested context may have a {@linkplain ProxyScope scope}, which restricts the use
+ * of the proxies registered in it to a single thread.
+ *
+ * <p>The native proxies that are not removed from the context before it is closed shall
+ * register their handles with a {@linkplain #add(NativeHandle, NativeDestructor) destructor}
+ * of their class, which allocates no clean action. The context stores the registered handles
+ * and clean actions in arrays that are reused by the contexts subsequently created
+ * in the same thread.
+ *
  * <p>All method arguments are non-null by default.
  *
- * <p>This class is not thread-safe.
+ * <p>The clean actions may be {@linkplain #add(CleanAction) registered} and
+ * {@linkplain #remove(CleanAction) removed} by several threads concurrently, so that the proxies
+ * of the native objects can be created by several threads with the same access
+ * (e.g., the native iterators of a parallel stream over a snapshot). The context must not be
+ * closed concurrently with its use.
  *
  * @see <a href="https://github.com/exonum/exonum-java-binding/wiki/Native-peers-management-approaches">
  *   Discussion of various approaches to the management of native peers</a>
@@ -57,8 +74,22 @@ public final class Cleaner implements AutoCloseable {
   private static final int TOO_MANY_CLEAN_ACTIONS_LOG_THRESHOLD = 1000;
   private static final int TOO_MANY_CLEAN_ACTIONS_LOG_FREQUENCY = 100;
 
-  private final Deque<CleanAction<?>> registeredCleanActions;
+  private static final String NESTED_CONTEXT_RESOURCE_TYPE = "Nested Cleaner";
+
+  /**
+   * The registered clean actions; null once this context is closed, as the stack
+   * is returned to the pool.
+   */
+  @Nullable private CleanActionStack registeredCleanActions;
   private final String description;
+  @Nullable private final Cleaner parent;
+  /**
+   * An action closing this context when it is performed by the parent context;
+   * null if there is no parent context.
+   */
+  @Nullable private final CleanAction<String> closeAction;
+  /** The scope of the proxies registered in this context; null if they are not scoped. */
+  @Nullable private final ProxyScope scope;
   private boolean closed;
 
   /**
@@ -75,13 +106,85 @@ public final class Cleaner implements AutoCloseable {
    *                    and is included in {@link #toString()}
    */
   public Cleaner(String description) {
-    registeredCleanActions = new ArrayDeque<>();
+    this(description, null, null);
+  }
+
+  private Cleaner(String description, @Nullable Cleaner parent, @Nullable ProxyScope scope) {
+    registeredCleanActions = CleanActionStack.acquire();
     this.description = checkNotNull(description);
+    this.parent = parent;
+    closeAction = (parent != null)
+        ? CleanAction.from(this::closeByParent, NESTED_CONTEXT_RESOURCE_TYPE)
+        : null;
+    this.scope = scope;
     closed = false;
   }
 
+  /**
+   * Creates a new nested context with no (an empty) description.
+   *
+   * @see #newNested(String)
+   */
+  public Cleaner newNested() {
+    return newNested("");
+  }
+
+  /**
+   * Creates a new context nested in this one. The nested context can be closed independently
+   * of this context, destroying only the objects registered in it. If this context is closed
+   * first, it closes the nested context before performing its own clean actions registered
+   * earlier than the nested context.
+   *
+   * <p>The nested context is typically used to limit the lifetime of the proxies depending
+   * on some long-living object registered in the parent context:
+   * <pre>{@code
+   * try (Cleaner scope = snapshot.getCleaner().newNested("afterCommit")) {
+   *   BlockchainData data = BlockchainData.fromRawAccess(snapshot, scope, serviceName);
+   *   // Use the data
+   * } // The data and the indexes created with it are destroyed here; the snapshot remains
+   * }</pre>
+   *
+   * <p>The nested context has the scope of this context, if any.
+   *
+   * @param description a description of the nested context
+   * @throws IllegalStateException if this context is closed
+   */
+  public Cleaner newNested(String description) {
+    return newNestedInternal(description, scope);
+  }
+
+  /**
+   * Creates a new context nested in this one, with the given scope of the proxies.
+   * The proxies registered in the nested context, and in any context nested in it,
+   * may be used only when the scope is {@linkplain ProxyScope#checkActive() active}.
+   *
+   * @param description a description of the nested context
+   * @param scope the scope of the proxies registered in the nested context
+   * @throws IllegalStateException if this context is closed
+   * @see #newNested(String)
+   */
+  public Cleaner newNested(String description, ProxyScope scope) {
+    return newNestedInternal(description, checkNotNull(scope));
+  }
+
+  private synchronized Cleaner newNestedInternal(String description,
+      @Nullable ProxyScope scope) {
+    checkState(!closed, "Cannot create a nested context of a closed context (%s)", this);
+    Cleaner nested = new Cleaner(description, this, scope);
+    registeredCleanActions.push(nested.closeAction);
+    return nested;
+  }
+
+  /**
+   * Returns the scope of the proxies registered in this context, or {@code Optional.empty()}
+   * if they are not scoped.
+   */
+  public Optional<ProxyScope> getScope() {
+    return Optional.ofNullable(scope);
+  }
+
   /** Returns true if this cleaner is closed. */
-  public boolean isClosed() {
+  public synchronized boolean isClosed() {
     return closed;
   }
 
@@ -93,7 +196,8 @@ public final class Cleaner implements AutoCloseable {
    *
    * @throws IllegalStateException if it’s attempted to add a clean action to a closed context
    */
-  public void add(CleanAction<?> cleanAction) {
+  public synchronized void add(CleanAction<?> cleanAction) {
+    checkNotNull(cleanAction, "cleanAction");
     if (closed) {
       // To avoid possible leaks, perform the clean action before throwing IllegalStateException.
       Throwable cleanActionError = null;
@@ -120,29 +224,79 @@ public final class Cleaner implements AutoCloseable {
     logIfTooManyCleaners();
   }
 
+  /**
+   * Registers the native handle of a proxy with this context, so that the native peer
+   * is destroyed with the given destructor when this context is closed. If the context
+   * is already closed, the native peer will be destroyed immediately.
+   *
+   * <p>Unlike clean actions, the registered handles cannot be {@linkplain #remove(CleanAction)
+   * removed} from the context.
+   *
+   * @param nativeHandle a handle of the native peer of the proxy
+   * @param destructor a destructor of the native peers of the proxy class
+   *
+   * @throws IllegalStateException if it’s attempted to add a handle to a closed context
+   */
+  public synchronized void add(NativeHandle nativeHandle, NativeDestructor destructor) {
+    checkNotNull(nativeHandle, "nativeHandle");
+    checkNotNull(destructor, "destructor");
+    NativeCallStatistics.recordHandleCreated(destructor.getProxyClass());
+    if (closed) {
+      // To avoid possible leaks, destroy the native peer before throwing IllegalStateException.
+      Throwable destructorError = null;
+      try {
+        destructor.destroy(nativeHandle);
+      } catch (Throwable t) {
+        logCleanActionFailure(destructor + " of " + nativeHandle, t);
+        destructorError = t;
+      }
+
+      String message = String.format("Cannot register a native handle (%s) with its destructor "
+          + "(%s) in a closed context", nativeHandle, destructor);
+      RuntimeException e = new IllegalStateException(message);
+      if (destructorError != null) {
+        e.addSuppressed(destructorError);
+      }
+      throw e;
+    }
+
+    registeredCleanActions.push(nativeHandle, destructor);
+
+    logIfTooManyCleaners();
+  }
+
+  /**
+   * Removes the clean action from this context without performing it. It is used when
+   * the resource has been released before the context is closed, so that the context
+   * no longer keeps the clean action till it is closed. If the context is closed,
+   * does nothing.
+   *
+   * @param cleanAction a clean action registered in this context
+   * @return true if the clean action was registered in this context and has been removed
+   */
+  public synchronized boolean remove(CleanAction<?> cleanAction) {
+    checkNotNull(cleanAction);
+    if (closed) {
+      return false;
+    }
+    return registeredCleanActions.remove(cleanAction);
+  }
+
   private void logIfTooManyCleaners() {
-    int numRegisteredCleaners = getNumRegisteredActions();
+    // Called with the lock held and when this context is not closed
+    int numRegisteredCleaners = registeredCleanActions.size();
 
     if ((numRegisteredCleaners >= TOO_MANY_CLEAN_ACTIONS_LOG_THRESHOLD)
         && (numRegisteredCleaners % TOO_MANY_CLEAN_ACTIONS_LOG_FREQUENCY == 0)) {
 
-      String proxiesByTypeFrequency =
-          FrequencyStatsFormatter.itemsFrequency(registeredCleanActions, Cleaner::getActionType);
+      String proxiesByTypeFrequency = FrequencyStatsFormatter.itemsFrequency(
+          registeredCleanActions.resourceTypes(), t -> t);
 
       logger.warn("Many cleaners ({}) are registered in a context ({}): {}",
           numRegisteredCleaners, this, proxiesByTypeFrequency);
     }
   }
 
-  private static Object getActionType(CleanAction<?> a) {
-    Optional<?> rt = a.resourceType();
-    if (rt.isPresent()) {
-      return rt.get();
-    } else {
-      return "Unknown";
-    }
-  }
-
   /**
    * Performs all the clean operations that has been registered in this context in a reversed order
    * of the registration order.
@@ -157,26 +311,56 @@ public final class Cleaner implements AutoCloseable {
    */
   @Override
   public void close() throws CloseFailuresException {
-    if (closed) {
-      return;
+    CleanerCloseEvent event = new CleanerCloseEvent();
+    event.begin();
+    CleanActionStack cleanActions;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+
+      closed = true;
+      // Once closed, the registered actions are accessed by this thread only: no actions
+      // can be added or removed, and the other methods do not read them.
+      // Hence they are not copied before being performed without the lock.
+      cleanActions = registeredCleanActions;
+      registeredCleanActions = null;
     }
+    int numActions = cleanActions.size();
 
-    closed = true;
+    // Once closed, this context no longer needs to be closed by its parent.
+    // The lock of this context is not held so that the locks are never acquired
+    // in the child-parent order.
+    if (parent != null) {
+      parent.remove(closeAction);
+    }
 
     // Currently only the number of failures is recorded. If extra context is needed,
     // the clean actions might be included as well.
-    List<Throwable> suppressedExceptions = new ArrayList<>();
-    while (!registeredCleanActions.isEmpty()) {
-      CleanAction<?> cleanAction = registeredCleanActions.pop();
+    List<Throwable> suppressedExceptions = Collections.emptyList();
+    while (!cleanActions.isEmpty()) {
       // Try to perform the operation.
       try {
-        cleanAction.clean();
+        cleanActions.cleanTop();
       } catch (Throwable t) {
         // Record the failure
+        if (suppressedExceptions.isEmpty()) {
+          suppressedExceptions = new ArrayList<>();
+        }
         suppressedExceptions.add(t);
         // Log the details
-        logCleanActionFailure(cleanAction, t);
+        logCleanActionFailure(cleanActions.describeTop(), t);
       }
+      cleanActions.pop();
+    }
+    // Let the contexts subsequently created in this thread reuse the stack
+    cleanActions.release();
+
+    if (event.shouldCommit()) {
+      event.description = description;
+      event.actions = numActions;
+      event.failures = suppressedExceptions.size();
+      event.commit();
     }
 
     // If there have been any failures, throw an exception with a detailed error message.
@@ -190,7 +374,19 @@ public final class Cleaner implements AutoCloseable {
     }
   }
 
-  private void logCleanActionFailure(CleanAction<?> cleanAction, Throwable cleanException) {
+  /**
+   * Closes this nested context when its parent context is closed.
+   */
+  private void closeByParent() {
+    try {
+      close();
+    } catch (CloseFailuresException e) {
+      // The failures are already logged; propagate them to the parent
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+  private void logCleanActionFailure(Object cleanAction, Throwable cleanException) {
     logger.error("Exception occurred when this context ({}) attempted to perform "
         + "a clean operation ({}):", this, cleanAction, cleanException);
   }
@@ -205,8 +401,9 @@ public final class Cleaner implements AutoCloseable {
   /**
    * Returns the number of the registered clean actions.
    */
-  public int getNumRegisteredActions() {
-    return registeredCleanActions.size();
+  public synchronized int getNumRegisteredActions() {
+    // The actions of a closed context may be being performed
+    return closed ? 0 : registeredCleanActions.size();
   }
 
   /**
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event of closing a {@link Cleaner}, which destroys the native
+ * objects registered in it.
+ */
+@Name("com.exonum.binding.CleanerClose")
+@Label("Cleaner Close")
+@Description("The destruction of the native objects registered in a cleaner")
+@Category({"Exonum", "Native Proxies"})
+@StackTrace(false)
+final class CleanerCloseEvent extends Event {
+
+  @Label("Description")
+  @Description("The description of the cleaner, which describes its origin")
+  String description;
+
+  @Label("Clean Actions")
+  int actions;
+
+  @Label("Failures")
+  int failures;
+}
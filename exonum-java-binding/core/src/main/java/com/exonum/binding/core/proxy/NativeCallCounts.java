@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import com.google.auto.value.AutoValue;
+
+/**
+ * The counts of the crossings of the JNI boundary and of the native resources,
+ * collected by {@link NativeCallStatistics}.
+ */
+@AutoValue
+public abstract class NativeCallCounts {
+
+  private static final NativeCallCounts ZERO = of(0, 0, 0, 0, 0);
+
+  /**
+   * Returns the number of native calls made through the native proxies.
+   */
+  public abstract long getCalls();
+
+  /**
+   * Returns the number of bytes passed to the native code.
+   */
+  public abstract long getBytesToNative();
+
+  /**
+   * Returns the number of bytes returned from the native code.
+   */
+  public abstract long getBytesFromNative();
+
+  /**
+   * Returns the number of native handles created.
+   */
+  public abstract long getHandlesCreated();
+
+  /**
+   * Returns the number of native handles freed.
+   */
+  public abstract long getHandlesFreed();
+
+  /**
+   * Returns the difference between these counts and the given earlier counts.
+   */
+  public NativeCallCounts minus(NativeCallCounts earlier) {
+    return of(getCalls() - earlier.getCalls(),
+        getBytesToNative() - earlier.getBytesToNative(),
+        getBytesFromNative() - earlier.getBytesFromNative(),
+        getHandlesCreated() - earlier.getHandlesCreated(),
+        getHandlesFreed() - earlier.getHandlesFreed());
+  }
+
+  /**
+   * Returns the counts that are all zero.
+   */
+  public static NativeCallCounts zero() {
+    return ZERO;
+  }
+
+  /**
+   * Creates the counts with the given values.
+   */
+  public static NativeCallCounts of(long calls, long bytesToNative, long bytesFromNative,
+      long handlesCreated, long handlesFreed) {
+    return new AutoValue_NativeCallCounts(calls, bytesToNative, bytesFromNative, handlesCreated,
+        handlesFreed);
+  }
+}
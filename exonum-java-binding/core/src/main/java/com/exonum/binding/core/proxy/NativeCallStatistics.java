@@ -0,0 +1,318 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSortedMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Statistics of the crossings of the JNI boundary made by the native proxies: the number
+ * of native calls by proxy class and, optionally, by operation; the number of bytes passed
+ * to and returned from the native code; and the number of native handles created
+ * and freed.
+ *
+ * <p>The statistics are collected only when {@linkplain #setLevel(Level) enabled}.
+ * The initial level is set with the {@value #LEVEL_PROPERTY} system property
+ * ({@code off}, {@code calls} or {@code operations}); the default is {@code off}, which is also
+ * used if the property value is invalid.
+ * When disabled, recording costs a single volatile read. Unlike the {@code resource-manager}
+ * feature of the native library, which tracks each native object for debugging,
+ * the statistics are cheap enough to be enabled in production.
+ *
+ * <p>The counts are aggregated over all threads, and also per thread, so that the runtime can
+ * attribute them to a transaction it executes, see {@link #getCurrentThreadCounts()}.
+ *
+ * <p>The native calls are recorded by the proxies right before each call of a native method,
+ * including the calls fetching the next elements of the native iterators, which are attributed
+ * to {@link com.exonum.binding.core.storage.indices.RustIter}. The calls of the native
+ * destructors are not counted as calls, but as the handles freed. The bytes are recorded
+ * wherever the keys, values, hashes and proofs are copied across the boundary.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class NativeCallStatistics {
+
+  /**
+   * The system property specifying the initial {@linkplain Level level} of the statistics.
+   */
+  public static final String LEVEL_PROPERTY = "exonum.runtime.nativeCallStats";
+
+  /**
+   * The level of detail of the statistics.
+   */
+  public enum Level {
+    /** No statistics are collected. */
+    OFF,
+    /** The native calls are counted by proxy class. */
+    CALLS,
+    /**
+     * The native calls are counted by proxy class and by operation, i.e., the native method
+     * called. This level costs an extra map lookup on each call.
+     */
+    OPERATIONS
+  }
+
+  private static final Logger logger = LogManager.getLogger(NativeCallStatistics.class);
+
+  private static volatile Level level = levelFromProperty(System.getProperty(LEVEL_PROPERTY));
+
+  private static final LongAdder calls = new LongAdder();
+  private static final LongAdder bytesToNative = new LongAdder();
+  private static final LongAdder bytesFromNative = new LongAdder();
+  private static final LongAdder handlesCreated = new LongAdder();
+  private static final LongAdder handlesFreed = new LongAdder();
+  private static final ConcurrentMap<Class<?>, LongAdder> callsByProxy =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Class<?>, ConcurrentMap<String, LongAdder>>
+      callsByOperation = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Class<?>, LongAdder> handlesCreatedByProxy =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Class<?>, LongAdder> handlesFreedByProxy =
+      new ConcurrentHashMap<>();
+
+  private static final ThreadLocal<ThreadCounts> threadCounts =
+      ThreadLocal.withInitial(ThreadCounts::new);
+
+  /**
+   * Returns the current level of the statistics.
+   */
+  public static Level getLevel() {
+    return level;
+  }
+
+  /**
+   * Sets the level of the statistics. The collected statistics are kept.
+   */
+  public static void setLevel(Level newLevel) {
+    level = checkNotNull(newLevel);
+  }
+
+  /**
+   * Returns true if the statistics are collected.
+   */
+  public static boolean isEnabled() {
+    return level != Level.OFF;
+  }
+
+  /**
+   * Returns the counts aggregated over all threads.
+   */
+  public static NativeCallCounts getTotalCounts() {
+    return NativeCallCounts.of(calls.sum(), bytesToNative.sum(), bytesFromNative.sum(),
+        handlesCreated.sum(), handlesFreed.sum());
+  }
+
+  /**
+   * Returns the counts of the operations made in the current thread. The difference
+   * of the counts taken before and after some code is the cost of that code,
+   * provided the statistics were enabled.
+   */
+  public static NativeCallCounts getCurrentThreadCounts() {
+    return threadCounts.get().toCounts();
+  }
+
+  /**
+   * Returns the number of native calls by the simple name of the proxy class.
+   */
+  public static Map<String, Long> getCallsByProxy() {
+    return sumsByClassName(callsByProxy);
+  }
+
+  /**
+   * Returns the number of native calls by operation, identified as
+   * {@code ProxyClass#operation}. Collected at the {@link Level#OPERATIONS} level only.
+   */
+  public static Map<String, Long> getCallsByOperation() {
+    Map<String, Long> sums = new HashMap<>();
+    callsByOperation.forEach((proxyClass, counts) ->
+        counts.forEach((operation, count) ->
+            sums.merge(proxyClass.getSimpleName() + "#" + operation, count.sum(), Long::sum)));
+    return ImmutableSortedMap.copyOf(sums);
+  }
+
+  /**
+   * Returns the number of native handles created by the simple name of the proxy class.
+   */
+  public static Map<String, Long> getHandlesCreatedByProxy() {
+    return sumsByClassName(handlesCreatedByProxy);
+  }
+
+  /**
+   * Returns the number of native handles freed by the simple name of the proxy class.
+   */
+  public static Map<String, Long> getHandlesFreedByProxy() {
+    return sumsByClassName(handlesFreedByProxy);
+  }
+
+  private static Map<String, Long> sumsByClassName(Map<Class<?>, LongAdder> countsByClass) {
+    // Use a map with merging as several classes may have the same simple name
+    Map<String, Long> sums = new HashMap<>();
+    countsByClass.forEach((proxyClass, count) ->
+        sums.merge(proxyClass.getSimpleName(), count.sum(), Long::sum));
+    return ImmutableSortedMap.copyOf(sums);
+  }
+
+  /**
+   * Resets the counters aggregated over all threads to zero. The per-thread counts
+   * are not reset.
+   */
+  public static void reset() {
+    calls.reset();
+    bytesToNative.reset();
+    bytesFromNative.reset();
+    handlesCreated.reset();
+    handlesFreed.reset();
+    callsByProxy.clear();
+    callsByOperation.clear();
+    handlesCreatedByProxy.clear();
+    handlesFreedByProxy.clear();
+  }
+
+  /**
+   * Records a native call made by the proxy of the given class.
+   *
+   * <p>This method is for the use of the native proxies only.
+   *
+   * @param proxyClass the class of the proxy making the call
+   * @param operation the name of the native operation, usually, the name of the native method
+   *     without the {@code native} prefix
+   */
+  public static void recordCall(Class<?> proxyClass, String operation) {
+    Level currentLevel = level;
+    if (currentLevel == Level.OFF) {
+      return;
+    }
+    calls.increment();
+    increment(callsByProxy, proxyClass);
+    threadCounts.get().calls++;
+    if (currentLevel == Level.OPERATIONS) {
+      ConcurrentMap<String, LongAdder> proxyOperations = callsByOperation.get(proxyClass);
+      if (proxyOperations == null) {
+        proxyOperations = callsByOperation.computeIfAbsent(proxyClass,
+            k -> new ConcurrentHashMap<>());
+      }
+      increment(proxyOperations, operation);
+    }
+  }
+
+  /**
+   * Records the bytes passed to the native code.
+   *
+   * <p>This method is for the use of the native proxies only.
+   */
+  public static void recordBytesToNative(int size) {
+    if (level == Level.OFF) {
+      return;
+    }
+    bytesToNative.add(size);
+    threadCounts.get().bytesToNative += size;
+  }
+
+  /**
+   * Records the bytes returned from the native code, if any.
+   *
+   * <p>This method is for the use of the native proxies only.
+   */
+  public static void recordBytesFromNative(@Nullable byte[] bytes) {
+    if (bytes != null) {
+      recordBytesFromNative(bytes.length);
+    }
+  }
+
+  /**
+   * Records the bytes returned from the native code.
+   *
+   * <p>This method is for the use of the native proxies only.
+   */
+  public static void recordBytesFromNative(int size) {
+    if (level == Level.OFF) {
+      return;
+    }
+    bytesFromNative.add(size);
+    threadCounts.get().bytesFromNative += size;
+  }
+
+  static void recordHandleCreated(Class<?> proxyClass) {
+    if (level == Level.OFF) {
+      return;
+    }
+    handlesCreated.increment();
+    increment(handlesCreatedByProxy, proxyClass);
+    threadCounts.get().handlesCreated++;
+  }
+
+  static void recordHandleFreed(Class<?> proxyClass) {
+    if (level == Level.OFF) {
+      return;
+    }
+    handlesFreed.increment();
+    increment(handlesFreedByProxy, proxyClass);
+    threadCounts.get().handlesFreed++;
+  }
+
+  private static <K> void increment(ConcurrentMap<K, LongAdder> counts, K key) {
+    LongAdder count = counts.get(key);
+    if (count == null) {
+      count = counts.computeIfAbsent(key, k -> new LongAdder());
+    }
+    count.increment();
+  }
+
+  /**
+   * Returns the level specified by the value of the {@value #LEVEL_PROPERTY} property.
+   * As the level is read in the static initializer, an invalid value does not fail
+   * the initialization of the class, but is reported and ignored.
+   */
+  static Level levelFromProperty(@Nullable String value) {
+    if (value == null || value.isEmpty()) {
+      return Level.OFF;
+    }
+    try {
+      return Level.valueOf(value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid value of {} property: '{}'; the native call statistics are disabled."
+          + " Expected one of: off, calls, operations", LEVEL_PROPERTY, value);
+      return Level.OFF;
+    }
+  }
+
+  /** The counts of a single thread, updated by that thread only. */
+  private static final class ThreadCounts {
+    long calls;
+    long bytesToNative;
+    long bytesFromNative;
+    long handlesCreated;
+    long handlesFreed;
+
+    NativeCallCounts toCounts() {
+      return NativeCallCounts.of(calls, bytesToNative, bytesFromNative, handlesCreated,
+          handlesFreed);
+    }
+  }
+
+  private NativeCallStatistics() {}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A destructor of the native peers of the proxies of some class. Unlike {@link ProxyDestructor},
+ * which is created for each proxy, a native destructor is created once per proxy class
+ * and {@linkplain Cleaner#add(NativeHandle, NativeDestructor) registered} in a cleaner along
+ * with the handle of each proxy. The cleaner keeps only the handle and the
+ * {@linkplain #getId() id} of the destructor, so that registering a proxy allocates no clean
+ * action:
+ * <pre>{@code
+ * private static final NativeDestructor DESTRUCTOR =
+ *     NativeDestructor.of(MapIndexProxy.class, MapIndexProxy::nativeFree);
+ *
+ * static MapIndexProxy newInstance(...) {
+ *   NativeHandle handle = new NativeHandle(nativeCreate(...));
+ *   cleaner.add(handle, DESTRUCTOR);
+ *   return new MapIndexProxy(handle, ...);
+ * }
+ * }</pre>
+ *
+ * <p>The proxies registered with a native destructor cannot be removed from the cleaner
+ * before it is closed; the proxies that need that (e.g., the iterators that are destroyed
+ * once exhausted) shall use a {@link ProxyDestructor}.
+ *
+ * <p>The destructors are never unregistered, hence they must be stored in static fields
+ * rather than created for each proxy.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class NativeDestructor {
+
+  private static final Object lock = new Object();
+  private static volatile NativeDestructor[] destructors = new NativeDestructor[0];
+
+  private final int id;
+  private final Class<?> proxyClass;
+  private final LongConsumer destructorFunction;
+
+  private NativeDestructor(int id, Class<?> proxyClass, LongConsumer destructorFunction) {
+    this.id = id;
+    this.proxyClass = proxyClass;
+    this.destructorFunction = destructorFunction;
+  }
+
+  /**
+   * Creates a new destructor of the native peers of the proxies of the given class.
+   *
+   * @param proxyClass a class of the proxies
+   * @param destructorFunction a function destroying the native peer, which accepts
+   *     the native handle value
+   */
+  public static NativeDestructor of(Class<?> proxyClass, LongConsumer destructorFunction) {
+    checkNotNull(proxyClass, "proxyClass");
+    checkNotNull(destructorFunction, "destructorFunction");
+    synchronized (lock) {
+      NativeDestructor[] current = destructors;
+      NativeDestructor d = new NativeDestructor(current.length, proxyClass, destructorFunction);
+      NativeDestructor[] updated = Arrays.copyOf(current, current.length + 1);
+      updated[d.id] = d;
+      destructors = updated;
+      return d;
+    }
+  }
+
+  /**
+   * Returns the destructor with the given id.
+   *
+   * @throws IndexOutOfBoundsException if there is no destructor with such id
+   */
+  static NativeDestructor forId(int id) {
+    NativeDestructor[] current = destructors;
+    checkElementIndex(id, current.length, "id");
+    return current[id];
+  }
+
+  /**
+   * Returns the id of this destructor, unique in the JVM.
+   */
+  int getId() {
+    return id;
+  }
+
+  /**
+   * Returns the class of the proxies.
+   */
+  public Class<?> getProxyClass() {
+    return proxyClass;
+  }
+
+  /**
+   * Closes the native handle, so that it can no longer be accessed, and destroys the native
+   * peer, passing the native handle value to the destructor function.
+   *
+   * <p>If the native handle is not valid, does nothing.
+   */
+  void destroy(NativeHandle nativeHandle) {
+    // Do not perform the destructor if the native handle is not valid.
+    if (!nativeHandle.isValid()) {
+      return;
+    }
+
+    long handle = nativeHandle.get();
+
+    // Close the native handle.
+    nativeHandle.close();
+
+    // Destroy the native peer.
+    destructorFunction.accept(handle);
+    NativeCallStatistics.recordHandleFreed(proxyClass);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("id", id)
+        .add("proxyClass", proxyClass)
+        .toString();
+  }
+}
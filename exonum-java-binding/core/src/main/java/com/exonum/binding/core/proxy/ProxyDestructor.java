@@ -30,6 +30,10 @@ import java.util.function.LongConsumer;
  * and use this class so that there is no public #close method available in the interface
  * of the proxy, making the risk of misuse smaller.
  *
+ * <p>The proxies that are never {@linkplain Cleaner#remove(CleanAction) removed} from
+ * the cleaner before it is closed shall rather use a {@link NativeDestructor}, which is created
+ * once per proxy class and allocates nothing when a proxy is registered.
+ *
  * <p>All method parameters are non-null by default.
  *
  * <p>This class is not thread-safe.
@@ -74,6 +78,7 @@ public final class ProxyDestructor implements CancellableCleanAction<Class<?>> {
     this.proxyClass = checkNotNull(proxyClass);
     destroyed = false;
     cancelled = false;
+    NativeCallStatistics.recordHandleCreated(proxyClass);
   }
 
   /**
@@ -104,6 +109,7 @@ public final class ProxyDestructor implements CancellableCleanAction<Class<?>> {
 
     // Perform the clean action.
     cleanFunction.accept(handle);
+    NativeCallStatistics.recordHandleFreed(proxyClass);
   }
 
   @Override
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A scope restricting the use of native proxies to a single thread, and to the periods
+ * when the scope is active. The proxies registered in a context with a scope
+ * (see {@link Cleaner#newNested(String, ProxyScope)}) check it each time they are used, so that
+ * the proxies that leak out of the scope fail fast instead of using the native objects
+ * concurrently with their owner, or while they might be destroyed by another thread.
+ *
+ * <p>A scope is created active. It may be {@linkplain #deactivate() deactivated}
+ * and {@linkplain #activate() activated} again by its thread only; e.g., to keep the proxies
+ * between the requests a thread handles, while prohibiting their use outside a request.
+ *
+ * <p>This class is not thread-safe, except for the checks, which fail in any thread
+ * other than the owner.
+ */
+public final class ProxyScope {
+
+  private final Thread owner;
+  private boolean active;
+
+  private ProxyScope(Thread owner) {
+    this.owner = owner;
+    this.active = true;
+  }
+
+  /**
+   * Creates an active scope of the current thread.
+   */
+  public static ProxyScope ofCurrentThread() {
+    return new ProxyScope(Thread.currentThread());
+  }
+
+  /**
+   * Activates this scope, allowing the use of its proxies.
+   *
+   * @throws IllegalStateException if the current thread is not the owner of this scope
+   */
+  public void activate() {
+    checkOwner();
+    active = true;
+  }
+
+  /**
+   * Deactivates this scope, prohibiting the use of its proxies till it is activated again.
+   *
+   * @throws IllegalStateException if the current thread is not the owner of this scope
+   */
+  public void deactivate() {
+    checkOwner();
+    active = false;
+  }
+
+  /**
+   * Returns true if this scope is active and the current thread is its owner,
+   * i.e., its proxies may be used.
+   */
+  public boolean isActive() {
+    return active && Thread.currentThread() == owner;
+  }
+
+  /**
+   * Checks that the proxies of this scope may be used in the current thread.
+   *
+   * @throws IllegalStateException if this scope is not active, or the current thread
+   *     is not its owner
+   */
+  public void checkActive() {
+    // Avoid Preconditions, as the message arguments would be evaluated on each use of a proxy
+    if (!isActive()) {
+      throw new IllegalStateException(String.format("The proxy is used outside of its scope "
+          + "(owner=%s, active=%s) in thread %s", owner.getName(), active,
+          Thread.currentThread().getName()));
+    }
+  }
+
+  private void checkOwner() {
+    checkState(Thread.currentThread() == owner, "The scope of thread %s cannot be changed "
+        + "in thread %s", owner.getName(), Thread.currentThread().getName());
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.exonum.binding.core.service.Service;
+import com.google.auto.value.AutoValue;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * A configuration of the dispatch of the {@linkplain Service#afterCommit(
+ * com.exonum.binding.core.service.BlockCommittedEvent) after commit} handlers of the services.
+ *
+ * <p>By default, the runtime invokes the handlers sequentially. In the concurrent mode,
+ * the runtime invokes the handlers on a bounded pool of threads, and waits for them
+ * to complete before returning control to the node:
+ * <ul>
+ *   <li>A handler that does not complete in the {@linkplain #getHandlerTimeout() handler timeout}
+ *   since its start is interrupted.
+ *   <li>Any handlers that have not completed in
+ *   the {@linkplain #getCompletionTimeout() completion timeout} are interrupted.
+ *   The runtime still waits till they stop before returning control to the node, as the block
+ *   snapshot and the proxies the handlers use are destroyed after that; hence a handler
+ *   that ignores the interrupts delays the node.
+ * </ul>
+ *
+ * <p>Each handler gets its own scope and database access, created and destroyed
+ * in the thread invoking it, in the concurrent mode.
+ *
+ * <p>The concurrent mode is enabled with the {@value #THREADS_PROPERTY} system property,
+ * e.g., {@code -Dexonum.runtime.afterCommit.threads=4}.
+ */
+@AutoValue
+public abstract class AfterCommitDispatchConfig {
+
+  /**
+   * The system property specifying the number of threads to invoke the handlers on.
+   * Zero, which is the default, enables the sequential mode.
+   */
+  public static final String THREADS_PROPERTY = "exonum.runtime.afterCommit.threads";
+
+  /**
+   * The system property specifying the handler timeout in milliseconds.
+   */
+  public static final String HANDLER_TIMEOUT_PROPERTY =
+      "exonum.runtime.afterCommit.handlerTimeoutMs";
+
+  /**
+   * The system property specifying the completion timeout in milliseconds.
+   */
+  public static final String COMPLETION_TIMEOUT_PROPERTY =
+      "exonum.runtime.afterCommit.completionTimeoutMs";
+
+  private static final Duration DEFAULT_HANDLER_TIMEOUT = Duration.ofSeconds(5);
+  private static final Duration DEFAULT_COMPLETION_TIMEOUT = Duration.ofSeconds(10);
+
+  /**
+   * Returns the number of threads to invoke the handlers on. Zero if the handlers are invoked
+   * sequentially, in the thread that notifies the runtime of the block commit.
+   */
+  public abstract int getThreadCount();
+
+  /**
+   * Returns the maximum duration of a single handler in the concurrent mode.
+   */
+  public abstract Duration getHandlerTimeout();
+
+  /**
+   * Returns the time after which the runtime interrupts the handlers that have not completed
+   * in the concurrent mode.
+   */
+  public abstract Duration getCompletionTimeout();
+
+  /**
+   * Returns true if the handlers are invoked concurrently.
+   */
+  public boolean isConcurrent() {
+    return getThreadCount() > 0;
+  }
+
+  /**
+   * Returns a configuration of the sequential dispatch of the handlers.
+   */
+  public static AfterCommitDispatchConfig sequential() {
+    return new AutoValue_AfterCommitDispatchConfig(0, DEFAULT_HANDLER_TIMEOUT,
+        DEFAULT_COMPLETION_TIMEOUT);
+  }
+
+  /**
+   * Returns a configuration of the concurrent dispatch of the handlers.
+   *
+   * @param threadCount the number of threads to invoke the handlers on; must be positive
+   * @param handlerTimeout the maximum duration of a single handler; must be positive
+   * @param completionTimeout the time after which the handlers that have not completed
+   *     are interrupted; must be positive
+   */
+  public static AfterCommitDispatchConfig concurrent(int threadCount, Duration handlerTimeout,
+      Duration completionTimeout) {
+    checkArgument(threadCount > 0, "threadCount (%s) must be positive", threadCount);
+    checkPositive(handlerTimeout, "handlerTimeout");
+    checkPositive(completionTimeout, "completionTimeout");
+    return new AutoValue_AfterCommitDispatchConfig(threadCount, handlerTimeout,
+        completionTimeout);
+  }
+
+  /**
+   * Returns a configuration specified with the system properties, or
+   * the {@linkplain #sequential() sequential} one if the properties are not set.
+   *
+   * @throws IllegalArgumentException if the properties have invalid values
+   */
+  public static AfterCommitDispatchConfig fromSystemProperties() {
+    return fromProperties(System.getProperties());
+  }
+
+  static AfterCommitDispatchConfig fromProperties(Properties properties) {
+    int threadCount = Integer.parseInt(properties.getProperty(THREADS_PROPERTY, "0"));
+    if (threadCount == 0) {
+      return sequential();
+    }
+    Duration handlerTimeout = getDuration(properties, HANDLER_TIMEOUT_PROPERTY,
+        DEFAULT_HANDLER_TIMEOUT);
+    Duration completionTimeout = getDuration(properties, COMPLETION_TIMEOUT_PROPERTY,
+        DEFAULT_COMPLETION_TIMEOUT);
+    return concurrent(threadCount, handlerTimeout, completionTimeout);
+  }
+
+  private static Duration getDuration(Properties properties, String key,
+      Duration defaultValue) {
+    String millis = properties.getProperty(key);
+    if (millis == null) {
+      return defaultValue;
+    }
+    return Duration.ofMillis(Long.parseLong(millis));
+  }
+
+  private static void checkPositive(Duration timeout, String name) {
+    checkArgument(!timeout.isNegative() && !timeout.isZero(), "%s (%s) must be positive",
+        name, timeout);
+  }
+}
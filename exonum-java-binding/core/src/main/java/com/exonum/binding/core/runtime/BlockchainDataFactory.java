@@ -17,6 +17,7 @@
 package com.exonum.binding.core.runtime;
 
 import com.exonum.binding.core.blockchain.BlockchainData;
+import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 
 /**
@@ -34,4 +35,15 @@ interface BlockchainDataFactory {
   default BlockchainData fromRawAccess(AbstractAccess rawAccess, String serviceName) {
     return BlockchainData.fromRawAccess(rawAccess, serviceName);
   }
+
+  /**
+   * Creates a BlockchainData for the service with the given name, registered
+   * in the given cleaner.
+   *
+   * @see BlockchainData#fromRawAccess(AbstractAccess, Cleaner, String)
+   */
+  default BlockchainData fromRawAccess(AbstractAccess rawAccess, Cleaner cleaner,
+      String serviceName) {
+    return BlockchainData.fromRawAccess(rawAccess, cleaner, serviceName);
+  }
 }
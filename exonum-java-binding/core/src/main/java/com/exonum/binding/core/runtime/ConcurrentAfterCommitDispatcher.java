@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Invokes the after commit handlers of the services concurrently on a bounded pool of threads.
+ *
+ * <p>The handlers must not share any non-thread-safe objects; in particular, each must use
+ * its own database access.
+ *
+ * <p>The dispatch returns only once all handlers have stopped running, even if some were
+ * interrupted on a timeout: an interrupt does not stop a handler that is in a native call,
+ * and the native objects it uses must not be destroyed till it returns.
+ *
+ * @see AfterCommitDispatchConfig
+ */
+final class ConcurrentAfterCommitDispatcher implements AutoCloseable {
+
+  private static final Logger logger = LogManager.getLogger(ConcurrentAfterCommitDispatcher.class);
+
+  private final ExecutorService executor;
+  private final ScheduledExecutorService timeoutScheduler;
+  private final Duration handlerTimeout;
+  private final Duration completionTimeout;
+
+  ConcurrentAfterCommitDispatcher(AfterCommitDispatchConfig config) {
+    checkArgument(config.isConcurrent(), "Not a concurrent configuration: %s", config);
+    executor = Executors.newFixedThreadPool(config.getThreadCount(),
+        daemonThreadFactory("exonum-after-commit-%d"));
+    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+        daemonThreadFactory("exonum-after-commit-timeout-%d"));
+    scheduler.setRemoveOnCancelPolicy(true);
+    timeoutScheduler = scheduler;
+    handlerTimeout = config.getHandlerTimeout();
+    completionTimeout = config.getCompletionTimeout();
+  }
+
+  private static ThreadFactory daemonThreadFactory(String nameFormat) {
+    return new ThreadFactoryBuilder()
+        .setNameFormat(nameFormat)
+        .setDaemon(true)
+        .build();
+  }
+
+  /**
+   * Invokes the given handlers and waits for their completion. A handler exception is logged
+   * and does not affect other handlers.
+   *
+   * <p>If the handlers do not complete in the completion timeout, interrupts the handlers
+   * that are still running and waits till they stop. Returns only once no handler is running.
+   *
+   * @param handlersByService the handlers, keyed by the names of the services
+   * @throws InterruptedException if the current thread is interrupted while waiting
+   *     for the handlers; the handlers are interrupted too, and the method waits till they stop
+   *     before throwing
+   */
+  void dispatch(Map<String, Runnable> handlersByService) throws InterruptedException {
+    CountDownLatch completionBarrier = new CountDownLatch(handlersByService.size());
+    List<HandlerTask> tasks = new ArrayList<>(handlersByService.size());
+    for (Map.Entry<String, Runnable> entry : handlersByService.entrySet()) {
+      HandlerTask task = new HandlerTask(entry.getKey(), entry.getValue(), completionBarrier);
+      tasks.add(task);
+      executor.execute(task);
+    }
+
+    boolean completed = false;
+    try {
+      completed = completionBarrier.await(completionTimeout.toNanos(), NANOSECONDS);
+    } finally {
+      if (!completed) {
+        cancelRemaining(tasks);
+        awaitStopped(completionBarrier);
+      }
+    }
+  }
+
+  private void cancelRemaining(List<HandlerTask> tasks) {
+    for (HandlerTask task : tasks) {
+      if (task.cancel(true)) {
+        logger.error("Service {} did not complete its afterCommit handler in {}, "
+            + "interrupting it", task.serviceName, completionTimeout);
+      }
+    }
+  }
+
+  /**
+   * Waits till the interrupted handlers stop, as they may still use the native objects
+   * (e.g., be in a native call).
+   */
+  private static void awaitStopped(CountDownLatch completionBarrier) {
+    long running = completionBarrier.getCount();
+    if (running != 0) {
+      logger.warn("Waiting for {} interrupted afterCommit handler(s) to stop", running);
+      Uninterruptibles.awaitUninterruptibly(completionBarrier);
+    }
+  }
+
+  /**
+   * Stops the threads invoking the handlers.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    timeoutScheduler.shutdownNow();
+  }
+
+  /**
+   * A task invoking a handler. It is interrupted if it does not complete in the handler timeout
+   * since its start.
+   */
+  private final class HandlerTask extends FutureTask<Void> {
+
+    final String serviceName;
+    final CountDownLatch completionBarrier;
+
+    HandlerTask(String serviceName, Runnable handler, CountDownLatch completionBarrier) {
+      super(() -> invokeHandler(serviceName, handler), null);
+      this.serviceName = serviceName;
+      this.completionBarrier = completionBarrier;
+    }
+
+    @Override
+    public void run() {
+      ScheduledFuture<?> timeout = timeoutScheduler.schedule(this::onTimeout,
+          handlerTimeout.toNanos(), NANOSECONDS);
+      try {
+        super.run();
+      } finally {
+        timeout.cancel(false);
+        // Count the completion only once the handler is no longer running,
+        // even if it has been cancelled
+        completionBarrier.countDown();
+      }
+    }
+
+    private void onTimeout() {
+      if (cancel(true)) {
+        logger.error("Service {} did not complete its afterCommit handler in {}, "
+            + "interrupting it", serviceName, handlerTimeout);
+      }
+    }
+  }
+
+  private static void invokeHandler(String serviceName, Runnable handler) {
+    try {
+      handler.run();
+    } catch (Exception e) {
+      // Log, but do not re-throw either immediately or later
+      logger.error("Service {} threw an exception in its afterCommit handler", serviceName, e);
+    }
+  }
+}
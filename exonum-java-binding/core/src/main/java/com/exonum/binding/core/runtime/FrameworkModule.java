@@ -32,6 +32,7 @@ public final class FrameworkModule extends AbstractModule {
 
   static final String SERVICE_RUNTIME_ARTIFACTS_DIRECTORY = "ServiceRuntime artifacts dir";
   static final String SERVICE_WEB_SERVER_PORT = "Service web server port";
+  static final String TRANSACTION_CACHE_ENABLED = "Transaction cache enabled";
 
   private final Path serviceArtifactsDir;
   private final int serviceWebServerPort;
@@ -65,8 +66,13 @@ public final class FrameworkModule extends AbstractModule {
         .toInstance(serviceArtifactsDir);
     bind(Integer.class).annotatedWith(named(SERVICE_WEB_SERVER_PORT))
         .toInstance(serviceWebServerPort);
+    bind(AfterCommitDispatchConfig.class)
+        .toInstance(AfterCommitDispatchConfig.fromSystemProperties());
+    bind(Boolean.class).annotatedWith(named(TRANSACTION_CACHE_ENABLED))
+        .toInstance(Boolean.getBoolean(ServiceRuntime.TRANSACTION_CACHE_PROPERTY));
 
     bind(AccessFactory.class).toInstance(AccessProxyFactory.getInstance());
+    bind(RuntimeMetrics.class).in(Singleton.class);
     // todo: Consider providing an implementation of a Node —
     //   requires changing its contract.
   }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of the observed values with fixed buckets. Each bucket counts the values
+ * that are less than or equal to its upper bound and greater than the bound
+ * of the previous bucket; the last, implicit, bucket counts the values greater than
+ * all the bounds.
+ *
+ * <p>The class is thread-safe.
+ */
+final class Histogram {
+
+  private final double[] upperBounds;
+  private final LongAdder[] bucketCounts;
+  private final DoubleAdder sum = new DoubleAdder();
+
+  /**
+   * Creates a histogram with the given bucket bounds.
+   *
+   * @param upperBounds the upper bounds of the buckets, in ascending order
+   */
+  Histogram(double... upperBounds) {
+    for (int i = 1; i < upperBounds.length; i++) {
+      checkArgument(upperBounds[i - 1] < upperBounds[i],
+          "Bounds must be in ascending order, but %s >= %s", upperBounds[i - 1], upperBounds[i]);
+    }
+    this.upperBounds = upperBounds.clone();
+    bucketCounts = new LongAdder[upperBounds.length + 1];
+    for (int i = 0; i < bucketCounts.length; i++) {
+      bucketCounts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records the given value.
+   */
+  void observe(double value) {
+    int bucket = 0;
+    while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+      bucket++;
+    }
+    bucketCounts[bucket].increment();
+    sum.add(value);
+  }
+
+  /**
+   * Returns the upper bounds of the buckets, excluding the implicit infinite bound
+   * of the last one.
+   */
+  double[] getUpperBounds() {
+    return upperBounds.clone();
+  }
+
+  /**
+   * Returns the cumulative counts of the values in the buckets: the element <em>i</em>
+   * is the number of values less than or equal to the upper bound of the bucket <em>i</em>.
+   * The last element is the total number of values.
+   */
+  long[] getCumulativeCounts() {
+    long[] counts = new long[bucketCounts.length];
+    long total = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      total += bucketCounts[i].sum();
+      counts[i] = total;
+    }
+    return counts;
+  }
+
+  /**
+   * Returns the sum of the observed values.
+   */
+  double getSum() {
+    return sum.sum();
+  }
+}
@@ -21,10 +21,12 @@ import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.core.proxy.AbstractCloseableNativeProxy;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
 import com.exonum.binding.core.storage.database.Snapshot;
 import com.exonum.binding.core.transaction.RawTransaction;
 import com.exonum.binding.core.util.LibraryLoader;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -40,6 +42,10 @@ public final class NodeProxy extends AbstractCloseableNativeProxy {
 
   private static final Logger logger = LogManager.getLogger(NodeProxy.class);
 
+  private final Object sharedSnapshotLock = new Object();
+  /** The snapshot at the latest committed block; or null if not yet requested. */
+  @Nullable private SharedSnapshot sharedSnapshot;
+
   /**
    * Creates a proxy of a Node.
    *
@@ -53,7 +59,10 @@ public final class NodeProxy extends AbstractCloseableNativeProxy {
     byte[] payload = rawTransaction.getPayload();
     int serviceId = rawTransaction.getServiceId();
     int transactionId = rawTransaction.getTransactionId();
+    NativeCallStatistics.recordBytesToNative(payload.length);
+    recordNativeCall("submit");
     byte[] txMessageHash = nativeSubmit(getNativeHandle(), payload, serviceId, transactionId);
+    NativeCallStatistics.recordBytesFromNative(txMessageHash);
 
     return HashCode.fromBytes(txMessageHash);
   }
@@ -72,6 +81,7 @@ public final class NodeProxy extends AbstractCloseableNativeProxy {
   public <ResultT> ResultT withSnapshot(Function<Snapshot, ResultT> snapshotFunction) {
     try (Cleaner cleaner = new Cleaner("NodeProxy#withSnapshot")) {
       long nodeNativeHandle = getNativeHandle();
+      recordNativeCall("createSnapshot");
       long snapshotNativeHandle = nativeCreateSnapshot(nodeNativeHandle);
       Snapshot snapshot = Snapshot.newInstance(snapshotNativeHandle, cleaner);
       return snapshotFunction.apply(snapshot);
@@ -81,10 +91,58 @@ public final class NodeProxy extends AbstractCloseableNativeProxy {
     }
   }
 
+  /**
+   * Performs the given function with the snapshot of the latest committed block, shared with
+   * the concurrent calls of this method till the next block is committed. The snapshot
+   * remains valid till the function completes.
+   *
+   * @see #releaseSharedSnapshot()
+   */
+  <ResultT> ResultT withSharedSnapshot(Function<SharedSnapshot, ResultT> snapshotFunction) {
+    SharedSnapshot snapshot = acquireSharedSnapshot();
+    try {
+      return snapshotFunction.apply(snapshot);
+    } finally {
+      snapshot.release();
+    }
+  }
+
+  private SharedSnapshot acquireSharedSnapshot() {
+    synchronized (sharedSnapshotLock) {
+      if (sharedSnapshot == null) {
+        recordNativeCall("createSnapshot");
+        long snapshotNativeHandle = nativeCreateSnapshot(getNativeHandle());
+        Cleaner cleaner = new Cleaner("NodeProxy#sharedSnapshot");
+        sharedSnapshot = new SharedSnapshot(Snapshot.newInstance(snapshotNativeHandle, cleaner));
+      }
+      sharedSnapshot.retain();
+      return sharedSnapshot;
+    }
+  }
+
+  /**
+   * Releases the shared snapshot, so that the subsequent calls of
+   * {@link #withSharedSnapshot(Function)} get a new one. Must be called when a new block
+   * is committed. The released snapshot is destroyed once the calls using it complete.
+   */
+  void releaseSharedSnapshot() {
+    SharedSnapshot snapshot;
+    synchronized (sharedSnapshotLock) {
+      snapshot = sharedSnapshot;
+      sharedSnapshot = null;
+    }
+    // Release outside the lock, as it may destroy the snapshot
+    if (snapshot != null) {
+      snapshot.release();
+    }
+  }
+
   private native long nativeCreateSnapshot(long nativeHandle);
 
   public PublicKey getPublicKey() {
+    recordNativeCall("getPublicKey");
     byte[] publicKey = nativeGetPublicKey(getNativeHandle());
+    NativeCallStatistics.recordBytesFromNative(publicKey);
     return PublicKey.fromBytes(publicKey);
   }
 
@@ -92,6 +150,7 @@ public final class NodeProxy extends AbstractCloseableNativeProxy {
 
   @Override
   protected void disposeInternal() {
+    releaseSharedSnapshot();
     nativeFree(getNativeHandle());
   }
 
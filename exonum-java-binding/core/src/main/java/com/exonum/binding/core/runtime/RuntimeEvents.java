@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of the service runtime, which show the time spent
+ * in each phase of the block execution by each service.
+ *
+ * <p>The events are emitted as follows:
+ * <pre>{@code
+ * TransactionExecutionEvent event = new TransactionExecutionEvent();
+ * event.begin();
+ * // Execute the operation
+ * if (event.shouldCommit()) {
+ *   event.service = ...;
+ *   event.commit();
+ * }
+ * }</pre>
+ * When the events are not recorded, the event objects are not allocated
+ * once the code is compiled, and the overhead is negligible.
+ */
+final class RuntimeEvents {
+
+  private static final String CATEGORY = "Exonum";
+  private static final String RUNTIME_CATEGORY = "Java Runtime";
+
+  @Name("com.exonum.binding.TransactionExecution")
+  @Label("Transaction Execution")
+  @Description("The execution of a transaction by a service")
+  @Category({CATEGORY, RUNTIME_CATEGORY})
+  @StackTrace(false)
+  static final class TransactionExecutionEvent extends Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Interface")
+    @Description("The interface of the transaction; empty for the service's own transactions")
+    String interfaceName;
+
+    @Label("Transaction Id")
+    int txId;
+
+    @Label("Succeeded")
+    boolean succeeded;
+  }
+
+  @Name("com.exonum.binding.BlockHook")
+  @Label("Block Hook")
+  @Description("The invocation of a block hook of a service")
+  @Category({CATEGORY, RUNTIME_CATEGORY})
+  @StackTrace(false)
+  static final class BlockHookEvent extends Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Hook")
+    @Description("before_transactions, after_transactions or after_commit")
+    String hook;
+
+    @Label("Succeeded")
+    boolean succeeded;
+  }
+
+  @Name("com.exonum.binding.ArtifactDeployment")
+  @Label("Artifact Deployment")
+  @Description("The deployment of a service artifact")
+  @Category({CATEGORY, RUNTIME_CATEGORY})
+  @StackTrace(false)
+  static final class ArtifactDeploymentEvent extends Event {
+
+    @Label("Artifact")
+    String artifactId;
+
+    @Label("File Name")
+    String filename;
+
+    @Label("Succeeded")
+    boolean succeeded;
+  }
+
+  @Name("com.exonum.binding.ReadRequest")
+  @Label("Read Request")
+  @Description("A read of the database state by a service, usually, in its HTTP API handler")
+  @Category({CATEGORY, RUNTIME_CATEGORY})
+  @StackTrace(false)
+  static final class ReadRequestEvent extends Event {
+
+    @Label("Service")
+    String service;
+  }
+
+  @Name("com.exonum.binding.RuntimeOperation")
+  @Label("Runtime Operation")
+  @Description("An operation of a service requested by the native code, including "
+      + "the decoding of its arguments and the destruction of the native proxies it created")
+  @Category({CATEGORY, RUNTIME_CATEGORY})
+  @StackTrace(false)
+  static final class RuntimeOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Service Id")
+    int serviceId;
+  }
+
+  @Name("com.exonum.binding.BlockCommit")
+  @Label("Block Commit")
+  @Description("The notification of the services of a block commit, including "
+      + "the destruction of the native proxies they created")
+  @Category({CATEGORY, RUNTIME_CATEGORY})
+  @StackTrace(false)
+  static final class BlockCommitEvent extends Event {
+
+    @Label("Height")
+    long height;
+  }
+
+  private RuntimeEvents() {}
+}
@@ -0,0 +1,561 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Comparator.comparing;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallCounts;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * The metrics of the service runtime: the durations of the transactions and the block hooks
+ * of each service, the outcomes of the transactions, and the number of native proxies
+ * destroyed at the end of each runtime operation.
+ *
+ * <p>When the {@linkplain NativeCallStatistics native call statistics} are enabled,
+ * the metrics also include the crossings of the JNI boundary made by each transaction
+ * and in each block, and their totals by proxy class and by operation.
+ *
+ * <p>The metrics are exposed in the Prometheus text format by the {@link RuntimeTransport}
+ * at {@value RuntimeTransport#METRICS_PATH}.
+ *
+ * <p>The class is thread-safe.
+ */
+public final class RuntimeMetrics {
+
+  /** The content type of the metrics in the Prometheus text format. */
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  /** The upper bounds of the duration buckets, in seconds: from 10 μs to 5 s. */
+  private static final double[] DURATION_BUCKETS = {
+      0.00001, 0.00005, 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5
+  };
+  /** The upper bounds of the buckets of the number of clean actions in a cleaner. */
+  private static final double[] CLEANER_SIZE_BUCKETS = {0, 1, 4, 16, 64, 256, 1024, 4096};
+  /** The upper bounds of the buckets of the number of native calls and handles. */
+  private static final double[] NATIVE_COUNT_BUCKETS = {
+      0, 1, 4, 16, 64, 256, 1024, 4096, 16384, 65536
+  };
+  /** The upper bounds of the buckets of the number of bytes passed through JNI: up to 16 MiB. */
+  private static final double[] NATIVE_BYTES_BUCKETS = {
+      0, 64, 256, 1024, 4096, 16384, 65536, 262144, 1048576, 4194304, 16777216
+  };
+
+  private static final String PREFIX = "exonum_java_";
+
+  /**
+   * The block hooks of the services, which duration is measured.
+   */
+  enum BlockHook {
+    BEFORE_TRANSACTIONS("before_transactions"),
+    AFTER_TRANSACTIONS("after_transactions"),
+    AFTER_COMMIT("after_commit");
+
+    private final String label;
+
+    BlockHook(String label) {
+      this.label = label;
+    }
+
+    /**
+     * Returns the label of the hook, e.g., {@code after_commit}.
+     */
+    String getLabel() {
+      return label;
+    }
+  }
+
+  /** The value of the interface and transaction id labels of the unknown transactions. */
+  static final String UNKNOWN_LABEL = "unknown";
+
+  private static final ThreadLocal<TransactionKey> LOOKUP_KEYS =
+      ThreadLocal.withInitial(() -> new TransactionKey("", "", 0, false));
+
+  private final ConcurrentMap<TransactionKey, TransactionMetrics> transactions =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<BlockHookKey, Histogram> blockHooks = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Histogram> cleanerSizes = new ConcurrentHashMap<>();
+  private final ConcurrentMap<TransactionKey, NativeCallMetrics> transactionNativeCalls =
+      new ConcurrentHashMap<>();
+  private final NativeCallMetrics blockNativeCalls = new NativeCallMetrics();
+  /** The total native call counts at the previous block, or null if not taken. */
+  @Nullable private NativeCallCounts previousBlockTotals;
+
+  /**
+   * Records the execution of a transaction.
+   *
+   * @param serviceName the name of the service
+   * @param interfaceName the name of the interface of the transaction; empty for the
+   *     transactions of the service itself
+   * @param txId the id of the transaction
+   * @param durationNanos the duration of the execution in nanoseconds
+   * @param succeeded whether the transaction completed successfully
+   */
+  void recordTransaction(String serviceName, String interfaceName, int txId,
+      long durationNanos, boolean succeeded) {
+    TransactionMetrics metrics = findOrCreate(transactions, serviceName, interfaceName, txId,
+        false, TransactionMetrics::new);
+    observeTransaction(metrics, durationNanos, succeeded);
+  }
+
+  /**
+   * Records the execution of a transaction that the service does not declare (e.g.,
+   * with an unknown interface or transaction id). All such transactions of the service
+   * are recorded under the {@value #UNKNOWN_LABEL} interface and transaction id labels.
+   *
+   * @param serviceName the name of the service
+   * @param durationNanos the duration of the execution in nanoseconds
+   * @param succeeded whether the transaction completed successfully
+   */
+  void recordUnknownTransaction(String serviceName, long durationNanos, boolean succeeded) {
+    TransactionMetrics metrics = findOrCreate(transactions, serviceName, "", 0,
+        true, TransactionMetrics::new);
+    observeTransaction(metrics, durationNanos, succeeded);
+  }
+
+  private static void observeTransaction(TransactionMetrics metrics, long durationNanos,
+      boolean succeeded) {
+    metrics.duration.observe(toSeconds(durationNanos));
+    if (succeeded) {
+      metrics.successes.increment();
+    } else {
+      metrics.errors.increment();
+    }
+  }
+
+  /**
+   * Records the invocation of a block hook of the service.
+   *
+   * @param serviceName the name of the service
+   * @param hook the hook
+   * @param durationNanos the duration of the invocation in nanoseconds
+   */
+  void recordBlockHook(String serviceName, BlockHook hook, long durationNanos) {
+    BlockHookKey key = BlockHookKey.of(serviceName, hook);
+    blockHooks.computeIfAbsent(key, k -> new Histogram(DURATION_BUCKETS))
+        .observe(toSeconds(durationNanos));
+  }
+
+  /**
+   * Records the number of clean actions registered in the cleaner of a runtime operation,
+   * which is about to be closed. The operation is identified by the cleaner description.
+   */
+  void recordCleanerSize(Cleaner cleaner) {
+    cleanerSizes.computeIfAbsent(cleaner.getDescription(),
+        k -> new Histogram(CLEANER_SIZE_BUCKETS))
+        .observe(cleaner.getNumRegisteredActions());
+  }
+
+  /**
+   * Records the native calls made by a transaction.
+   *
+   * @param serviceName the name of the service
+   * @param interfaceName the name of the interface of the transaction
+   * @param txId the id of the transaction
+   * @param counts the counts of the native calls made in the thread executing the transaction
+   */
+  void recordTransactionNativeCalls(String serviceName, String interfaceName, int txId,
+      NativeCallCounts counts) {
+    findOrCreate(transactionNativeCalls, serviceName, interfaceName, txId,
+        false, NativeCallMetrics::new)
+        .observe(counts);
+  }
+
+  /**
+   * Records the native calls made by a transaction that the service does not declare.
+   *
+   * @param serviceName the name of the service
+   * @param counts the counts of the native calls made in the thread executing the transaction
+   * @see #recordUnknownTransaction(String, long, boolean)
+   */
+  void recordUnknownTransactionNativeCalls(String serviceName, NativeCallCounts counts) {
+    findOrCreate(transactionNativeCalls, serviceName, "", 0, true, NativeCallMetrics::new)
+        .observe(counts);
+  }
+
+  /**
+   * Records the native calls made by the process since the previous invocation of this method,
+   * if the native call statistics are enabled. Intended to be invoked once per block.
+   */
+  synchronized void recordBlockNativeCalls() {
+    if (!NativeCallStatistics.isEnabled()) {
+      previousBlockTotals = null;
+      return;
+    }
+    NativeCallCounts totals = NativeCallStatistics.getTotalCounts();
+    if (previousBlockTotals != null) {
+      NativeCallCounts blockCounts = totals.minus(previousBlockTotals);
+      // Skip the block if the statistics have been reset in the meantime
+      if (blockCounts.getCalls() >= 0) {
+        blockNativeCalls.observe(blockCounts);
+      }
+    }
+    previousBlockTotals = totals;
+  }
+
+  /**
+   * Returns the metrics of the given transaction, creating them if needed. Looks up
+   * the metrics with a per-thread mutable key, so that no key is allocated
+   * for the transactions seen before.
+   */
+  private static <V> V findOrCreate(ConcurrentMap<TransactionKey, V> metricsByTransaction,
+      String serviceName, String interfaceName, int txId, boolean unknown,
+      Supplier<V> metricsFactory) {
+    TransactionKey lookupKey = LOOKUP_KEYS.get()
+        .set(serviceName, interfaceName, txId, unknown);
+    V metrics = metricsByTransaction.get(lookupKey);
+    if (metrics != null) {
+      return metrics;
+    }
+    return metricsByTransaction.computeIfAbsent(lookupKey.copy(),
+        k -> metricsFactory.get());
+  }
+
+  private static double toSeconds(long durationNanos) {
+    return durationNanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+
+  /**
+   * Returns the metrics in the Prometheus text format.
+   */
+  String scrape() {
+    StringBuilder out = new StringBuilder();
+
+    List<Map.Entry<TransactionKey, TransactionMetrics>> txEntries =
+        sortedEntries(transactions, TransactionKey.ORDER);
+    String txDuration = PREFIX + "transaction_duration_seconds";
+    writeHeader(out, txDuration, "histogram", "The duration of the transaction execution.");
+    for (Map.Entry<TransactionKey, TransactionMetrics> e : txEntries) {
+      writeHistogram(out, txDuration, e.getKey().labels(), e.getValue().duration);
+    }
+    String txTotal = PREFIX + "transactions_total";
+    writeHeader(out, txTotal, "counter", "The number of executed transactions by outcome.");
+    for (Map.Entry<TransactionKey, TransactionMetrics> e : txEntries) {
+      String labels = e.getKey().labels();
+      TransactionMetrics metrics = e.getValue();
+      writeSample(out, txTotal, labels + ",result=\"success\"", metrics.successes.sum());
+      writeSample(out, txTotal, labels + ",result=\"error\"", metrics.errors.sum());
+    }
+
+    String hookDuration = PREFIX + "block_hook_duration_seconds";
+    writeHeader(out, hookDuration, "histogram",
+        "The duration of the block hooks of the services.");
+    for (Map.Entry<BlockHookKey, Histogram> e : sortedEntries(blockHooks, BlockHookKey.ORDER)) {
+      writeHistogram(out, hookDuration, e.getKey().labels(), e.getValue());
+    }
+
+    String cleanerSize = PREFIX + "cleaner_size";
+    writeHeader(out, cleanerSize, "histogram",
+        "The number of native proxies destroyed at the end of a runtime operation.");
+    for (Map.Entry<String, Histogram> e : sortedEntries(cleanerSizes,
+        Comparator.<String>naturalOrder())) {
+      writeHistogram(out, cleanerSize, label("operation", e.getKey()), e.getValue());
+    }
+
+    if (!transactionNativeCalls.isEmpty()) {
+      List<Map.Entry<TransactionKey, NativeCallMetrics>> nativeCallEntries =
+          sortedEntries(transactionNativeCalls, TransactionKey.ORDER);
+      Map<String, NativeCallMetrics> metricsByLabels = new LinkedHashMap<>();
+      for (Map.Entry<TransactionKey, NativeCallMetrics> e : nativeCallEntries) {
+        metricsByLabels.put(e.getKey().labels(), e.getValue());
+      }
+      writeNativeCallMetrics(out, PREFIX + "transaction_", "a transaction", metricsByLabels);
+    }
+    if (!blockNativeCalls.isEmpty()) {
+      writeNativeCallMetrics(out, PREFIX + "block_", "a block",
+          ImmutableMap.of("", blockNativeCalls));
+    }
+    if (NativeCallStatistics.isEnabled()) {
+      writeNativeCallTotals(out);
+    }
+    return out.toString();
+  }
+
+  private static void writeNativeCallMetrics(StringBuilder out, String prefix, String scope,
+      Map<String, NativeCallMetrics> metricsByLabels) {
+    String calls = prefix + "native_calls";
+    writeHeader(out, calls, "histogram", "The number of native calls made in " + scope + ".");
+    metricsByLabels.forEach((labels, metrics) ->
+        writeHistogram(out, calls, labels, metrics.calls));
+
+    String bytes = prefix + "native_bytes";
+    writeHeader(out, bytes, "histogram",
+        "The number of bytes passed through JNI in " + scope + " by direction.");
+    metricsByLabels.forEach((labels, metrics) -> {
+      writeHistogram(out, bytes, withLabel(labels, "direction", "to_native"),
+          metrics.bytesToNative);
+      writeHistogram(out, bytes, withLabel(labels, "direction", "from_native"),
+          metrics.bytesFromNative);
+    });
+
+    String handles = prefix + "native_handles";
+    writeHeader(out, handles, "histogram",
+        "The number of native handles created and freed in " + scope + ".");
+    metricsByLabels.forEach((labels, metrics) -> {
+      writeHistogram(out, handles, withLabel(labels, "event", "created"),
+          metrics.handlesCreated);
+      writeHistogram(out, handles, withLabel(labels, "event", "freed"),
+          metrics.handlesFreed);
+    });
+  }
+
+  private static void writeNativeCallTotals(StringBuilder out) {
+    String calls = PREFIX + "native_calls_total";
+    writeHeader(out, calls, "counter", "The number of native calls by proxy class.");
+    NativeCallStatistics.getCallsByProxy().forEach((proxy, count) ->
+        writeSample(out, calls, label("proxy", proxy), count));
+
+    Map<String, Long> callsByOperation = NativeCallStatistics.getCallsByOperation();
+    if (!callsByOperation.isEmpty()) {
+      String operationCalls = PREFIX + "native_operation_calls_total";
+      writeHeader(out, operationCalls, "counter", "The number of native calls by operation.");
+      callsByOperation.forEach((operation, count) ->
+          writeSample(out, operationCalls, label("operation", operation), count));
+    }
+
+    NativeCallCounts totals = NativeCallStatistics.getTotalCounts();
+    String bytes = PREFIX + "native_bytes_total";
+    writeHeader(out, bytes, "counter", "The number of bytes passed through JNI by direction.");
+    writeSample(out, bytes, label("direction", "to_native"), totals.getBytesToNative());
+    writeSample(out, bytes, label("direction", "from_native"), totals.getBytesFromNative());
+
+    String handlesCreated = PREFIX + "native_handles_created_total";
+    writeHeader(out, handlesCreated, "counter",
+        "The number of native handles created by proxy class.");
+    NativeCallStatistics.getHandlesCreatedByProxy().forEach((proxy, count) ->
+        writeSample(out, handlesCreated, label("proxy", proxy), count));
+
+    String handlesFreed = PREFIX + "native_handles_freed_total";
+    writeHeader(out, handlesFreed, "counter",
+        "The number of native handles freed by proxy class.");
+    NativeCallStatistics.getHandlesFreedByProxy().forEach((proxy, count) ->
+        writeSample(out, handlesFreed, label("proxy", proxy), count));
+  }
+
+  private static <K, V> List<Map.Entry<K, V>> sortedEntries(Map<K, V> map,
+      Comparator<? super K> keyOrder) {
+    List<Map.Entry<K, V>> entries = new ArrayList<>(map.entrySet());
+    entries.sort(Map.Entry.comparingByKey(keyOrder));
+    return entries;
+  }
+
+  private static void writeHeader(StringBuilder out, String name, String type, String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+        .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void writeHistogram(StringBuilder out, String name, String labels,
+      Histogram histogram) {
+    double[] bounds = histogram.getUpperBounds();
+    long[] counts = histogram.getCumulativeCounts();
+    for (int i = 0; i < counts.length; i++) {
+      String bound = (i < bounds.length) ? formatDouble(bounds[i]) : "+Inf";
+      writeSample(out, name + "_bucket", withLabel(labels, "le", bound), counts[i]);
+    }
+    writeName(out, name + "_sum", labels)
+        .append(formatDouble(histogram.getSum())).append('\n');
+    writeSample(out, name + "_count", labels, counts[counts.length - 1]);
+  }
+
+  private static void writeSample(StringBuilder out, String name, String labels, long value) {
+    writeName(out, name, labels).append(value).append('\n');
+  }
+
+  private static StringBuilder writeName(StringBuilder out, String name, String labels) {
+    out.append(name);
+    if (!labels.isEmpty()) {
+      out.append('{').append(labels).append('}');
+    }
+    return out.append(' ');
+  }
+
+  private static String formatDouble(double value) {
+    return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+  }
+
+  private static String withLabel(String labels, String name, String value) {
+    String label = label(name, value);
+    return labels.isEmpty() ? label : labels + "," + label;
+  }
+
+  private static String label(String name, String value) {
+    return name + "=\"" + escapeLabelValue(value) + "\"";
+  }
+
+  /** Escapes the label value as the Prometheus text format requires. */
+  private static String escapeLabelValue(String value) {
+    return value.replace("\\", "\\\\")
+        .replace("\"", "\\\"")
+        .replace("\n", "\\n");
+  }
+
+  private static final class TransactionMetrics {
+    final Histogram duration = new Histogram(DURATION_BUCKETS);
+    final LongAdder successes = new LongAdder();
+    final LongAdder errors = new LongAdder();
+  }
+
+  private static final class NativeCallMetrics {
+    final Histogram calls = new Histogram(NATIVE_COUNT_BUCKETS);
+    final Histogram bytesToNative = new Histogram(NATIVE_BYTES_BUCKETS);
+    final Histogram bytesFromNative = new Histogram(NATIVE_BYTES_BUCKETS);
+    final Histogram handlesCreated = new Histogram(NATIVE_COUNT_BUCKETS);
+    final Histogram handlesFreed = new Histogram(NATIVE_COUNT_BUCKETS);
+
+    void observe(NativeCallCounts counts) {
+      calls.observe(counts.getCalls());
+      bytesToNative.observe(counts.getBytesToNative());
+      bytesFromNative.observe(counts.getBytesFromNative());
+      handlesCreated.observe(counts.getHandlesCreated());
+      handlesFreed.observe(counts.getHandlesFreed());
+    }
+
+    boolean isEmpty() {
+      long[] counts = calls.getCumulativeCounts();
+      return counts[counts.length - 1] == 0;
+    }
+  }
+
+  /**
+   * The key of the metrics of a transaction. The keys stored in the maps are never modified;
+   * the mutable per-thread keys are used for lookups only.
+   *
+   * <p>The key of the unknown transactions of a service has the empty interface name
+   * and zero transaction id, and differs from the key of the declared transaction with
+   * such an id by the {@code unknown} flag.
+   */
+  static final class TransactionKey {
+
+    static final Comparator<TransactionKey> ORDER = comparing(TransactionKey::getServiceName)
+        .thenComparing(TransactionKey::getInterfaceName)
+        .thenComparingInt(TransactionKey::getTxId)
+        .thenComparing(TransactionKey::isUnknown);
+
+    private String serviceName;
+    private String interfaceName;
+    private int txId;
+    private boolean unknown;
+
+    private TransactionKey(String serviceName, String interfaceName, int txId,
+        boolean unknown) {
+      set(serviceName, interfaceName, txId, unknown);
+    }
+
+    String getServiceName() {
+      return serviceName;
+    }
+
+    String getInterfaceName() {
+      return interfaceName;
+    }
+
+    int getTxId() {
+      return txId;
+    }
+
+    boolean isUnknown() {
+      return unknown;
+    }
+
+    String labels() {
+      String service = label("service", getServiceName());
+      if (unknown) {
+        return service + "," + label("interface", UNKNOWN_LABEL)
+            + "," + label("tx_id", UNKNOWN_LABEL);
+      }
+      return service + "," + label("interface", getInterfaceName())
+          + "," + label("tx_id", Integer.toString(getTxId()));
+    }
+
+    private TransactionKey set(String serviceName, String interfaceName, int txId,
+        boolean unknown) {
+      this.serviceName = checkNotNull(serviceName);
+      this.interfaceName = checkNotNull(interfaceName);
+      this.txId = txId;
+      this.unknown = unknown;
+      return this;
+    }
+
+    private TransactionKey copy() {
+      return new TransactionKey(serviceName, interfaceName, txId, unknown);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TransactionKey)) {
+        return false;
+      }
+      TransactionKey that = (TransactionKey) o;
+      return txId == that.txId
+          && unknown == that.unknown
+          && serviceName.equals(that.serviceName)
+          && interfaceName.equals(that.interfaceName);
+    }
+
+    @Override
+    public int hashCode() {
+      // Not Objects.hash, to avoid allocating an array on each lookup
+      int hash = 31 * (31 * serviceName.hashCode() + interfaceName.hashCode()) + txId;
+      return 31 * hash + Boolean.hashCode(unknown);
+    }
+
+    @Override
+    public String toString() {
+      return unknown
+          ? serviceName + "/" + UNKNOWN_LABEL
+          : serviceName + "/" + interfaceName + "/" + txId;
+    }
+  }
+
+  @AutoValue
+  abstract static class BlockHookKey {
+
+    static final Comparator<BlockHookKey> ORDER = comparing(BlockHookKey::getServiceName)
+        .thenComparing(BlockHookKey::getHook);
+
+    abstract String getServiceName();
+
+    abstract BlockHook getHook();
+
+    String labels() {
+      return label("service", getServiceName()) + "," + label("hook", getHook().label);
+    }
+
+    static BlockHookKey of(String serviceName, BlockHook hook) {
+      return new AutoValue_RuntimeMetrics_BlockHookKey(serviceName, hook);
+    }
+  }
+}
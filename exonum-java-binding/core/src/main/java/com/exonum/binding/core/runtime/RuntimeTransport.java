@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.exonum.binding.core.transport.Server;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
 import java.util.List;
@@ -31,31 +32,53 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Runtime transport connects service APIs to the web-server.
+ * Runtime transport connects service APIs to the web-server. It also exposes
+ * the {@linkplain RuntimeMetrics runtime metrics}.
  */
 public final class RuntimeTransport implements AutoCloseable {
 
+  /** The root path of the runtime's own endpoints. */
+  static final String RUNTIME_API_ROOT_PATH = "/api/runtime";
+  private static final String METRICS_ROUTE = "/metrics";
+  /** The path of the runtime metrics endpoint. */
+  static final String METRICS_PATH = RUNTIME_API_ROOT_PATH + METRICS_ROUTE;
+
   private static final Logger logger = LogManager.getLogger(RuntimeTransport.class);
 
   private final Server server;
   private final int port;
+  private final RuntimeMetrics metrics;
+
+  /**
+   * Creates a new runtime transport.
+   *
+   * @param server a web server providing transport to Java services
+   * @param port a port for the web server providing transport to Java services
+   */
+  public RuntimeTransport(Server server, int port) {
+    this(server, port, new RuntimeMetrics());
+  }
 
   /**
    * Creates a new runtime transport.
    *
    * @param server a web server providing transport to Java services
    * @param port a port for the web server providing transport to Java services
+   * @param metrics the metrics of the runtime to expose
    */
   @Inject
-  public RuntimeTransport(Server server, @Named(SERVICE_WEB_SERVER_PORT) int port) {
+  public RuntimeTransport(Server server, @Named(SERVICE_WEB_SERVER_PORT) int port,
+      RuntimeMetrics metrics) {
     this.server = checkNotNull(server);
     this.port = port;
+    this.metrics = checkNotNull(metrics);
   }
 
   /**
    * Starts the web server.
    */
   void start() {
+    connectMetricsApi();
     try {
       server.start(port).get();
     } catch (ExecutionException e) {
@@ -66,6 +89,15 @@ public final class RuntimeTransport implements AutoCloseable {
     }
   }
 
+  private void connectMetricsApi() {
+    Router router = server.createRouter();
+    router.get(METRICS_ROUTE)
+        .handler(rc -> rc.response()
+            .putHeader(HttpHeaders.CONTENT_TYPE, RuntimeMetrics.CONTENT_TYPE)
+            .end(metrics.scrape()));
+    server.mountSubRouter(RUNTIME_API_ROOT_PATH, router);
+  }
+
   /**
    * Connects the API of a started service to the web-server.
    */
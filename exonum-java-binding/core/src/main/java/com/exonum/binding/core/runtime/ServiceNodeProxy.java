@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkState;
 import com.exonum.binding.common.crypto.PublicKey;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.core.blockchain.BlockchainData;
+import com.exonum.binding.core.runtime.RuntimeEvents.ReadRequestEvent;
 import com.exonum.binding.core.service.Node;
 import com.exonum.binding.core.transaction.RawTransaction;
 import java.util.function.Function;
@@ -51,8 +52,17 @@ class ServiceNodeProxy implements Node {
 
   @Override
   public <ResultT> ResultT withBlockchainData(Function<BlockchainData, ResultT> snapshotFunction) {
-    return node().withSnapshot(snapshotFunction
-        .compose(snapshot -> blockchainDataFactory.fromRawAccess(snapshot, instanceName)));
+    ReadRequestEvent event = new ReadRequestEvent();
+    event.begin();
+    try {
+      return node().withSharedSnapshot(snapshot ->
+          snapshot.withBlockchainData(instanceName, blockchainDataFactory, snapshotFunction));
+    } finally {
+      if (event.shouldCommit()) {
+        event.service = instanceName;
+        event.commit();
+      }
+    }
   }
 
   @Override
@@ -24,27 +24,39 @@ import com.exonum.binding.common.crypto.PublicKey;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.runtime.ServiceArtifactId;
 import com.exonum.binding.core.blockchain.BlockchainData;
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.proxy.NativeCallCounts;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.runtime.RuntimeEvents.ArtifactDeploymentEvent;
+import com.exonum.binding.core.runtime.RuntimeEvents.BlockHookEvent;
+import com.exonum.binding.core.runtime.RuntimeEvents.TransactionExecutionEvent;
+import com.exonum.binding.core.runtime.RuntimeMetrics.BlockHook;
 import com.exonum.binding.core.service.BlockCommittedEvent;
 import com.exonum.binding.core.service.BlockCommittedEventImpl;
 import com.exonum.binding.core.service.ExecutionContext;
 import com.exonum.binding.core.service.ExecutionException;
+import com.exonum.binding.core.storage.database.ConcurrentSnapshotView;
 import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.indices.WriteBackCache;
 import com.exonum.binding.core.transport.Server;
 import com.exonum.messages.core.runtime.Errors.ErrorKind;
 import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus;
 import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus.Simple;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -54,15 +66,23 @@ import org.apache.logging.log4j.Logger;
  * services), create and stop services defined in the loaded artifacts.
  *
  * <p>This class is thread-safe and does not support client-side locking.
- * The thread-safety is provided because the class is a singleton and may be provided to
- * other objects. Currently, however, there is a single injection point where ServiceRuntime
- * is instantiated (during bootstrap) and it is used by the native runtime only in a single-threaded
- * context, hence thread-safety isn't <em>strictly</em> required, but rather provided to avoid
- * possible errors if it is ever accessed by other objects.
+ * The operations changing the runtime state (artifact deployment, start and stop of services)
+ * are serialized with a lifecycle lock. The operations on the active services
+ * (transaction execution, block and commit handlers) do not acquire any locks:
+ * they use an immutable snapshot of the active services, which is replaced on their start
+ * and stop. Hence, such operations may proceed concurrently with artifact deployment,
+ * and may observe a service that is being stopped.
  */
 @Singleton
 public final class ServiceRuntime implements AutoCloseable {
 
+  /**
+   * The system property enabling the {@linkplain WriteBackCache write-back cache}
+   * of the service data during transaction execution, e.g.,
+   * {@code -Dexonum.runtime.transactionCache=true}. It is disabled by default.
+   */
+  public static final String TRANSACTION_CACHE_PROPERTY = "exonum.runtime.transactionCache";
+
   @VisibleForTesting
   static final String API_ROOT_PATH = "/api/services";
   private static final Logger logger = LogManager.getLogger(ServiceRuntime.class);
@@ -73,19 +93,55 @@ public final class ServiceRuntime implements AutoCloseable {
   private final BlockchainDataFactory blockchainDataFactory;
   private final Path artifactsDir;
   /**
-   * The active services indexed by their name. It is stored in a sorted map that offers
-   * the same iteration order on all nodes with the same services, which is useful
-   * for logging purposes.
+   * The active services. It is replaced with an updated copy on each change of the set
+   * of active services, so that the operations on the services can read it without locking.
+   */
+  private volatile ActiveServices activeServices = ActiveServices.EMPTY;
+  /**
+   * The lock guarding the changes of the runtime state: the deployed artifacts
+   * and the active services.
    */
-  private final SortedMap<String, ServiceWrapper> services = new TreeMap<>();
+  private final Object lifecycleLock = new Object();
+  /** The dispatcher of the after commit handlers; or null if they are invoked sequentially. */
+  @Nullable private final ConcurrentAfterCommitDispatcher afterCommitDispatcher;
+  /** Whether the service data is cached during transaction execution. */
+  private final boolean transactionCacheEnabled;
+  private final RuntimeMetrics metrics;
+
+  private volatile NodeProxy nodeProxy;
+
   /**
-   * Same active services, indexed by their numeric identifier.
-   * @see ServiceInstanceSpec#getId()
+   * Creates a new Java service runtime that invokes the after commit handlers sequentially.
+   *
+   * @param serviceLoader a loader of service artifacts
+   * @param servicesFactory the factory of services
+   * @param runtimeTransport a web server providing transport to Java services
+   * @param artifactsDir the directory in which administrators place and from which
+   *     the service runtime loads service artifacts; may not exist at instantiation time
    */
-  private final Map<Integer, ServiceWrapper> servicesById = new HashMap<>();
-  private final Object lock = new Object();
+  public ServiceRuntime(ServiceLoader serviceLoader, ServicesFactory servicesFactory,
+      RuntimeTransport runtimeTransport, BlockchainDataFactory blockchainDataFactory,
+      Path artifactsDir) {
+    this(serviceLoader, servicesFactory, runtimeTransport, blockchainDataFactory, artifactsDir,
+        AfterCommitDispatchConfig.sequential());
+  }
 
-  private NodeProxy nodeProxy;
+  /**
+   * Creates a new Java service runtime.
+   *
+   * @param serviceLoader a loader of service artifacts
+   * @param servicesFactory the factory of services
+   * @param runtimeTransport a web server providing transport to Java services
+   * @param artifactsDir the directory in which administrators place and from which
+   *     the service runtime loads service artifacts; may not exist at instantiation time
+   * @param afterCommitConfig the configuration of the dispatch of the after commit handlers
+   */
+  public ServiceRuntime(ServiceLoader serviceLoader, ServicesFactory servicesFactory,
+      RuntimeTransport runtimeTransport, BlockchainDataFactory blockchainDataFactory,
+      Path artifactsDir, AfterCommitDispatchConfig afterCommitConfig) {
+    this(serviceLoader, servicesFactory, runtimeTransport, blockchainDataFactory, artifactsDir,
+        afterCommitConfig, false);
+  }
 
   /**
    * Creates a new Java service runtime.
@@ -95,23 +151,55 @@ public final class ServiceRuntime implements AutoCloseable {
    * @param runtimeTransport a web server providing transport to Java services
    * @param artifactsDir the directory in which administrators place and from which
    *     the service runtime loads service artifacts; may not exist at instantiation time
+   * @param afterCommitConfig the configuration of the dispatch of the after commit handlers
+   * @param transactionCacheEnabled whether to cache the service data during transaction
+   *     execution in a {@linkplain WriteBackCache write-back cache}
+   */
+  public ServiceRuntime(ServiceLoader serviceLoader, ServicesFactory servicesFactory,
+      RuntimeTransport runtimeTransport, BlockchainDataFactory blockchainDataFactory,
+      Path artifactsDir, AfterCommitDispatchConfig afterCommitConfig,
+      boolean transactionCacheEnabled) {
+    this(serviceLoader, servicesFactory, runtimeTransport, blockchainDataFactory, artifactsDir,
+        afterCommitConfig, transactionCacheEnabled, new RuntimeMetrics());
+  }
+
+  /**
+   * Creates a new Java service runtime.
+   *
+   * @param serviceLoader a loader of service artifacts
+   * @param servicesFactory the factory of services
+   * @param runtimeTransport a web server providing transport to Java services
+   * @param artifactsDir the directory in which administrators place and from which
+   *     the service runtime loads service artifacts; may not exist at instantiation time
+   * @param afterCommitConfig the configuration of the dispatch of the after commit handlers
+   * @param transactionCacheEnabled whether to cache the service data during transaction
+   *     execution in a {@linkplain WriteBackCache write-back cache}
+   * @param metrics the metrics to record the execution of the service operations in
    */
   @Inject
   public ServiceRuntime(ServiceLoader serviceLoader, ServicesFactory servicesFactory,
       RuntimeTransport runtimeTransport, BlockchainDataFactory blockchainDataFactory,
-      @Named(FrameworkModule.SERVICE_RUNTIME_ARTIFACTS_DIRECTORY) Path artifactsDir) {
+      @Named(FrameworkModule.SERVICE_RUNTIME_ARTIFACTS_DIRECTORY) Path artifactsDir,
+      AfterCommitDispatchConfig afterCommitConfig,
+      @Named(FrameworkModule.TRANSACTION_CACHE_ENABLED) boolean transactionCacheEnabled,
+      RuntimeMetrics metrics) {
     this.serviceLoader = checkNotNull(serviceLoader);
     this.servicesFactory = checkNotNull(servicesFactory);
     this.runtimeTransport = checkNotNull(runtimeTransport);
     this.blockchainDataFactory = blockchainDataFactory;
     this.artifactsDir = checkNotNull(artifactsDir);
+    this.afterCommitDispatcher = afterCommitConfig.isConcurrent()
+        ? new ConcurrentAfterCommitDispatcher(afterCommitConfig)
+        : null;
+    this.transactionCacheEnabled = transactionCacheEnabled;
+    this.metrics = checkNotNull(metrics);
   }
 
   /**
    * Initializes the runtime with the given node. Starts the transport for Java services.
    */
   public void initialize(NodeProxy node) {
-    synchronized (lock) {
+    synchronized (lifecycleLock) {
       checkState(this.nodeProxy == null, "Invalid attempt to replace already set node (%s) with %s",
           this.nodeProxy, node);
       this.nodeProxy = checkNotNull(node);
@@ -132,8 +220,11 @@ public final class ServiceRuntime implements AutoCloseable {
    */
   public void deployArtifact(ServiceArtifactId id, String filename)
       throws ServiceLoadingException {
+    ArtifactDeploymentEvent event = new ArtifactDeploymentEvent();
+    event.begin();
+    boolean succeeded = false;
     try {
-      synchronized (lock) {
+      synchronized (lifecycleLock) {
         // Check the artifacts dir exists
         checkState(Files.isDirectory(artifactsDir), "Artifacts dir (%s) does not exist or is not "
             + "a directory: check the runtime configuration", artifactsDir);
@@ -155,9 +246,17 @@ public final class ServiceRuntime implements AutoCloseable {
       }
 
       logger.info("Loaded an artifact ({}) from {}", id, filename);
+      succeeded = true;
     } catch (Throwable e) {
       logger.error("Failed to load an artifact {} from {}", id, filename, e);
       throw e;
+    } finally {
+      if (event.shouldCommit()) {
+        event.artifactId = id.toString();
+        event.filename = filename;
+        event.succeeded = succeeded;
+        event.commit();
+      }
     }
   }
 
@@ -166,7 +265,7 @@ public final class ServiceRuntime implements AutoCloseable {
    * @param id a service artifact identifier
    */
   public boolean isArtifactDeployed(ServiceArtifactId id) {
-    synchronized (lock) {
+    synchronized (lifecycleLock) {
       return serviceLoader.findService(id)
           .isPresent();
     }
@@ -195,7 +294,7 @@ public final class ServiceRuntime implements AutoCloseable {
   public void initiateAddingService(BlockchainData blockchainData, ServiceInstanceSpec instanceSpec,
       byte[] configuration) {
     try {
-      synchronized (lock) {
+      synchronized (lifecycleLock) {
         // Create a new service
         ServiceWrapper service = createServiceInstance(instanceSpec);
 
@@ -232,7 +331,7 @@ public final class ServiceRuntime implements AutoCloseable {
   public void initiateResumingService(BlockchainData blockchainData,
       ServiceInstanceSpec instanceSpec, byte[] arguments) {
     try {
-      synchronized (lock) {
+      synchronized (lifecycleLock) {
         checkStoppedService(instanceSpec.getId());
         ServiceWrapper service = createServiceInstance(instanceSpec);
         ExecutionContext context = newContext(service, blockchainData).build();
@@ -262,7 +361,7 @@ public final class ServiceRuntime implements AutoCloseable {
    */
   public void updateInstanceStatus(ServiceInstanceSpec instanceSpec,
       InstanceStatus instanceStatus) {
-    synchronized (lock) {
+    synchronized (lifecycleLock) {
       Simple status = instanceStatus.getSimple();
       switch (status) {
         case ACTIVE:
@@ -314,7 +413,7 @@ public final class ServiceRuntime implements AutoCloseable {
     // Check no such service in the runtime
     String name = instanceSpec.getName();
     checkArgument(findService(name).isEmpty(),
-        "Service with name '%s' already created: %s", name, services.get(name));
+        "Service with name '%s' already created: %s", name, activeServices.byName.get(name));
 
     // Find the service definition
     ServiceArtifactId artifactId = instanceSpec.getArtifactId();
@@ -327,19 +426,11 @@ public final class ServiceRuntime implements AutoCloseable {
   }
 
   private void registerService(ServiceWrapper service) {
-    String name = service.getName();
-    services.put(name, service);
-
-    int id = service.getId();
-    servicesById.put(id, service);
+    activeServices = activeServices.with(service);
   }
 
   private void unRegisterService(ServiceWrapper service) {
-    String name = service.getName();
-    services.remove(name);
-
-    int id = service.getId();
-    servicesById.remove(id);
+    activeServices = activeServices.without(service);
   }
 
   /**
@@ -383,37 +474,98 @@ public final class ServiceRuntime implements AutoCloseable {
   public void executeTransaction(int serviceId, String interfaceName, int txId,
       byte[] arguments, BlockchainData blockchainData, int callerServiceId, HashCode txMessageHash,
       PublicKey authorPublicKey) {
-    synchronized (lock) {
-      ServiceWrapper service = getServiceById(serviceId);
-      ExecutionContext context = newContext(service, blockchainData)
-          .txMessageHash(txMessageHash)
-          .authorPk(authorPublicKey)
-          .build();
-      try {
-        service.executeTransaction(interfaceName, txId, arguments, callerServiceId, context);
-      } catch (Exception e) {
-        logger.info("Transaction execution failed (service={}, txId={}, txMessageHash={})",
-            service.getName(), txId, context.getTransactionMessageHash(), e);
-        throw e;
+    ServiceWrapper service = getServiceById(serviceId);
+    WriteBackCache cache = transactionCacheEnabled
+        ? blockchainData.enableWriteBackCache()
+        : null;
+    ExecutionContext context = newContext(service, blockchainData)
+        .txMessageHash(txMessageHash)
+        .authorPk(authorPublicKey)
+        .build();
+    NativeCallCounts nativeCallsBefore = NativeCallStatistics.isEnabled()
+        ? NativeCallStatistics.getCurrentThreadCounts()
+        : null;
+    TransactionExecutionEvent event = new TransactionExecutionEvent();
+    event.begin();
+    long startNanos = System.nanoTime();
+    try {
+      service.executeTransaction(interfaceName, txId, arguments, callerServiceId, context);
+      if (cache != null) {
+        cache.flush();
+      }
+      recordTransaction(service, interfaceName, txId, System.nanoTime() - startNanos, true);
+      commitTransactionEvent(event, service, interfaceName, txId, true);
+    } catch (Exception e) {
+      if (cache != null) {
+        // Drop the buffered changes; the changes already written to the fork
+        // are rolled back by the core
+        cache.discard();
+      }
+      recordTransaction(service, interfaceName, txId, System.nanoTime() - startNanos, false);
+      commitTransactionEvent(event, service, interfaceName, txId, false);
+      logger.info("Transaction execution failed (service={}, txId={}, txMessageHash={})",
+          service.getName(), txId, context.getTransactionMessageHash(), e);
+      throw e;
+    } finally {
+      if (nativeCallsBefore != null) {
+        NativeCallCounts nativeCalls = NativeCallStatistics.getCurrentThreadCounts()
+            .minus(nativeCallsBefore);
+        if (service.hasTransaction(interfaceName, txId)) {
+          metrics.recordTransactionNativeCalls(service.getName(), interfaceName, txId,
+              nativeCalls);
+        } else {
+          metrics.recordUnknownTransactionNativeCalls(service.getName(), nativeCalls);
+        }
       }
     }
   }
 
+  /**
+   * Records the execution of a transaction in the metrics. The transactions the service
+   * does not declare are recorded under a single label, so that the clients cannot create
+   * an arbitrary number of metrics by submitting the transactions with arbitrary ids.
+   */
+  private void recordTransaction(ServiceWrapper service, String interfaceName, int txId,
+      long durationNanos, boolean succeeded) {
+    if (service.hasTransaction(interfaceName, txId)) {
+      metrics.recordTransaction(service.getName(), interfaceName, txId, durationNanos,
+          succeeded);
+    } else {
+      metrics.recordUnknownTransaction(service.getName(), durationNanos, succeeded);
+    }
+  }
+
+  private static void commitTransactionEvent(TransactionExecutionEvent event,
+      ServiceWrapper service, String interfaceName, int txId, boolean succeeded) {
+    if (event.shouldCommit()) {
+      event.service = service.getName();
+      event.interfaceName = interfaceName;
+      event.txId = txId;
+      event.succeeded = succeeded;
+      event.commit();
+    }
+  }
+
   /**
    * Performs the before transactions operation on the specified service in this runtime.
    *
    * @see #afterTransactions(int, BlockchainData)
    */
   public void beforeTransactions(int serviceId, BlockchainData blockchainData) {
-    synchronized (lock) {
-      ServiceWrapper service = getServiceById(serviceId);
-      try {
-        ExecutionContext context = newContext(service, blockchainData).build();
-        service.beforeTransactions(context);
-      } catch (Exception e) {
-        logger.error("Service {} threw exception in beforeTransactions.", service.getName(), e);
-        throw e;
-      }
+    ServiceWrapper service = getServiceById(serviceId);
+    BlockHookEvent event = new BlockHookEvent();
+    event.begin();
+    long startNanos = System.nanoTime();
+    boolean succeeded = false;
+    try {
+      ExecutionContext context = newContext(service, blockchainData).build();
+      service.beforeTransactions(context);
+      succeeded = true;
+    } catch (Exception e) {
+      logger.error("Service {} threw exception in beforeTransactions.", service.getName(), e);
+      throw e;
+    } finally {
+      recordBlockHook(service, BlockHook.BEFORE_TRANSACTIONS, startNanos, event, succeeded);
     }
   }
 
@@ -431,19 +583,36 @@ public final class ServiceRuntime implements AutoCloseable {
    * @throws IllegalArgumentException if any argument is not valid (e.g., unknown service)
    */
   public void afterTransactions(int serviceId, BlockchainData blockchainData) {
-    synchronized (lock) {
-      ServiceWrapper service = getServiceById(serviceId);
-      try {
-        ExecutionContext context = newContext(service, blockchainData).build();
-        service.afterTransactions(context);
-      } catch (Exception e) {
-        logger.error("Service {} threw exception in afterTransactions."
-            + " Any changes will be rolled-back", service.getName(), e);
-        throw e;
-      }
+    ServiceWrapper service = getServiceById(serviceId);
+    BlockHookEvent event = new BlockHookEvent();
+    event.begin();
+    long startNanos = System.nanoTime();
+    boolean succeeded = false;
+    try {
+      ExecutionContext context = newContext(service, blockchainData).build();
+      service.afterTransactions(context);
+      succeeded = true;
+    } catch (Exception e) {
+      logger.error("Service {} threw exception in afterTransactions."
+          + " Any changes will be rolled-back", service.getName(), e);
+      throw e;
+    } finally {
+      recordBlockHook(service, BlockHook.AFTER_TRANSACTIONS, startNanos, event, succeeded);
     }
   }
 
+  /**
+   * Returns the flags of the block hooks ({@code beforeTransactions}, {@code afterTransactions})
+   * that the active service with the given id overrides; or zero if there is no such service.
+   * The native runtime does not call the hooks a service does not override.
+   *
+   * @param serviceId the id of the service
+   */
+  public int getBlockHooks(int serviceId) {
+    ServiceWrapper service = activeServices.byId.get(serviceId);
+    return (service == null) ? 0 : service.getBlockHooks();
+  }
+
   /** Creates a fully-initialized builder of a 'zero' context for the given service. */
   private static ExecutionContext.Builder newContext(ServiceWrapper service,
       BlockchainData blockchainData) {
@@ -455,46 +624,105 @@ public final class ServiceRuntime implements AutoCloseable {
 
   /**
    * Notifies the services in the runtime of the block commit event.
+   *
+   * <p>The services are notified either sequentially or concurrently,
+   * depending on the {@linkplain AfterCommitDispatchConfig configuration}.
+   *
+   * <p>The read requests of the services made after this call get a snapshot
+   * of the new database state, see {@link NodeProxy#releaseSharedSnapshot()}.
+   *
    * @param snapshot a snapshot of the current database state
    * @param validatorId an optional id of the validator node, or none for an auditor
    * @param height the current blockchain height
    */
   public void afterCommit(Snapshot snapshot, OptionalInt validatorId, long height) {
-    synchronized (lock) {
-      for (ServiceWrapper service : services.values()) {
-        try {
-          BlockchainData blockchainData = blockchainDataFactory.fromRawAccess(snapshot,
-              service.getName());
-          BlockCommittedEvent event =
-              BlockCommittedEventImpl.valueOf(blockchainData, validatorId, height);
-          // todo: [ECR-3436] BCE carries a Snapshot which is based on a cleaner, which gets
-          //   re-used by all services. If the total number of native proxies they create is large,
-          //   that may result in excessive memory usage. Some ways to solve this:
-          //   1. Take a handle, create a fresh snapshot for each service — but will need hacks
-          //   to destroy the native peer once.
-          //   2. Support Snapshot copying with new cleaners — but that breaks index de-duplication
-          //   (though for snapshots that mustn't be an issue).
-          //   3. Support some kind of "nested" or "sub"-scopes:
-          //     try (Cleaner cleaner = snapshot.getCleaner().newNested()) {
-          //       BlockchainData bdData = BlockchainData.fromRawAccess(snapshot, cleaner, name);
-          //     } // bdData gets destroyed here; snapshot remains.
-          //     However, there is a possible issue to study — index pool sharing,
-          //     and possible cache poisoning.
-          //   -
-          //   As a side note, 'excessive memory usage' may occur in any *single* transaction/
-          //   read request/service life-cycle method, it just has higher probability when
-          //   we invoke a number of such 'foreign' (to framework) methods with no intermediate
-          //   clean-up.
-          service.afterCommit(event);
-        } catch (Exception e) {
-          // Log, but do not re-throw either immediately or later
-          logger.error("Service {} threw an exception in its afterCommit handler. Height={}",
-              service.getName(), height, e);
-        }
+    // Attribute the native calls made since the previous commit to this block
+    metrics.recordBlockNativeCalls();
+    // The read requests must no longer use the snapshot of the previous block
+    if (nodeProxy != null) {
+      nodeProxy.releaseSharedSnapshot();
+    }
+    if (afterCommitDispatcher != null) {
+      afterCommitConcurrently(snapshot, validatorId, height);
+      return;
+    }
+    for (ServiceWrapper service : activeServices.byName.values()) {
+      afterCommitInScope(service, snapshot, validatorId, height);
+    }
+  }
+
+  private void afterCommitConcurrently(Snapshot snapshot, OptionalInt validatorId, long height) {
+    // The snapshot and the proxies are not thread-safe, hence each handler thread uses
+    // its own snapshot of the view. The view is closed only once the dispatcher guarantees
+    // that no handler is running, as the handlers may still use the native objects
+    // even if they are interrupted
+    ConcurrentSnapshotView snapshotView = snapshot.newConcurrentView();
+    Map<String, Runnable> handlers = new LinkedHashMap<>();
+    for (ServiceWrapper service : activeServices.byName.values()) {
+      handlers.put(service.getName(),
+          () -> afterCommitInScope(service, snapshotView.getSnapshot(), validatorId, height));
+    }
+    try {
+      afterCommitDispatcher.dispatch(handlers);
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted before all services completed their afterCommit handlers. "
+          + "Height={}", height);
+      Thread.currentThread().interrupt();
+    } finally {
+      try {
+        snapshotView.close();
+      } catch (CloseFailuresException e) {
+        logger.error("Failed to close the snapshot view of the afterCommit handlers. "
+            + "Height={}", height, e);
       }
     }
   }
 
+  /**
+   * Invokes the after commit handler of the service in its own scope, so that the proxies
+   * it creates are destroyed right after the handler completes instead of accumulating
+   * till the snapshot is destroyed. The scope is created and closed in the current thread.
+   */
+  private void afterCommitInScope(ServiceWrapper service, Snapshot snapshot,
+      OptionalInt validatorId, long height) {
+    String scopeDescription = "ServiceRuntime#afterCommit for " + service.getName();
+    try (Cleaner serviceScope = snapshot.getCleaner().newNested(scopeDescription)) {
+      BlockchainData blockchainData = blockchainDataFactory.fromRawAccess(snapshot,
+          serviceScope, service.getName());
+      BlockCommittedEvent event =
+          BlockCommittedEventImpl.valueOf(blockchainData, validatorId, height);
+      invokeAfterCommit(service, event);
+    } catch (Exception e) {
+      // Log, but do not re-throw either immediately or later
+      logger.error("Service {} threw an exception in its afterCommit handler. Height={}",
+          service.getName(), height, e);
+    }
+  }
+
+  private void invokeAfterCommit(ServiceWrapper service, BlockCommittedEvent event) {
+    BlockHookEvent hookEvent = new BlockHookEvent();
+    hookEvent.begin();
+    long startNanos = System.nanoTime();
+    boolean succeeded = false;
+    try {
+      service.afterCommit(event);
+      succeeded = true;
+    } finally {
+      recordBlockHook(service, BlockHook.AFTER_COMMIT, startNanos, hookEvent, succeeded);
+    }
+  }
+
+  private void recordBlockHook(ServiceWrapper service, BlockHook hook, long startNanos,
+      BlockHookEvent event, boolean succeeded) {
+    metrics.recordBlockHook(service.getName(), hook, System.nanoTime() - startNanos);
+    if (event.shouldCommit()) {
+      event.service = service.getName();
+      event.hook = hook.getLabel();
+      event.succeeded = succeeded;
+      event.commit();
+    }
+  }
+
   /**
    * Stops this runtime. It will stop the server providing transport to services,
    * remove all services and unload their artifacts. The operation is irreversible;
@@ -503,7 +731,7 @@ public final class ServiceRuntime implements AutoCloseable {
    * @throws InterruptedException if an interrupt was requested
    */
   public void shutdown() throws InterruptedException {
-    synchronized (lock) {
+    synchronized (lifecycleLock) {
       try {
         logger.info("Shutting down the runtime");
 
@@ -516,6 +744,11 @@ public final class ServiceRuntime implements AutoCloseable {
         // Finally, when no service classes remain in use, unload the service artifacts
         unloadArtifacts();
 
+        // Stop the threads dispatching the after commit handlers
+        if (afterCommitDispatcher != null) {
+          afterCommitDispatcher.close();
+        }
+
         // Free-up native resources
         if (nodeProxy != null) {
           nodeProxy.close();
@@ -544,8 +777,7 @@ public final class ServiceRuntime implements AutoCloseable {
   }
 
   private void clearServices() {
-    services.clear();
-    servicesById.clear();
+    activeServices = ActiveServices.EMPTY;
   }
 
   private void unloadArtifacts() {
@@ -564,20 +796,21 @@ public final class ServiceRuntime implements AutoCloseable {
     shutdown();
   }
 
-  private ServiceWrapper getServiceById(Integer serviceId) {
-    checkActiveService(serviceId);
-    return servicesById.get(serviceId);
-  }
-
-  /** Checks that the service with the given id is started in this runtime. */
-  private void checkActiveService(Integer serviceId) {
-    checkArgument(servicesById.containsKey(serviceId),
-        "No service with id=%s in the Java runtime", serviceId);
+  /**
+   * Returns the active service with the given id.
+   *
+   * @throws IllegalArgumentException if the service with the given id is not started
+   *     in this runtime
+   */
+  private ServiceWrapper getServiceById(int serviceId) {
+    ServiceWrapper service = activeServices.byId.get(serviceId);
+    checkArgument(service != null, "No service with id=%s in the Java runtime", serviceId);
+    return service;
   }
 
   /** Checks that the service with the given id is not active in this runtime. */
-  private void checkStoppedService(Integer serviceId) {
-    ServiceWrapper activeService = servicesById.get(serviceId);
+  private void checkStoppedService(int serviceId) {
+    ServiceWrapper activeService = activeServices.byId.get(serviceId);
     checkArgument(activeService == null,
         "Service with id=%s should be stopped, but actually active. "
             + "Found active service instance: %s", serviceId, activeService);
@@ -585,6 +818,53 @@ public final class ServiceRuntime implements AutoCloseable {
 
   @VisibleForTesting
   Optional<ServiceWrapper> findService(String name) {
-    return Optional.ofNullable(services.get(name));
+    return Optional.ofNullable(activeServices.byName.get(name));
+  }
+
+  /**
+   * An immutable collection of the active services.
+   */
+  private static final class ActiveServices {
+
+    static final ActiveServices EMPTY = new ActiveServices(ImmutableSortedMap.of(),
+        ImmutableMap.of());
+
+    /**
+     * The active services indexed by their name. It is stored in a sorted map that offers
+     * the same iteration order on all nodes with the same services, which is useful
+     * for logging purposes.
+     */
+    final ImmutableSortedMap<String, ServiceWrapper> byName;
+    /**
+     * Same active services, indexed by their numeric identifier.
+     * @see ServiceInstanceSpec#getId()
+     */
+    final ImmutableMap<Integer, ServiceWrapper> byId;
+
+    private ActiveServices(ImmutableSortedMap<String, ServiceWrapper> byName,
+        ImmutableMap<Integer, ServiceWrapper> byId) {
+      this.byName = byName;
+      this.byId = byId;
+    }
+
+    /** Returns a copy of this collection with the given service added. */
+    ActiveServices with(ServiceWrapper service) {
+      Map<String, ServiceWrapper> newByName = new HashMap<>(byName);
+      newByName.put(service.getName(), service);
+      Map<Integer, ServiceWrapper> newById = new HashMap<>(byId);
+      newById.put(service.getId(), service);
+      return new ActiveServices(ImmutableSortedMap.copyOf(newByName),
+          ImmutableMap.copyOf(newById));
+    }
+
+    /** Returns a copy of this collection with the given service removed. */
+    ActiveServices without(ServiceWrapper service) {
+      Map<String, ServiceWrapper> newByName = new HashMap<>(byName);
+      newByName.remove(service.getName());
+      Map<Integer, ServiceWrapper> newById = new HashMap<>(byId);
+      newById.remove(service.getId());
+      return new ActiveServices(ImmutableSortedMap.copyOf(newByName),
+          ImmutableMap.copyOf(newById));
+    }
   }
 }
@@ -16,6 +16,10 @@
 
 package com.exonum.binding.core.runtime;
 
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.PUBLIC_KEY_BYTES;
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.exonum.binding.common.crypto.PublicKey;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.messages.DeployArguments;
@@ -23,14 +27,19 @@ import com.exonum.binding.common.runtime.ServiceArtifactId;
 import com.exonum.binding.core.blockchain.BlockchainData;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.runtime.RuntimeEvents.BlockCommitEvent;
+import com.exonum.binding.core.runtime.RuntimeEvents.RuntimeOperationEvent;
 import com.exonum.binding.core.service.ExecutionException;
 import com.exonum.binding.core.storage.database.Snapshot;
 import com.exonum.messages.core.runtime.Base.ArtifactId;
 import com.exonum.messages.core.runtime.Base.InstanceSpec;
 import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus;
+import com.google.common.base.Strings;
 import com.google.inject.Inject;
 import com.google.protobuf.InvalidProtocolBufferException;
+import java.nio.ByteBuffer;
 import java.util.OptionalInt;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -42,14 +51,31 @@ import org.apache.logging.log4j.Logger;
  */
 public class ServiceRuntimeAdapter {
 
+  /**
+   * The size of the transaction info passed to
+   * {@link #executeTransaction(int, String, int, byte[], long, int, ByteBuffer)}:
+   * the transaction message hash followed by the author public key.
+   */
+  static final int TX_INFO_SIZE = DEFAULT_HASH_SIZE_BYTES + PUBLIC_KEY_BYTES;
+
+  private static final ThreadLocal<TxInfoReader> txInfoReaders =
+      ThreadLocal.withInitial(TxInfoReader::new);
+
   private final ServiceRuntime serviceRuntime;
   private final AccessFactory accessFactory;
+  private final RuntimeMetrics metrics;
   private static final Logger logger = LogManager.getLogger(ServiceRuntimeAdapter.class);
 
-  @Inject
   public ServiceRuntimeAdapter(ServiceRuntime serviceRuntime, AccessFactory accessFactory) {
+    this(serviceRuntime, accessFactory, new RuntimeMetrics());
+  }
+
+  @Inject
+  public ServiceRuntimeAdapter(ServiceRuntime serviceRuntime, AccessFactory accessFactory,
+      RuntimeMetrics metrics) {
     this.serviceRuntime = serviceRuntime;
     this.accessFactory = accessFactory;
+    this.metrics = metrics;
   }
 
   /**
@@ -178,12 +204,16 @@ public class ServiceRuntimeAdapter {
    *     protobuf message
    * @param instanceStatus new status of the service instance as a serialized
    *     representation of the {@link InstanceStatus} protobuf message
+   * @return the flags of the block hooks the service overrides, if it is active;
+   *     zero otherwise
    * @see ServiceRuntime#updateInstanceStatus(ServiceInstanceSpec, InstanceStatus)
+   * @see ServiceRuntime#getBlockHooks(int)
    */
-  void updateServiceStatus(byte[] instanceSpec, byte[] instanceStatus) {
+  int updateServiceStatus(byte[] instanceSpec, byte[] instanceStatus) {
     ServiceInstanceSpec javaInstanceSpec = parseInstanceSpec(instanceSpec);
     InstanceStatus status = parseInstanceStatus(instanceStatus);
     serviceRuntime.updateInstanceStatus(javaInstanceSpec, status);
+    return serviceRuntime.getBlockHooks(javaInstanceSpec.getId());
   }
 
   private static ServiceInstanceSpec parseInstanceSpec(byte[] instanceSpec) {
@@ -210,15 +240,21 @@ public class ServiceRuntimeAdapter {
   /**
    * Executes the service transaction.
    *
+   * <p>The native code passes the transaction message hash and the author key in a direct
+   * buffer that it reuses for the transactions executed in the same thread, instead of
+   * allocating two arrays for each transaction. The buffer must not be used after this
+   * method returns.
+   *
    * @param serviceId the service numeric identifier
-   * @param interfaceName the name of the interface in which the transaction is defined
+   * @param interfaceName the name of the interface in which the transaction is defined;
+   *     or null if it is defined in the service directly (implicit interface)
    * @param txId the transaction type identifier within the service
    * @param arguments the transaction arguments
    * @param bdNativeHandle a handle to a native BlockchainData object
    * @param callerServiceId the id of the service which invoked the transaction (in case of
    *      inner transactions); or 0 when the caller is an external message
-   * @param txMessageHash the hash of the transaction message
-   * @param authorPublicKey the public key of the transaction author
+   * @param txInfo a buffer of {@value #TX_INFO_SIZE} bytes with the hash of the transaction
+   *     message followed by the public key of the transaction author
    * @throws ExecutionException if the transaction execution failed
    * @throws UnexpectedExecutionException if the transaction execution failed
    *     with an unexpected exception
@@ -226,19 +262,29 @@ public class ServiceRuntimeAdapter {
    * @see ServiceRuntime#executeTransaction(int, String, int, byte[], BlockchainData, int, HashCode,
    *     PublicKey)
    */
-  void executeTransaction(int serviceId, String interfaceName, int txId, byte[] arguments,
-      long bdNativeHandle, int callerServiceId, byte[] txMessageHash, byte[] authorPublicKey)
+  void executeTransaction(int serviceId, @Nullable String interfaceName, int txId,
+      byte[] arguments, long bdNativeHandle, int callerServiceId, ByteBuffer txInfo)
       throws CloseFailuresException {
 
+    RuntimeOperationEvent event = new RuntimeOperationEvent();
+    event.begin();
     try (Cleaner cleaner = new Cleaner("executeTransaction")) {
-      BlockchainData blockchainData = accessFactory.createBlockchainData(bdNativeHandle, cleaner);
-      HashCode hash = HashCode.fromBytes(txMessageHash);
-      PublicKey authorPk = PublicKey.fromBytes(authorPublicKey);
+      try {
+        BlockchainData blockchainData = accessFactory.createBlockchainData(bdNativeHandle,
+            cleaner);
+        TxInfoReader txInfoReader = txInfoReaders.get();
+        HashCode hash = txInfoReader.readTxMessageHash(txInfo);
+        PublicKey authorPk = txInfoReader.readAuthorPk(txInfo);
 
-      serviceRuntime.executeTransaction(serviceId, interfaceName, txId, arguments, blockchainData,
-          callerServiceId, hash, authorPk);
+        serviceRuntime.executeTransaction(serviceId, Strings.nullToEmpty(interfaceName), txId,
+            arguments, blockchainData, callerServiceId, hash, authorPk);
+      } finally {
+        metrics.recordCleanerSize(cleaner);
+      }
     } catch (CloseFailuresException e) {
       handleCloseFailure(e);
+    } finally {
+      commitOperationEvent(event, "executeTransaction", serviceId);
     }
   }
 
@@ -249,11 +295,20 @@ public class ServiceRuntimeAdapter {
    * @see ServiceRuntime#beforeTransactions(int, BlockchainData)
    */
   void beforeTransactions(int serviceId, long bdNativeHandle) throws CloseFailuresException {
+    RuntimeOperationEvent event = new RuntimeOperationEvent();
+    event.begin();
     try (Cleaner cleaner = new Cleaner("beforeTransactions")) {
-      BlockchainData blockchainData = accessFactory.createBlockchainData(bdNativeHandle, cleaner);
-      serviceRuntime.beforeTransactions(serviceId, blockchainData);
+      try {
+        BlockchainData blockchainData = accessFactory.createBlockchainData(bdNativeHandle,
+            cleaner);
+        serviceRuntime.beforeTransactions(serviceId, blockchainData);
+      } finally {
+        metrics.recordCleanerSize(cleaner);
+      }
     } catch (CloseFailuresException e) {
       handleCloseFailure(e);
+    } finally {
+      commitOperationEvent(event, "beforeTransactions", serviceId);
     }
   }
 
@@ -268,11 +323,20 @@ public class ServiceRuntimeAdapter {
    * @see ServiceRuntime#afterTransactions(int, com.exonum.binding.core.blockchain.BlockchainData)
    */
   void afterTransactions(int serviceId, long bdNativeHandle) throws CloseFailuresException {
+    RuntimeOperationEvent event = new RuntimeOperationEvent();
+    event.begin();
     try (Cleaner cleaner = new Cleaner("afterTransactions")) {
-      BlockchainData blockchainData = accessFactory.createBlockchainData(bdNativeHandle, cleaner);
-      serviceRuntime.afterTransactions(serviceId, blockchainData);
+      try {
+        BlockchainData blockchainData = accessFactory.createBlockchainData(bdNativeHandle,
+            cleaner);
+        serviceRuntime.afterTransactions(serviceId, blockchainData);
+      } finally {
+        metrics.recordCleanerSize(cleaner);
+      }
     } catch (CloseFailuresException e) {
       handleCloseFailure(e);
+    } finally {
+      commitOperationEvent(event, "afterTransactions", serviceId);
     }
   }
 
@@ -287,14 +351,34 @@ public class ServiceRuntimeAdapter {
    */
   void afterCommit(long snapshotHandle, int validatorId, long height)
       throws CloseFailuresException {
+    BlockCommitEvent event = new BlockCommitEvent();
+    event.begin();
     try (Cleaner cleaner = new Cleaner("afterCommit")) {
-      Snapshot snapshot = accessFactory.createSnapshot(snapshotHandle, cleaner);
-      OptionalInt optionalValidatorId = validatorId >= 0
-          ? OptionalInt.of(validatorId)
-          : OptionalInt.empty();
-      serviceRuntime.afterCommit(snapshot, optionalValidatorId, height);
+      try {
+        Snapshot snapshot = accessFactory.createSnapshot(snapshotHandle, cleaner);
+        OptionalInt optionalValidatorId = validatorId >= 0
+            ? OptionalInt.of(validatorId)
+            : OptionalInt.empty();
+        serviceRuntime.afterCommit(snapshot, optionalValidatorId, height);
+      } finally {
+        metrics.recordCleanerSize(cleaner);
+      }
     } catch (CloseFailuresException e) {
       handleCloseFailure(e);
+    } finally {
+      if (event.shouldCommit()) {
+        event.height = height;
+        event.commit();
+      }
+    }
+  }
+
+  private static void commitOperationEvent(RuntimeOperationEvent event, String operation,
+      int serviceId) {
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.serviceId = serviceId;
+      event.commit();
     }
   }
 
@@ -311,4 +395,28 @@ public class ServiceRuntimeAdapter {
     logger.error("Failed to close some resources", e);
     throw e;
   }
+
+  /**
+   * Reads the transaction info from the buffer passed by the native code. Keeps the arrays
+   * to read the hash and the key into, so that each of them is copied once, by the factory
+   * of the resulting object.
+   */
+  static final class TxInfoReader {
+    private final byte[] txMessageHash = new byte[DEFAULT_HASH_SIZE_BYTES];
+    private final byte[] authorPk = new byte[PUBLIC_KEY_BYTES];
+
+    HashCode readTxMessageHash(ByteBuffer txInfo) {
+      checkArgument(txInfo.capacity() == TX_INFO_SIZE,
+          "Invalid transaction info size (%s), must be %s", txInfo.capacity(), TX_INFO_SIZE);
+      txInfo.position(0);
+      txInfo.get(txMessageHash);
+      return HashCode.fromBytes(txMessageHash);
+    }
+
+    PublicKey readAuthorPk(ByteBuffer txInfo) {
+      txInfo.position(DEFAULT_HASH_SIZE_BYTES);
+      txInfo.get(authorPk);
+      return PublicKey.fromBytes(authorPk);
+    }
+  }
 }
@@ -31,6 +31,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.net.UrlEscapers;
 import com.google.inject.Inject;
 import io.vertx.ext.web.Router;
+import java.lang.reflect.Method;
 
 /**
  * The service wrapper represents an Exonum service as a whole and allows the service runtime
@@ -58,10 +59,22 @@ final class ServiceWrapper {
   @VisibleForTesting static final int VERIFY_CONFIGURATION_TX_ID = 0;
   @VisibleForTesting static final int APPLY_CONFIGURATION_TX_ID = 1;
 
+  /**
+   * The flag of a service that overrides {@link Service#beforeTransactions(ExecutionContext)}.
+   * The flags are passed to the native runtime, which skips the hooks a service
+   * does not override. See BEFORE_TRANSACTIONS_HOOK in runtime.rs.
+   */
+  static final int BEFORE_TRANSACTIONS_HOOK = 1;
+  /**
+   * The flag of a service that overrides {@link Service#afterTransactions(ExecutionContext)}.
+   */
+  static final int AFTER_TRANSACTIONS_HOOK = 1 << 1;
+
   private final Service service;
   private final ServiceInstanceSpec instanceSpec;
   private final TransactionInvoker invoker;
   private final Node node;
+  private final int blockHooks;
 
   /**
    * Creates a new ServiceWrapper.
@@ -78,6 +91,27 @@ final class ServiceWrapper {
     this.instanceSpec = instanceSpec;
     this.invoker = transactionInvoker;
     this.node = node;
+    this.blockHooks = findBlockHooks(service.getClass());
+  }
+
+  private static int findBlockHooks(Class<?> serviceClass) {
+    int hooks = 0;
+    if (overridesBlockHook(serviceClass, "beforeTransactions")) {
+      hooks |= BEFORE_TRANSACTIONS_HOOK;
+    }
+    if (overridesBlockHook(serviceClass, "afterTransactions")) {
+      hooks |= AFTER_TRANSACTIONS_HOOK;
+    }
+    return hooks;
+  }
+
+  private static boolean overridesBlockHook(Class<?> serviceClass, String hookName) {
+    try {
+      Method hook = serviceClass.getMethod(hookName, ExecutionContext.class);
+      return hook.getDeclaringClass() != Service.class;
+    } catch (NoSuchMethodException e) {
+      throw new AssertionError("Service must have the hook " + hookName, e);
+    }
   }
 
   /**
@@ -101,6 +135,14 @@ final class ServiceWrapper {
     return instanceSpec.getId();
   }
 
+  /**
+   * Returns the flags of the block hooks ({@link #BEFORE_TRANSACTIONS_HOOK},
+   * {@link #AFTER_TRANSACTIONS_HOOK}) that the service overrides.
+   */
+  int getBlockHooks() {
+    return blockHooks;
+  }
+
   void initialize(ExecutionContext context, Configuration configuration) {
     callServiceMethod(() -> service.initialize(context, configuration));
   }
@@ -125,6 +167,22 @@ final class ServiceWrapper {
     }
   }
 
+  /**
+   * Returns true if the service declares the transaction with the given id
+   * in the given interface.
+   */
+  boolean hasTransaction(String interfaceName, int txId) {
+    switch (interfaceName) {
+      case DEFAULT_INTERFACE_NAME:
+        return invoker.hasTransaction(txId);
+      case CONFIGURE_INTERFACE_NAME:
+        return service instanceof Configurable
+            && (txId == VERIFY_CONFIGURATION_TX_ID || txId == APPLY_CONFIGURATION_TX_ID);
+      default:
+        return false;
+    }
+  }
+
   private void executeIntrinsicTransaction(int txId, byte[] arguments, ExecutionContext context) {
     invoker.invokeTransaction(txId, arguments, context);
   }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.exonum.binding.core.blockchain.BlockchainData;
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.proxy.ProxyScope;
+import com.exonum.binding.core.storage.database.ConcurrentSnapshotView;
+import com.exonum.binding.core.storage.database.Snapshot;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A snapshot of the database state at the latest committed block, shared by the concurrent
+ * read requests of the services till the next block is committed.
+ *
+ * <p>The shared snapshot is reference-counted: the {@link NodeProxy} holds a reference
+ * till the next block commit; each request holds one while it reads the snapshot.
+ * The snapshot is destroyed when the last reference is released.
+ *
+ * <p>As the proxies are not thread-safe, each thread reads the shared snapshot through
+ * its own snapshot of a {@link ConcurrentSnapshotView} and {@link BlockchainData}
+ * of each service. They are kept between
+ * the requests in this thread, so that the indexes opened by a request are reused by
+ * the subsequent ones; unless the number of proxies accumulated in the thread exceeds
+ * {@value #MAX_THREAD_PROXIES}, in which case they are destroyed once the request completes.
+ * The proxies of a thread are registered in a context with a {@link ProxyScope}, which is
+ * active only while the thread executes a request; hence the proxies that leak out of
+ * a request fail when they are used outside of it, or in another thread.
+ *
+ * <p>This class is thread-safe.
+ */
+final class SharedSnapshot {
+
+  /**
+   * The maximum number of proxies created by the requests in a single thread that are kept
+   * for the subsequent requests.
+   */
+  static final int MAX_THREAD_PROXIES = 1024;
+
+  private static final Logger logger = LogManager.getLogger(SharedSnapshot.class);
+
+  /**
+   * The contexts of the current thread by shared snapshot. A single thread-local is shared
+   * by all snapshots, which are created on each block, so that they do not leave stale
+   * thread-locals in the long-living threads. The contexts of the destroyed snapshots
+   * are removed when the thread enters a context of another snapshot.
+   */
+  private static final ThreadLocal<Map<SharedSnapshot, ThreadContext>> threadContexts =
+      ThreadLocal.withInitial(IdentityHashMap::new);
+
+  private final Cleaner cleaner;
+  private final ConcurrentSnapshotView snapshotView;
+  private final AtomicInteger refCount;
+
+  /**
+   * Creates a shared snapshot. The created shared snapshot has a single reference.
+   *
+   * @param snapshot a snapshot to share; it is destroyed, with its cleaner,
+   *     when the last reference is released
+   */
+  SharedSnapshot(Snapshot snapshot) {
+    this.cleaner = snapshot.getCleaner();
+    this.snapshotView = snapshot.newConcurrentView();
+    refCount = new AtomicInteger(1);
+  }
+
+  /**
+   * Acquires a reference to this snapshot. The caller must already hold a reference,
+   * so that the snapshot cannot be destroyed concurrently.
+   *
+   * @throws IllegalStateException if this snapshot is destroyed
+   */
+  void retain() {
+    int refs = refCount.getAndIncrement();
+    checkState(refs > 0, "The shared snapshot is destroyed");
+  }
+
+  /**
+   * Releases a reference to this snapshot, destroying it if it was the last one.
+   */
+  void release() {
+    int refs = refCount.decrementAndGet();
+    checkState(refs >= 0, "The shared snapshot is released more times than retained");
+    if (refs == 0) {
+      destroy();
+    }
+  }
+
+  /**
+   * Returns the number of references to this snapshot.
+   */
+  int getRefCount() {
+    return refCount.get();
+  }
+
+  /**
+   * Performs the given function with the blockchain data of the given service, read
+   * from this snapshot. The caller must hold a reference to this snapshot.
+   *
+   * @param serviceName the name of the service
+   * @param blockchainDataFactory a factory of the blockchain data
+   * @param snapshotFunction a function to execute
+   */
+  <ResultT> ResultT withBlockchainData(String serviceName,
+      BlockchainDataFactory blockchainDataFactory,
+      Function<BlockchainData, ResultT> snapshotFunction) {
+    ThreadContext context = enterThreadContext();
+    try {
+      BlockchainData blockchainData = context.blockchainData.computeIfAbsent(serviceName,
+          name -> blockchainDataFactory.fromRawAccess(context.snapshot, context.cleaner, name));
+      return snapshotFunction.apply(blockchainData);
+    } finally {
+      exitThreadContext(context);
+    }
+  }
+
+  private ThreadContext enterThreadContext() {
+    Map<SharedSnapshot, ThreadContext> contexts = threadContexts.get();
+    ThreadContext context = contexts.get(this);
+    if (context == null) {
+      contexts.values().removeIf(c -> c.cleaner.isClosed());
+      context = new ThreadContext(snapshotView.getSnapshot());
+      contexts.put(this, context);
+    }
+    if (context.depth == 0) {
+      context.scope.activate();
+    }
+    context.depth++;
+    return context;
+  }
+
+  private void exitThreadContext(ThreadContext context) {
+    context.depth--;
+    if (context.depth != 0) {
+      return;
+    }
+    // Prohibit the use of the proxies of this thread till the next request
+    context.scope.deactivate();
+    // Destroy the proxies of this thread once the outermost request completes, if too many
+    // of them accumulated (e.g., the requests open many indexes with different addresses)
+    if (context.cleaner.getNumRegisteredActions() > MAX_THREAD_PROXIES) {
+      threadContexts.get().remove(this);
+      try {
+        snapshotView.destroyThreadSnapshot();
+      } catch (CloseFailuresException e) {
+        logger.error("Failed to destroy the shared snapshot proxies of the thread", e);
+      }
+    }
+  }
+
+  private void destroy() {
+    // Also destroys the view with the proxies of all threads
+    try {
+      cleaner.close();
+    } catch (CloseFailuresException e) {
+      logger.error("Failed to destroy the shared snapshot proxies", e);
+    }
+  }
+
+  /**
+   * The proxies of the shared snapshot used by a single thread.
+   */
+  private static final class ThreadContext {
+
+    /** The snapshot of the view used by this thread. */
+    final Snapshot snapshot;
+    /** The scope of the proxies of this thread, active while it executes a request. */
+    final ProxyScope scope;
+    /** The context of the proxies of this thread, nested in the one of the snapshot. */
+    final Cleaner cleaner;
+    final Map<String, BlockchainData> blockchainData;
+    /** The number of requests in progress in this thread (they might be nested). */
+    int depth;
+
+    ThreadContext(Snapshot snapshot) {
+      this.snapshot = snapshot;
+      this.scope = ProxyScope.ofCurrentThread();
+      this.cleaner = snapshot.getCleaner().newNested("SharedSnapshot requests", scope);
+      this.blockchainData = new HashMap<>();
+    }
+  }
+}
@@ -25,18 +25,48 @@ import com.exonum.binding.core.service.ExecutionContext;
 import com.exonum.binding.core.transaction.Transaction;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.MessageLite;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
 
 /**
  * Finds and validates transaction methods in a service.
+ *
+ * <p>Each transaction method gets a handler generated with the {@link LambdaMetafactory},
+ * which invokes the method directly; and, if it takes a protobuf message, the serializer
+ * of the message. The methods of a service class are extracted once, when its first
+ * instance is created, and are shared by all instances of the class.
  */
 final class TransactionExtractor {
 
+  private static final ClassValue<Map<Integer, TransactionMethod>> TRANSACTION_METHODS =
+      new ClassValue<>() {
+        @Override
+        protected Map<Integer, TransactionMethod> computeValue(Class<?> serviceClass) {
+          return extractTransactionMethods(serviceClass);
+        }
+      };
+
+  /**
+   * Returns a map of transaction ids to transaction methods of a service class,
+   * extracting them on the first invocation with the given class.
+   *
+   * @throws IllegalArgumentException if the service class has invalid transaction methods
+   * @see #extractTransactionMethods(Class)
+   */
+  static Map<Integer, TransactionMethod> transactionMethodsOf(Class<?> serviceClass) {
+    return TRANSACTION_METHODS.get(serviceClass);
+  }
+
   /**
    * Returns a map of transaction ids to transaction methods found in a service class.
    *
@@ -102,8 +132,8 @@ final class TransactionExtractor {
   }
 
   private static TransactionMethod toTransactionMethod(Method method, Lookup lookup) {
-    Serializer<?> argumentsSerializer = StandardSerializers.bytes();
     Class<?> parameterType = method.getParameterTypes()[0];
+    @Nullable Serializer<?> argumentsSerializer = null;
     if (isProtobufArgument(parameterType)) {
       @SuppressWarnings("unchecked") /* Checked above */
       var messageType = (Class<? extends MessageLite>) parameterType;
@@ -116,7 +146,32 @@ final class TransactionExtractor {
       throw new IllegalArgumentException(
           String.format("Couldn't access method %s", method.getName()), e);
     }
-    return new TransactionMethod(methodHandle, argumentsSerializer);
+    MethodHandle handlerFactory = createHandlerFactory(method, methodHandle);
+    return new TransactionMethod(handlerFactory, argumentsSerializer);
+  }
+
+  /**
+   * Generates a class of the handlers invoking the given method, and returns the handle
+   * to their factory: {@code (DeclaringClass) -> BiConsumer<Object, ExecutionContext>}.
+   */
+  private static MethodHandle createHandlerFactory(Method method, MethodHandle methodHandle) {
+    Class<?> declaringClass = method.getDeclaringClass();
+    Class<?>[] parameterTypes = method.getParameterTypes();
+    try {
+      // The handler class is defined in the class loader of the declaring class,
+      // so that it can link against it
+      Lookup caller = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+      CallSite callSite = LambdaMetafactory.metafactory(caller,
+          "accept",
+          MethodType.methodType(BiConsumer.class, declaringClass),
+          MethodType.methodType(void.class, Object.class, Object.class),
+          methodHandle,
+          MethodType.methodType(void.class, parameterTypes));
+      return callSite.getTarget();
+    } catch (IllegalAccessException | LambdaConversionException e) {
+      throw new IllegalArgumentException(
+          String.format("Couldn't generate a handler of method %s", method.getName()), e);
+    }
   }
 
   /**
@@ -22,20 +22,32 @@ import com.exonum.binding.core.service.ExecutionContext;
 import com.exonum.binding.core.service.ExecutionException;
 import com.exonum.binding.core.service.Service;
 import com.google.inject.Inject;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
  * Stores ids of transaction methods and their method handles of a corresponding service.
+ *
+ * <p>The transaction methods are looked up by their ids with a binary search in a sorted
+ * array of the ids, which does not box the id.
  */
 final class TransactionInvoker {
-  private final Service service;
-  private final Map<Integer, TransactionMethod> transactionMethods;
+  /** The transaction ids, in ascending order. */
+  private final int[] transactionIds;
+  /** The transaction methods bound to the service, in the order of their ids. */
+  private final TransactionMethod.Bound[] transactionMethods;
 
   @Inject
   TransactionInvoker(Service service) {
-    this.service = service;
-    this.transactionMethods =
-        TransactionExtractor.extractTransactionMethods(service.getClass());
+    Map<Integer, TransactionMethod> methods =
+        TransactionExtractor.transactionMethodsOf(service.getClass());
+    transactionIds = methods.keySet().stream()
+        .mapToInt(Integer::intValue)
+        .sorted()
+        .toArray();
+    transactionMethods = Arrays.stream(transactionIds)
+        .mapToObj(id -> methods.get(id).bindTo(service))
+        .toArray(TransactionMethod.Bound[]::new);
   }
 
   /**
@@ -53,9 +65,15 @@ final class TransactionInvoker {
    *     the transaction method, it is wrapped as cause
    */
   void invokeTransaction(int transactionId, byte[] arguments, ExecutionContext context) {
-    checkArgument(transactionMethods.containsKey(transactionId),
-        "No method with transaction id (%s)", transactionId);
-    TransactionMethod transactionMethod = transactionMethods.get(transactionId);
-    transactionMethod.invoke(service, arguments, context);
+    int index = Arrays.binarySearch(transactionIds, transactionId);
+    checkArgument(index >= 0, "No method with transaction id (%s)", transactionId);
+    transactionMethods[index].invoke(arguments, context);
+  }
+
+  /**
+   * Returns true if the service has a transaction method with the given identifier.
+   */
+  boolean hasTransaction(int transactionId) {
+    return Arrays.binarySearch(transactionIds, transactionId) >= 0;
   }
 }
@@ -19,41 +19,88 @@ package com.exonum.binding.core.runtime;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.core.service.ExecutionContext;
 import com.exonum.binding.core.service.ExecutionException;
-import com.exonum.binding.core.service.Service;
+import com.google.common.base.Throwables;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.WrongMethodTypeException;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
 
 /**
- * A proxy of a transaction method. This class implements argument resolution,
- * conversion, and invocation of a transaction method.
+ * A proxy of a transaction method of a service class. This class implements argument
+ * conversion and invocation of a transaction method.
+ *
+ * <p>The method is invoked through a {@linkplain TransactionExtractor generated} handler,
+ * which calls the method directly with the arguments cast to its parameter types,
+ * as if the call was written in the source code.
  */
-class TransactionMethod {
-  private final MethodHandle methodHandle;
-  private final Serializer<?> argumentsSerializer;
+final class TransactionMethod {
+
+  /** The factory of the method handlers: {@code (DeclaringClass) -> BiConsumer}. */
+  private final MethodHandle handlerFactory;
+  @Nullable private final Serializer<?> argumentsSerializer;
 
-  TransactionMethod(MethodHandle methodHandle, Serializer<?> argumentsSerializer) {
-    this.methodHandle = methodHandle;
+  /**
+   * Creates a transaction method.
+   *
+   * @param handlerFactory a handle to the factory of the handlers invoking the method
+   *     of a given service object, taking the object and returning a {@link BiConsumer}
+   *     of the arguments and the context
+   * @param argumentsSerializer a serializer of the transaction arguments; or null
+   *     if the method takes them as is
+   */
+  TransactionMethod(MethodHandle handlerFactory, @Nullable Serializer<?> argumentsSerializer) {
+    this.handlerFactory = handlerFactory;
     this.argumentsSerializer = argumentsSerializer;
   }
 
-  void invoke(Service targetService, byte[] arguments, ExecutionContext context) {
-    Object argumentsObject = serializeArguments(arguments);
+  /**
+   * Returns this transaction method, bound to the given service object.
+   *
+   * @param targetService the service to invoke the method of
+   * @throws ClassCastException if the service does not declare this method
+   */
+  Bound bindTo(Object targetService) {
     try {
-      methodHandle.invoke(targetService, argumentsObject, context);
-    } catch (WrongMethodTypeException | ClassCastException invocationException) {
-      // Invocation-specific exceptions are thrown as is — they are not thrown
-      // from the _transaction method_, but from framework code (see mh#invoke spec).
-      throw invocationException;
-    } catch (ExecutionException serviceException) {
-      // 'Service-defined' transaction exceptions
-      throw serviceException;
-    } catch (Throwable unexpectedServiceException) {
-      // Any other _transaction_ exceptions
-      throw new UnexpectedExecutionException(unexpectedServiceException);
+      @SuppressWarnings("unchecked")
+      var handler = (BiConsumer<Object, ExecutionContext>) handlerFactory.invoke(targetService);
+      return new Bound(handler);
+    } catch (Throwable e) {
+      Throwables.throwIfUnchecked(e);
+      throw new AssertionError("Unexpected exception in the handler factory", e);
     }
   }
 
-  private Object serializeArguments(byte[] arguments) {
-    return argumentsSerializer.fromBytes(arguments);
+  /**
+   * A transaction method bound to a service object.
+   */
+  final class Bound {
+
+    private final BiConsumer<Object, ExecutionContext> handler;
+
+    private Bound(BiConsumer<Object, ExecutionContext> handler) {
+      this.handler = handler;
+    }
+
+    void invoke(byte[] arguments, ExecutionContext context) {
+      // The protobuf arguments are parsed with the static MessageT#parseFrom of the serializer,
+      // so that the parse does not exceed the maximum inlining depth and allocate more
+      Object argumentsObject = (argumentsSerializer == null)
+          ? arguments
+          : argumentsSerializer.fromBytes(arguments);
+      try {
+        handler.accept(argumentsObject, context);
+      } catch (WrongMethodTypeException | ClassCastException invocationException) {
+        // Invocation-specific exceptions are thrown as is — they are not thrown
+        // from the _transaction method_, but from framework code (e.g., an argument cast).
+        throw invocationException;
+      } catch (ExecutionException serviceException) {
+        // 'Service-defined' transaction exceptions
+        throw serviceException;
+      } catch (Throwable unexpectedServiceException) {
+        // Any other _transaction_ exceptions, including the checked ones, which the handler
+        // propagates as is
+        throw new UnexpectedExecutionException(unexpectedServiceException);
+      }
+    }
   }
 }
@@ -75,6 +75,11 @@ public interface Node extends AutoCloseable {
   /**
    * Performs the given function with a snapshot of the current database state.
    *
+   * <p>The snapshot of the state at the latest committed block may be shared by the concurrent
+   * invocations of this method till the next block is committed, so that the read requests
+   * do not create a new snapshot each. Therefore, the function must not retain
+   * the blockchain data or any indexes, and must not pass them to other threads.
+   *
    * @param <ResultT> a type the function returns
    * @param snapshotFunction a function to execute
    * @return the result of applying the given function to the database state
@@ -17,11 +17,13 @@
 package com.exonum.binding.core.storage.database;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.core.proxy.AbstractNativeProxy;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.proxy.ProxyScope;
 import com.exonum.binding.core.storage.indices.EntryIndex;
 import com.exonum.binding.core.storage.indices.EntryIndexProxy;
 import com.exonum.binding.core.storage.indices.IndexAddress;
@@ -34,6 +36,7 @@ import com.exonum.binding.core.storage.indices.ProofListIndexProxy;
 import com.exonum.binding.core.storage.indices.ProofMapIndexProxy;
 import com.exonum.binding.core.storage.indices.StorageIndex;
 import com.exonum.binding.core.storage.indices.ValueSetIndexProxy;
+import com.exonum.binding.core.storage.indices.WriteBackCache;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.function.Supplier;
@@ -150,8 +153,18 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
 
   private <T extends StorageIndex> T findOrCreate(IndexAddress address, Class<T> indexType,
       Supplier<T> indexSupplier) {
-    return findOpenIndex(address, indexType)
+    checkScope();
+    // Look up the index by its address first, which does not need any native calls
+    Optional<StorageIndex> openIndex = indexRegistry.findIndex(this, address);
+    if (openIndex.isPresent()) {
+      // Fail early if this access is closed, as a lookup by the index id would
+      checkState(isValidHandle(), "This access is closed: %s", this);
+      return checkedCast(openIndex.get(), indexType);
+    }
+    T index = findOpenIndex(address, indexType)
         .orElseGet(() -> createIndex(indexSupplier));
+    indexRegistry.registerIndexAddress(this, address, index);
+    return index;
   }
 
   /**
@@ -199,9 +212,8 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
     OptionalLong indexId = findIndexId(newIndex.getAddress());
     // Register the open index in the pool, if it exists.
     // It does not "exist" until it is created with a Fork-based Access,
-    // i.e., an empty index created with the Snapshot will not have an id.
-    // We can, of course, cache them by address then, but that is not
-    // required for correctness and may be done later as an optimization.
+    // i.e., an empty index created with the Snapshot will not have an id
+    // and will be registered by its address only.
     indexId.ifPresent(id -> registerIndex(id, newIndex));
     return newIndex;
   }
@@ -221,6 +233,7 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
    *     does not exist
    */
   private long findIndexId(String name, @Nullable byte[] idInGroup) {
+    recordNativeCall("findIndexId");
     return nativeFindIndexId(getNativeHandle(), name, idInGroup);
   }
 
@@ -248,9 +261,53 @@ public abstract class AbstractAccess extends AbstractNativeProxy implements Acce
 
   @Override
   public long getAccessNativeHandle() {
+    return getNativeHandle();
+  }
+
+  /**
+   * Returns the native handle of this access, checking that it is used in the scope
+   * of its cleaner, if any.
+   *
+   * @throws IllegalStateException if the native handle is invalid, or this access is used
+   *     outside of its scope
+   */
+  @Override
+  protected long getNativeHandle() {
+    checkScope();
     return super.getNativeHandle();
   }
 
+  private void checkScope() {
+    getCleaner().getScope().ifPresent(ProxyScope::checkActive);
+  }
+
+  /**
+   * Returns true if the indexes created with this access may be read by several threads
+   * concurrently, each using its own iterators; e.g., by a parallel stream. Only the accesses
+   * based on an immutable database snapshot allow that. The default implementation
+   * returns false.
+   */
+  public boolean allowsConcurrentReads() {
+    return false;
+  }
+
+  /**
+   * Returns the write-back cache of the indexes created with this access,
+   * or {@code Optional.empty()} if they are not cached. The default implementation
+   * returns an empty optional.
+   */
+  public Optional<WriteBackCache> getWriteBackCache() {
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the statistics of the lookups of the open indexes by their addresses
+   * in this access.
+   */
+  public OpenIndexCacheStatistics getOpenIndexCacheStatistics() {
+    return indexRegistry.getCacheStatistics();
+  }
+
   /**
    * Returns the registry of open indexes for this Access.
    */
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.database;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.util.LibraryLoader;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A read-only view of a snapshot that may be shared between threads.
+ *
+ * <p>The index proxies and the snapshot itself are not thread-safe, hence cannot be shared
+ * between threads. Instead, each thread using the view gets its own
+ * {@linkplain #getSnapshot() snapshot}: a proxy of a native access to the same native snapshot,
+ * with its own registry of open indexes. The native access of a thread borrows the native
+ * snapshot instead of sharing its ownership, so that the threads do not update its
+ * reference counter concurrently. The indexes created with such a snapshot must be used
+ * in its thread only; the threads can read the same database state concurrently
+ * without creating a new native snapshot per thread, e.g.:
+ *
+ * <pre>{@code
+ * try (ConcurrentSnapshotView view = snapshot.newConcurrentView()) {
+ *   List<Future<Long>> results = workerPool.invokeAll(ranges.stream()
+ *       .map(range -> (Callable<Long>) () -> {
+ *         Snapshot threadSnapshot = view.getSnapshot();
+ *         MapIndex<HashCode, Wallet> wallets = threadSnapshot.getMap(WALLETS, ...);
+ *         return sumBalances(wallets, range);
+ *       })
+ *       .collect(toList()));
+ *   // Collect the results before closing the view
+ * }
+ * }</pre>
+ *
+ * <p>The proxies created with the thread snapshots are destroyed when the view is
+ * {@linkplain #close() closed}, or when the original snapshot is destroyed, whichever happens
+ * first. The view must be closed only when no thread uses it. A thread may also
+ * {@linkplain #destroyThreadSnapshot() destroy} its snapshot earlier, e.g., to release
+ * the proxies it accumulated.
+ *
+ * @see Snapshot#newConcurrentView()
+ */
+public final class ConcurrentSnapshotView implements AutoCloseable {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  /**
+   * The snapshots of the current thread by view. A single thread-local is shared by all views,
+   * so that the views, which may be created on each block, do not leave stale thread-locals
+   * in the long-living threads. The entries of the closed views are removed
+   * when the thread gets a snapshot of another view.
+   */
+  private static final ThreadLocal<Map<ConcurrentSnapshotView, Snapshot>> threadSnapshots =
+      ThreadLocal.withInitial(IdentityHashMap::new);
+
+  private final Snapshot snapshot;
+  private final Cleaner cleaner;
+
+  ConcurrentSnapshotView(Snapshot snapshot) {
+    this.snapshot = snapshot;
+    this.cleaner = snapshot.getCleaner().newNested("ConcurrentSnapshotView");
+  }
+
+  private Snapshot newThreadSnapshot() {
+    Cleaner threadCleaner = cleaner.newNested(Thread.currentThread().getName());
+    // The thread access borrows the native snapshot, which remains owned by the original
+    // snapshot; and is destroyed before it, as the thread cleaner is nested in its cleaner.
+    // The creation is serialized, as the original snapshot proxy is not thread-safe
+    long threadAccessHandle;
+    synchronized (this) {
+      NativeCallStatistics.recordCall(ConcurrentSnapshotView.class, "createThreadAccess");
+      threadAccessHandle = nativeCreateThreadAccess(snapshot.getAccessNativeHandle());
+    }
+    return Snapshot.newInstance(threadAccessHandle, threadCleaner);
+  }
+
+  /**
+   * Returns a snapshot to be used by the current thread only. The same thread always gets
+   * the same snapshot; different threads — different snapshots of the same database state.
+   *
+   * @throws IllegalStateException if this view is closed
+   */
+  public Snapshot getSnapshot() {
+    checkState(!isClosed(), "This view is closed: %s", cleaner);
+    Map<ConcurrentSnapshotView, Snapshot> snapshots = threadSnapshots.get();
+    Snapshot threadSnapshot = snapshots.get(this);
+    if (threadSnapshot == null) {
+      snapshots.keySet().removeIf(ConcurrentSnapshotView::isClosed);
+      threadSnapshot = newThreadSnapshot();
+      snapshots.put(this, threadSnapshot);
+    }
+    return threadSnapshot;
+  }
+
+  /**
+   * Destroys the snapshot of the current thread, if any, with the proxies created with it.
+   * The next {@link #getSnapshot()} in this thread returns a new snapshot.
+   *
+   * @throws CloseFailuresException if any of the proxies failed to be destroyed
+   */
+  public void destroyThreadSnapshot() throws CloseFailuresException {
+    Snapshot threadSnapshot = threadSnapshots.get().remove(this);
+    if (threadSnapshot != null) {
+      threadSnapshot.getCleaner().close();
+    }
+  }
+
+  /**
+   * Returns true if this view is closed.
+   */
+  public boolean isClosed() {
+    return cleaner.isClosed();
+  }
+
+  /**
+   * Closes this view, destroying the proxies created with the snapshots of all threads.
+   * The original snapshot remains valid.
+   *
+   * @throws CloseFailuresException if any of the proxies failed to be destroyed
+   */
+  @Override
+  public void close() throws CloseFailuresException {
+    cleaner.close();
+  }
+
+  /**
+   * Creates a native access borrowing the native snapshot of the given access.
+   *
+   * @throws RuntimeException if the access is not snapshot-based
+   */
+  private static native long nativeCreateThreadAccess(long snapshotNativeHandle);
+}
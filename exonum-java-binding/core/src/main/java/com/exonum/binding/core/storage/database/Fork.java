@@ -122,6 +122,7 @@ public final class Fork extends AbstractAccess {
    *   MerkleDB Patches</a>
    */
   NativeHandle intoPatch() {
+    recordNativeCall("canConvertIntoPatch");
     checkState(nativeCanConvertIntoPatch(getNativeHandle()),
         "This fork cannot be converted into patch");
 
@@ -142,6 +143,7 @@ public final class Fork extends AbstractAccess {
 
       // Convert into patch. This operation may throw RuntimeException.
       // nativeHandle of the Fork can no longer be used after this operation.
+      recordNativeCall("intoPatch");
       long patchNativeHandle = nativeIntoPatch(getNativeHandle());
 
       return new NativeHandle(patchNativeHandle);
@@ -167,11 +169,13 @@ public final class Fork extends AbstractAccess {
     // the client code, because in case of an exception it will make the framework
     // unable to revert the changes made by the service before the service created
     // a checkpoint: ECR-3611
+    recordNativeCall("canRollback");
     checkState(nativeCanRollback(getNativeHandle()),
         "This fork does not support checkpoints");
 
     closeDependentObjects();
 
+    recordNativeCall("createCheckpoint");
     nativeCreateCheckpoint(getNativeHandle());
   }
 
@@ -185,11 +189,13 @@ public final class Fork extends AbstractAccess {
    * <p>This operation is not intended to be used by services.
    */
   public void rollback() {
+    recordNativeCall("canRollback");
     checkState(nativeCanRollback(getNativeHandle()),
         "This fork does not support rollbacks");
 
     closeDependentObjects();
 
+    recordNativeCall("rollback");
     nativeRollback(getNativeHandle());
   }
 
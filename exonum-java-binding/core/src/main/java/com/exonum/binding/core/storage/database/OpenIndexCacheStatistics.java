@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.database;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the lookups of open indexes by their addresses in a database access.
+ * The accesses that share the open indexes (e.g., a {@link Prefixed} access and its base
+ * access) share the statistics.
+ *
+ * <p>An index requested from an {@link Access} is a <em>hit</em> if an index with the same
+ * address has already been open with this access, in which case the open index is returned
+ * without any native calls. Otherwise, the request is a <em>miss</em>.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @see AbstractAccess#getOpenIndexCacheStatistics()
+ */
+public final class OpenIndexCacheStatistics {
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  OpenIndexCacheStatistics() {}
+
+  /**
+   * Returns the number of index requests that returned an already open index.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of index requests that did not find an open index with the given address.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  void recordHit() {
+    hits.increment();
+  }
+
+  void recordMiss() {
+    misses.increment();
+  }
+}
@@ -18,8 +18,10 @@ package com.exonum.binding.core.storage.database;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import com.exonum.binding.core.storage.indices.IndexAddress;
 import com.exonum.binding.core.storage.indices.StorageIndex;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -29,11 +31,19 @@ import java.util.Optional;
  * required to overcome the MerkleDB limitation which prevents creating several indexes
  * with the same address (name + prefix) using the same Fork.
  *
+ * <p>The registry keeps the indexes by their unique MerkleDB ids; and also by their addresses
+ * relative to the accesses that opened them. The latter allows to find an open index without
+ * a native call to resolve its id, and includes the indexes that do not exist in the database,
+ * hence, have no ids (e.g., an index that is created with a Snapshot).
+ *
  * <p>See {@code IndexMetadata} and {@code Access.get_index_metadata} in Rust.
  */
 class OpenIndexRegistry {
 
   private final Map<Long, StorageIndex> indexes = new HashMap<>();
+  private final Map<Access, Map<IndexAddress, StorageIndex>> indexesByAddress =
+      new IdentityHashMap<>();
+  private final OpenIndexCacheStatistics cacheStatistics = new OpenIndexCacheStatistics();
 
   void registerIndex(Long id, StorageIndex index) {
     Object present = indexes.putIfAbsent(id, index);
@@ -45,7 +55,41 @@ class OpenIndexRegistry {
     return Optional.ofNullable(indexes.get(id));
   }
 
+  /**
+   * Registers an index open with the given access by its address, relative to that access.
+   */
+  void registerIndexAddress(Access access, IndexAddress address, StorageIndex index) {
+    Map<IndexAddress, StorageIndex> accessIndexes = indexesByAddress
+        .computeIfAbsent(access, a -> new HashMap<>());
+    Object present = accessIndexes.putIfAbsent(address, index);
+    checkArgument(present == null, "Cannot register index (%s): the address (%s) is already "
+        + "associated with index (%s): ", index, address, present);
+  }
+
+  /**
+   * Finds an index open with the given access by its address, relative to that access,
+   * and records the lookup in the {@linkplain #getCacheStatistics() statistics}.
+   */
+  Optional<StorageIndex> findIndex(Access access, IndexAddress address) {
+    Map<IndexAddress, StorageIndex> accessIndexes = indexesByAddress.get(access);
+    StorageIndex index = (accessIndexes == null) ? null : accessIndexes.get(address);
+    if (index == null) {
+      cacheStatistics.recordMiss();
+      return Optional.empty();
+    }
+    cacheStatistics.recordHit();
+    return Optional.of(index);
+  }
+
+  /**
+   * Returns the statistics of the lookups of the indexes by their addresses.
+   */
+  OpenIndexCacheStatistics getCacheStatistics() {
+    return cacheStatistics;
+  }
+
   void clear() {
     indexes.clear();
+    indexesByAddress.clear();
   }
 }
@@ -19,11 +19,15 @@ package com.exonum.binding.core.storage.database;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.indices.IndexAddress;
+import com.exonum.binding.core.storage.indices.WriteBackCache;
 import com.exonum.binding.core.util.LibraryLoader;
 import com.google.common.annotations.VisibleForTesting;
+import java.util.Optional;
+import javax.annotation.Nullable;
 
 /**
  * A prefixed database access. It uses a base Access, and adds an address resolution.
@@ -31,6 +35,9 @@ import com.google.common.annotations.VisibleForTesting;
  * <p>The Prefixed Access resolves the index addresses by prepending a <em>namespace</em>, followed
  * by a dot ('.'), to the {@linkplain IndexAddress#getName() name part} of the address.
  *
+ * <p>A Prefixed access may have a {@linkplain WriteBackCache write-back cache}
+ * of the indexes created with it.
+ *
  * <p>This class is a native proxy of the {@code Prefixed} Rust Access.
  */
 public final class Prefixed extends AbstractAccess {
@@ -39,12 +46,17 @@ public final class Prefixed extends AbstractAccess {
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(Prefixed.class, AbstractAccess::nativeFree);
+
   private final Cleaner cleaner;
+  @Nullable private final WriteBackCache writeBackCache;
 
   private Prefixed(NativeHandle prefixedNativeHandle, boolean canModify, Cleaner cleaner,
-      OpenIndexRegistry registry) {
+      OpenIndexRegistry registry, @Nullable WriteBackCache writeBackCache) {
     super(prefixedNativeHandle, canModify, registry);
     this.cleaner = cleaner;
+    this.writeBackCache = writeBackCache;
   }
 
   /**
@@ -62,8 +74,9 @@ public final class Prefixed extends AbstractAccess {
     //   since that's the only method that uses (and needs) shared index registry.
     Cleaner cleaner = baseAccess.getCleaner();
     OpenIndexRegistry registry = baseAccess.getOpenIndexes();
+    NativeCallStatistics.recordCall(Prefixed.class, "create");
     long handle = nativeCreate(namespace, baseAccess.getAccessNativeHandle());
-    return fromHandleInternal(handle, cleaner, registry);
+    return fromHandleInternal(handle, cleaner, registry, null);
   }
 
   /**
@@ -83,7 +96,24 @@ public final class Prefixed extends AbstractAccess {
     checkNotNull(cleaner);
     // When the base Access is unknown (hidden in native) — use a separate pool of open indexes
     OpenIndexRegistry registry = new OpenIndexRegistry();
-    return fromHandleInternal(prefixedNativeHandle, cleaner, registry);
+    return fromHandleInternal(prefixedNativeHandle, cleaner, registry, null);
+  }
+
+  /**
+   * Creates a new Prefixed access from the native handle, which caches the indexes
+   * created with it in the given write-back cache. The destructor will be registered
+   * in the given cleaner.
+   *
+   * @param prefixedNativeHandle a handle to the native Prefixed Access
+   * @param cleaner a cleaner to destroy the native peer and any dependent objects
+   * @param writeBackCache a cache of the indexes
+   */
+  public static Prefixed fromHandle(long prefixedNativeHandle, Cleaner cleaner,
+      WriteBackCache writeBackCache) {
+    checkNotNull(cleaner);
+    checkNotNull(writeBackCache);
+    OpenIndexRegistry registry = new OpenIndexRegistry();
+    return fromHandleInternal(prefixedNativeHandle, cleaner, registry, writeBackCache);
   }
 
   /**
@@ -91,18 +121,24 @@ public final class Prefixed extends AbstractAccess {
    * properly, which is *required* to prevent leaks.
    */
   private static Prefixed fromHandleInternal(long prefixedNativeHandle, Cleaner cleaner,
-      OpenIndexRegistry registry) {
+      OpenIndexRegistry registry, @Nullable WriteBackCache writeBackCache) {
     // Register the destructor
     NativeHandle handle = new NativeHandle(prefixedNativeHandle);
-    ProxyDestructor.newRegistered(cleaner, handle, Prefixed.class, AbstractAccess::nativeFree);
+    cleaner.add(handle, DESTRUCTOR);
 
     // Query the 'canModify' property — it is not always known in advance
+    NativeCallStatistics.recordCall(Prefixed.class, "canModify");
     boolean canModify = nativeCanModify(prefixedNativeHandle);
-    return new Prefixed(handle, canModify, cleaner, registry);
+    return new Prefixed(handle, canModify, cleaner, registry, writeBackCache);
   }
 
   @Override
   public Cleaner getCleaner() {
     return cleaner;
   }
+
+  @Override
+  public Optional<WriteBackCache> getWriteBackCache() {
+    return Optional.ofNullable(writeBackCache);
+  }
 }
@@ -19,8 +19,9 @@ package com.exonum.binding.core.storage.database;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.util.LibraryLoader;
 import com.google.common.annotations.VisibleForTesting;
 
@@ -44,6 +45,9 @@ public final class RoErasedAccess extends AbstractAccess {
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(RoErasedAccess.class, AbstractAccess::nativeFree);
+
   private final Cleaner cleaner;
 
   private RoErasedAccess(NativeHandle nativeHandle, Cleaner cleaner) {
@@ -68,6 +72,7 @@ public final class RoErasedAccess extends AbstractAccess {
    */
   @VisibleForTesting static RoErasedAccess fromRawAccess(AbstractAccess access) {
     long baseForkHandle = access.getAccessNativeHandle();
+    NativeCallStatistics.recordCall(RoErasedAccess.class, "asReadonly");
     long roForkHandle = nativeAsReadonly(baseForkHandle);
     return fromHandleInternal(roForkHandle, access.getCleaner());
   }
@@ -83,8 +88,7 @@ public final class RoErasedAccess extends AbstractAccess {
    */
   private static RoErasedAccess fromHandleInternal(long erasedNativeHandle, Cleaner cleaner) {
     NativeHandle handle = new NativeHandle(erasedNativeHandle);
-    ProxyDestructor.newRegistered(cleaner, handle, RoErasedAccess.class,
-        AbstractAccess::nativeFree);
+    cleaner.add(handle, DESTRUCTOR);
     return new RoErasedAccess(handle, cleaner);
   }
 
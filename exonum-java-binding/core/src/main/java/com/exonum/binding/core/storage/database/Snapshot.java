@@ -17,10 +17,11 @@
 package com.exonum.binding.core.storage.database;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 
 /**
  * A snapshot is a read-only, immutable database access.
@@ -35,10 +36,19 @@ import com.exonum.binding.core.proxy.ProxyDestructor;
  *
  * <p>The Snapshot does not modify the index name upon <em>address resolution</em>.
  *
+ * <p>A snapshot is not thread-safe. To read the same snapshot from several threads,
+ * use a {@linkplain #newConcurrentView() concurrent view} of it.
+ *
  * @see Fork
  */
 public final class Snapshot extends AbstractAccess {
 
+  private static final NativeDestructor OWNING_DESTRUCTOR =
+      NativeDestructor.of(Snapshot.class, AbstractAccess::nativeFree);
+  /** Only invalidates the handle of a non-owning proxy. */
+  private static final NativeDestructor NON_OWNING_DESTRUCTOR =
+      NativeDestructor.of(Snapshot.class, nh -> {});
+
   private final Cleaner cleaner;
 
   /**
@@ -67,11 +77,7 @@ public final class Snapshot extends AbstractAccess {
     checkNotNull(cleaner, "cleaner");
 
     NativeHandle h = new NativeHandle(nativeHandle);
-    ProxyDestructor.newRegistered(cleaner, h, Snapshot.class, nh -> {
-      if (owningHandle) {
-        AbstractAccess.nativeFree(nh);
-      }
-    });
+    cleaner.add(h, owningHandle ? OWNING_DESTRUCTOR : NON_OWNING_DESTRUCTOR);
 
     return new Snapshot(h, cleaner);
   }
@@ -85,4 +91,20 @@ public final class Snapshot extends AbstractAccess {
   public Cleaner getCleaner() {
     return cleaner;
   }
+
+  /**
+   * Creates a view of this snapshot that can be shared between threads, each getting its own
+   * access to this snapshot. The view is destroyed no later than this snapshot.
+   *
+   * @throws IllegalStateException if this snapshot is not valid
+   */
+  public ConcurrentSnapshotView newConcurrentView() {
+    checkState(isValidHandle(), "This snapshot is not valid");
+    return new ConcurrentSnapshotView(this);
+  }
+
+  @Override
+  public boolean allowsConcurrentReads() {
+    return true;
+  }
 }
@@ -20,6 +20,7 @@ import static com.exonum.binding.core.proxy.NativeHandle.INVALID_NATIVE_HANDLE;
 
 import com.exonum.binding.core.proxy.AbstractCloseableNativeProxy;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.exonum.binding.core.util.LibraryLoader;
 import com.google.common.annotations.VisibleForTesting;
@@ -46,6 +47,7 @@ public final class TemporaryDb extends AbstractCloseableNativeProxy implements D
   public static TemporaryDb newInstance() {
     long nativeHandle = INVALID_NATIVE_HANDLE;
     try {
+      NativeCallStatistics.recordCall(TemporaryDb.class, "create");
       nativeHandle = nativeCreate();
       return new TemporaryDb(nativeHandle);
     } catch (Throwable t) {
@@ -63,12 +65,14 @@ public final class TemporaryDb extends AbstractCloseableNativeProxy implements D
 
   @Override
   public Snapshot createSnapshot(Cleaner cleaner) {
+    recordNativeCall("createSnapshot");
     long snapshotHandle = nativeCreateSnapshot(getNativeHandle());
     return Snapshot.newInstance(snapshotHandle, cleaner);
   }
 
   @Override
   public Fork createFork(Cleaner cleaner) {
+    recordNativeCall("createFork");
     long forkHandle = nativeCreateFork(getNativeHandle());
     return Fork.newInstance(forkHandle, cleaner);
   }
@@ -88,6 +92,7 @@ public final class TemporaryDb extends AbstractCloseableNativeProxy implements D
    */
   public void merge(Fork fork) {
     NativeHandle patchHandle = fork.intoPatch();
+    recordNativeCall("merge");
     nativeMerge(getNativeHandle(), patchHandle.get());
   }
 
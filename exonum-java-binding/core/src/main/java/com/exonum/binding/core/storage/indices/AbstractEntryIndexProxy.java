@@ -16,7 +16,11 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesFromNative;
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesToNative;
+
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import java.util.NoSuchElementException;
@@ -47,17 +51,22 @@ abstract class AbstractEntryIndexProxy<T> extends AbstractIndexProxy implements
   public void set(T value) {
     notifyModified();
     byte[] valueBytes = serializer.toBytes(value);
+    recordBytesToNative(valueBytes.length);
+    recordNativeCall("set");
     nativeSet(getNativeHandle(), valueBytes);
   }
 
   @Override
   public boolean isPresent() {
+    recordNativeCall("isPresent");
     return nativeIsPresent(getNativeHandle());
   }
 
   @Override
   public T get() {
+    recordNativeCall("get");
     byte[] value = nativeGet(getNativeHandle());
+    recordBytesFromNative(value);
     if (value == null) {
       throw new NoSuchElementException("No value in this entry");
     }
@@ -72,6 +81,7 @@ abstract class AbstractEntryIndexProxy<T> extends AbstractIndexProxy implements
   @Override
   public void remove() {
     notifyModified();
+    recordNativeCall("remove");
     nativeRemove(getNativeHandle());
   }
 
@@ -20,14 +20,19 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.exonum.binding.core.proxy.AbstractNativeProxy;
 import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.proxy.ProxyScope;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Fork;
+import javax.annotation.Nullable;
 
 /**
  * An abstract super class for proxies of all indices.
  *
  * <p>Each index is created with a database access, either an immutable Snapshot or
  * a read-write Fork. An index has a modification counter to detect when it is modified.
+ *
+ * <p>If the cleaner of the access has a {@linkplain ProxyScope scope}, the index checks
+ * it each time it is used.
  */
 abstract class AbstractIndexProxy extends AbstractNativeProxy implements StorageIndex {
 
@@ -40,6 +45,9 @@ abstract class AbstractIndexProxy extends AbstractNativeProxy implements Storage
 
   private final IndexAddress address;
 
+  /** The scope of the proxies of the access; null if they are not scoped. */
+  @Nullable private final ProxyScope scope;
+
   /**
    * Creates a new index.
    *
@@ -55,6 +63,21 @@ abstract class AbstractIndexProxy extends AbstractNativeProxy implements Storage
     this.address = checkNotNull(address);
     this.dbAccess = access;
     this.modCounter = ModificationCounter.forAccess(access);
+    this.scope = access.getCleaner().getScope().orElse(null);
+  }
+
+  /**
+   * Returns the native handle of this index, checking that it is used in its scope, if any.
+   *
+   * @throws IllegalStateException if the native handle is invalid, or this index is used
+   *     outside of its scope
+   */
+  @Override
+  protected long getNativeHandle() {
+    if (scope != null) {
+      scope.checkActive();
+    }
+    return super.getNativeHandle();
   }
 
   @Override
@@ -77,7 +100,7 @@ abstract class AbstractIndexProxy extends AbstractNativeProxy implements Storage
    *
    * @throws UnsupportedOperationException if access is read-only or null.
    */
-  private void checkCanModify() {
+  void checkCanModify() {
     if (!(dbAccess.canModify())) {
       throw new UnsupportedOperationException("Cannot modify the access: " + dbAccess
           + "\nUse a Fork to modify any collection.");
@@ -16,15 +16,20 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesFromNative;
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesToNative;
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkElementIndex;
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkNoNulls;
+import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkPositionIndex;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.exonum.binding.core.storage.database.AbstractAccess;
+import com.google.common.collect.ImmutableList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -48,6 +53,8 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
   public final void add(T e) {
     notifyModified();
     byte[] dbElement = serializer.toBytes(e);
+    recordBytesToNative(dbElement.length);
+    recordNativeCall("add");
     nativeAdd(getNativeHandle(), dbElement);
   }
 
@@ -64,7 +71,11 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
     long nativeHandle = getNativeHandle();
     elements.stream()
         .map(serializer::toBytes)
-        .forEach((e) -> nativeAdd(nativeHandle, e));
+        .forEach((e) -> {
+          recordBytesToNative(e.length);
+          recordNativeCall("add");
+          nativeAdd(nativeHandle, e);
+        });
   }
 
   @Override
@@ -72,19 +83,51 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
     checkElementIndex(index, size());
     notifyModified();
     byte[] dbElement = serializer.toBytes(e);
+    recordBytesToNative(dbElement.length);
+    recordNativeCall("set");
     nativeSet(getNativeHandle(), index, dbElement);
   }
 
   @Override
   public final T get(long index) {
     checkElementIndex(index, size());
+    recordNativeCall("get");
     byte[] e = nativeGet(getNativeHandle(), index);
+    recordBytesFromNative(e);
     return serializer.fromBytes(e);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Reads the elements in a single native call.
+   */
+  @Override
+  public final List<T> getRange(long from, long to) {
+    checkPositionIndex(to, size());
+    checkPositionIndex(from, to);
+    long rangeSize = to - from;
+    checkArgument(rangeSize <= Integer.MAX_VALUE, "Too many elements in the range [%s, %s)",
+        from, to);
+    if (rangeSize == 0) {
+      return ImmutableList.of();
+    }
+    recordNativeCall("getRange");
+    byte[] packedElements = nativeGetRange(getNativeHandle(), from, to);
+    recordBytesFromNative(packedElements);
+    List<byte[]> dbElements = PackedArrays.unpack(packedElements);
+    ImmutableList.Builder<T> elements = ImmutableList.builderWithExpectedSize(dbElements.size());
+    for (byte[] e : dbElements) {
+      elements.add(serializer.fromBytes(e));
+    }
+    return elements.build();
+  }
+
   @Override
   public final T getLast() {
+    recordNativeCall("getLast");
     byte[] e = nativeGetLast(getNativeHandle());
+    recordBytesFromNative(e);
     // This method does not check if the list is empty first to use only a single native call.
     if (e == null) {
       throw new NoSuchElementException("List is empty");
@@ -95,7 +138,9 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
   @Override
   public T removeLast() {
     notifyModified();
+    recordNativeCall("removeLast");
     byte[] e = nativeRemoveLast(getNativeHandle());
+    recordBytesFromNative(e);
     if (e == null) {
       throw new NoSuchElementException("List is empty");
     }
@@ -106,30 +151,35 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
   public void truncate(long newSize) {
     checkArgument(newSize >= 0, "New size must be non-negative: %s", newSize);
     notifyModified();
+    recordNativeCall("truncate");
     nativeTruncate(getNativeHandle(), newSize);
   }
 
   @Override
   public final void clear() {
     notifyModified();
+    recordNativeCall("clear");
     nativeClear(getNativeHandle());
   }
 
   @Override
   public final boolean isEmpty() {
+    recordNativeCall("isEmpty");
     return nativeIsEmpty(getNativeHandle());
   }
 
   @Override
   public final long size() {
+    recordNativeCall("size");
     return nativeSize(getNativeHandle());
   }
 
   @Override
-  public final Iterator<T> iterator() {
+  public final StorageIterator<T> iterator() {
+    recordNativeCall("createIter");
     return StorageIterators.createIterator(
         nativeCreateIter(getNativeHandle()),
-        this::nativeIterNext,
+        NativeIterNext.ofArrays(this::nativeIterNext),
         this::nativeIterFree,
         dbAccess,
         modCounter,
@@ -149,6 +199,8 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
 
   abstract byte[] nativeGet(long nativeHandle, long index);
 
+  abstract byte[] nativeGetRange(long nativeHandle, long from, long to);
+
   abstract byte[] nativeGetLast(long nativeHandle);
 
   abstract byte[] nativeRemoveLast(long nativeHandle);
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesFromNative;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import javax.annotation.Nullable;
+
+/**
+ * A function returning the next element of a native iterator, that requests the elements
+ * from the native iterator in batches. A batch of several elements is transferred
+ * in a single native call as a {@linkplain PackedArrays packed array}; the elements
+ * are decoded lazily, as they are requested.
+ *
+ * <p>This function can be used as the next function of a {@link ConfigurableRustIter}
+ * instead of a function that makes a native call for each element.
+ *
+ * <p>The iterators over a range of elements, which the Java code stops at the first element
+ * out of the range, shall use a {@linkplain #ofEntriesInRange(NextBatchFunction) growing}
+ * batch size, starting with {@value #INITIAL_RANGE_BATCH_SIZE} elements. The elements
+ * requested beyond the end of the range are wasted; and with the batch size doubling
+ * on each request their number does not exceed the number of the elements in the range
+ * (or the initial batch size, for short ranges).
+ *
+ * @param <E> the type of elements
+ */
+final class BatchedIterNext<E> implements LongFunction<E> {
+
+  /**
+   * The default maximum number of elements in a batch. The native code may return fewer
+   * elements in a batch if their total size is large.
+   */
+  static final int DEFAULT_BATCH_SIZE = 256;
+
+  /**
+   * The initial maximum number of elements in a batch of an iterator over a range.
+   */
+  static final int INITIAL_RANGE_BATCH_SIZE = 16;
+
+  private static final ByteBuffer NO_ELEMENTS = ByteBuffer.allocate(0);
+
+  private final NextBatchFunction nextBatchFunction;
+  private final Function<ByteBuffer, E> elementDecoder;
+  private final int maxBatchSize;
+  private int batchSize;
+  private ByteBuffer batch;
+  private boolean exhausted;
+
+  private BatchedIterNext(NextBatchFunction nextBatchFunction,
+      Function<ByteBuffer, E> elementDecoder, int initialBatchSize, int maxBatchSize) {
+    checkArgument(initialBatchSize > 0, "Batch size must be positive, but was %s",
+        initialBatchSize);
+    checkArgument(initialBatchSize <= maxBatchSize,
+        "Initial batch size (%s) exceeds the maximum (%s)", initialBatchSize, maxBatchSize);
+    this.nextBatchFunction = checkNotNull(nextBatchFunction);
+    this.elementDecoder = elementDecoder;
+    this.batchSize = initialBatchSize;
+    this.maxBatchSize = maxBatchSize;
+    this.batch = NO_ELEMENTS;
+    this.exhausted = false;
+  }
+
+  /**
+   * Creates a next function for a native iterator over byte arrays (e.g., keys or values).
+   *
+   * @param nextBatchFunction a function to call to get the next batch of packed arrays
+   */
+  static BatchedIterNext<byte[]> ofArrays(NextBatchFunction nextBatchFunction) {
+    return ofArrays(nextBatchFunction, DEFAULT_BATCH_SIZE);
+  }
+
+  static BatchedIterNext<byte[]> ofArrays(NextBatchFunction nextBatchFunction, int batchSize) {
+    return ofArrays(nextBatchFunction, batchSize, batchSize);
+  }
+
+  /**
+   * Creates a next function for a native iterator over a range of byte arrays, with
+   * the batch size growing from {@value #INITIAL_RANGE_BATCH_SIZE}
+   * to {@value #DEFAULT_BATCH_SIZE} elements.
+   *
+   * @param nextBatchFunction a function to call to get the next batch of packed arrays
+   */
+  static BatchedIterNext<byte[]> ofArraysInRange(NextBatchFunction nextBatchFunction) {
+    return ofArrays(nextBatchFunction, INITIAL_RANGE_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+  }
+
+  static BatchedIterNext<byte[]> ofArrays(NextBatchFunction nextBatchFunction,
+      int initialBatchSize, int maxBatchSize) {
+    return new BatchedIterNext<>(nextBatchFunction, BatchedIterNext::readPresentElement,
+        initialBatchSize, maxBatchSize);
+  }
+
+  /**
+   * Creates a next function for a native iterator over map entries.
+   *
+   * @param nextBatchFunction a function to call to get the next batch of packed entries,
+   *     with keys and values alternating
+   */
+  static BatchedIterNext<MapEntryInternal> ofEntries(NextBatchFunction nextBatchFunction) {
+    return ofEntries(nextBatchFunction, DEFAULT_BATCH_SIZE);
+  }
+
+  static BatchedIterNext<MapEntryInternal> ofEntries(NextBatchFunction nextBatchFunction,
+      int batchSize) {
+    return ofEntries(nextBatchFunction, batchSize, batchSize);
+  }
+
+  /**
+   * Creates a next function for a native iterator over a range of map entries, with
+   * the batch size growing from {@value #INITIAL_RANGE_BATCH_SIZE}
+   * to {@value #DEFAULT_BATCH_SIZE} entries.
+   *
+   * @param nextBatchFunction a function to call to get the next batch of packed entries,
+   *     with keys and values alternating
+   */
+  static BatchedIterNext<MapEntryInternal> ofEntriesInRange(
+      NextBatchFunction nextBatchFunction) {
+    return ofEntries(nextBatchFunction, INITIAL_RANGE_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+  }
+
+  static BatchedIterNext<MapEntryInternal> ofEntries(NextBatchFunction nextBatchFunction,
+      int initialBatchSize, int maxBatchSize) {
+    return new BatchedIterNext<>(nextBatchFunction,
+        (batch) -> new MapEntryInternal(readPresentElement(batch), readPresentElement(batch)),
+        initialBatchSize, maxBatchSize);
+  }
+
+  /**
+   * Returns the next element of the native iterator with the given handle; or null
+   * if there are no more elements.
+   */
+  @Override
+  @Nullable
+  public E apply(long iterNativeHandle) {
+    if (!batch.hasRemaining()) {
+      if (exhausted) {
+        return null;
+      }
+      NativeCallStatistics.recordCall(RustIter.class, "nextBatch");
+      byte[] nextBatch = nextBatchFunction.nextBatch(iterNativeHandle, batchSize);
+      recordBytesFromNative(nextBatch.length);
+      if (nextBatch.length == 0) {
+        // An empty batch signals the end of the iteration
+        exhausted = true;
+        return null;
+      }
+      batch = ByteBuffer.wrap(nextBatch);
+      batchSize = Math.min(2 * batchSize, maxBatchSize);
+    }
+    return elementDecoder.apply(batch);
+  }
+
+  private static byte[] readPresentElement(ByteBuffer batch) {
+    byte[] element = PackedArrays.readElement(batch);
+    checkArgument(element != null, "Absent element in the batch at position %s",
+        batch.position());
+    return element;
+  }
+
+  /**
+   * A native function returning the next batch of elements of a native iterator.
+   */
+  @FunctionalInterface
+  interface NextBatchFunction {
+
+    /**
+     * Returns the packed array of at most {@code maxSize} next elements of the iterator;
+     * or an empty array if there are no more elements.
+     *
+     * @param iterNativeHandle the native handle of the iterator
+     * @param maxSize the maximum number of elements to return
+     */
+    byte[] nextBatch(long iterNativeHandle, int maxSize);
+  }
+}
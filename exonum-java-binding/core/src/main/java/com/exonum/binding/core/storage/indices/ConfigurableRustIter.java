@@ -18,13 +18,19 @@ package com.exonum.binding.core.storage.indices;
 
 import com.exonum.binding.core.proxy.AbstractNativeProxy;
 import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.proxy.ProxyScope;
 import java.util.ConcurrentModificationException;
 import java.util.Optional;
 import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 
 /**
  * A fail-fast iterator.
  *
+ * <p>The iterator may be bounded with a predicate: it stops at the first element that does not
+ * satisfy the predicate, without requesting any subsequent elements from the native iterator.
+ *
  * @param <E> type of elements returned by the iterator.
  */
 final class ConfigurableRustIter<E> extends AbstractNativeProxy implements RustIter<E> {
@@ -32,6 +38,9 @@ final class ConfigurableRustIter<E> extends AbstractNativeProxy implements RustI
   private final LongFunction<E> nextFunction;
   private final ModificationCounter modificationCounter;
   private final Integer initialModCount;
+  private final Predicate<? super E> inRange;
+  @Nullable private final ProxyScope scope;
+  private boolean reachedEnd;
 
   /**
    * Creates a new iterator over a collection (index).
@@ -43,16 +52,65 @@ final class ConfigurableRustIter<E> extends AbstractNativeProxy implements RustI
   ConfigurableRustIter(NativeHandle nativeHandle,
                        LongFunction<E> nextFunction,
                        ModificationCounter modificationCounter) {
+    this(nativeHandle, nextFunction, modificationCounter, e -> true);
+  }
+
+  /**
+   * Creates a new iterator over a range of a collection (index).
+   *
+   * @param nativeHandle nativeHandle of this iterator
+   * @param nextFunction a function to call to get the next item
+   * @param modificationCounter a collection modification counter
+   * @param inRange a predicate that returns true if the element is in the range of this
+   *     iterator; the iterator ends at the first element for which it returns false
+   */
+  ConfigurableRustIter(NativeHandle nativeHandle,
+                       LongFunction<E> nextFunction,
+                       ModificationCounter modificationCounter,
+                       Predicate<? super E> inRange) {
+    this(nativeHandle, nextFunction, modificationCounter, inRange, null);
+  }
+
+  /**
+   * Creates a new iterator over a range of a collection (index), used in the given scope.
+   *
+   * @param nativeHandle nativeHandle of this iterator
+   * @param nextFunction a function to call to get the next item
+   * @param modificationCounter a collection modification counter
+   * @param inRange a predicate that returns true if the element is in the range of this
+   *     iterator; the iterator ends at the first element for which it returns false
+   * @param scope the scope of the collection proxy, checked on each use of this iterator;
+   *     or null if it is not scoped
+   */
+  ConfigurableRustIter(NativeHandle nativeHandle,
+                       LongFunction<E> nextFunction,
+                       ModificationCounter modificationCounter,
+                       Predicate<? super E> inRange,
+                       @Nullable ProxyScope scope) {
     super(nativeHandle);
     this.nextFunction = nextFunction;
     this.modificationCounter = modificationCounter;
     this.initialModCount = modificationCounter.getCurrentValue();
+    this.inRange = inRange;
+    this.scope = scope;
+    this.reachedEnd = false;
   }
 
   @Override
   public Optional<E> next() {
+    if (scope != null) {
+      scope.checkActive();
+    }
     checkNotModified();
-    return Optional.ofNullable(nextFunction.apply(getNativeHandle()));
+    if (reachedEnd) {
+      return Optional.empty();
+    }
+    E next = nextFunction.apply(getNativeHandle());
+    if (next == null || !inRange.test(next)) {
+      reachedEnd = true;
+      return Optional.empty();
+    }
+    return Optional.of(next);
   }
 
   private void checkNotModified() {
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import com.exonum.binding.common.serialization.BufferSerializer;
+import com.exonum.binding.common.serialization.CheckingBufferSerializerDecorator;
+import com.exonum.binding.common.serialization.Serializer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
+
+/**
+ * Serializes the keys and values of an index into a reusable direct buffer, which is passed
+ * to the native code instead of byte arrays; and de-serializes the values the native code
+ * writes into it. This saves an allocation of a Java array and a copy on each side
+ * of the JNI boundary.
+ *
+ * <p>The buffer is confined to a thread and shared by all indexes used in that thread:
+ * its contents are valid until the next operation with any index. The buffer grows
+ * as needed up to {@value #MAX_CAPACITY} bytes; larger keys and values are passed
+ * as byte arrays.
+ *
+ * <p>The layout of the buffer passed to the native code is: the key, starting at offset zero;
+ * then, for write operations, the value. The native code writes the size of a value
+ * at offset zero, as a big-endian {@code int}, followed by the value if it fits in the buffer.
+ */
+final class DirectBufferCodec<K, V> {
+
+  /** The value size the native code writes when there is no value. */
+  static final int ABSENT_VALUE = -1;
+
+  /** The offset of a value the native code writes, following its size. */
+  static final int VALUE_OFFSET = Integer.BYTES;
+
+  static final int INITIAL_CAPACITY = 4 * 1024;
+  static final int MAX_CAPACITY = 1024 * 1024;
+
+  private static final ThreadLocal<ByteBuffer> BUFFERS =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(INITIAL_CAPACITY));
+
+  private final BufferSerializer<K> keySerializer;
+  private final BufferSerializer<V> valueSerializer;
+
+  private DirectBufferCodec(BufferSerializer<K> keySerializer,
+      BufferSerializer<V> valueSerializer) {
+    this.keySerializer = CheckingBufferSerializerDecorator.from(keySerializer);
+    this.valueSerializer = CheckingBufferSerializerDecorator.from(valueSerializer);
+  }
+
+  /**
+   * Creates a codec if both serializers support the byte buffers.
+   *
+   * @return a new codec; or null if either of the serializers does not implement
+   *     {@link BufferSerializer}
+   */
+  @Nullable
+  static <K, V> DirectBufferCodec<K, V> tryCreate(Serializer<K> keySerializer,
+      Serializer<V> valueSerializer) {
+    if (keySerializer instanceof BufferSerializer
+        && valueSerializer instanceof BufferSerializer) {
+      return new DirectBufferCodec<>((BufferSerializer<K>) keySerializer,
+          (BufferSerializer<V>) valueSerializer);
+    }
+    return null;
+  }
+
+  /**
+   * Writes the key at the start of the buffer.
+   *
+   * @return the buffer, with its position set to the size of the key; or null if the key
+   *     does not fit in the buffer of the maximum capacity
+   */
+  @Nullable
+  ByteBuffer writeKey(K key) {
+    ByteBuffer buffer = BUFFERS.get();
+    buffer.clear();
+    return write(key, keySerializer, buffer);
+  }
+
+  /**
+   * Writes the key at the start of the buffer, followed by the value.
+   *
+   * @return the buffer, with its position set to the size of the key, and its limit set
+   *     to the total size of the key and the value; or null if they do not fit in the buffer
+   *     of the maximum capacity
+   */
+  @Nullable
+  ByteBuffer writeEntry(K key, V value) {
+    ByteBuffer buffer = writeKey(key);
+    if (buffer == null) {
+      return null;
+    }
+    int keySize = buffer.position();
+    buffer = write(value, valueSerializer, buffer);
+    if (buffer == null) {
+      return null;
+    }
+    buffer.flip()
+        .position(keySize);
+    return buffer;
+  }
+
+  @Nullable
+  private static <T> ByteBuffer write(T item, BufferSerializer<T> serializer,
+      ByteBuffer buffer) {
+    int start = buffer.position();
+    while (true) {
+      try {
+        serializer.writeTo(item, buffer);
+        return buffer;
+      } catch (BufferOverflowException e) {
+        if (buffer.capacity() >= MAX_CAPACITY) {
+          return null;
+        }
+        buffer = grow(buffer, 2 * buffer.capacity(), start);
+      }
+    }
+  }
+
+  /**
+   * Reads the size of the value the native code has written at the start of the buffer.
+   *
+   * @param buffer the buffer passed to the native code
+   * @return the size of the value; or {@link #ABSENT_VALUE} if there is no value
+   */
+  static int readValueSize(ByteBuffer buffer) {
+    return buffer.getInt(0);
+  }
+
+  /**
+   * Returns true if the value of the given size fits in the buffer after its size.
+   */
+  static boolean fits(ByteBuffer buffer, int valueSize) {
+    return valueSize <= buffer.capacity() - VALUE_OFFSET;
+  }
+
+  /**
+   * Reads the value of the given size that the native code has written after its size.
+   *
+   * @param buffer the buffer passed to the native code
+   * @param valueSize the size of the value the native code has written, must
+   *     {@linkplain #fits(ByteBuffer, int) fit} in the buffer
+   */
+  V readValue(ByteBuffer buffer, int valueSize) {
+    buffer.clear()
+        .position(VALUE_OFFSET)
+        .limit(VALUE_OFFSET + valueSize);
+    return valueSerializer.readFrom(buffer);
+  }
+
+  /**
+   * Grows the buffer so that the subsequent operations can read the values of the given size.
+   * Has no effect if the buffer is large enough, or the size exceeds the maximum capacity.
+   */
+  void reserve(int valueSize) {
+    ByteBuffer buffer = BUFFERS.get();
+    if (!fits(buffer, valueSize) && valueSize <= MAX_CAPACITY - VALUE_OFFSET) {
+      grow(buffer, VALUE_OFFSET + valueSize, 0);
+    }
+  }
+
+  /**
+   * Replaces the buffer of this thread with a larger one, preserving the given number
+   * of the leading bytes.
+   */
+  private static ByteBuffer grow(ByteBuffer buffer, int minCapacity, int preservedBytes) {
+    int capacity = Math.min(Math.max(minCapacity, 2 * buffer.capacity()), MAX_CAPACITY);
+    ByteBuffer newBuffer = ByteBuffer.allocateDirect(capacity);
+    buffer.clear()
+        .limit(preservedBytes);
+    newBuffer.put(buffer);
+    BUFFERS.set(newBuffer);
+    return newBuffer;
+  }
+}
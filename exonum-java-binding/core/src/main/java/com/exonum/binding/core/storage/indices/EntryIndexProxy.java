@@ -22,8 +22,9 @@ import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
@@ -41,6 +42,9 @@ public final class EntryIndexProxy<T> extends AbstractEntryIndexProxy<T> {
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(EntryIndexProxy.class, EntryIndexProxy::nativeFree);
+
   /**
    * Creates a new Entry.
    *
@@ -70,12 +74,12 @@ public final class EntryIndexProxy<T> extends AbstractEntryIndexProxy<T> {
 
   private static NativeHandle createNativeEntry(String name, AbstractAccess access) {
     long accessNativeHandle = access.getAccessNativeHandle();
+    NativeCallStatistics.recordCall(EntryIndexProxy.class, "create");
     long handle = nativeCreate(name, accessNativeHandle);
     NativeHandle entryNativeHandle = new NativeHandle(handle);
 
     Cleaner cleaner = access.getCleaner();
-    ProxyDestructor.newRegistered(cleaner, entryNativeHandle, EntryIndexProxy.class,
-        EntryIndexProxy::nativeFree);
+    cleaner.add(entryNativeHandle, DESTRUCTOR);
     return entryNativeHandle;
   }
 
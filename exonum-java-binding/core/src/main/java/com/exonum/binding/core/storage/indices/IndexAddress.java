@@ -59,9 +59,11 @@ public final class IndexAddress {
    *     group in the MerkleDB: [a-zA-Z0-9_.]
    * @param idInGroup the id of the index in group. See a
    *     <a href="package-summary.html#families-limitations">caveat</a> on index identifiers.
+   *     The id is copied, so that subsequent modifications of the passed array
+   *     do not affect the address
    */
   public static IndexAddress valueOf(String groupName, byte[] idInGroup) {
-    return new IndexAddress(checkIndexName(groupName), checkIdInGroup(idInGroup));
+    return new IndexAddress(checkIndexName(groupName), checkIdInGroup(idInGroup).clone());
   }
 
   private IndexAddress(String name, @Nullable byte[] idInGroup) {
@@ -16,18 +16,21 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesToNative;
+
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
-import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
@@ -63,6 +66,9 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(KeySetIndexProxy.class, KeySetIndexProxy::nativeFree);
+
   // Note that we do *not* specify Spliterator.DISTINCT because it is documented in terms
   // of Object#equals which this set does not use.
   private static final int BASE_SPLITERATOR_CHARACTERISTICS =
@@ -96,13 +102,13 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
 
   private static NativeHandle createNativeSet(IndexAddress address, AbstractAccess access) {
     long accessNativeHandle = access.getAccessNativeHandle();
+    NativeCallStatistics.recordCall(KeySetIndexProxy.class, "create");
     long handle = nativeCreate(address.getName(), address.getIdInGroup().orElse(null),
         accessNativeHandle);
     NativeHandle setNativeHandle = new NativeHandle(handle);
 
     Cleaner cleaner = access.getCleaner();
-    ProxyDestructor.newRegistered(cleaner, setNativeHandle, KeySetIndexProxy.class,
-        KeySetIndexProxy::nativeFree);
+    cleaner.add(setNativeHandle, DESTRUCTOR);
     return setNativeHandle;
   }
 
@@ -123,6 +129,8 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
   public void add(E e) {
     notifyModified();
     byte[] dbElement = serializer.toBytes(e);
+    recordBytesToNative(dbElement.length);
+    recordNativeCall("add");
     nativeAdd(getNativeHandle(), dbElement);
   }
 
@@ -135,6 +143,7 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
    */
   public void clear() {
     notifyModified();
+    recordNativeCall("clear");
     nativeClear(getNativeHandle());
   }
   
@@ -145,6 +154,8 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
    */
   public boolean contains(E e) {
     byte[] dbElement = serializer.toBytes(e);
+    recordBytesToNative(dbElement.length);
+    recordNativeCall("contains");
     return nativeContains(getNativeHandle(), dbElement);
   }
 
@@ -155,25 +166,96 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
    * @throws IllegalStateException if this set is not valid 
    */
   @Override
-  public Iterator<E> iterator() {
+  public StorageIterator<E> iterator() {
+    recordNativeCall("createIterator");
     return StorageIterators.createIterator(
         nativeCreateIterator(getNativeHandle()),
-        this::nativeIteratorNext,
+        BatchedIterNext.ofArrays(this::nativeIteratorNextBatch),
+        this::nativeIteratorFree,
+        dbAccess,
+        modCounter,
+        serializer::fromBytes);
+  }
+
+  /**
+   * Creates an iterator over the set elements, starting with the given element (inclusive).
+   * The elements are ordered lexicographically.
+   *
+   * @param from the first element to return, if present in the set
+   * @return an iterator over the elements of this set that are not less than the given element
+   * @throws IllegalStateException if this set is not valid
+   */
+  public StorageIterator<E> iterator(E from) {
+    byte[] dbFrom = serializer.toBytes(from);
+    recordBytesToNative(dbFrom.length);
+    recordNativeCall("createIteratorFrom");
+    return StorageIterators.createIterator(
+        nativeCreateIteratorFrom(getNativeHandle(), dbFrom),
+        BatchedIterNext.ofArrays(this::nativeIteratorNextBatch),
         this::nativeIteratorFree,
         dbAccess,
         modCounter,
         serializer::fromBytes);
   }
 
+  /**
+   * Creates an iterator over the set elements in the range
+   * [{@code from}, {@code toExclusive}). The elements are ordered lexicographically.
+   *
+   * @param from the first element to return, if present in the set
+   * @param toExclusive the upper bound of the range (exclusive)
+   * @return an iterator over the elements of this set in the given range
+   * @throws IllegalStateException if this set is not valid
+   */
+  public StorageIterator<E> iterator(E from, E toExclusive) {
+    byte[] dbFrom = serializer.toBytes(from);
+    byte[] dbTo = serializer.toBytes(toExclusive);
+    return createIteratorFrom(dbFrom, StorageKeys.lessThan(dbTo));
+  }
+
+  /**
+   * Creates an iterator over the set elements that start with the given prefix.
+   * An element starts with a prefix if the serialized representation of the prefix
+   * is a prefix of the serialized representation of the element.
+   * The elements are ordered lexicographically.
+   *
+   * @param prefix the prefix of the elements to return
+   * @return an iterator over the elements of this set that start with the given prefix
+   * @throws IllegalStateException if this set is not valid
+   */
+  public StorageIterator<E> iteratorWithPrefix(E prefix) {
+    byte[] dbPrefix = serializer.toBytes(prefix);
+    return createIteratorFrom(dbPrefix, StorageKeys.startsWith(dbPrefix));
+  }
+
+  private StorageIterator<E> createIteratorFrom(byte[] dbFrom, Predicate<byte[]> elementInRange) {
+    recordBytesToNative(dbFrom.length);
+    recordNativeCall("createIteratorFrom");
+    return StorageIterators.createIterator(
+        nativeCreateIteratorFrom(getNativeHandle(), dbFrom),
+        NativeIterNext.ofArrays(this::nativeIteratorNext),
+        this::nativeIteratorFree,
+        dbAccess,
+        modCounter,
+        elementInRange,
+        serializer::fromBytes);
+  }
+
   /**
    * Returns a stream of the set elements. The elements are ordered lexicographically.
    *
+   * <p>The native iterator backing the stream is destroyed when the stream is consumed
+   * or {@linkplain Stream#close() closed}. Close the stream if a short-circuiting
+   * operation (e.g., {@code findFirst}) might leave it not consumed.
+   *
    * @throws IllegalStateException if this set is not valid
    */
   public Stream<E> stream() {
+    StorageIterator<E> iterator = iterator();
     return StreamSupport.stream(
-        Spliterators.spliteratorUnknownSize(iterator(), streamCharacteristics()),
-        false);
+        Spliterators.spliteratorUnknownSize(iterator, streamCharacteristics()),
+        false)
+        .onClose(iterator::close);
   }
 
   private int streamCharacteristics() {
@@ -194,6 +276,8 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
   public void remove(E e) {
     notifyModified();
     byte[] dbElement = serializer.toBytes(e);
+    recordBytesToNative(dbElement.length);
+    recordNativeCall("remove");
     nativeRemove(getNativeHandle(), dbElement);
   }
 
@@ -208,8 +292,12 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
 
   private native long nativeCreateIterator(long nativeHandle);
 
+  private native long nativeCreateIteratorFrom(long nativeHandle, byte[] from);
+
   private native byte[] nativeIteratorNext(long iterNativeHandle);
 
+  private native byte[] nativeIteratorNextBatch(long iterNativeHandle, int maxSize);
+
   private native void nativeIteratorFree(long iterNativeHandle);
 
   private native void nativeRemove(long nativeHandle, byte[] e);
@@ -16,8 +16,12 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkPositionIndex;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 
@@ -80,6 +84,33 @@ public interface ListIndex<T> extends StorageIndex, Iterable<T> {
    */
   T get(long index);
 
+  /**
+   * Returns the elements in the range [from, to) of this list.
+   *
+   * <p>The default implementation reads the elements one at a time with {@link #get(long)}.
+   *
+   * @param from the index of the first element to return
+   * @param to the index after the last element to return
+   * @return a list of elements in the given range; empty if {@code from == to}
+   * @throws IndexOutOfBoundsException if the range is not valid, i.e.,
+   *     {@code from < 0 || to < from || size() < to}
+   * @throws IllegalArgumentException if the range has more than {@link Integer#MAX_VALUE}
+   *     elements
+   * @throws IllegalStateException if this list is not valid
+   */
+  default List<T> getRange(long from, long to) {
+    checkPositionIndex(to, size());
+    checkPositionIndex(from, to);
+    long rangeSize = to - from;
+    checkArgument(rangeSize <= Integer.MAX_VALUE, "Too many elements in the range [%s, %s)",
+        from, to);
+    ImmutableList.Builder<T> elements = ImmutableList.builderWithExpectedSize((int) rangeSize);
+    for (long i = from; i < to; i++) {
+      elements.add(get(i));
+    }
+    return elements.build();
+  }
+
   /**
    * Returns the last element of the list.
    *
@@ -140,7 +171,7 @@ public interface ListIndex<T> extends StorageIndex, Iterable<T> {
    * @throws IllegalStateException if this list is not valid
    */
   @Override
-  Iterator<T> iterator();
+  StorageIterator<T> iterator();
 
   /**
    * Returns a stream of elements in this list.
@@ -20,8 +20,9 @@ import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
@@ -53,6 +54,9 @@ public final class ListIndexProxy<E> extends AbstractListIndexProxy<E> implement
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(ListIndexProxy.class, ListIndexProxy::nativeFree);
+
   /**
    * Creates a new ListIndexProxy.
    *
@@ -79,13 +83,13 @@ public final class ListIndexProxy<E> extends AbstractListIndexProxy<E> implement
 
   private static NativeHandle createNativeList(IndexAddress address, AbstractAccess access) {
     long accessNativeHandle = access.getAccessNativeHandle();
+    NativeCallStatistics.recordCall(ListIndexProxy.class, "create");
     long handle = nativeCreate(address.getName(), address.getIdInGroup().orElse(null),
         accessNativeHandle);
     NativeHandle listNativeHandle = new NativeHandle(handle);
 
     Cleaner cleaner = access.getCleaner();
-    ProxyDestructor.newRegistered(cleaner, listNativeHandle, ListIndexProxy.class,
-        ListIndexProxy::nativeFree);
+    cleaner.add(listNativeHandle, DESTRUCTOR);
     return listNativeHandle;
   }
 
@@ -108,6 +112,9 @@ public final class ListIndexProxy<E> extends AbstractListIndexProxy<E> implement
   @Override
   native byte[] nativeGet(long nativeHandle, long index);
 
+  @Override
+  native byte[] nativeGetRange(long nativeHandle, long from, long to);
+
   @Override
   native byte[] nativeGetLast(long nativeHandle);
 
@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.util.ConcurrentModificationException;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 
@@ -42,6 +43,10 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
   @VisibleForTesting
   static final int MIN_SPLITTABLE_SIZE = 2;
 
+  /** The maximum number of elements to read from the list at once. */
+  @VisibleForTesting
+  static final int MAX_RANGE_SIZE = 1024;
+
   private final ListIndex<ElementT> list;
 
   /** An index of the next element to read. */
@@ -76,12 +81,6 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
     this.initialCounterValue = initialCounterValue;
   }
 
-  //  todo: can add forEachRemaining and AbstractListIndexProxy#forEachInRange to list that
-  //    can avoid performing repetitive operation per each get:
-  //    - a check for modifications of the source list
-  //    - getNativeHandle
-  //    - size checks (a native call to size): [ECR-2817]
-
   @Override
   public boolean tryAdvance(Consumer<? super ElementT> action) {
     bindOrCheckModifications();
@@ -95,6 +94,23 @@ class ListSpliterator<ElementT> implements Spliterator<ElementT> {
     }
   }
 
+  /**
+   * Performs the action for each remaining element. Reads the elements from the list
+   * in ranges of up to {@value #MAX_RANGE_SIZE} elements, so that the checks for modifications
+   * and the reads from the list are performed per range instead of per element.
+   */
+  @Override
+  public void forEachRemaining(Consumer<? super ElementT> action) {
+    bindOrCheckModifications();
+    while (nextIndex < fence) {
+      long rangeEnd = Math.min(fence, nextIndex + MAX_RANGE_SIZE);
+      List<ElementT> elements = list.getRange(nextIndex, rangeEnd);
+      nextIndex = rangeEnd;
+      elements.forEach(action);
+      bindOrCheckModifications();
+    }
+  }
+
   @Override
   public Spliterator<ElementT> trySplit() {
     bindOrCheckModifications();
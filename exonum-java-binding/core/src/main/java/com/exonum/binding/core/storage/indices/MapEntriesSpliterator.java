@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.common.collect.MapEntry;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+/**
+ * A spliterator over the entries of a map index that splits the space of the serialized keys
+ * in halves, so that the entries can be processed in parallel, each part — with its own
+ * native iterator over the range of the keys.
+ *
+ * <p>The ranges are bounded by the <em>split keys</em>: the 32-byte keys, which first
+ * {@value #POSITION_BYTES} bytes are the position of the bound in the key space,
+ * and the others are zeroes. The splits are balanced if the keys are uniformly distributed
+ * (e.g., hashes or public keys); otherwise, some parts may be empty.
+ *
+ * <p>The spliterator is split only if the map allows concurrent reads; otherwise,
+ * it is a sequential spliterator over the entries. It is late-binding: the native iterator
+ * is created at the first traversal.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class MapEntriesSpliterator<K, V> implements Spliterator<MapEntry<K, V>> {
+
+  /**
+   * The maximum number of times the spliterator can be split, limiting the number of its parts
+   * (and native iterators) to {@code 2^MAX_SPLIT_DEPTH}.
+   */
+  static final int MAX_SPLIT_DEPTH = 16;
+
+  /**
+   * The size of the split keys. It is equal to the size of the keys of the proof maps
+   * that do not hash the keys, which accept no other keys.
+   */
+  static final int SPLIT_KEY_SIZE = 32;
+
+  private static final int POSITION_BYTES = Long.BYTES;
+  private static final BigInteger KEY_SPACE_END = BigInteger.ONE.shiftLeft(Long.SIZE);
+  private static final int BASE_CHARACTERISTICS = ORDERED | DISTINCT | NONNULL;
+
+  private final RangeIterFactory<K, V> iterFactory;
+  private final Object iterCreationLock;
+  private final boolean splittable;
+  private final Queue<StorageIterator<?>> openIterators;
+  /** The inclusive lower bound position; zero means from the first key of the map. */
+  private BigInteger lowerBound;
+  /** The exclusive upper bound position; {@link #KEY_SPACE_END} means till the last key. */
+  private final BigInteger upperBound;
+  private int depth;
+  private long estimatedSize;
+  @Nullable
+  private StorageIterator<MapEntry<K, V>> iterator;
+
+  /**
+   * Creates a spliterator over all the entries of the map.
+   *
+   * @param iterFactory a factory of the iterators over the ranges of the entries
+   * @param iterCreationLock a lock to hold when creating the iterators, so that the native
+   *     iterators over the same map are not created concurrently
+   * @param splittable whether the spliterator may be split, which requires that the map
+   *     allows concurrent reads
+   */
+  MapEntriesSpliterator(RangeIterFactory<K, V> iterFactory, Object iterCreationLock,
+      boolean splittable) {
+    this(iterFactory, iterCreationLock, splittable, new ConcurrentLinkedQueue<>(),
+        BigInteger.ZERO, KEY_SPACE_END, 0, Long.MAX_VALUE);
+  }
+
+  private MapEntriesSpliterator(RangeIterFactory<K, V> iterFactory, Object iterCreationLock,
+      boolean splittable, Queue<StorageIterator<?>> openIterators, BigInteger lowerBound,
+      BigInteger upperBound, int depth, long estimatedSize) {
+    this.iterFactory = checkNotNull(iterFactory);
+    this.iterCreationLock = checkNotNull(iterCreationLock);
+    this.splittable = splittable;
+    this.openIterators = openIterators;
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
+    this.depth = depth;
+    this.estimatedSize = estimatedSize;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super MapEntry<K, V>> action) {
+    checkNotNull(action);
+    StorageIterator<MapEntry<K, V>> it = iterator();
+    if (it.hasNext()) {
+      action.accept(it.next());
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super MapEntry<K, V>> action) {
+    checkNotNull(action);
+    iterator().forEachRemaining(action);
+  }
+
+  /**
+   * Splits the range of this spliterator in halves, returning the spliterator over the lower
+   * half. Returns null if this spliterator may not be split; or has started the traversal;
+   * or has been split {@link #MAX_SPLIT_DEPTH} times.
+   */
+  @Override
+  @Nullable
+  public Spliterator<MapEntry<K, V>> trySplit() {
+    if (!splittable || iterator != null || depth >= MAX_SPLIT_DEPTH) {
+      return null;
+    }
+    BigInteger middle = lowerBound.add(upperBound).shiftRight(1);
+    if (middle.equals(lowerBound)) {
+      return null;
+    }
+    depth++;
+    // The size is unknown; but halving the estimate makes the stream framework split
+    // the spliterator to the number of parts proportional to its parallelism
+    estimatedSize >>>= 1;
+    Spliterator<MapEntry<K, V>> lowerHalf = new MapEntriesSpliterator<>(iterFactory,
+        iterCreationLock, true, openIterators, lowerBound, middle, depth, estimatedSize);
+    lowerBound = middle;
+    return lowerHalf;
+  }
+
+  @Override
+  public long estimateSize() {
+    return estimatedSize;
+  }
+
+  @Override
+  public int characteristics() {
+    return splittable ? (BASE_CHARACTERISTICS | IMMUTABLE) : BASE_CHARACTERISTICS;
+  }
+
+  /**
+   * Closes the iterators created by this spliterator, and the spliterators split from it.
+   */
+  void close() {
+    StorageIterator<?> it;
+    while ((it = openIterators.poll()) != null) {
+      it.close();
+    }
+  }
+
+  private StorageIterator<MapEntry<K, V>> iterator() {
+    if (iterator == null) {
+      byte[] fromKey = lowerBound.signum() == 0 ? null : toSplitKey(lowerBound);
+      byte[] toKey = upperBound.equals(KEY_SPACE_END) ? null : toSplitKey(upperBound);
+      synchronized (iterCreationLock) {
+        iterator = iterFactory.create(fromKey, toKey);
+      }
+      openIterators.add(iterator);
+    }
+    return iterator;
+  }
+
+  private static byte[] toSplitKey(BigInteger position) {
+    return ByteBuffer.allocate(SPLIT_KEY_SIZE)
+        .putLong(position.longValue())
+        .array();
+  }
+
+  /**
+   * A factory of the iterators over the ranges of the map entries.
+   */
+  @FunctionalInterface
+  interface RangeIterFactory<K, V> {
+
+    /**
+     * Creates an iterator over the entries in the given range of the serialized keys.
+     *
+     * @param fromKey the first key of the range (inclusive); or null to start with
+     *     the first key of the map
+     * @param toKeyExclusive the last key of the range (exclusive); or null to end with
+     *     the last key of the map
+     */
+    StorageIterator<MapEntry<K, V>> create(@Nullable byte[] fromKey,
+        @Nullable byte[] toKeyExclusive);
+  }
+}
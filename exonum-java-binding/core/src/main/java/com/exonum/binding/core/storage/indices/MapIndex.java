@@ -16,9 +16,15 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.exonum.binding.common.collect.MapEntry;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 /**
  * A MapIndex is an index that maps keys to values. A map cannot contain duplicate keys;
@@ -42,6 +48,23 @@ public interface MapIndex<K, V> extends StorageIndex {
    */
   boolean containsKey(K key);
 
+  /**
+   * Returns true if this map contains a mapping for each of the specified keys.
+   * Returns true if the collection of keys is empty.
+   *
+   * @param keys the storage keys
+   * @throws NullPointerException if the collection is null or contains a null key
+   * @throws IllegalStateException if this map is not valid
+   */
+  default boolean containsAll(Collection<? extends K> keys) {
+    for (K key : keys) {
+      if (!containsKey(key)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Puts a new key-value pair into the map. If this map already contains
    * a mapping for the specified key, overwrites the old value with the specified value.
@@ -83,6 +106,39 @@ public interface MapIndex<K, V> extends StorageIndex {
    */
   V get(K key);
 
+  /**
+   * Returns the value associated with the specified key,
+   * or {@code Optional.empty()} if there is no mapping for the key.
+   *
+   * @param key a storage key
+   * @throws IllegalStateException if this map is not valid
+   */
+  default Optional<V> getOptional(K key) {
+    return Optional.ofNullable(get(key));
+  }
+
+  /**
+   * Returns the values associated with the specified keys. Equivalent to a sequence
+   * of individual {@link #get} operations.
+   *
+   * @param keys the storage keys
+   * @return a map of each key that has a mapping in this map to its value, in the iteration
+   *     order of the passed collection. The keys that have no mapping are absent
+   *     in the returned map
+   * @throws NullPointerException if the collection is null or contains a null key
+   * @throws IllegalStateException if this map is not valid
+   */
+  default Map<K, V> getAll(Collection<? extends K> keys) {
+    Map<K, V> result = new LinkedHashMap<>();
+    for (K key : keys) {
+      V value = get(key);
+      if (value != null) {
+        result.put(key, value);
+      }
+    }
+    return result;
+  }
+
   /**
    * Removes the value mapped to the specified key from the map.
    * If there is no such mapping, has no effect.
@@ -92,13 +148,138 @@ public interface MapIndex<K, V> extends StorageIndex {
    * @throws UnsupportedOperationException if this map is read-only
    */
   void remove(K key);
+
+  /**
+   * Removes the values mapped to the specified keys from the map. Equivalent to a sequence
+   * of individual {@link #remove} operations.
+   *
+   * @param keys the storage keys
+   * @throws NullPointerException if the collection is null or contains a null key
+   * @throws IllegalStateException if this map is not valid
+   * @throws UnsupportedOperationException if this map is read-only
+   */
+  default void removeAll(Collection<? extends K> keys) {
+    for (K key : keys) {
+      remove(key);
+    }
+  }
+
+  /**
+   * Puts the key-value pair into the map if there is no mapping for the specified key.
+   *
+   * @param key a storage key
+   * @param value a storage value to associate with the key
+   * @return the current value mapped to the key, if it is present, in which case the map
+   *     is not modified; or {@code null} if the given value is put into the map
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if some property of the key or the value prevents it
+   *                                  from being stored in this map
+   * @throws UnsupportedOperationException if this map is read-only
+   * @see Map#putIfAbsent(Object, Object)
+   */
+  default V putIfAbsent(K key, V value) {
+    V current = get(key);
+    if (current == null) {
+      put(key, value);
+    }
+    return current;
+  }
+
+  /**
+   * Replaces the value mapped to the specified key if there is such mapping.
+   * If there is no mapping for the key, has no effect.
+   *
+   * @param key a storage key
+   * @param value a storage value to associate with the key
+   * @return the previous value mapped to the key; or {@code null} if there was no mapping
+   *     for the key
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if some property of the key or the value prevents it
+   *                                  from being stored in this map
+   * @throws UnsupportedOperationException if this map is read-only
+   * @see Map#replace(Object, Object)
+   */
+  default V replace(K key, V value) {
+    V previous = get(key);
+    if (previous != null) {
+      put(key, value);
+    }
+    return previous;
+  }
+
+  /**
+   * Computes a new value for the specified key given its current value (or {@code null}
+   * if there is no mapping for the key), and updates the mapping. If the function returns
+   * {@code null}, the mapping is removed.
+   *
+   * <p>For example, to increment a counter: {@code counters.compute(key, (k, count) ->
+   * (count == null) ? 1L : count + 1)}.
+   *
+   * <p>The function must not modify this map.
+   *
+   * @param key a storage key
+   * @param remappingFunction the function to compute a new value from the key
+   *     and the current value
+   * @return the new value mapped to the key; or {@code null} if there is no mapping
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if some property of the key or the value prevents it
+   *                                  from being stored in this map
+   * @throws UnsupportedOperationException if this map is read-only
+   * @see Map#compute(Object, BiFunction)
+   */
+  default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+    checkNotNull(remappingFunction);
+    V oldValue = get(key);
+    V newValue = remappingFunction.apply(key, oldValue);
+    if (newValue != null) {
+      put(key, newValue);
+    } else if (oldValue != null) {
+      remove(key);
+    }
+    return newValue;
+  }
+
+  /**
+   * Puts the given value into the map if there is no mapping for the specified key;
+   * otherwise, replaces the current value with the result of the given function of the current
+   * and the given values. If the function returns {@code null}, the mapping is removed.
+   *
+   * <p>For example, to add an amount to a balance: {@code balances.merge(key, amount, Long::sum)}.
+   *
+   * <p>The function must not modify this map.
+   *
+   * @param key a storage key
+   * @param value the value to put if there is no mapping for the key; or to merge
+   *     with the current value
+   * @param remappingFunction the function to compute a new value from the current
+   *     and the given values
+   * @return the new value mapped to the key; or {@code null} if there is no mapping
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if some property of the key or the value prevents it
+   *                                  from being stored in this map
+   * @throws UnsupportedOperationException if this map is read-only
+   * @see Map#merge(Object, Object, BiFunction)
+   */
+  default V merge(K key, V value,
+      BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    checkNotNull(value);
+    checkNotNull(remappingFunction);
+    V oldValue = get(key);
+    V newValue = (oldValue == null) ? value : remappingFunction.apply(oldValue, value);
+    if (newValue != null) {
+      put(key, newValue);
+    } else {
+      remove(key);
+    }
+    return newValue;
+  }
   
   /**
    * Returns an iterator over the map keys. The keys are ordered in lexicographical order.
    *
    * @throws IllegalStateException if this map is not valid
    */
-  Iterator<K> keys();
+  StorageIterator<K> keys();
 
   /**
    * Returns an iterator over the map values. The values are ordered in lexicographical order of
@@ -106,7 +287,7 @@ public interface MapIndex<K, V> extends StorageIndex {
    *
    * @throws IllegalStateException if this map is not valid
    */
-  Iterator<V> values();
+  StorageIterator<V> values();
 
   /**
    * Returns an iterator over the map entries. The entries are ordered by keys in lexicographical
@@ -114,7 +295,73 @@ public interface MapIndex<K, V> extends StorageIndex {
    *
    * @throws IllegalStateException if this map is not valid
    */
-  Iterator<MapEntry<K, V>> entries();
+  StorageIterator<MapEntry<K, V>> entries();
+
+  /**
+   * Returns an iterator over the map keys, starting at the given key. The iterator
+   * skips the keys preceding the given key in the iteration order of this map (i.e., in
+   * the order of {@link #keys()}), and returns all the subsequent keys.
+   * The given key does not have to be present in the map.
+   *
+   * @param fromKey the first key to return, if present
+   * @throws IllegalStateException if this map is not valid
+   */
+  StorageIterator<K> keys(K fromKey);
+
+  /**
+   * Returns an iterator over the map values, starting at the value mapped to the given key.
+   * The iterator skips the values which keys precede the given key in the iteration order
+   * of this map, and returns all the subsequent values.
+   *
+   * @param fromKey the key of the first value to return, if present
+   * @throws IllegalStateException if this map is not valid
+   * @see #keys(Object)
+   */
+  StorageIterator<V> values(K fromKey);
+
+  /**
+   * Returns an iterator over the map entries, starting at the entry with the given key.
+   * The iterator skips the entries which keys precede the given key in the iteration order
+   * of this map, and returns all the subsequent entries.
+   *
+   * @param fromKey the key of the first entry to return, if present
+   * @throws IllegalStateException if this map is not valid
+   * @see #keys(Object)
+   */
+  StorageIterator<MapEntry<K, V>> entries(K fromKey);
+
+  /**
+   * Returns an iterator over the map entries in the range of keys [fromKey; toKeyExclusive)
+   * in the iteration order of this map. The given keys do not have to be present in the map.
+   * If {@code toKeyExclusive} does not follow {@code fromKey}, the iterator is empty.
+   *
+   * <p>This method allows to read a range of entries without reading the rest of the map.
+   *
+   * @param fromKey the key of the first entry to return, if present
+   * @param toKeyExclusive the key at which to stop the iteration
+   * @throws IllegalStateException if this map is not valid
+   * @see #keys(Object)
+   */
+  StorageIterator<MapEntry<K, V>> entries(K fromKey, K toKeyExclusive);
+
+  /**
+   * Returns a stream of the map entries. The entries are ordered by keys in lexicographical
+   * order.
+   *
+   * <p>The stream may be processed in {@linkplain Stream#parallel() parallel} if this map
+   * is accessed through a {@linkplain com.exonum.binding.core.storage.database.Snapshot
+   * snapshot}: the stream then splits the space of the serialized keys in ranges and reads each
+   * range with its own iterator. The ranges contain similar numbers of entries only if
+   * the serialized keys are uniformly distributed (e.g., hashes or public keys). The stream
+   * over a map accessed through other accesses is always processed sequentially.
+   *
+   * <p>The stream shall be closed once it is no longer needed if it is not processed
+   * completely (e.g., after a short-circuiting operation like {@link Stream#findFirst()})
+   * to release the native iterators.
+   *
+   * @throws IllegalStateException if this map is not valid
+   */
+  Stream<MapEntry<K, V>> entriesStream();
 
   /**
    * Removes all of the key-value pairs from the map.
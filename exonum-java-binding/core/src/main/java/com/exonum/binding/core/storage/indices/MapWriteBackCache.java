@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.exonum.binding.common.serialization.Serializer;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * A write-back cache of a map index. It keeps the values read from the database,
+ * and the modifications until they are {@linkplain #flush() flushed}.
+ *
+ * <p>The entries are identified by the serialized keys, so that the key type does not need
+ * to implement {@link Object#equals(Object)}. The values are kept serialized, and each read
+ * deserializes a new value object, so that neither the objects passed to
+ * {@link #put(Object, Object)}, nor the ones returned from {@link #get(Object)} are shared
+ * with the cache.
+ *
+ * @see WriteBackCache
+ */
+final class MapWriteBackCache<K, V> implements WriteBackCache.CachedIndex {
+
+  private final Serializer<K> keySerializer;
+  private final Serializer<V> valueSerializer;
+  private final NativeMap nativeMap;
+  private final Map<ByteString, CachedEntry> entries = new HashMap<>();
+  private boolean modified;
+
+  /**
+   * Creates a cache of the map.
+   *
+   * @param keySerializer a serializer of the keys
+   * @param valueSerializer a serializer of the values
+   * @param nativeMap the operations of the native map
+   */
+  MapWriteBackCache(Serializer<K> keySerializer, Serializer<V> valueSerializer,
+      NativeMap nativeMap) {
+    this.keySerializer = keySerializer;
+    this.valueSerializer = valueSerializer;
+    this.nativeMap = nativeMap;
+  }
+
+  boolean containsKey(K key) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    ByteString cacheKey = UnsafeByteOperations.unsafeWrap(dbKey);
+    CachedEntry entry = entries.get(cacheKey);
+    if (entry == null) {
+      boolean present = nativeMap.containsKey(dbKey);
+      // Do not load the value until it is requested
+      entry = CachedEntry.read(dbKey, present, null);
+      entries.put(cacheKey, entry);
+    }
+    return entry.present;
+  }
+
+  @Nullable
+  V get(K key) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    ByteString cacheKey = UnsafeByteOperations.unsafeWrap(dbKey);
+    CachedEntry entry = entries.get(cacheKey);
+    if (entry == null) {
+      byte[] dbValue = nativeMap.get(dbKey);
+      entry = CachedEntry.read(dbKey, dbValue != null, dbValue);
+      entries.put(cacheKey, entry);
+    } else if (entry.present && entry.value == null) {
+      // Only the presence of the value is known
+      byte[] dbValue = nativeMap.get(dbKey);
+      checkState(dbValue != null, "No value for the key known to be present: %s", key);
+      entry.value = dbValue;
+    }
+    // Deserialize a copy, as some serializers (e.g., of byte arrays) return the passed array
+    return entry.present ? valueSerializer.fromBytes(entry.value.clone()) : null;
+  }
+
+  void put(K key, V value) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    // Serialize the value immediately so that any serialization errors are reported
+    // to the caller, and any subsequent changes to the value object are not written.
+    // Copy the serialized value, as some serializers return the value object itself
+    byte[] dbValue = valueSerializer.toBytes(value).clone();
+    entries.put(UnsafeByteOperations.unsafeWrap(dbKey), CachedEntry.put(dbKey, dbValue));
+    modified = true;
+  }
+
+  void remove(K key) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    entries.put(UnsafeByteOperations.unsafeWrap(dbKey), CachedEntry.removed(dbKey));
+    modified = true;
+  }
+
+  /**
+   * Writes the modifications to the database: the put entries in one batch, and the removed
+   * keys — in another.
+   */
+  @Override
+  public void flush() {
+    if (!modified) {
+      return;
+    }
+    List<byte[]> putEntries = new ArrayList<>();
+    List<byte[]> removedKeys = new ArrayList<>();
+    for (CachedEntry entry : entries.values()) {
+      if (entry.dirty) {
+        if (entry.present) {
+          putEntries.add(entry.key);
+          putEntries.add(entry.value);
+        } else {
+          removedKeys.add(entry.key);
+        }
+      }
+    }
+    if (!putEntries.isEmpty()) {
+      nativeMap.putAll(PackedArrays.pack(putEntries));
+    }
+    if (!removedKeys.isEmpty()) {
+      nativeMap.removeAll(PackedArrays.pack(removedKeys));
+    }
+    for (CachedEntry entry : entries.values()) {
+      entry.dirty = false;
+    }
+    modified = false;
+  }
+
+  /**
+   * Drops the cached values and the modifications. Shall be used when the map is cleared,
+   * or the modifications must be rolled back.
+   */
+  @Override
+  public void discard() {
+    entries.clear();
+    modified = false;
+  }
+
+  /**
+   * The operations of the native map the cache needs.
+   */
+  interface NativeMap {
+
+    boolean containsKey(byte[] key);
+
+    @Nullable
+    byte[] get(byte[] key);
+
+    void putAll(byte[] packedEntries);
+
+    void removeAll(byte[] packedKeys);
+  }
+
+  private static final class CachedEntry {
+    final byte[] key;
+    final boolean present;
+    /** The serialized value, if it is present and loaded. */
+    @Nullable byte[] value;
+    /** Whether the entry is modified and not yet flushed. */
+    boolean dirty;
+
+    private CachedEntry(byte[] key, boolean present, @Nullable byte[] value, boolean dirty) {
+      this.key = key;
+      this.present = present;
+      this.value = value;
+      this.dirty = dirty;
+    }
+
+    /** Creates an entry read from the database. */
+    static CachedEntry read(byte[] key, boolean present, @Nullable byte[] value) {
+      return new CachedEntry(key, present, value, false);
+    }
+
+    /** Creates a put entry. */
+    static CachedEntry put(byte[] key, byte[] value) {
+      return new CachedEntry(key, true, value, true);
+    }
+
+    /** Creates a removed entry. */
+    static CachedEntry removed(byte[] key) {
+      return new CachedEntry(key, false, null, true);
+    }
+  }
+}
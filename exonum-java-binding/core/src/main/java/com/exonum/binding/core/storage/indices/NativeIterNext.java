@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesFromNative;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nullable;
+
+/**
+ * A function returning the next element of a native iterator, that makes a native call
+ * for each element. It records the calls and the bytes of the returned elements
+ * in the {@link NativeCallStatistics}.
+ *
+ * <p>This function can be used as the next function of a {@link ConfigurableRustIter};
+ * see also {@link BatchedIterNext}, which records its native calls itself.
+ *
+ * @param <E> the type of elements
+ */
+final class NativeIterNext<E> implements LongFunction<E> {
+
+  private final LongFunction<E> nextFunction;
+  private final ToIntFunction<? super E> elementSize;
+
+  private NativeIterNext(LongFunction<E> nextFunction, ToIntFunction<? super E> elementSize) {
+    this.nextFunction = checkNotNull(nextFunction);
+    this.elementSize = checkNotNull(elementSize);
+  }
+
+  /**
+   * Creates a next function for a native iterator over byte arrays (e.g., keys or values).
+   *
+   * @param nextFunction a native function returning the next element
+   */
+  static NativeIterNext<byte[]> ofArrays(LongFunction<byte[]> nextFunction) {
+    return of(nextFunction, e -> e.length);
+  }
+
+  /**
+   * Creates a next function for a native iterator over map entries.
+   *
+   * @param nextFunction a native function returning the next entry
+   */
+  static NativeIterNext<MapEntryInternal> ofEntries(LongFunction<MapEntryInternal> nextFunction) {
+    return of(nextFunction, e -> e.key.length + e.value.length);
+  }
+
+  /**
+   * Creates a next function for a native iterator.
+   *
+   * @param nextFunction a native function returning the next element
+   * @param elementSize a function returning the number of bytes of an element
+   */
+  static <E> NativeIterNext<E> of(LongFunction<E> nextFunction,
+      ToIntFunction<? super E> elementSize) {
+    return new NativeIterNext<>(nextFunction, elementSize);
+  }
+
+  /**
+   * Returns the next element of the native iterator with the given handle; or null
+   * if there are no more elements.
+   */
+  @Override
+  @Nullable
+  public E apply(long iterNativeHandle) {
+    NativeCallStatistics.recordCall(RustIter.class, "next");
+    E next = nextFunction.apply(iterNativeHandle);
+    if (next != null && NativeCallStatistics.isEnabled()) {
+      recordBytesFromNative(elementSize.applyAsInt(next));
+    }
+    return next;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.ProxyDestructor;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * A storage iterator that destroys the native iterator once it is exhausted or closed,
+ * and removes its destructor from the cleaner.
+ *
+ * @param <NativeT> the type of elements returned by the native iterator
+ * @param <E> the type of elements
+ */
+final class NativeStorageIterator<NativeT, E> implements StorageIterator<E> {
+
+  private final Iterator<NativeT> iterator;
+  private final Function<? super NativeT, ? extends E> transformingFunction;
+  private final ProxyDestructor destructor;
+  private final Cleaner cleaner;
+  private boolean closed;
+
+  /**
+   * Creates a new storage iterator.
+   *
+   * @param iterator an iterator over the elements of the native iterator
+   * @param transformingFunction a function to apply to the elements of the native iterator
+   * @param destructor a destructor of the native iterator, registered in the cleaner
+   * @param cleaner a cleaner in which the destructor is registered
+   */
+  NativeStorageIterator(Iterator<NativeT> iterator,
+      Function<? super NativeT, ? extends E> transformingFunction, ProxyDestructor destructor,
+      Cleaner cleaner) {
+    this.iterator = checkNotNull(iterator);
+    this.transformingFunction = checkNotNull(transformingFunction);
+    this.destructor = checkNotNull(destructor);
+    this.cleaner = checkNotNull(cleaner);
+    this.closed = false;
+    closeIfExhausted();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !closed && iterator.hasNext();
+  }
+
+  @Override
+  public E next() {
+    if (closed) {
+      throw new NoSuchElementException("The iterator is exhausted or closed");
+    }
+    NativeT next = iterator.next();
+    closeIfExhausted();
+    return transformingFunction.apply(next);
+  }
+
+  private void closeIfExhausted() {
+    if (!iterator.hasNext()) {
+      close();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    cleaner.remove(destructor);
+    destructor.clean();
+  }
+}
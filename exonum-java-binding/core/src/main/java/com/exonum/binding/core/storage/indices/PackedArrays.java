@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.exonum.binding.common.serialization.Serializer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Packs several byte arrays into a single one so that they can be passed to the native code
+ * in a single call, and unpacks the results of such calls.
+ *
+ * <p>A packed array is a sequence of elements, each prefixed with its length as a big-endian
+ * 32-bit signed integer. A negative length ({@value #ABSENT_LENGTH}) denotes an absent element
+ * that has no bytes.
+ */
+final class PackedArrays {
+
+  static final int ABSENT_LENGTH = -1;
+
+  private static final int LENGTH_BYTES = Integer.BYTES;
+
+  /**
+   * Packs the given elements into a single array.
+   *
+   * @param elements the elements to pack; must not contain nulls
+   */
+  static byte[] pack(List<byte[]> elements) {
+    int size = 0;
+    for (byte[] e : elements) {
+      size = Math.addExact(size, LENGTH_BYTES + e.length);
+    }
+    ByteBuffer packed = ByteBuffer.allocate(size);
+    for (byte[] e : elements) {
+      packed.putInt(e.length)
+          .put(e);
+    }
+    return packed.array();
+  }
+
+  /**
+   * Unpacks the elements of the given array.
+   *
+   * @param packed a packed array
+   * @return the list of the elements, where absent elements are represented as nulls
+   * @throws IllegalArgumentException if the packed array is malformed
+   */
+  static List<byte[]> unpack(byte[] packed) {
+    ByteBuffer buffer = ByteBuffer.wrap(packed);
+    List<byte[]> elements = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      elements.add(readElement(buffer));
+    }
+    return elements;
+  }
+
+  /**
+   * Reads the next element of a packed array from the given buffer, advancing its position
+   * past the element.
+   *
+   * @param buffer a buffer positioned at the start of an element of a packed array
+   * @return the element, or null if it is absent
+   * @throws IllegalArgumentException if the element is malformed
+   */
+  @Nullable
+  static byte[] readElement(ByteBuffer buffer) {
+    checkArgument(buffer.remaining() >= LENGTH_BYTES,
+        "Truncated element length at position %s", buffer.position());
+    int length = buffer.getInt();
+    if (length == ABSENT_LENGTH) {
+      return null;
+    }
+    checkArgument(0 <= length && length <= buffer.remaining(),
+        "Invalid element length (%s) at position %s", length, buffer.position());
+    byte[] element = new byte[length];
+    buffer.get(element);
+    return element;
+  }
+
+  /**
+   * Serializes and packs the given items.
+   */
+  static <T> byte[] packAll(Collection<? extends T> items, Serializer<T> serializer) {
+    List<byte[]> elements = new ArrayList<>(items.size());
+    for (T item : items) {
+      elements.add(serializer.toBytes(item));
+    }
+    return pack(elements);
+  }
+
+  /**
+   * Serializes and packs the given map entries as a sequence of alternating keys and values.
+   */
+  static <K, V> byte[] packEntries(Map<? extends K, ? extends V> entries,
+      Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+    List<byte[]> elements = new ArrayList<>(2 * entries.size());
+    for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+      elements.add(keySerializer.toBytes(entry.getKey()));
+      elements.add(valueSerializer.toBytes(entry.getValue()));
+    }
+    return pack(elements);
+  }
+
+  /**
+   * Unpacks the values corresponding to the given keys and maps each key that has
+   * a present value to the deserialized value.
+   *
+   * @param keys the keys, in the order they were passed to the native code
+   * @param packedValues the packed values, with absent elements for the keys that have no values
+   * @param valueSerializer a serializer of values
+   * @return a map of keys to values, in the order of the keys
+   */
+  static <K, V> Map<K, V> unpackPresentValues(List<? extends K> keys, byte[] packedValues,
+      Serializer<V> valueSerializer) {
+    List<byte[]> values = unpack(packedValues);
+    checkArgument(values.size() == keys.size(),
+        "The number of values (%s) does not match the number of keys (%s)",
+        values.size(), keys.size());
+    Map<K, V> result = new LinkedHashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      @Nullable byte[] value = values.get(i);
+      if (value != null) {
+        result.put(keys.get(i), valueSerializer.fromBytes(value));
+      }
+    }
+    return result;
+  }
+
+  private PackedArrays() {}
+}
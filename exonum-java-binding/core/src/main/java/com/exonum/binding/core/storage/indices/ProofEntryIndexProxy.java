@@ -16,6 +16,7 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesFromNative;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.exonum.binding.common.hash.HashCode;
@@ -23,8 +24,9 @@ import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
@@ -43,6 +45,9 @@ public final class ProofEntryIndexProxy<T> extends AbstractEntryIndexProxy<T> im
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(ProofEntryIndexProxy.class, ProofEntryIndexProxy::nativeFree);
+
   /**
    * Creates a new Entry.
    *
@@ -75,12 +80,12 @@ public final class ProofEntryIndexProxy<T> extends AbstractEntryIndexProxy<T> im
 
   private static NativeHandle createNativeEntry(String name, AbstractAccess access) {
     long accessNativeHandle = access.getAccessNativeHandle();
+    NativeCallStatistics.recordCall(ProofEntryIndexProxy.class, "create");
     long handle = nativeCreate(name, accessNativeHandle);
     NativeHandle entryNativeHandle = new NativeHandle(handle);
 
     Cleaner cleaner = access.getCleaner();
-    ProxyDestructor.newRegistered(cleaner, entryNativeHandle, ProofEntryIndexProxy.class,
-        ProofEntryIndexProxy::nativeFree);
+    cleaner.add(entryNativeHandle, DESTRUCTOR);
     return entryNativeHandle;
   }
 
@@ -91,7 +96,10 @@ public final class ProofEntryIndexProxy<T> extends AbstractEntryIndexProxy<T> im
 
   @Override
   public HashCode getIndexHash() {
-    return HashCode.fromBytes(nativeGetIndexHash(getNativeHandle()));
+    recordNativeCall("getIndexHash");
+    byte[] indexHash = nativeGetIndexHash(getNativeHandle());
+    recordBytesFromNative(indexHash);
+    return HashCode.fromBytes(indexHash);
   }
 
   private static native long nativeCreate(String name, long accessNativeHandle);
@@ -16,6 +16,7 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesFromNative;
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkRange;
 
 import com.exonum.binding.common.hash.HashCode;
@@ -23,8 +24,9 @@ import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
@@ -59,6 +61,9 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(ProofListIndexProxy.class, ProofListIndexProxy::nativeFree);
+
   /**
    * Creates a new ProofListIndexProxy.
    *
@@ -86,13 +91,13 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
 
   private static NativeHandle createNativeList(IndexAddress address, AbstractAccess access) {
     long accessNativeHandle = access.getAccessNativeHandle();
+    NativeCallStatistics.recordCall(ProofListIndexProxy.class, "create");
     long handle = nativeCreate(address.getName(), address.getIdInGroup().orElse(null),
         accessNativeHandle);
     NativeHandle listNativeHandle = new NativeHandle(handle);
 
     Cleaner cleaner = access.getCleaner();
-    ProxyDestructor.newRegistered(cleaner, listNativeHandle, ProofListIndexProxy.class,
-        ProofListIndexProxy::nativeFree);
+    cleaner.add(listNativeHandle, DESTRUCTOR);
     return listNativeHandle;
   }
 
@@ -114,7 +119,9 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
    * @see <a href="../../blockchain/Blockchain.html#proofs">Blockchain Proofs</a>
    */
   public ListProof getProof(long index) {
+    recordNativeCall("getProof");
     byte[] proofMessage = nativeGetProof(getNativeHandle(), index);
+    recordBytesFromNative(proofMessage);
     return parseProof(proofMessage);
   }
 
@@ -132,7 +139,9 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
    */
   public ListProof getRangeProof(long from, long to) {
     checkRange(from, to);
+    recordNativeCall("getRangeProof");
     byte[] proofMessage = nativeGetRangeProof(getNativeHandle(), from, to);
+    recordBytesFromNative(proofMessage);
     return parseProof(proofMessage);
   }
 
@@ -149,7 +158,10 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
 
   @Override
   public HashCode getIndexHash() {
-    return HashCode.fromBytes(nativeGetIndexHash(getNativeHandle()));
+    recordNativeCall("getIndexHash");
+    byte[] indexHash = nativeGetIndexHash(getNativeHandle());
+    recordBytesFromNative(indexHash);
+    return HashCode.fromBytes(indexHash);
   }
 
   private native byte[] nativeGetIndexHash(long nativeHandle);
@@ -165,6 +177,9 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
   @Override
   native byte[] nativeGet(long nativeHandle, long index);
 
+  @Override
+  native byte[] nativeGetRange(long nativeHandle, long from, long to);
+
   @Override
   native byte[] nativeGetLast(long nativeHandle);
 
@@ -16,7 +16,10 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesFromNative;
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesToNative;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.exonum.binding.common.collect.MapEntry;
 import com.exonum.binding.common.hash.HashCode;
@@ -24,16 +27,23 @@ import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.protobuf.InvalidProtocolBufferException;
+import java.nio.ByteBuffer;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 
 /**
@@ -74,6 +84,14 @@ import javax.annotation.Nullable;
  *
  * <p>All method arguments are non-null by default.
  *
+ * <p>If both the key and the value serializers implement
+ * {@link com.exonum.binding.common.serialization.BufferSerializer}, the single-key operations
+ * of the map with hashed keys pass the keys and values to the native code in a reusable
+ * direct buffer.
+ *
+ * <p>If the access has a {@linkplain WriteBackCache write-back cache}, the single-key
+ * operations are cached.
+ *
  * <p>This class is not thread-safe and and its instances shall not be shared between threads.
  *
  * <p>When the access goes out of scope, this map is destroyed. Subsequent use of the closed map
@@ -86,8 +104,15 @@ import javax.annotation.Nullable;
 public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implements MapIndex<K, V>,
     HashableIndex {
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(ProofMapIndexProxy.class, ProofMapIndexProxy::nativeFree);
+
   private final Serializer<K> keySerializer;
   private final CheckingSerializerDecorator<V> valueSerializer;
+  @Nullable
+  private final DirectBufferCodec<K, V> bufferCodec;
+  @Nullable
+  private final MapWriteBackCache<K, V> cache;
 
   /**
    * Creates a ProofMapIndexProxy.
@@ -141,11 +166,15 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
       Serializer<K> keySerializer, Serializer<V> valueSerializer, boolean keyHashing) {
     Serializer<K> ks = decorateKeySerializer(keySerializer, keyHashing);
     CheckingSerializerDecorator<V> vs = CheckingSerializerDecorator.from(valueSerializer);
+    // The keys of the map without key hashing are checked by their serializer
+    DirectBufferCodec<K, V> bufferCodec = keyHashing
+        ? DirectBufferCodec.tryCreate(keySerializer, valueSerializer)
+        : null;
 
     NativeHandle mapNativeHandle = createNativeMap(address, access, keyHashing);
 
     return new ProofMapIndexProxy<>(mapNativeHandle, address,
-        access, ks, vs);
+        access, ks, vs, bufferCodec);
   }
 
   private static <K> Serializer<K> decorateKeySerializer(
@@ -160,13 +189,13 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
   private static NativeHandle createNativeMap(IndexAddress address, AbstractAccess access,
       boolean keyHashing) {
     long accessNativeHandle = access.getAccessNativeHandle();
+    NativeCallStatistics.recordCall(ProofMapIndexProxy.class, "create");
     long handle = nativeCreate(address.getName(), address.getIdInGroup().orElse(null),
         accessNativeHandle, keyHashing);
     NativeHandle mapNativeHandle = new NativeHandle(handle);
 
     Cleaner cleaner = access.getCleaner();
-    ProxyDestructor.newRegistered(cleaner, mapNativeHandle, ProofMapIndexProxy.class,
-        ProofMapIndexProxy::nativeFree);
+    cleaner.add(mapNativeHandle, DESTRUCTOR);
     return mapNativeHandle;
   }
 
@@ -175,20 +204,116 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   private ProofMapIndexProxy(NativeHandle nativeHandle, IndexAddress address, AbstractAccess access,
                              Serializer<K> keySerializer,
-                             CheckingSerializerDecorator<V> valueSerializer) {
+                             CheckingSerializerDecorator<V> valueSerializer,
+                             @Nullable DirectBufferCodec<K, V> bufferCodec) {
     super(nativeHandle, address, access);
     this.keySerializer = keySerializer;
     this.valueSerializer = valueSerializer;
+    this.bufferCodec = bufferCodec;
+    this.cache = createCache(access);
+  }
+
+  @Nullable
+  private MapWriteBackCache<K, V> createCache(AbstractAccess access) {
+    Optional<WriteBackCache> writeBackCache = access.getWriteBackCache();
+    if (!writeBackCache.isPresent() || !access.canModify()) {
+      return null;
+    }
+    MapWriteBackCache<K, V> cache = new MapWriteBackCache<>(keySerializer, valueSerializer,
+        new NativeMapOperations());
+    writeBackCache.get().register(cache);
+    return cache;
+  }
+
+  /**
+   * Writes the key into the direct buffer, and records the bytes passed to the native code.
+   *
+   * @return the buffer, with its position set to the size of the key; or null if the key
+   *     must be passed as an array
+   */
+  @Nullable
+  private ByteBuffer writeKeyDirect(K key) {
+    ByteBuffer buffer = (bufferCodec == null) ? null : bufferCodec.writeKey(key);
+    if (buffer != null) {
+      recordBytesToNative(buffer.position());
+    }
+    return buffer;
+  }
+
+  /**
+   * Writes the key and the value into the direct buffer, and records the bytes passed
+   * to the native code.
+   *
+   * @return the buffer, with its position set to the size of the key, and its limit set
+   *     to the total size of the key and the value; or null if they must be passed as arrays
+   */
+  @Nullable
+  private ByteBuffer writeEntryDirect(K key, V value) {
+    ByteBuffer buffer = (bufferCodec == null) ? null : bufferCodec.writeEntry(key, value);
+    if (buffer != null) {
+      recordBytesToNative(buffer.limit());
+    }
+    return buffer;
+  }
+
+  /**
+   * Serializes the key into an array, and records the bytes passed to the native code.
+   */
+  private byte[] serializeKey(K key) {
+    byte[] dbKey = keySerializer.toBytes(key);
+    recordBytesToNative(dbKey.length);
+    return dbKey;
+  }
+
+  /**
+   * Writes the modifications buffered in the cache, if any, so that the operations
+   * that are not cached (including the proofs and the index hash) see them.
+   */
+  private void flushCache() {
+    if (cache != null) {
+      cache.flush();
+    }
   }
 
   @Override
   public boolean containsKey(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
+    if (cache != null) {
+      return cache.containsKey(key);
+    }
+    ByteBuffer buffer = writeKeyDirect(key);
+    if (buffer != null) {
+      recordNativeCall("containsKeyDirect");
+      return nativeContainsKeyDirect(getNativeHandle(), buffer, buffer.position());
+    }
+    byte[] dbKey = serializeKey(key);
+    recordNativeCall("containsKey");
     return nativeContainsKey(getNativeHandle(), dbKey);
   }
 
   private native boolean nativeContainsKey(long nativeHandle, byte[] key);
 
+  private native boolean nativeContainsKeyDirect(long nativeHandle, ByteBuffer buffer,
+      int keySize);
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Checks all the keys in a single native call.
+   *
+   * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes (in case of a
+   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
+   */
+  @Override
+  public boolean containsAll(Collection<? extends K> keys) {
+    flushCache();
+    byte[] dbKeys = PackedArrays.packAll(keys, keySerializer);
+    recordBytesToNative(dbKeys.length);
+    recordNativeCall("containsAll");
+    return nativeContainsAll(getNativeHandle(), dbKeys);
+  }
+
+  private native boolean nativeContainsAll(long nativeHandle, byte[] packedKeys);
+
   /**
    * {@inheritDoc}
    *
@@ -202,36 +327,106 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
   @Override
   public void put(K key, V value) {
     notifyModified();
-    long nativeHandle = getNativeHandle();
-    putInternal(nativeHandle, key, value);
+    if (cache != null) {
+      cache.put(key, value);
+      return;
+    }
+    ByteBuffer buffer = writeEntryDirect(key, value);
+    if (buffer != null) {
+      recordNativeCall("putDirect");
+      nativePutDirect(getNativeHandle(), buffer, buffer.position(), buffer.remaining());
+      return;
+    }
+    byte[] dbKey = serializeKey(key);
+    byte[] dbValue = valueSerializer.toBytes(value);
+    recordBytesToNative(dbValue.length);
+    recordNativeCall("put");
+    nativePut(getNativeHandle(), dbKey, dbValue);
   }
 
+  private native void nativePut(long nativeHandle, byte[] key, byte[] value);
+
+  private native void nativePutDirect(long nativeHandle, ByteBuffer buffer, int keySize,
+      int valueSize);
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Puts all the entries in a single native call.
+   *
+   * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes (in case of a
+   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
+   */
   @Override
   public void putAll(Map<? extends K, ? extends V> sourceMap) {
     notifyModified();
-    long nativeHandle = getNativeHandle();
-    for (Map.Entry<? extends K, ? extends V> entry : sourceMap.entrySet()) {
-      putInternal(nativeHandle, entry.getKey(), entry.getValue());
+    if (cache != null) {
+      sourceMap.forEach(cache::put);
+      return;
     }
+    byte[] dbEntries = PackedArrays.packEntries(sourceMap, keySerializer, valueSerializer);
+    recordBytesToNative(dbEntries.length);
+    recordNativeCall("putAll");
+    nativePutAll(getNativeHandle(), dbEntries);
   }
 
-  private void putInternal(long nativeHandle, K key, V value) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    byte[] dbValue = valueSerializer.toBytes(value);
-    nativePut(nativeHandle, dbKey, dbValue);
-  }
-
-  private native void nativePut(long nativeHandle, byte[] key, byte[] value);
+  private native void nativePutAll(long nativeHandle, byte[] packedEntries);
 
   @Override
   public V get(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
+    if (cache != null) {
+      return cache.get(key);
+    }
+    ByteBuffer buffer = writeKeyDirect(key);
+    if (buffer != null) {
+      recordNativeCall("getDirect");
+      byte[] dbValue = nativeGetDirect(getNativeHandle(), buffer, buffer.position());
+      if (dbValue != null) {
+        // The value does not fit in the buffer: grow it for the subsequent operations
+        bufferCodec.reserve(dbValue.length);
+        recordBytesFromNative(dbValue);
+        return valueSerializer.fromBytes(dbValue);
+      }
+      int valueSize = DirectBufferCodec.readValueSize(buffer);
+      if (valueSize == DirectBufferCodec.ABSENT_VALUE) {
+        return null;
+      }
+      recordBytesFromNative(valueSize);
+      return bufferCodec.readValue(buffer, valueSize);
+    }
+    byte[] dbKey = serializeKey(key);
+    recordNativeCall("get");
     byte[] dbValue = nativeGet(getNativeHandle(), dbKey);
+    recordBytesFromNative(dbValue);
     return (dbValue == null) ? null : valueSerializer.fromBytes(dbValue);
   }
 
   private native byte[] nativeGet(long nativeHandle, byte[] key);
 
+  private native byte[] nativeGetDirect(long nativeHandle, ByteBuffer buffer, int keySize);
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Reads all the values in a single native call.
+   *
+   * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes (in case of a
+   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
+   */
+  @Override
+  public Map<K, V> getAll(Collection<? extends K> keys) {
+    flushCache();
+    List<K> keyList = ImmutableList.copyOf(keys);
+    byte[] dbKeys = PackedArrays.packAll(keyList, keySerializer);
+    recordBytesToNative(dbKeys.length);
+    recordNativeCall("getAll");
+    byte[] dbValues = nativeGetAll(getNativeHandle(), dbKeys);
+    recordBytesFromNative(dbValues);
+    return PackedArrays.unpackPresentValues(keyList, dbValues, valueSerializer);
+  }
+
+  private native byte[] nativeGetAll(long nativeHandle, byte[] packedKeys);
+
   /**
    * Returns a proof that there are values mapped to the specified keys or that there are no such
    * mappings.
@@ -276,16 +471,25 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
   }
 
   private MapProof getSingleKeyProof(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
+    flushCache();
+    byte[] dbKey = serializeKey(key);
+    recordNativeCall("getProof");
     byte[] proofMessage = nativeGetProof(getNativeHandle(), dbKey);
+    recordBytesFromNative(proofMessage);
     return decodeProofMessage(proofMessage);
   }
 
   private native byte[] nativeGetProof(long nativeHandle, byte[] key);
 
   private MapProof getMultiKeyProof(Collection<? extends K> keys) {
+    flushCache();
     byte[][] dbKeys = keysToArray(keys);
+    for (byte[] dbKey : dbKeys) {
+      recordBytesToNative(dbKey.length);
+    }
+    recordNativeCall("getMultiProof");
     byte[] proofMessage = nativeGetMultiProof(getNativeHandle(), dbKeys);
+    recordBytesFromNative(proofMessage);
     return decodeProofMessage(proofMessage);
   }
 
@@ -308,7 +512,11 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   @Override
   public HashCode getIndexHash() {
-    return HashCode.fromBytes(nativeGetIndexHash(getNativeHandle()));
+    flushCache();
+    recordNativeCall("getIndexHash");
+    byte[] indexHash = nativeGetIndexHash(getNativeHandle());
+    recordBytesFromNative(indexHash);
+    return HashCode.fromBytes(indexHash);
   }
 
   private native byte[] nativeGetIndexHash(long nativeHandle);
@@ -316,17 +524,181 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
   @Override
   public void remove(K key) {
     notifyModified();
-    byte[] dbKey = keySerializer.toBytes(key);
+    if (cache != null) {
+      cache.remove(key);
+      return;
+    }
+    byte[] dbKey = serializeKey(key);
+    recordNativeCall("remove");
     nativeRemove(getNativeHandle(), dbKey);
   }
 
   private native void nativeRemove(long nativeHandle, byte[] key);
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Removes all the keys in a single native call.
+   *
+   * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes (in case of a
+   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
+   */
+  @Override
+  public void removeAll(Collection<? extends K> keys) {
+    notifyModified();
+    if (cache != null) {
+      keys.forEach(cache::remove);
+      return;
+    }
+    byte[] dbKeys = PackedArrays.packAll(keys, keySerializer);
+    recordBytesToNative(dbKeys.length);
+    recordNativeCall("removeAll");
+    nativeRemoveAll(getNativeHandle(), dbKeys);
+  }
+
+  private native void nativeRemoveAll(long nativeHandle, byte[] packedKeys);
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Reads the current value and puts the given one in a single native call.
+   *
+   * @throws IllegalArgumentException if the size of the key is not 32 bytes (in case of a
+   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
+   */
+  @Override
+  public V putIfAbsent(K key, V value) {
+    if (cache != null) {
+      // The default implementation notifies of the modification in #put and #remove
+      return MapIndex.super.putIfAbsent(key, value);
+    }
+    notifyModified();
+    byte[] dbKey = serializeKey(key);
+    byte[] dbValue = valueSerializer.toBytes(value);
+    recordBytesToNative(dbValue.length);
+    recordNativeCall("putIfAbsent");
+    byte[] dbCurrentValue = nativePutIfAbsent(getNativeHandle(), dbKey, dbValue);
+    recordBytesFromNative(dbCurrentValue);
+    return (dbCurrentValue == null) ? null : valueSerializer.fromBytes(dbCurrentValue);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Reads the previous value and puts the given one in a single native call.
+   *
+   * @throws IllegalArgumentException if the size of the key is not 32 bytes (in case of a
+   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
+   */
+  @Override
+  public V replace(K key, V value) {
+    if (cache != null) {
+      return MapIndex.super.replace(key, value);
+    }
+    notifyModified();
+    byte[] dbKey = serializeKey(key);
+    byte[] dbValue = valueSerializer.toBytes(value);
+    recordBytesToNative(dbValue.length);
+    recordNativeCall("replace");
+    byte[] dbPreviousValue = nativeReplace(getNativeHandle(), dbKey, dbValue);
+    recordBytesFromNative(dbPreviousValue);
+    return (dbPreviousValue == null) ? null : valueSerializer.fromBytes(dbPreviousValue);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Serializes the key once, and performs at most two native calls: to read the current
+   * value; and to put the new one or remove the mapping.
+   *
+   * @throws IllegalArgumentException if the size of the key is not 32 bytes (in case of a
+   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
+   */
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+    checkNotNull(remappingFunction);
+    if (cache != null) {
+      return MapIndex.super.compute(key, remappingFunction);
+    }
+    checkCanModify();
+    byte[] dbKey = serializeKey(key);
+    recordNativeCall("get");
+    byte[] dbOldValue = nativeGet(getNativeHandle(), dbKey);
+    recordBytesFromNative(dbOldValue);
+    V oldValue = (dbOldValue == null) ? null : valueSerializer.fromBytes(dbOldValue);
+    V newValue = remappingFunction.apply(key, oldValue);
+    if (newValue != null) {
+      notifyModified();
+      byte[] dbNewValue = valueSerializer.toBytes(newValue);
+      recordBytesToNative(dbKey.length + dbNewValue.length);
+      recordNativeCall("put");
+      nativePut(getNativeHandle(), dbKey, dbNewValue);
+    } else if (oldValue != null) {
+      notifyModified();
+      recordBytesToNative(dbKey.length);
+      recordNativeCall("remove");
+      nativeRemove(getNativeHandle(), dbKey);
+    }
+    return newValue;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Serializes the key once. If there is no mapping for the key, puts the given value
+   * in a single native call; otherwise, performs another native call to put the merged value
+   * or remove the mapping.
+   *
+   * @throws IllegalArgumentException if the size of the key is not 32 bytes (in case of a
+   *     <a href="ProofMapIndexProxy.html#key-hashing">proof map that uses non-hashed keys</a>)
+   */
   @Override
-  public Iterator<K> keys() {
+  public V merge(K key, V value,
+      BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    checkNotNull(value);
+    checkNotNull(remappingFunction);
+    if (cache != null) {
+      return MapIndex.super.merge(key, value, remappingFunction);
+    }
+    checkCanModify();
+    byte[] dbKey = serializeKey(key);
+    byte[] dbValue = valueSerializer.toBytes(value);
+    recordBytesToNative(dbValue.length);
+    recordNativeCall("putIfAbsent");
+    byte[] dbOldValue = nativePutIfAbsent(getNativeHandle(), dbKey, dbValue);
+    if (dbOldValue == null) {
+      notifyModified();
+      return value;
+    }
+    recordBytesFromNative(dbOldValue);
+    V oldValue = valueSerializer.fromBytes(dbOldValue);
+    V newValue = remappingFunction.apply(oldValue, value);
+    if (newValue != null) {
+      notifyModified();
+      byte[] dbNewValue = valueSerializer.toBytes(newValue);
+      recordBytesToNative(dbKey.length + dbNewValue.length);
+      recordNativeCall("put");
+      nativePut(getNativeHandle(), dbKey, dbNewValue);
+    } else {
+      notifyModified();
+      recordBytesToNative(dbKey.length);
+      recordNativeCall("remove");
+      nativeRemove(getNativeHandle(), dbKey);
+    }
+    return newValue;
+  }
+
+  private native byte[] nativePutIfAbsent(long nativeHandle, byte[] key, byte[] value);
+
+  private native byte[] nativeReplace(long nativeHandle, byte[] key, byte[] value);
+
+  @Override
+  public StorageIterator<K> keys() {
+    flushCache();
+    recordNativeCall("createKeysIter");
     return StorageIterators.createIterator(
         nativeCreateKeysIter(getNativeHandle()),
-        this::nativeKeysIterNext,
+        BatchedIterNext.ofArrays(this::nativeKeysIterNextBatch),
         this::nativeKeysIterFree,
         dbAccess,
         modCounter,
@@ -338,13 +710,17 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   private native byte[] nativeKeysIterNext(long iterNativeHandle);
 
+  private native byte[] nativeKeysIterNextBatch(long iterNativeHandle, int maxSize);
+
   private native void nativeKeysIterFree(long iterNativeHandle);
 
   @Override
-  public Iterator<V> values() {
+  public StorageIterator<V> values() {
+    flushCache();
+    recordNativeCall("createValuesIter");
     return StorageIterators.createIterator(
         nativeCreateValuesIter(getNativeHandle()),
-        this::nativeValuesIterNext,
+        BatchedIterNext.ofArrays(this::nativeValuesIterNextBatch),
         this::nativeValuesIterFree,
         dbAccess,
         modCounter,
@@ -356,13 +732,17 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   private native byte[] nativeValuesIterNext(long iterNativeHandle);
 
+  private native byte[] nativeValuesIterNextBatch(long iterNativeHandle, int maxSize);
+
   private native void nativeValuesIterFree(long iterNativeHandle);
 
   @Override
-  public Iterator<MapEntry<K, V>> entries() {
+  public StorageIterator<MapEntry<K, V>> entries() {
+    flushCache();
+    recordNativeCall("createEntriesIter");
     return StorageIterators.createIterator(
         nativeCreateEntriesIter(getNativeHandle()),
-        this::nativeEntriesIterNext,
+        BatchedIterNext.ofEntries(this::nativeEntriesIterNextBatch),
         this::nativeEntriesIterFree,
         dbAccess,
         modCounter,
@@ -372,17 +752,225 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   private native long nativeCreateEntriesIter(long nativeHandle);
 
+  @Override
+  public StorageIterator<K> keys(K fromKey) {
+    flushCache();
+    byte[] dbFromKey = keySerializer.toBytes(fromKey);
+    recordBytesToNative(dbFromKey.length);
+    recordNativeCall("keysFrom");
+    return StorageIterators.createIterator(
+        nativeKeysFrom(getNativeHandle(), dbFromKey),
+        BatchedIterNext.ofArrays(this::nativeKeysIterNextBatch),
+        this::nativeKeysIterFree,
+        dbAccess,
+        modCounter,
+        keySerializer::fromBytes
+    );
+  }
+
+  private native long nativeKeysFrom(long nativeHandle, byte[] fromKey);
+
+  @Override
+  public StorageIterator<V> values(K fromKey) {
+    flushCache();
+    byte[] dbFromKey = keySerializer.toBytes(fromKey);
+    recordBytesToNative(dbFromKey.length);
+    recordNativeCall("valuesFrom");
+    return StorageIterators.createIterator(
+        nativeValuesFrom(getNativeHandle(), dbFromKey),
+        BatchedIterNext.ofArrays(this::nativeValuesIterNextBatch),
+        this::nativeValuesIterFree,
+        dbAccess,
+        modCounter,
+        valueSerializer::fromBytes
+    );
+  }
+
+  private native long nativeValuesFrom(long nativeHandle, byte[] fromKey);
+
+  @Override
+  public StorageIterator<MapEntry<K, V>> entries(K fromKey) {
+    flushCache();
+    byte[] dbFromKey = keySerializer.toBytes(fromKey);
+    recordBytesToNative(dbFromKey.length);
+    recordNativeCall("createIterFrom");
+    return StorageIterators.createIterator(
+        nativeCreateIterFrom(getNativeHandle(), dbFromKey),
+        BatchedIterNext.ofEntries(this::nativeEntriesIterNextBatch),
+        this::nativeEntriesIterFree,
+        dbAccess,
+        modCounter,
+        (entry) -> entry.toMapEntry(entry, keySerializer, valueSerializer)
+    );
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The keys are compared in lexicographical order of their serialized representation.
+   */
+  @Override
+  public StorageIterator<MapEntry<K, V>> entries(K fromKey, K toKeyExclusive) {
+    byte[] dbFromKey = keySerializer.toBytes(fromKey);
+    byte[] dbToKey = keySerializer.toBytes(toKeyExclusive);
+    return createEntriesIterFrom(dbFromKey, StorageKeys.lessThan(dbToKey));
+  }
+
+  /**
+   * Returns an iterator over the map keys that start with the given prefix.
+   * A key starts with a prefix if the serialized representation of the prefix
+   * is a prefix of the serialized representation of the key. The keys are ordered
+   * in lexicographical order.
+   *
+   * <p>As the keys of a map that does not use
+   * <a href="ProofMapIndexProxy.html#key-hashing">key hashing</a> are 32-byte long,
+   * such a map can only return the key equal to the prefix.
+   *
+   * @param prefix the prefix of the keys to return
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if the size of the prefix is not 32 bytes
+   *     (in case of a proof map that uses non-hashed keys)
+   */
+  public StorageIterator<K> keysWithPrefix(K prefix) {
+    flushCache();
+    byte[] dbPrefix = keySerializer.toBytes(prefix);
+    recordBytesToNative(dbPrefix.length);
+    recordNativeCall("keysFrom");
+    return StorageIterators.createIterator(
+        nativeKeysFrom(getNativeHandle(), dbPrefix),
+        BatchedIterNext.ofArraysInRange(this::nativeKeysIterNextBatch),
+        this::nativeKeysIterFree,
+        dbAccess,
+        modCounter,
+        StorageKeys.startsWith(dbPrefix),
+        keySerializer::fromBytes
+    );
+  }
+
+  /**
+   * Returns an iterator over the map entries which keys start with the given prefix.
+   * The entries are ordered by keys in lexicographical order.
+   *
+   * @param prefix the prefix of the keys of the entries to return
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if the size of the prefix is not 32 bytes
+   *     (in case of a proof map that uses non-hashed keys)
+   * @see #keysWithPrefix(Object)
+   */
+  public StorageIterator<MapEntry<K, V>> entriesWithPrefix(K prefix) {
+    byte[] dbPrefix = keySerializer.toBytes(prefix);
+    return createEntriesIterFrom(dbPrefix, StorageKeys.startsWith(dbPrefix));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The stream of the map accessed through a snapshot is split by the ranges of
+   * the serialized keys.
+   */
+  @Override
+  public Stream<MapEntry<K, V>> entriesStream() {
+    MapEntriesSpliterator<K, V> spliterator = new MapEntriesSpliterator<>(this::entriesInRange,
+        this, dbAccess.allowsConcurrentReads());
+    return StreamSupport.stream(spliterator, false)
+        .onClose(spliterator::close);
+  }
+
+  /**
+   * Returns an iterator over the map entries in the range of the serialized keys
+   * [dbFromKey; dbToKeyExclusive).
+   *
+   * @param dbFromKey the first key of the range; or null to start with the first key
+   * @param dbToKeyExclusive the key at which to stop the iteration; or null to end with
+   *     the last key
+   */
+  StorageIterator<MapEntry<K, V>> entriesInRange(@Nullable byte[] dbFromKey,
+      @Nullable byte[] dbToKeyExclusive) {
+    Predicate<byte[]> keyInRange = (dbToKeyExclusive == null)
+        ? (key) -> true
+        : StorageKeys.lessThan(dbToKeyExclusive);
+    return createEntriesIterFrom(dbFromKey, keyInRange);
+  }
+
+  private StorageIterator<MapEntry<K, V>> createEntriesIterFrom(@Nullable byte[] dbFromKey,
+      Predicate<byte[]> keyInRange) {
+    flushCache();
+    long iterNativeHandle;
+    if (dbFromKey == null) {
+      recordNativeCall("createEntriesIter");
+      iterNativeHandle = nativeCreateEntriesIter(getNativeHandle());
+    } else {
+      recordBytesToNative(dbFromKey.length);
+      recordNativeCall("createIterFrom");
+      iterNativeHandle = nativeCreateIterFrom(getNativeHandle(), dbFromKey);
+    }
+    return StorageIterators.createIterator(
+        iterNativeHandle,
+        BatchedIterNext.ofEntriesInRange(this::nativeEntriesIterNextBatch),
+        this::nativeEntriesIterFree,
+        dbAccess,
+        modCounter,
+        (entry) -> keyInRange.test(entry.key),
+        (entry) -> entry.toMapEntry(entry, keySerializer, valueSerializer)
+    );
+  }
+
+  private native long nativeCreateIterFrom(long nativeHandle, byte[] fromKey);
+
   private native MapEntryInternal nativeEntriesIterNext(long iterNativeHandle);
 
+  private native byte[] nativeEntriesIterNextBatch(long iterNativeHandle, int maxSize);
+
   private native void nativeEntriesIterFree(long iterNativeHandle);
 
   @Override
   public void clear() {
     notifyModified();
+    if (cache != null) {
+      cache.discard();
+    }
+    recordNativeCall("clear");
     nativeClear(getNativeHandle());
   }
 
   private native void nativeClear(long nativeHandle);
 
   private static native void nativeFree(long nativeHandle);
+
+  /**
+   * The operations of the native map used by the cache.
+   */
+  private final class NativeMapOperations implements MapWriteBackCache.NativeMap {
+
+    @Override
+    public boolean containsKey(byte[] key) {
+      recordBytesToNative(key.length);
+      recordNativeCall("containsKey");
+      return nativeContainsKey(getNativeHandle(), key);
+    }
+
+    @Override
+    @Nullable
+    public byte[] get(byte[] key) {
+      recordBytesToNative(key.length);
+      recordNativeCall("get");
+      byte[] value = nativeGet(getNativeHandle(), key);
+      recordBytesFromNative(value);
+      return value;
+    }
+
+    @Override
+    public void putAll(byte[] packedEntries) {
+      recordBytesToNative(packedEntries.length);
+      recordNativeCall("putAll");
+      nativePutAll(getNativeHandle(), packedEntries);
+    }
+
+    @Override
+    public void removeAll(byte[] packedKeys) {
+      recordBytesToNative(packedKeys.length);
+      recordNativeCall("removeAll");
+      nativeRemoveAll(getNativeHandle(), packedKeys);
+    }
+  }
 }
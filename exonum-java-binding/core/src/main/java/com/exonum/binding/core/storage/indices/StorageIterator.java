@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import java.util.Iterator;
+
+/**
+ * An iterator over the elements of a storage index, backed by a native iterator.
+ *
+ * <p>The native iterator is destroyed as soon as this iterator is exhausted, or when it is
+ * {@linkplain #close() closed}, whichever happens first. If neither happens,
+ * the native iterator is destroyed when the database access, with which the index was created,
+ * is closed. Therefore, it is recommended to close the iterators that may be left
+ * not exhausted — e.g., when the iteration stops at some element — so that the native
+ * resources are released early, which matters if many such iterators are created
+ * with the same access:
+ *
+ * <pre>{@code
+ * try (StorageIterator<MapEntry<String, Wallet>> entries = wallets.entries(fromKey)) {
+ *   while (entries.hasNext()) {
+ *     MapEntry<String, Wallet> e = entries.next();
+ *     if (isLast(e)) {
+ *       break;
+ *     }
+ *     // Use the entry
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>This interface is not thread-safe.
+ *
+ * @param <E> the type of elements
+ */
+public interface StorageIterator<E> extends Iterator<E>, AutoCloseable {
+
+  /**
+   * Destroys the native iterator. Once closed, this iterator has no more elements.
+   *
+   * <p>This method is idempotent.
+   */
+  @Override
+  void close();
+}
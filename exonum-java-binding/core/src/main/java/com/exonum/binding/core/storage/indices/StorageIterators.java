@@ -20,11 +20,11 @@ import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.NativeHandle;
 import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
-import com.google.common.collect.Iterators;
 import java.util.Iterator;
 import java.util.function.Function;
 import java.util.function.LongConsumer;
 import java.util.function.LongFunction;
+import java.util.function.Predicate;
 
 final class StorageIterators {
 
@@ -32,7 +32,8 @@ final class StorageIterators {
    * Creates a new iterator over an index.
    *
    * <p>The returned iterator is a {@link ConfigurableRustIter}
-   * wrapped in a {@link RustIterAdapter}.
+   * wrapped in a {@link RustIterAdapter}. It destroys the native iterator once it is exhausted
+   * or closed.
    *
    * @param nativeHandle nativeHandle of this iterator
    * @param nextFunction a function to call to get the next item
@@ -42,28 +43,61 @@ final class StorageIterators {
    * @param transformingFunction a function to apply to elements returned by native iterator
    *                             (usually, to an array of bytes)
    */
-  static <ElementT, NativeT> Iterator<ElementT> createIterator(
+  static <ElementT, NativeT> StorageIterator<ElementT> createIterator(
       long nativeHandle,
       LongFunction<NativeT> nextFunction,
       LongConsumer disposeOperation,
       AbstractAccess collectionAccess,
       ModificationCounter modificationCounter,
       Function<? super NativeT, ? extends ElementT> transformingFunction) {
+    return createIterator(nativeHandle, nextFunction, disposeOperation, collectionAccess,
+        modificationCounter, e -> true, transformingFunction);
+  }
+
+  /**
+   * Creates a new iterator over a range of an index. The iterator ends at the first element
+   * returned by the native iterator that is not in range.
+   *
+   * <p>The returned iterator is a {@link ConfigurableRustIter}
+   * wrapped in a {@link RustIterAdapter}. It destroys the native iterator once it is exhausted
+   * or closed.
+   *
+   * @param nativeHandle nativeHandle of this iterator
+   * @param nextFunction a function to call to get the next item
+   * @param disposeOperation an operation to call to destroy the corresponding native iterator
+   * @param collectionAccess a database access of the collection over which to iterate
+   * @param modificationCounter a modification counter of the collection
+   * @param inRange a predicate that returns true if the element returned by native iterator
+   *                is in the range
+   * @param transformingFunction a function to apply to elements returned by native iterator
+   *                             (usually, to an array of bytes)
+   */
+  static <ElementT, NativeT> StorageIterator<ElementT> createIterator(
+      long nativeHandle,
+      LongFunction<NativeT> nextFunction,
+      LongConsumer disposeOperation,
+      AbstractAccess collectionAccess,
+      ModificationCounter modificationCounter,
+      Predicate<? super NativeT> inRange,
+      Function<? super NativeT, ? extends ElementT> transformingFunction) {
 
     // Register the destructor first.
     NativeHandle handle = new NativeHandle(nativeHandle);
     Cleaner cleaner = collectionAccess.getCleaner();
-    cleaner.add(new ProxyDestructor(handle, RustIter.class, disposeOperation));
+    ProxyDestructor destructor = ProxyDestructor.newRegistered(cleaner, handle, RustIter.class,
+        disposeOperation);
 
     Iterator<NativeT> iterator = new RustIterAdapter<>(
         new ConfigurableRustIter<>(
             handle,
             nextFunction,
-            modificationCounter
+            modificationCounter,
+            inRange,
+            cleaner.getScope().orElse(null)
         )
     );
 
-    return Iterators.transform(iterator, transformingFunction::apply);
+    return new NativeStorageIterator<>(iterator, transformingFunction, destructor, cleaner);
   }
 
   private StorageIterators() {}
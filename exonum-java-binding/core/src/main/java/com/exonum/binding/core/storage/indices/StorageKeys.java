@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.util.Comparator;
+import java.util.function.Predicate;
+
+/**
+ * Predicates on serialized storage keys that bound the iterators over key ranges.
+ *
+ * <p>The database orders the keys lexicographically, comparing bytes as unsigned values.
+ */
+final class StorageKeys {
+
+  private static final Comparator<byte[]> KEY_ORDER = UnsignedBytes.lexicographicalComparator();
+
+  /**
+   * Returns a predicate that accepts the keys that precede the given key.
+   */
+  static Predicate<byte[]> lessThan(byte[] toKeyExclusive) {
+    return key -> KEY_ORDER.compare(key, toKeyExclusive) < 0;
+  }
+
+  /**
+   * Returns a predicate that accepts the keys that start with the given prefix.
+   */
+  static Predicate<byte[]> startsWith(byte[] prefix) {
+    return key -> {
+      if (key.length < prefix.length) {
+        return false;
+      }
+      for (int i = 0; i < prefix.length; i++) {
+        if (key[i] != prefix[i]) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  private StorageKeys() {}
+}
@@ -16,6 +16,7 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static com.exonum.binding.core.proxy.NativeCallStatistics.recordBytesToNative;
 import static com.exonum.binding.core.storage.indices.StoragePreconditions.checkStorageValue;
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -24,14 +25,14 @@ import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeDestructor;
 import com.exonum.binding.core.proxy.NativeHandle;
-import com.exonum.binding.core.proxy.ProxyDestructor;
 import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.util.LibraryLoader;
 import com.google.auto.value.AutoValue;
 import com.google.common.annotations.VisibleForTesting;
-import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Stream;
@@ -70,6 +71,9 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
     LibraryLoader.load();
   }
 
+  private static final NativeDestructor DESTRUCTOR =
+      NativeDestructor.of(ValueSetIndexProxy.class, ValueSetIndexProxy::nativeFree);
+
   // Note that we do *not* specify Spliterator.DISTINCT because it is documented in terms
   // of Object#equals which this set does not use.
   private static final int BASE_SPLITERATOR_CHARACTERISTICS =
@@ -104,13 +108,13 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
   private static NativeHandle createNativeSet(
       IndexAddress address, AbstractAccess access) {
     long accessNativeHandle = access.getAccessNativeHandle();
+    NativeCallStatistics.recordCall(ValueSetIndexProxy.class, "create");
     long handle = nativeCreate(address.getName(), address.getIdInGroup().orElse(null),
         accessNativeHandle);
     NativeHandle setNativeHandle = new NativeHandle(handle);
 
     Cleaner cleaner = access.getCleaner();
-    ProxyDestructor.newRegistered(cleaner, setNativeHandle, ValueSetIndexProxy.class,
-        ValueSetIndexProxy::nativeFree);
+    cleaner.add(setNativeHandle, DESTRUCTOR);
     return setNativeHandle;
   }
 
@@ -131,6 +135,8 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
   public void add(E e) {
     notifyModified();
     byte[] dbElement = serializer.toBytes(e);
+    recordBytesToNative(dbElement.length);
+    recordNativeCall("add");
     nativeAdd(getNativeHandle(), dbElement);
   }
 
@@ -143,6 +149,7 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    */
   public void clear() {
     notifyModified();
+    recordNativeCall("clear");
     nativeClear(getNativeHandle());
   }
 
@@ -154,6 +161,8 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    */
   public boolean contains(E e) {
     byte[] dbElement = serializer.toBytes(e);
+    recordBytesToNative(dbElement.length);
+    recordNativeCall("contains");
     return nativeContains(getNativeHandle(), dbElement);
   }
 
@@ -164,7 +173,10 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    * @throws IllegalStateException if this set is not valid
    */
   public boolean containsByHash(HashCode elementHash) {
-    return nativeContainsByHash(getNativeHandle(), elementHash.asBytes());
+    byte[] dbHash = elementHash.asBytes();
+    recordBytesToNative(dbHash.length);
+    recordNativeCall("containsByHash");
+    return nativeContainsByHash(getNativeHandle(), dbHash);
   }
 
   /**
@@ -174,10 +186,11 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    * @return an iterator over the hashes of the elements in this set
    * @throws IllegalStateException if this set is not valid
    */
-  public Iterator<HashCode> hashes() {
+  public StorageIterator<HashCode> hashes() {
+    recordNativeCall("createHashIterator");
     return StorageIterators.createIterator(
         nativeCreateHashIterator(getNativeHandle()),
-        this::nativeHashIteratorNext,
+        NativeIterNext.ofArrays(this::nativeHashIteratorNext),
         this::nativeHashIteratorFree,
         dbAccess,
         modCounter,
@@ -192,10 +205,11 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    * @throws IllegalStateException if this set is not valid
    */
   @Override
-  public Iterator<Entry<E>> iterator() {
+  public StorageIterator<Entry<E>> iterator() {
+    recordNativeCall("createIterator");
     return StorageIterators.createIterator(
         nativeCreateIterator(getNativeHandle()),
-        this::nativeIteratorNext,
+        NativeIterNext.of(this::nativeIteratorNext, e -> e.hash.length + e.value.length),
         this::nativeIteratorFree,
         dbAccess,
         modCounter,
@@ -212,13 +226,18 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    * Returns a stream of the entries in this set. An entry is a hash-value pair.
    * The entries are ordered by hashes lexicographically.
    *
+   * <p>The native iterator backing the stream is destroyed when the stream is consumed
+   * or {@linkplain Stream#close() closed}. Close the stream if a short-circuiting
+   * operation (e.g., {@code findFirst}) might leave it not consumed.
+   *
    * @throws IllegalStateException if this set is not valid
    */
   public Stream<Entry<E>> stream() {
+    StorageIterator<Entry<E>> iterator = iterator();
     return StreamSupport.stream(
-        Spliterators.spliteratorUnknownSize(iterator(), streamCharacteristics()),
+        Spliterators.spliteratorUnknownSize(iterator, streamCharacteristics()),
         false
-    );
+    ).onClose(iterator::close);
   }
 
   private int streamCharacteristics() {
@@ -295,6 +314,8 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
   public void remove(E e) {
     notifyModified();
     byte[] dbElement = serializer.toBytes(e);
+    recordBytesToNative(dbElement.length);
+    recordNativeCall("remove");
     nativeRemove(getNativeHandle(), dbElement);
   }
 
@@ -308,7 +329,10 @@ public final class ValueSetIndexProxy<E> extends AbstractIndexProxy
    */
   public void removeByHash(HashCode elementHash) {
     notifyModified();
-    nativeRemoveByHash(getNativeHandle(), elementHash.asBytes());
+    byte[] dbHash = elementHash.asBytes();
+    recordBytesToNative(dbHash.length);
+    recordNativeCall("removeByHash");
+    nativeRemoveByHash(getNativeHandle(), dbHash);
   }
 
   private static native long nativeCreate(String name, @Nullable byte[] idInGroup,
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import com.exonum.binding.core.storage.database.Access;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A write-back cache of the indexes created with an {@link Access}. The indexes that support
+ * caching keep the serialized values they read and buffer the modifications in Java,
+ * so that repeated operations on the same keys do not need any native calls. The buffered modifications
+ * are written to the database in a single batch per index when the cache is
+ * {@linkplain #flush() flushed}, or when an index operation needs the database state
+ * to be up-to-date (e.g., iteration, or a proof creation).
+ *
+ * <p>Currently, {@link MapIndexProxy} and {@link ProofMapIndexProxy} support caching
+ * of {@code get}, {@code containsKey}, {@code put} and {@code remove} operations.
+ *
+ * <p>A cache is supposed to be used in a scope of a single database modification,
+ * e.g., a transaction; and then either flushed or {@linkplain #discard() discarded}.
+ * Each read of a cached index returns a new value object, therefore, the clients may modify
+ * the values they get or put without affecting the cache.
+ *
+ * <p>The buffered modifications are visible only to the indexes created with the access
+ * that has this cache. Other accesses to the same data (e.g., a readonly access to
+ * the service data, or the indexes of the parent fork) see them only after the cache
+ * is flushed.
+ *
+ * <p>This class is not thread-safe and its instances shall not be shared between threads.
+ *
+ * @see com.exonum.binding.core.blockchain.BlockchainData#enableWriteBackCache()
+ */
+public final class WriteBackCache {
+
+  private final List<CachedIndex> indexes = new ArrayList<>();
+
+  /**
+   * Registers the index using this cache.
+   */
+  void register(CachedIndex index) {
+    indexes.add(index);
+  }
+
+  /**
+   * Writes the buffered modifications of all indexes to the database.
+   */
+  public void flush() {
+    for (CachedIndex index : indexes) {
+      index.flush();
+    }
+  }
+
+  /**
+   * Drops the buffered modifications and the cached values of all indexes.
+   */
+  public void discard() {
+    for (CachedIndex index : indexes) {
+      index.discard();
+    }
+  }
+
+  /**
+   * An index that caches its values and modifications.
+   */
+  interface CachedIndex {
+
+    /**
+     * Writes the buffered modifications of this index to the database.
+     */
+    void flush();
+
+    /**
+     * Drops the buffered modifications and the cached values of this index.
+     */
+    void discard();
+  }
+}
@@ -37,6 +37,7 @@ import com.exonum.binding.core.storage.indices.IndexAddress;
 import com.exonum.binding.core.storage.indices.MapIndex;
 import com.exonum.binding.core.storage.indices.ProofEntryIndex;
 import com.exonum.binding.core.storage.indices.ProofMapIndexProxy;
+import com.exonum.binding.core.storage.indices.WriteBackCache;
 import com.exonum.messages.core.runtime.Lifecycle.InstanceState;
 import com.google.common.collect.ImmutableList;
 import java.util.Collection;
@@ -99,6 +100,98 @@ class BlockchainDataIntegrationTest {
     assertThat(entry2.get()).isEqualTo("V2");
   }
 
+  @Test
+  void getExecutingServiceDataWithWriteBackCache() {
+    String serviceName = "test-service";
+    IndexAddress address = IndexAddress.valueOf("test-map");
+    Fork fork = db.createFork(cleaner);
+    BlockchainData blockchainData = BlockchainData.fromRawAccess(fork, serviceName);
+    WriteBackCache cache = blockchainData.enableWriteBackCache();
+
+    Prefixed serviceData = blockchainData.getExecutingServiceData();
+    assertThat(serviceData.getWriteBackCache()).hasValue(cache);
+
+    MapIndex<String, String> map = serviceData.getMap(address, string(), string());
+    map.put("k1", "v1");
+    map.put("k2", "v2");
+    map.remove("k2");
+    assertThat(map.get("k1")).isEqualTo("v1");
+    assertFalse(map.containsKey("k2"));
+
+    // Check the modifications are not yet written to the fork
+    MapIndex<String, String> uncachedMap = BlockchainData.fromRawAccess(fork, serviceName)
+        .getExecutingServiceData()
+        .getMap(address, string(), string());
+    assertFalse(uncachedMap.containsKey("k1"));
+
+    cache.flush();
+
+    assertThat(uncachedMap.get("k1")).isEqualTo("v1");
+    assertFalse(uncachedMap.containsKey("k2"));
+  }
+
+  @Test
+  void writeBackCacheIsFlushedOnIteration() {
+    String serviceName = "test-service";
+    IndexAddress address = IndexAddress.valueOf("test-map");
+    Fork fork = db.createFork(cleaner);
+    BlockchainData blockchainData = BlockchainData.fromRawAccess(fork, serviceName);
+    blockchainData.enableWriteBackCache();
+
+    MapIndex<String, String> map = blockchainData.getExecutingServiceData()
+        .getMap(address, string(), string());
+    map.put("k1", "v1");
+    map.put("k2", "v2");
+
+    assertThat(ImmutableList.copyOf(map.keys())).containsExactly("k1", "k2");
+  }
+
+  @Test
+  void writeBackCacheIsFlushedOnOtherAccessCreation() {
+    String serviceName = "test-service";
+    IndexAddress address = IndexAddress.valueOf("test-map");
+    Fork fork = db.createFork(cleaner);
+    BlockchainData blockchainData = BlockchainData.fromRawAccess(fork, serviceName);
+    blockchainData.enableWriteBackCache();
+
+    MapIndex<String, String> map = blockchainData.getExecutingServiceData()
+        .getMap(address, string(), string());
+    map.put("k1", "v1");
+
+    blockchainData.getBlockchain();
+
+    MapIndex<String, String> uncachedMap = BlockchainData.fromRawAccess(fork, serviceName)
+        .getExecutingServiceData()
+        .getMap(address, string(), string());
+    assertThat(uncachedMap.get("k1")).isEqualTo("v1");
+  }
+
+  @Test
+  void writeBackCacheDiscarded() {
+    String serviceName = "test-service";
+    IndexAddress address = IndexAddress.valueOf("test-map");
+    Fork fork = db.createFork(cleaner);
+    BlockchainData blockchainData = BlockchainData.fromRawAccess(fork, serviceName);
+    WriteBackCache cache = blockchainData.enableWriteBackCache();
+
+    MapIndex<String, String> map = blockchainData.getExecutingServiceData()
+        .getMap(address, string(), string());
+    map.put("k1", "v1");
+
+    cache.discard();
+
+    assertFalse(map.containsKey("k1"));
+  }
+
+  @Test
+  void enableWriteBackCacheAfterGetExecutingServiceData() {
+    Fork fork = db.createFork(cleaner);
+    BlockchainData blockchainData = BlockchainData.fromRawAccess(fork, "test-service");
+    blockchainData.getExecutingServiceData();
+
+    assertThrows(IllegalStateException.class, blockchainData::enableWriteBackCache);
+  }
+
   @Test
   void getExecutingServiceDataFromSnapshot() throws CloseFailuresException {
     // Setup the service data
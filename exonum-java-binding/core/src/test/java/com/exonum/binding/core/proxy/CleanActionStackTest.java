@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import static com.exonum.binding.core.proxy.CleanActionStack.MAX_POOLED_CAPACITY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.function.LongConsumer;
+import org.junit.jupiter.api.Test;
+
+class CleanActionStackTest {
+
+  @Test
+  void acquireReusesReleasedStack() {
+    CleanActionStack stack = CleanActionStack.acquire();
+    stack.release();
+
+    assertThat(CleanActionStack.acquire()).isSameAs(stack);
+  }
+
+  @Test
+  void releaseDiscardsLargeStack() throws Exception {
+    CleanActionStack stack = CleanActionStack.acquire();
+    for (int i = 0; i <= MAX_POOLED_CAPACITY; i++) {
+      stack.push(mock(CleanAction.class));
+    }
+    while (!stack.isEmpty()) {
+      stack.pop();
+    }
+    stack.release();
+
+    assertThat(CleanActionStack.acquire()).isNotSameAs(stack);
+  }
+
+  @Test
+  void releaseNonEmptyStack() {
+    CleanActionStack stack = CleanActionStack.acquire();
+    stack.push(mock(CleanAction.class));
+
+    assertThrows(IllegalStateException.class, stack::release);
+  }
+
+  @Test
+  void cleanTopInReversedOrder() throws Exception {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    NativeDestructor destructor = NativeDestructor.of(CloseableNativeProxy.class,
+        destructorFunction);
+    CleanAction action = mock(CleanAction.class);
+    CleanActionStack stack = CleanActionStack.acquire();
+    stack.push(action);
+    stack.push(new NativeHandle(1L), destructor);
+
+    stack.cleanTop();
+    verify(destructorFunction).accept(1L);
+    verify(action, never()).clean();
+
+    stack.pop();
+    stack.cleanTop();
+    verify(action).clean();
+  }
+
+  @Test
+  void removeShiftsUpperEntries() throws Exception {
+    CleanAction a1 = mock(CleanAction.class);
+    CleanAction a2 = mock(CleanAction.class);
+    CleanAction a3 = mock(CleanAction.class);
+    CleanActionStack stack = CleanActionStack.acquire();
+    stack.push(a1);
+    stack.push(a2);
+    stack.push(a3);
+
+    assertThat(stack.remove(a2)).isTrue();
+
+    assertThat(stack.size()).isEqualTo(2);
+    assertThat(stack.describeTop()).isSameAs(a3);
+    stack.pop();
+    assertThat(stack.describeTop()).isSameAs(a1);
+  }
+
+  @Test
+  void removeNotPushed() {
+    CleanActionStack stack = CleanActionStack.acquire();
+    stack.push(mock(CleanAction.class));
+
+    assertThat(stack.remove(mock(CleanAction.class))).isFalse();
+    assertThat(stack.size()).isEqualTo(1);
+  }
+
+  @Test
+  void resourceTypes() {
+    NativeDestructor destructor = NativeDestructor.of(CloseableNativeProxy.class, nh -> {});
+    CleanActionStack stack = CleanActionStack.acquire();
+    stack.push(CleanAction.from(() -> {}, "Nested Cleaner"));
+    stack.push(mock(CleanAction.class));
+    stack.push(new NativeHandle(1L), destructor);
+
+    assertThat(stack.resourceTypes())
+        .containsExactly(CloseableNativeProxy.class, "Unknown", "Nested Cleaner");
+  }
+}
@@ -19,13 +19,22 @@ package com.exonum.binding.core.proxy;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import com.google.common.testing.NullPointerTester;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.LongConsumer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InOrder;
 
 class CleanerTest {
@@ -36,7 +45,11 @@ class CleanerTest {
   @SuppressWarnings("UnstableApiUsage") // OK in an internal test
   void testRejectsNull() {
     //TODO Consider rewriting this test to get rid of JUnit4 dependency through Guava Testing.
-    NullPointerTester tester = new NullPointerTester();
+    NullPointerTester tester = new NullPointerTester()
+        .setDefault(NativeHandle.class, new NativeHandle(1L))
+        .setDefault(NativeDestructor.class,
+            NativeDestructor.of(CloseableNativeProxy.class, nh -> {}))
+        .setDefault(ProxyScope.class, ProxyScope.ofCurrentThread());
     tester.testAllPublicInstanceMethods(context);
   }
 
@@ -67,6 +80,38 @@ class CleanerTest {
     assertThat(suppressed[0]).isInstanceOf(RuntimeException.class);
   }
 
+  @Test
+  void removeAction() throws Exception {
+    CleanAction a1 = mock(CleanAction.class);
+    CleanAction a2 = mock(CleanAction.class);
+    context.add(a1);
+    context.add(a2);
+
+    assertThat(context.remove(a1)).isTrue();
+    assertThat(context.getNumRegisteredActions()).isEqualTo(1);
+
+    context.close();
+
+    verify(a1, never()).clean();
+    verify(a2).clean();
+  }
+
+  @Test
+  void removeNotRegisteredAction() {
+    CleanAction a = mock(CleanAction.class);
+
+    assertThat(context.remove(a)).isFalse();
+  }
+
+  @Test
+  void removeFromClosedContext() throws Exception {
+    CleanAction a = mock(CleanAction.class);
+    context.add(a);
+    context.close();
+
+    assertThat(context.remove(a)).isFalse();
+  }
+
   @Test
   void closeEmptyNoExceptions() {
     assertThatCode(context::close).doesNotThrowAnyException();
@@ -134,6 +179,99 @@ class CleanerTest {
     verify(action).clean();
   }
 
+  @Test
+  void closeNestedPerformsOnlyItsActions() throws Exception {
+    CleanAction parentAction = mock(CleanAction.class);
+    CleanAction nestedAction = mock(CleanAction.class);
+    context.add(parentAction);
+    Cleaner nested = context.newNested();
+    nested.add(nestedAction);
+
+    nested.close();
+
+    verify(nestedAction).clean();
+    verify(parentAction, never()).clean();
+    assertThat(context.isClosed()).isFalse();
+  }
+
+  @Test
+  void closeNestedRemovesItFromParent() throws Exception {
+    Cleaner nested = context.newNested();
+    assertThat(context.getNumRegisteredActions()).isEqualTo(1);
+
+    nested.close();
+
+    assertThat(context.getNumRegisteredActions()).isZero();
+  }
+
+  @Test
+  void closeParentClosesNestedFirst() throws Exception {
+    CleanAction parentAction = mock(CleanAction.class);
+    CleanAction nestedAction = mock(CleanAction.class);
+    context.add(parentAction);
+    Cleaner nested = context.newNested("nested");
+    nested.add(nestedAction);
+
+    context.close();
+
+    assertThat(nested.isClosed()).isTrue();
+    InOrder inOrder = inOrder(nestedAction, parentAction);
+    inOrder.verify(nestedAction).clean();
+    inOrder.verify(parentAction).clean();
+  }
+
+  @Test
+  void closeParentReportsNestedFailures() throws Exception {
+    Cleaner nested = context.newNested();
+    CleanAction nestedAction = mock(CleanAction.class);
+    doThrow(RuntimeException.class).when(nestedAction).clean();
+    nested.add(nestedAction);
+
+    CloseFailuresException e = assertThrows(CloseFailuresException.class, () -> context.close());
+
+    assertThat(e.getSuppressed()).hasSize(1);
+    assertThat(nested.isClosed()).isTrue();
+  }
+
+  @Test
+  void newNestedOfClosedContext() throws Exception {
+    context.close();
+
+    assertThrows(IllegalStateException.class, () -> context.newNested());
+  }
+
+  @Test
+  void addToNestedOfClosedContext() throws Exception {
+    Cleaner nested = context.newNested();
+    context.close();
+
+    CleanAction action = mock(CleanAction.class);
+    assertThrows(IllegalStateException.class, () -> nested.add(action));
+    verify(action).clean();
+  }
+
+  @Test
+  void contextHasNoScopeByDefault() {
+    Cleaner cleaner = new Cleaner();
+
+    assertThat(cleaner.getScope()).isEmpty();
+    assertThat(cleaner.newNested().getScope()).isEmpty();
+  }
+
+  @Test
+  void nestedContextWithScope() {
+    Cleaner parent = new Cleaner();
+    ProxyScope scope = ProxyScope.ofCurrentThread();
+
+    Cleaner nested = parent.newNested("nested", scope);
+
+    assertThat(nested.getScope()).hasValue(scope);
+    // The nested contexts inherit the scope
+    assertThat(nested.newNested("inner").getScope()).hasValue(scope);
+    // The parent has no scope
+    assertThat(parent.getScope()).isEmpty();
+  }
+
   @Test
   void toStringIncludesContextInformation() {
     String r = context.toString();
@@ -179,4 +317,116 @@ class CleanerTest {
     assertThat(context.getNumRegisteredActions())
         .isZero();
   }
+
+  @Test
+  void closeDestroysHandle() throws Exception {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    NativeDestructor destructor = NativeDestructor.of(CloseableNativeProxy.class,
+        destructorFunction);
+    NativeHandle handle = new NativeHandle(1L);
+
+    context.add(handle, destructor);
+    assertThat(context.getNumRegisteredActions()).isEqualTo(1);
+
+    context.close();
+
+    verify(destructorFunction).accept(1L);
+    assertThat(handle.isValid()).isFalse();
+  }
+
+  @Test
+  void closeHandlesAndActionsInReversedOrder() throws Exception {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    NativeDestructor destructor = NativeDestructor.of(CloseableNativeProxy.class,
+        destructorFunction);
+    CleanAction a1 = mock(CleanAction.class);
+    CleanAction a2 = mock(CleanAction.class);
+
+    context.add(new NativeHandle(1L), destructor);
+    context.add(a1);
+    context.add(new NativeHandle(2L), destructor);
+    context.add(a2);
+
+    context.close();
+
+    InOrder inOrder = inOrder(a2, destructorFunction, a1);
+    inOrder.verify(a2).clean();
+    inOrder.verify(destructorFunction).accept(2L);
+    inOrder.verify(a1).clean();
+    inOrder.verify(destructorFunction).accept(1L);
+  }
+
+  @Test
+  void closeHandlesWhenDestructorFails() throws Exception {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    doThrow(RuntimeException.class).when(destructorFunction).accept(2L);
+    NativeDestructor destructor = NativeDestructor.of(CloseableNativeProxy.class,
+        destructorFunction);
+    CleanAction action = mock(CleanAction.class);
+
+    context.add(action);
+    context.add(new NativeHandle(1L), destructor);
+    context.add(new NativeHandle(2L), destructor);
+
+    CloseFailuresException e = assertThrows(CloseFailuresException.class, () -> context.close());
+
+    // Check the remaining handles and actions are performed
+    verify(destructorFunction).accept(1L);
+    verify(action).clean();
+    assertThat(e).hasMessageStartingWith("1 exception(s) occurred when closing this context");
+    assertThat(e.getSuppressed()).hasSize(1);
+  }
+
+  @Test
+  void addHandleToClosedDestroysIt() throws Exception {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    NativeDestructor destructor = NativeDestructor.of(CloseableNativeProxy.class,
+        destructorFunction);
+    NativeHandle handle = new NativeHandle(1L);
+    context.close();
+
+    IllegalStateException e = assertThrows(IllegalStateException.class,
+        () -> context.add(handle, destructor));
+
+    assertThat(e.getMessage()).startsWith("Cannot register a native handle");
+    verify(destructorFunction).accept(1L);
+    assertThat(handle.isValid()).isFalse();
+  }
+
+  @Test
+  void closeDoesNotDestroyClosedHandle() throws Exception {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    NativeDestructor destructor = NativeDestructor.of(CloseableNativeProxy.class,
+        destructorFunction);
+    NativeHandle handle = new NativeHandle(1L);
+    context.add(handle, destructor);
+
+    handle.close();
+    context.close();
+
+    verify(destructorFunction, never()).accept(anyLong());
+  }
+
+  @Test
+  void closeEmitsFlightRecorderEvent(@TempDir Path tempDir) throws Exception {
+    Cleaner cleaner = new Cleaner("closeEmitsFlightRecorderEvent");
+    cleaner.add(mock(CleanAction.class));
+    cleaner.add(mock(CleanAction.class));
+
+    Path recordingFile = tempDir.resolve("cleaner.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(CleanerCloseEvent.class);
+      recording.start();
+      cleaner.close();
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.get(0);
+    assertThat(event.getString("description")).isEqualTo("closeEmitsFlightRecorderEvent");
+    assertThat(event.getInt("actions")).isEqualTo(2);
+    assertThat(event.getInt("failures")).isZero();
+  }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.exonum.binding.core.proxy.NativeCallStatistics.Level;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NativeCallStatisticsTest {
+
+  @BeforeEach
+  void resetStatistics() {
+    NativeCallStatistics.reset();
+  }
+
+  @AfterEach
+  void disableStatistics() {
+    NativeCallStatistics.setLevel(Level.OFF);
+    NativeCallStatistics.reset();
+  }
+
+  @Test
+  void recordsNothingWhenOff() {
+    NativeCallStatistics.setLevel(Level.OFF);
+    NativeCallCounts threadCountsBefore = NativeCallStatistics.getCurrentThreadCounts();
+    NativeProxyFake proxy = new NativeProxyFake(new NativeHandle(1L));
+
+    proxy.nativeCall();
+    NativeCallStatistics.recordBytesToNative(10);
+    NativeCallStatistics.recordBytesFromNative(new byte[4]);
+
+    assertThat(NativeCallStatistics.getTotalCounts()).isEqualTo(NativeCallCounts.zero());
+    assertThat(NativeCallStatistics.getCurrentThreadCounts()).isEqualTo(threadCountsBefore);
+    assertThat(NativeCallStatistics.getCallsByProxy()).isEmpty();
+  }
+
+  @Test
+  void recordsCallsByProxy() {
+    NativeCallStatistics.setLevel(Level.CALLS);
+    NativeProxyFake proxy = new NativeProxyFake(new NativeHandle(1L));
+
+    proxy.nativeCall();
+    proxy.nativeCall();
+
+    assertThat(NativeCallStatistics.getTotalCounts().getCalls()).isEqualTo(2);
+    assertThat(NativeCallStatistics.getCallsByProxy())
+        .containsExactly(entry("NativeProxyFake", 2L));
+    // Operations are not collected at this level
+    assertThat(NativeCallStatistics.getCallsByOperation()).isEmpty();
+  }
+
+  @Test
+  void recordsCallsByOperation() {
+    NativeCallStatistics.setLevel(Level.OPERATIONS);
+    NativeProxyFake proxy = new NativeProxyFake(new NativeHandle(1L));
+
+    proxy.nativeCall();
+
+    assertThat(NativeCallStatistics.getCallsByOperation())
+        .containsExactly(entry("NativeProxyFake#call", 1L));
+  }
+
+  @Test
+  void recordsCallsByOperationOfSeveralProxies() {
+    NativeCallStatistics.setLevel(Level.OPERATIONS);
+    NativeProxyFake proxy = new NativeProxyFake(new NativeHandle(1L));
+
+    proxy.nativeCall();
+    proxy.nativeCall();
+    NativeCallStatistics.recordCall(NativeCallStatisticsTest.class, "create");
+
+    assertThat(NativeCallStatistics.getCallsByOperation())
+        .containsExactly(entry("NativeCallStatisticsTest#create", 1L),
+            entry("NativeProxyFake#call", 2L));
+  }
+
+  @Test
+  void doesNotRecordHandleAccess() {
+    NativeCallStatistics.setLevel(Level.CALLS);
+    NativeProxyFake proxy = new NativeProxyFake(new NativeHandle(1L));
+
+    proxy.getHandle();
+
+    assertThat(NativeCallStatistics.getTotalCounts().getCalls()).isZero();
+  }
+
+  @Test
+  void recordsBytes() {
+    NativeCallStatistics.setLevel(Level.CALLS);
+
+    NativeCallStatistics.recordBytesToNative(10);
+    NativeCallStatistics.recordBytesFromNative(new byte[4]);
+    NativeCallStatistics.recordBytesFromNative(null);
+
+    NativeCallCounts counts = NativeCallStatistics.getTotalCounts();
+    assertThat(counts.getBytesToNative()).isEqualTo(10);
+    assertThat(counts.getBytesFromNative()).isEqualTo(4);
+  }
+
+  @Test
+  void recordsHandles() throws CloseFailuresException {
+    NativeCallStatistics.setLevel(Level.CALLS);
+
+    try (Cleaner cleaner = new Cleaner()) {
+      ProxyDestructor.newRegistered(cleaner, new NativeHandle(1L), NativeProxyFake.class,
+          handle -> { });
+      ProxyDestructor.newRegistered(cleaner, new NativeHandle(2L), NativeProxyFake.class,
+          handle -> { });
+      assertThat(NativeCallStatistics.getHandlesCreatedByProxy())
+          .containsExactly(entry("NativeProxyFake", 2L));
+      assertThat(NativeCallStatistics.getHandlesFreedByProxy()).isEmpty();
+    }
+
+    NativeCallCounts counts = NativeCallStatistics.getTotalCounts();
+    assertThat(counts.getHandlesCreated()).isEqualTo(2);
+    assertThat(counts.getHandlesFreed()).isEqualTo(2);
+    assertThat(NativeCallStatistics.getHandlesFreedByProxy())
+        .containsExactly(entry("NativeProxyFake", 2L));
+  }
+
+  @Test
+  void currentThreadCountsDifference() {
+    NativeCallStatistics.setLevel(Level.CALLS);
+    NativeProxyFake proxy = new NativeProxyFake(new NativeHandle(1L));
+    NativeCallCounts before = NativeCallStatistics.getCurrentThreadCounts();
+
+    proxy.nativeCall();
+    NativeCallStatistics.recordBytesToNative(8);
+
+    NativeCallCounts difference = NativeCallStatistics.getCurrentThreadCounts().minus(before);
+    assertThat(difference.getCalls()).isEqualTo(1);
+    assertThat(difference.getBytesToNative()).isEqualTo(8);
+    assertThat(difference.getBytesFromNative()).isZero();
+  }
+
+  @Test
+  void resetClearsTotals() {
+    NativeCallStatistics.setLevel(Level.OPERATIONS);
+    new NativeProxyFake(new NativeHandle(1L)).nativeCall();
+
+    NativeCallStatistics.reset();
+
+    assertThat(NativeCallStatistics.getTotalCounts()).isEqualTo(NativeCallCounts.zero());
+    assertThat(NativeCallStatistics.getCallsByProxy()).isEmpty();
+    assertThat(NativeCallStatistics.getCallsByOperation()).isEmpty();
+  }
+
+  @Test
+  void levelFromProperty() {
+    assertThat(NativeCallStatistics.levelFromProperty(null)).isEqualTo(Level.OFF);
+    assertThat(NativeCallStatistics.levelFromProperty("")).isEqualTo(Level.OFF);
+    assertThat(NativeCallStatistics.levelFromProperty("calls")).isEqualTo(Level.CALLS);
+    assertThat(NativeCallStatistics.levelFromProperty("OPERATIONS"))
+        .isEqualTo(Level.OPERATIONS);
+  }
+
+  @Test
+  void levelFromInvalidProperty() {
+    assertThat(NativeCallStatistics.levelFromProperty("all")).isEqualTo(Level.OFF);
+  }
+
+  private static final class NativeProxyFake extends AbstractNativeProxy {
+
+    NativeProxyFake(NativeHandle nativeHandle) {
+      super(nativeHandle);
+    }
+
+    long nativeCall() {
+      recordNativeCall("call");
+      return getNativeHandle();
+    }
+
+    long getHandle() {
+      return getNativeHandle();
+    }
+  }
+}
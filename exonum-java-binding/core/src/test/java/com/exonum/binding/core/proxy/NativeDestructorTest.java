@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.function.LongConsumer;
+import org.junit.jupiter.api.Test;
+
+class NativeDestructorTest {
+
+  @Test
+  void ofRegistersDestructor() {
+    NativeDestructor d1 = NativeDestructor.of(CloseableNativeProxy.class, nh -> {});
+    NativeDestructor d2 = NativeDestructor.of(CloseableNativeProxy.class, nh -> {});
+
+    assertThat(d1.getId()).isNotEqualTo(d2.getId());
+    assertThat(NativeDestructor.forId(d1.getId())).isSameAs(d1);
+    assertThat(NativeDestructor.forId(d2.getId())).isSameAs(d2);
+  }
+
+  @Test
+  void forUnknownId() {
+    assertThrows(IndexOutOfBoundsException.class, () -> NativeDestructor.forId(-1));
+    assertThrows(IndexOutOfBoundsException.class,
+        () -> NativeDestructor.forId(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void destroy() {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    NativeDestructor d = NativeDestructor.of(CloseableNativeProxy.class, destructorFunction);
+    NativeHandle handle = new NativeHandle(1L);
+
+    d.destroy(handle);
+
+    assertThat(handle.isValid()).isFalse();
+    verify(destructorFunction).accept(1L);
+  }
+
+  @Test
+  void destroyIsIdempotent() {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    NativeDestructor d = NativeDestructor.of(CloseableNativeProxy.class, destructorFunction);
+    NativeHandle handle = new NativeHandle(1L);
+
+    d.destroy(handle);
+    d.destroy(handle);
+
+    verify(destructorFunction).accept(1L);
+  }
+
+  @Test
+  void destroyInvalidHandle() {
+    LongConsumer destructorFunction = mock(LongConsumer.class);
+    NativeDestructor d = NativeDestructor.of(CloseableNativeProxy.class, destructorFunction);
+    NativeHandle handle = new NativeHandle(1L);
+    handle.close();
+
+    d.destroy(handle);
+
+    verify(destructorFunction, never()).accept(anyLong());
+  }
+
+  @Test
+  void toStringIncludesProxyClass() {
+    NativeDestructor d = NativeDestructor.of(CloseableNativeProxy.class, nh -> {});
+
+    assertThat(d.toString()).contains("CloseableNativeProxy");
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+
+class ProxyScopeTest {
+
+  @Test
+  void newScopeIsActive() {
+    ProxyScope scope = ProxyScope.ofCurrentThread();
+
+    assertThat(scope.isActive()).isTrue();
+    assertDoesNotThrow(scope::checkActive);
+  }
+
+  @Test
+  void deactivatedScopeIsNotActive() {
+    ProxyScope scope = ProxyScope.ofCurrentThread();
+
+    scope.deactivate();
+
+    assertThat(scope.isActive()).isFalse();
+    assertThrows(IllegalStateException.class, scope::checkActive);
+  }
+
+  @Test
+  void activateDeactivatedScope() {
+    ProxyScope scope = ProxyScope.ofCurrentThread();
+    scope.deactivate();
+
+    scope.activate();
+
+    assertThat(scope.isActive()).isTrue();
+  }
+
+  @Test
+  void scopeIsNotActiveInOtherThreads() {
+    ProxyScope scope = ProxyScope.ofCurrentThread();
+
+    boolean activeInOtherThread = CompletableFuture.supplyAsync(scope::isActive).join();
+
+    assertThat(activeInOtherThread).isFalse();
+    CompletionException e = assertThrows(CompletionException.class,
+        () -> CompletableFuture.runAsync(scope::checkActive).join());
+    assertThat(e).hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void scopeCannotBeChangedInOtherThreads() {
+    ProxyScope scope = ProxyScope.ofCurrentThread();
+
+    CompletionException e = assertThrows(CompletionException.class,
+        () -> CompletableFuture.runAsync(scope::deactivate).join());
+
+    assertThat(e).hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(scope.isActive()).isTrue();
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.exonum.binding.core.runtime.AfterCommitDispatchConfig.COMPLETION_TIMEOUT_PROPERTY;
+import static com.exonum.binding.core.runtime.AfterCommitDispatchConfig.HANDLER_TIMEOUT_PROPERTY;
+import static com.exonum.binding.core.runtime.AfterCommitDispatchConfig.THREADS_PROPERTY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+class AfterCommitDispatchConfigTest {
+
+  @Test
+  void fromEmptyProperties() {
+    AfterCommitDispatchConfig config = AfterCommitDispatchConfig.fromProperties(new Properties());
+
+    assertThat(config).isEqualTo(AfterCommitDispatchConfig.sequential());
+    assertThat(config.isConcurrent()).isFalse();
+  }
+
+  @Test
+  void fromPropertiesConcurrent() {
+    Properties properties = new Properties();
+    properties.setProperty(THREADS_PROPERTY, "4");
+    properties.setProperty(HANDLER_TIMEOUT_PROPERTY, "100");
+    properties.setProperty(COMPLETION_TIMEOUT_PROPERTY, "200");
+
+    AfterCommitDispatchConfig config = AfterCommitDispatchConfig.fromProperties(properties);
+
+    assertThat(config.isConcurrent()).isTrue();
+    assertThat(config.getThreadCount()).isEqualTo(4);
+    assertThat(config.getHandlerTimeout()).isEqualTo(Duration.ofMillis(100));
+    assertThat(config.getCompletionTimeout()).isEqualTo(Duration.ofMillis(200));
+  }
+
+  @Test
+  void fromPropertiesInvalidThreads() {
+    Properties properties = new Properties();
+    properties.setProperty(THREADS_PROPERTY, "-1");
+
+    assertThrows(IllegalArgumentException.class,
+        () -> AfterCommitDispatchConfig.fromProperties(properties));
+  }
+
+  @Test
+  void concurrentRejectsZeroTimeout() {
+    assertThrows(IllegalArgumentException.class,
+        () -> AfterCommitDispatchConfig.concurrent(1, Duration.ZERO, Duration.ofSeconds(1)));
+  }
+}
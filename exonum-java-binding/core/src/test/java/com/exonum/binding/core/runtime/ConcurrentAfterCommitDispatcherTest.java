@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentAfterCommitDispatcherTest {
+
+  private static final Duration LONG_TIMEOUT = Duration.ofSeconds(10);
+
+  private ConcurrentAfterCommitDispatcher dispatcher;
+
+  @AfterEach
+  void closeDispatcher() {
+    if (dispatcher != null) {
+      dispatcher.close();
+    }
+  }
+
+  @Test
+  void dispatchInvokesHandlersConcurrently() throws InterruptedException {
+    dispatcher = newDispatcher(2, LONG_TIMEOUT, LONG_TIMEOUT);
+    // Each handler waits for the other one to start, which is only possible
+    // if they run concurrently
+    CountDownLatch started = new CountDownLatch(2);
+    Runnable handler = () -> {
+      started.countDown();
+      awaitUninterruptibly(started);
+    };
+
+    dispatcher.dispatch(ImmutableMap.of("a", handler, "b", handler));
+
+    assertThat(started.getCount()).isZero();
+  }
+
+  @Test
+  void dispatchInvokesAllHandlersIfSomeThrow() throws InterruptedException {
+    dispatcher = newDispatcher(1, LONG_TIMEOUT, LONG_TIMEOUT);
+    AtomicBoolean secondInvoked = new AtomicBoolean();
+
+    dispatcher.dispatch(ImmutableMap.of(
+        "a", () -> {
+          throw new RuntimeException("a failed");
+        },
+        "b", () -> secondInvoked.set(true)));
+
+    assertThat(secondInvoked).isTrue();
+  }
+
+  @Test
+  void dispatchInterruptsHandlerAfterHandlerTimeout() throws InterruptedException {
+    dispatcher = newDispatcher(2, Duration.ofMillis(50), LONG_TIMEOUT);
+    AtomicBoolean interrupted = new AtomicBoolean();
+    AtomicBoolean otherCompleted = new AtomicBoolean();
+
+    dispatcher.dispatch(ImmutableMap.of(
+        "slow", () -> interrupted.set(sleepInterruptibly(LONG_TIMEOUT)),
+        "fast", () -> otherCompleted.set(true)));
+
+    assertThat(interrupted).isTrue();
+    assertThat(otherCompleted).isTrue();
+  }
+
+  @Test
+  void dispatchInterruptsHandlerAfterCompletionTimeout() throws InterruptedException {
+    dispatcher = newDispatcher(1, LONG_TIMEOUT, Duration.ofMillis(50));
+    AtomicBoolean interrupted = new AtomicBoolean();
+
+    long start = System.nanoTime();
+    dispatcher.dispatch(ImmutableMap.of("slow",
+        () -> interrupted.set(sleepInterruptibly(LONG_TIMEOUT))));
+    long elapsed = System.nanoTime() - start;
+
+    assertThat(Duration.ofNanos(elapsed)).isLessThan(LONG_TIMEOUT);
+    assertThat(interrupted).isTrue();
+  }
+
+  @Test
+  void dispatchWaitsForInterruptedHandlersToStop() throws InterruptedException {
+    Duration completionTimeout = Duration.ofMillis(200);
+    dispatcher = newDispatcher(1, LONG_TIMEOUT, completionTimeout);
+    Duration handlerDuration = completionTimeout.multipliedBy(3);
+    AtomicBoolean stopped = new AtomicBoolean();
+
+    long start = System.nanoTime();
+    dispatcher.dispatch(ImmutableMap.of("ignoresInterrupts", () -> {
+      // Model a native call, which an interrupt does not stop
+      sleepUninterruptibly(handlerDuration);
+      stopped.set(true);
+    }));
+    long elapsed = System.nanoTime() - start;
+
+    assertThat(stopped).isTrue();
+    assertThat(Duration.ofNanos(elapsed)).isGreaterThanOrEqualTo(handlerDuration);
+  }
+
+  @Test
+  void dispatchWaitsForHandlersToStopIfInterrupted() throws InterruptedException {
+    dispatcher = newDispatcher(1, LONG_TIMEOUT, LONG_TIMEOUT);
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicBoolean stopped = new AtomicBoolean();
+    Thread dispatchingThread = Thread.currentThread();
+    Thread interrupter = new Thread(() -> {
+      awaitUninterruptibly(started);
+      dispatchingThread.interrupt();
+    });
+    interrupter.start();
+
+    assertThrows(InterruptedException.class,
+        () -> dispatcher.dispatch(ImmutableMap.of("ignoresInterrupts", () -> {
+          started.countDown();
+          sleepUninterruptibly(Duration.ofMillis(200));
+          stopped.set(true);
+        })));
+
+    assertThat(stopped).isTrue();
+    interrupter.join();
+  }
+
+  private static ConcurrentAfterCommitDispatcher newDispatcher(int threads,
+      Duration handlerTimeout, Duration completionTimeout) {
+    return new ConcurrentAfterCommitDispatcher(
+        AfterCommitDispatchConfig.concurrent(threads, handlerTimeout, completionTimeout));
+  }
+
+  /** Returns true if the sleep was interrupted. */
+  private static boolean sleepInterruptibly(Duration duration) {
+    try {
+      Thread.sleep(duration.toMillis());
+      return false;
+    } catch (InterruptedException e) {
+      return true;
+    }
+  }
+
+  private static void sleepUninterruptibly(Duration duration) {
+    Uninterruptibles.sleepUninterruptibly(duration.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await(LONG_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+  @Test
+  void rejectsUnorderedBounds() {
+    assertThrows(IllegalArgumentException.class, () -> new Histogram(1, 1));
+  }
+
+  @Test
+  void emptyHistogram() {
+    Histogram histogram = new Histogram(1, 10);
+
+    assertThat(histogram.getCumulativeCounts()).containsExactly(0, 0, 0);
+    assertThat(histogram.getSum()).isZero();
+  }
+
+  @Test
+  void observe() {
+    Histogram histogram = new Histogram(1, 10);
+
+    histogram.observe(0.5);
+    histogram.observe(1);
+    histogram.observe(5);
+    histogram.observe(100);
+
+    assertThat(histogram.getUpperBounds()).containsExactly(1, 10);
+    assertThat(histogram.getCumulativeCounts()).containsExactly(2, 3, 4);
+    assertThat(histogram.getSum()).isEqualTo(106.5);
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeCallCounts;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeCallStatistics.Level;
+import com.exonum.binding.core.runtime.RuntimeMetrics.BlockHook;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RuntimeMetricsTest {
+
+  private final RuntimeMetrics metrics = new RuntimeMetrics();
+
+  @Test
+  void scrapeEmpty() {
+    String scraped = metrics.scrape();
+
+    assertThat(scraped)
+        .contains("# TYPE exonum_java_transaction_duration_seconds histogram\n")
+        .contains("# TYPE exonum_java_transactions_total counter\n")
+        .doesNotContain("{");
+  }
+
+  @Test
+  void recordTransaction() {
+    long durationNanos = TimeUnit.MICROSECONDS.toNanos(20);
+    metrics.recordTransaction("s1", "", 2, durationNanos, true);
+    metrics.recordTransaction("s1", "", 2, durationNanos, false);
+
+    String scraped = metrics.scrape();
+
+    String labels = "service=\"s1\",interface=\"\",tx_id=\"2\"";
+    assertThat(scraped)
+        .contains("exonum_java_transaction_duration_seconds_bucket{" + labels
+            + ",le=\"0.00001\"} 0\n")
+        .contains("exonum_java_transaction_duration_seconds_bucket{" + labels
+            + ",le=\"0.00005\"} 2\n")
+        .contains("exonum_java_transaction_duration_seconds_bucket{" + labels
+            + ",le=\"+Inf\"} 2\n")
+        .contains("exonum_java_transaction_duration_seconds_sum{" + labels + "} 0.00004\n")
+        .contains("exonum_java_transaction_duration_seconds_count{" + labels + "} 2\n")
+        .contains("exonum_java_transactions_total{" + labels + ",result=\"success\"} 1\n")
+        .contains("exonum_java_transactions_total{" + labels + ",result=\"error\"} 1\n");
+  }
+
+  @Test
+  void recordTransactionSortsByService() {
+    metrics.recordTransaction("s2", "", 1, 1, true);
+    metrics.recordTransaction("s1", "", 1, 1, true);
+
+    String scraped = metrics.scrape();
+
+    assertThat(scraped.indexOf("service=\"s1\""))
+        .isLessThan(scraped.indexOf("service=\"s2\""));
+  }
+
+  @Test
+  void recordUnknownTransaction() {
+    metrics.recordUnknownTransaction("s1", 1, false);
+    metrics.recordUnknownTransaction("s1", 1, false);
+    metrics.recordTransaction("s1", "", 0, 1, true);
+
+    String scraped = metrics.scrape();
+
+    String unknownLabels = "service=\"s1\",interface=\"unknown\",tx_id=\"unknown\"";
+    String knownLabels = "service=\"s1\",interface=\"\",tx_id=\"0\"";
+    assertThat(scraped)
+        .contains("exonum_java_transactions_total{" + unknownLabels
+            + ",result=\"error\"} 2\n")
+        .contains("exonum_java_transactions_total{" + knownLabels
+            + ",result=\"success\"} 1\n")
+        .contains("exonum_java_transactions_total{" + knownLabels
+            + ",result=\"error\"} 0\n");
+  }
+
+  @Test
+  void recordUnknownTransactionNativeCalls() {
+    NativeCallCounts counts = NativeCallCounts.of(1, 0, 0, 0, 0);
+    metrics.recordUnknownTransactionNativeCalls("s1", counts);
+
+    String scraped = metrics.scrape();
+
+    String labels = "service=\"s1\",interface=\"unknown\",tx_id=\"unknown\"";
+    assertThat(scraped)
+        .contains("exonum_java_transaction_native_calls_sum{" + labels + "} 1\n");
+  }
+
+  @Test
+  void recordBlockHook() {
+    metrics.recordBlockHook("s1", BlockHook.AFTER_COMMIT, TimeUnit.MILLISECONDS.toNanos(2));
+
+    String scraped = metrics.scrape();
+
+    assertThat(scraped)
+        .contains("exonum_java_block_hook_duration_seconds_bucket{service=\"s1\","
+            + "hook=\"after_commit\",le=\"0.005\"} 1\n")
+        .contains("exonum_java_block_hook_duration_seconds_count{service=\"s1\","
+            + "hook=\"after_commit\"} 1\n");
+  }
+
+  @Test
+  void recordCleanerSize() {
+    Cleaner cleaner = mock(Cleaner.class);
+    when(cleaner.getDescription()).thenReturn("executeTransaction");
+    when(cleaner.getNumRegisteredActions()).thenReturn(3);
+
+    metrics.recordCleanerSize(cleaner);
+
+    assertThat(metrics.scrape())
+        .contains("exonum_java_cleaner_size_bucket{operation=\"executeTransaction\",le=\"1\"} 0\n")
+        .contains("exonum_java_cleaner_size_bucket{operation=\"executeTransaction\",le=\"4\"} 1\n")
+        .contains("exonum_java_cleaner_size_sum{operation=\"executeTransaction\"} 3\n");
+  }
+
+  @Test
+  void recordTransactionNativeCalls() {
+    NativeCallCounts counts = NativeCallCounts.of(3, 100, 2000, 2, 0);
+    metrics.recordTransactionNativeCalls("s1", "", 2, counts);
+
+    String scraped = metrics.scrape();
+
+    String labels = "service=\"s1\",interface=\"\",tx_id=\"2\"";
+    assertThat(scraped)
+        .contains("exonum_java_transaction_native_calls_bucket{" + labels + ",le=\"1\"} 0\n")
+        .contains("exonum_java_transaction_native_calls_bucket{" + labels + ",le=\"4\"} 1\n")
+        .contains("exonum_java_transaction_native_calls_sum{" + labels + "} 3\n")
+        .contains("exonum_java_transaction_native_bytes_sum{" + labels
+            + ",direction=\"to_native\"} 100\n")
+        .contains("exonum_java_transaction_native_bytes_sum{" + labels
+            + ",direction=\"from_native\"} 2000\n")
+        .contains("exonum_java_transaction_native_handles_sum{" + labels
+            + ",event=\"created\"} 2\n")
+        .contains("exonum_java_transaction_native_handles_sum{" + labels
+            + ",event=\"freed\"} 0\n");
+  }
+
+  @Test
+  void scrapeHasNoNativeCallsIfNoneRecorded() {
+    metrics.recordBlockNativeCalls();
+
+    assertThat(metrics.scrape()).doesNotContain("_native_");
+  }
+
+  @Test
+  void recordBlockNativeCalls() {
+    NativeCallStatistics.setLevel(Level.CALLS);
+    try {
+      metrics.recordBlockNativeCalls();
+      NativeCallStatistics.recordBytesToNative(10);
+      metrics.recordBlockNativeCalls();
+
+      assertThat(metrics.scrape())
+          .contains("exonum_java_block_native_calls_count 1\n")
+          .contains("exonum_java_block_native_bytes_sum{direction=\"to_native\"} 10\n")
+          .contains("exonum_java_native_bytes_total{direction=\"to_native\"} ");
+    } finally {
+      NativeCallStatistics.setLevel(Level.OFF);
+    }
+  }
+
+  @Test
+  void escapesLabelValues() {
+    metrics.recordTransaction("a\"b\\c\nd", "", 1, 1, true);
+
+    assertThat(metrics.scrape()).contains("service=\"a\\\"b\\\\c\\nd\"");
+  }
+}
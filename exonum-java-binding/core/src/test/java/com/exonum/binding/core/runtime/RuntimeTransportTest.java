@@ -16,10 +16,12 @@
 
 package com.exonum.binding.core.runtime;
 
+import static com.exonum.binding.core.runtime.RuntimeTransport.RUNTIME_API_ROOT_PATH;
 import static com.exonum.binding.core.runtime.ServiceRuntime.API_ROOT_PATH;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -49,6 +51,7 @@ class RuntimeTransportTest {
 
   @Test
   void start() {
+    when(server.createRouter()).thenReturn(mock(Router.class, RETURNS_DEEP_STUBS));
     when(server.start(PORT)).thenReturn(CompletableFuture.completedFuture(PORT));
 
     transport.start();
@@ -56,6 +59,18 @@ class RuntimeTransportTest {
     verify(server).start(PORT);
   }
 
+  @Test
+  void startConnectsMetricsApi() {
+    Router router = mock(Router.class, RETURNS_DEEP_STUBS);
+    when(server.createRouter()).thenReturn(router);
+    when(server.start(PORT)).thenReturn(CompletableFuture.completedFuture(PORT));
+
+    transport.start();
+
+    verify(router).get("/metrics");
+    verify(server).mountSubRouter(RUNTIME_API_ROOT_PATH, router);
+  }
+
   @Test
   void connectServiceApi() {
     Router serviceRouter = mock(Router.class);
@@ -24,11 +24,18 @@ import static org.mockito.Mockito.when;
 
 import com.exonum.binding.common.crypto.PublicKey;
 import com.exonum.binding.core.blockchain.BlockchainData;
+import com.exonum.binding.core.runtime.RuntimeEvents.ReadRequestEvent;
 import com.exonum.binding.core.transaction.RawTransaction;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.function.Function;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -75,7 +82,24 @@ class ServiceNodeProxyIntegrationTest {
   void withSnapshot() {
     decorator.withBlockchainData(SNAPSHOT_FUNCTION);
 
-    verify(node).withSnapshot(any(Function.class));
+    verify(node).withSharedSnapshot(any(Function.class));
+  }
+
+  @Test
+  void withSnapshotEmitsFlightRecorderEvent(@TempDir Path tempDir) throws Exception {
+    Path recordingFile = tempDir.resolve("read.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(ReadRequestEvent.class);
+      recording.start();
+      decorator.withBlockchainData(SNAPSHOT_FUNCTION);
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.get(0);
+    assertThat(event.getString("service")).isEqualTo(SERVICE_NAME);
   }
 
   @Test
@@ -226,12 +226,15 @@ class ServiceRuntimeAdapterIntegrationTest {
     InstanceStatus status = InstanceStatus.newBuilder()
         .setSimple(Simple.ACTIVE)
         .build();
+    int blockHooks = ServiceWrapper.AFTER_TRANSACTIONS_HOOK;
+    when(serviceRuntime.getBlockHooks(serviceId)).thenReturn(blockHooks);
 
-    serviceRuntimeAdapter
+    int actualHooks = serviceRuntimeAdapter
         .updateServiceStatus(instanceSpec.toByteArray(), status.toByteArray());
 
     ServiceInstanceSpec expectedSpec = ServiceInstanceSpec
         .newInstance(serviceName, serviceId, ServiceArtifactId.fromProto(artifact));
     verify(serviceRuntime).updateInstanceStatus(expectedSpec, status);
+    assertThat(actualHooks).isEqualTo(blockHooks);
   }
 }
@@ -20,6 +20,7 @@ import static com.exonum.binding.core.runtime.ServiceWrapper.DEFAULT_INTERFACE_N
 import static com.exonum.binding.test.Bytes.bytes;
 import static com.google.common.collect.Comparators.isInStrictOrder;
 import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -39,6 +40,9 @@ import com.exonum.binding.common.runtime.ServiceArtifactId;
 import com.exonum.binding.core.blockchain.BlockchainData;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.runtime.RuntimeEvents.ArtifactDeploymentEvent;
+import com.exonum.binding.core.runtime.RuntimeEvents.BlockHookEvent;
+import com.exonum.binding.core.runtime.RuntimeEvents.TransactionExecutionEvent;
 import com.exonum.binding.core.service.BlockCommittedEvent;
 import com.exonum.binding.core.service.Configuration;
 import com.exonum.binding.core.service.ExecutionContext;
@@ -51,6 +55,7 @@ import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus;
 import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus.Simple;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
@@ -59,10 +64,20 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
@@ -170,6 +185,55 @@ class ServiceRuntimeIntegrationTest {
     assertFalse(serviceRuntime.isArtifactDeployed(serviceId));
   }
 
+  @Test
+  void deployArtifactEmitsFlightRecorderEvent(@TempDir Path tempDir) throws Exception {
+    serviceRuntime.initialize(mock(NodeProxy.class));
+
+    ServiceArtifactId serviceId = ServiceArtifactId.newJavaId("com.acme/foo-service", "1.0.0");
+    String artifactFilename = "foo-service.jar";
+    LoadedServiceDefinition serviceDefinition = LoadedServiceDefinition
+        .newInstance(serviceId, TestServiceModule::new);
+    when(serviceLoader.loadService(ARTIFACTS_DIR.resolve(artifactFilename)))
+        .thenReturn(serviceDefinition);
+
+    List<RecordedEvent> events;
+    try (Recording recording = startRecording(ArtifactDeploymentEvent.class)) {
+      serviceRuntime.deployArtifact(serviceId, artifactFilename);
+      events = stopRecording(recording, ArtifactDeploymentEvent.class,
+          tempDir.resolve("deploy.jfr"));
+    }
+
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.get(0);
+    assertThat(event.getString("artifactId")).isEqualTo(serviceId.toString());
+    assertThat(event.getString("filename")).isEqualTo(artifactFilename);
+    assertThat(event.getBoolean("succeeded")).isTrue();
+  }
+
+  @Test
+  void deployArtifactFailedEmitsFlightRecorderEvent(@TempDir Path tempDir) throws Exception {
+    serviceRuntime.initialize(mock(NodeProxy.class));
+
+    ServiceArtifactId serviceId = ServiceArtifactId.newJavaId("com.acme/actual", "1.0.0");
+    String artifactFilename = "foo-service.jar";
+    when(serviceLoader.loadService(ARTIFACTS_DIR.resolve(artifactFilename)))
+        .thenThrow(new ServiceLoadingException("Boom"));
+
+    List<RecordedEvent> events;
+    try (Recording recording = startRecording(ArtifactDeploymentEvent.class)) {
+      assertThrows(ServiceLoadingException.class,
+          () -> serviceRuntime.deployArtifact(serviceId, artifactFilename));
+      events = stopRecording(recording, ArtifactDeploymentEvent.class,
+          tempDir.resolve("deploy.jfr"));
+    }
+
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.get(0);
+    assertThat(event.getString("artifactId")).isEqualTo(serviceId.toString());
+    assertThat(event.getString("filename")).isEqualTo(artifactFilename);
+    assertThat(event.getBoolean("succeeded")).isFalse();
+  }
+
   @Test
   void startAddingService() {
     serviceRuntime.initialize(mock(NodeProxy.class));
@@ -488,6 +552,16 @@ class ServiceRuntimeIntegrationTest {
     inOrder.verify(node).close();
   }
 
+  @Test
+  void afterCommitReleasesSharedSnapshot() {
+    NodeProxy node = mock(NodeProxy.class);
+    serviceRuntime.initialize(node);
+
+    serviceRuntime.afterCommit(mockSnapshot(), OptionalInt.empty(), 1L);
+
+    verify(node).releaseSharedSnapshot();
+  }
+
   @Test
   void shutdownIfStopFailureShallUnloadArtifacts() throws InterruptedException {
     IllegalStateException stopFailure = new IllegalStateException("Server#stop failure");
@@ -558,6 +632,37 @@ class ServiceRuntimeIntegrationTest {
       }
     }
 
+    @Test
+    void beforeTransactionsDoesNotWaitForLifecycleOperations() throws Exception {
+      // Block a lifecycle operation in another thread
+      ServiceArtifactId otherArtifactId = ServiceArtifactId
+          .newJavaId("com.acme/bar-service", "1.0.0");
+      CountDownLatch lifecycleStarted = new CountDownLatch(1);
+      CountDownLatch lifecycleReleased = new CountDownLatch(1);
+      when(serviceLoader.findService(otherArtifactId)).thenAnswer(invocation -> {
+        lifecycleStarted.countDown();
+        lifecycleReleased.await();
+        return Optional.empty();
+      });
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        Future<Boolean> deployed = executor
+            .submit(() -> serviceRuntime.isArtifactDeployed(otherArtifactId));
+        lifecycleStarted.await();
+
+        // Check the operation on the service completes while the lifecycle operation is blocked
+        BlockchainData blockchainData = mock(BlockchainData.class);
+        serviceRuntime.beforeTransactions(TEST_ID, blockchainData);
+
+        verify(serviceWrapper).beforeTransactions(any(ExecutionContext.class));
+        lifecycleReleased.countDown();
+        assertFalse(deployed.get());
+      } finally {
+        lifecycleReleased.countDown();
+        executor.shutdownNow();
+      }
+    }
+
     @Test
     void executeTransactionUnknownService() throws Exception {
       try (Database database = TemporaryDb.newInstance();
@@ -576,6 +681,72 @@ class ServiceRuntimeIntegrationTest {
       }
     }
 
+    @Test
+    void executeTransactionEmitsFlightRecorderEvent(@TempDir Path tempDir) throws Exception {
+      String interfaceName = DEFAULT_INTERFACE_NAME;
+      int txId = 1;
+      BlockchainData blockchainData = mock(BlockchainData.class);
+
+      List<RecordedEvent> events;
+      try (Recording recording = startRecording(TransactionExecutionEvent.class)) {
+        serviceRuntime.executeTransaction(TEST_ID, interfaceName, txId, bytes(127),
+            blockchainData, 0, TEST_HASH, TEST_PUBLIC_KEY);
+        events = stopRecording(recording, TransactionExecutionEvent.class,
+            tempDir.resolve("tx.jfr"));
+      }
+
+      assertThat(events).hasSize(1);
+      RecordedEvent event = events.get(0);
+      assertThat(event.getString("service")).isEqualTo(TEST_NAME);
+      assertThat(event.getString("interfaceName")).isEqualTo(interfaceName);
+      assertThat(event.getInt("txId")).isEqualTo(txId);
+      assertThat(event.getBoolean("succeeded")).isTrue();
+    }
+
+    @Test
+    void executeTransactionFailedEmitsFlightRecorderEvent(@TempDir Path tempDir)
+        throws Exception {
+      String interfaceName = DEFAULT_INTERFACE_NAME;
+      int txId = 1;
+      byte[] arguments = bytes(127);
+      BlockchainData blockchainData = mock(BlockchainData.class);
+      doThrow(RuntimeException.class).when(serviceWrapper)
+          .executeTransaction(eq(interfaceName), eq(txId), eq(arguments), eq(0),
+              any(ExecutionContext.class));
+
+      List<RecordedEvent> events;
+      try (Recording recording = startRecording(TransactionExecutionEvent.class)) {
+        assertThrows(RuntimeException.class,
+            () -> serviceRuntime.executeTransaction(TEST_ID, interfaceName, txId, arguments,
+                blockchainData, 0, TEST_HASH, TEST_PUBLIC_KEY));
+        events = stopRecording(recording, TransactionExecutionEvent.class,
+            tempDir.resolve("tx.jfr"));
+      }
+
+      assertThat(events).hasSize(1);
+      RecordedEvent event = events.get(0);
+      assertThat(event.getString("service")).isEqualTo(TEST_NAME);
+      assertThat(event.getInt("txId")).isEqualTo(txId);
+      assertThat(event.getBoolean("succeeded")).isFalse();
+    }
+
+    @Test
+    void beforeTransactionsEmitsFlightRecorderEvent(@TempDir Path tempDir) throws Exception {
+      BlockchainData blockchainData = mock(BlockchainData.class);
+
+      List<RecordedEvent> events;
+      try (Recording recording = startRecording(BlockHookEvent.class)) {
+        serviceRuntime.beforeTransactions(TEST_ID, blockchainData);
+        events = stopRecording(recording, BlockHookEvent.class, tempDir.resolve("hook.jfr"));
+      }
+
+      assertThat(events).hasSize(1);
+      RecordedEvent event = events.get(0);
+      assertThat(event.getString("service")).isEqualTo(TEST_NAME);
+      assertThat(event.getString("hook")).isEqualTo("before_transactions");
+      assertThat(event.getBoolean("succeeded")).isTrue();
+    }
+
     @Test
     void beforeTransactionsSingleService() throws CloseFailuresException {
       try (Database database = TemporaryDb.newInstance();
@@ -624,11 +795,11 @@ class ServiceRuntimeIntegrationTest {
 
     @Test
     void afterCommitSingleService() {
-      Snapshot snapshot = mock(Snapshot.class);
+      Snapshot snapshot = mockSnapshot();
       OptionalInt validatorId = OptionalInt.of(1);
       long height = 2L;
       BlockchainData blockchainData = mock(BlockchainData.class);
-      when(blockchainDataFactory.fromRawAccess(snapshot, TEST_NAME))
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), eq(TEST_NAME)))
           .thenReturn(blockchainData);
 
       serviceRuntime.afterCommit(snapshot, validatorId, height);
@@ -642,13 +813,29 @@ class ServiceRuntimeIntegrationTest {
       assertThat(actual.getSnapshot()).isEqualTo(blockchainData);
     }
 
+    @Test
+    void afterCommitDestroysServiceDataAfterHandlerCompletes() {
+      Snapshot snapshot = mockSnapshot();
+      BlockchainData blockchainData = mock(BlockchainData.class);
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), eq(TEST_NAME)))
+          .thenReturn(blockchainData);
+
+      serviceRuntime.afterCommit(snapshot, OptionalInt.empty(), 2L);
+
+      ArgumentCaptor<Cleaner> ac = ArgumentCaptor.forClass(Cleaner.class);
+      verify(blockchainDataFactory).fromRawAccess(eq(snapshot), ac.capture(), eq(TEST_NAME));
+      Cleaner serviceScope = ac.getValue();
+      assertThat(serviceScope.isClosed()).isTrue();
+      assertThat(snapshot.getCleaner().isClosed()).isFalse();
+    }
+
     @Test
     void afterCommitSingleServiceThrowingException() {
-      Snapshot snapshot = mock(Snapshot.class);
+      Snapshot snapshot = mockSnapshot();
       OptionalInt validatorId = OptionalInt.of(1);
       long height = 2L;
       BlockchainData blockchainData = mock(BlockchainData.class);
-      when(blockchainDataFactory.fromRawAccess(snapshot, TEST_NAME))
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), eq(TEST_NAME)))
           .thenReturn(blockchainData);
       doThrow(RuntimeException.class).when(serviceWrapper)
           .afterCommit(any(BlockCommittedEvent.class));
@@ -658,6 +845,45 @@ class ServiceRuntimeIntegrationTest {
 
       verify(serviceWrapper).afterCommit(any(BlockCommittedEvent.class));
     }
+
+    @Test
+    void afterCommitEmitsFlightRecorderEvent(@TempDir Path tempDir) throws Exception {
+      Snapshot snapshot = mockSnapshot();
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), eq(TEST_NAME)))
+          .thenReturn(mock(BlockchainData.class));
+
+      List<RecordedEvent> events;
+      try (Recording recording = startRecording(BlockHookEvent.class)) {
+        serviceRuntime.afterCommit(snapshot, OptionalInt.empty(), 2L);
+        events = stopRecording(recording, BlockHookEvent.class, tempDir.resolve("hook.jfr"));
+      }
+
+      assertThat(events).hasSize(1);
+      RecordedEvent event = events.get(0);
+      assertThat(event.getString("service")).isEqualTo(TEST_NAME);
+      assertThat(event.getString("hook")).isEqualTo("after_commit");
+      assertThat(event.getBoolean("succeeded")).isTrue();
+    }
+
+    @Test
+    void afterCommitFailedEmitsFlightRecorderEvent(@TempDir Path tempDir) throws Exception {
+      Snapshot snapshot = mockSnapshot();
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), eq(TEST_NAME)))
+          .thenReturn(mock(BlockchainData.class));
+      doThrow(RuntimeException.class).when(serviceWrapper)
+          .afterCommit(any(BlockCommittedEvent.class));
+
+      List<RecordedEvent> events;
+      try (Recording recording = startRecording(BlockHookEvent.class)) {
+        serviceRuntime.afterCommit(snapshot, OptionalInt.empty(), 2L);
+        events = stopRecording(recording, BlockHookEvent.class, tempDir.resolve("hook.jfr"));
+      }
+
+      assertThat(events).hasSize(1);
+      RecordedEvent event = events.get(0);
+      assertThat(event.getString("hook")).isEqualTo("after_commit");
+      assertThat(event.getBoolean("succeeded")).isFalse();
+    }
   }
 
   private static byte[] anyConfiguration() {
@@ -720,9 +946,9 @@ class ServiceRuntimeIntegrationTest {
           .next();
       doThrow(RuntimeException.class).when(service1).afterCommit(any(BlockCommittedEvent.class));
 
-      Snapshot snapshot = mock(Snapshot.class);
+      Snapshot snapshot = mockSnapshot();
       BlockchainData blockchainData = mock(BlockchainData.class);
-      when(blockchainDataFactory.fromRawAccess(eq(snapshot), anyString()))
+      when(blockchainDataFactory.fromRawAccess(eq(snapshot), any(Cleaner.class), anyString()))
           .thenReturn(blockchainData);
       OptionalInt validatorId = OptionalInt.of(1);
       long height = 2L;
@@ -740,11 +966,41 @@ class ServiceRuntimeIntegrationTest {
       // Verify the blockchain data instantiation
       InOrder dataOrder = Mockito.inOrder(blockchainDataFactory);
       for (ServiceWrapper service : services) {
-        dataOrder.verify(blockchainDataFactory).fromRawAccess(snapshot, service.getName());
+        dataOrder.verify(blockchainDataFactory)
+            .fromRawAccess(eq(snapshot), any(Cleaner.class), eq(service.getName()));
       }
     }
   }
 
+  /**
+   * Starts a Flight Recorder recording of the events of the given type.
+   */
+  private static Recording startRecording(Class<? extends Event> eventType) {
+    Recording recording = new Recording();
+    recording.enable(eventType);
+    recording.start();
+    return recording;
+  }
+
+  /**
+   * Stops the recording and returns the recorded events of the given type.
+   */
+  private static List<RecordedEvent> stopRecording(Recording recording,
+      Class<? extends Event> eventType, Path recordingFile) throws IOException {
+    recording.stop();
+    recording.dump(recordingFile);
+    String eventName = EventType.getEventType(eventType).getName();
+    return RecordingFile.readAllEvents(recordingFile).stream()
+        .filter(e -> e.getEventType().getName().equals(eventName))
+        .collect(toList());
+  }
+
+  private static Snapshot mockSnapshot() {
+    Snapshot snapshot = mock(Snapshot.class);
+    when(snapshot.getCleaner()).thenReturn(new Cleaner());
+    return snapshot;
+  }
+
   private static ExecutionContext zeroContext(int expectedId, String expectedName,
       BlockchainData expectedData) {
     return ExecutionContext.builder()
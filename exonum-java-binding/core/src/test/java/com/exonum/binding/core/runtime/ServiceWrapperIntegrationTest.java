@@ -16,7 +16,9 @@
 
 package com.exonum.binding.core.runtime;
 
+import static com.exonum.binding.core.runtime.ServiceWrapper.AFTER_TRANSACTIONS_HOOK;
 import static com.exonum.binding.core.runtime.ServiceWrapper.APPLY_CONFIGURATION_TX_ID;
+import static com.exonum.binding.core.runtime.ServiceWrapper.BEFORE_TRANSACTIONS_HOOK;
 import static com.exonum.binding.core.runtime.ServiceWrapper.CONFIGURE_INTERFACE_NAME;
 import static com.exonum.binding.core.runtime.ServiceWrapper.DEFAULT_INTERFACE_NAME;
 import static com.exonum.binding.core.runtime.ServiceWrapper.SUPERVISOR_SERVICE_ID;
@@ -27,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.exonum.binding.common.crypto.CryptoFunctions.Ed25519;
 import com.exonum.binding.common.crypto.PublicKey;
@@ -40,6 +43,7 @@ import com.exonum.binding.core.service.ExecutionContext;
 import com.exonum.binding.core.service.ExecutionException;
 import com.exonum.binding.core.service.Node;
 import com.exonum.binding.core.service.Service;
+import io.vertx.ext.web.Router;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -170,6 +174,30 @@ class ServiceWrapperIntegrationTest {
             context));
   }
 
+  @Test
+  void hasTransactionDefaultInterface() {
+    int txId = 2;
+    when(txInvoker.hasTransaction(txId)).thenReturn(true);
+    when(txInvoker.hasTransaction(txId + 1)).thenReturn(false);
+
+    assertThat(serviceWrapper.hasTransaction(DEFAULT_INTERFACE_NAME, txId)).isTrue();
+    assertThat(serviceWrapper.hasTransaction(DEFAULT_INTERFACE_NAME, txId + 1)).isFalse();
+  }
+
+  @Test
+  void hasTransactionConfigurableInterface() {
+    assertThat(serviceWrapper.hasTransaction(CONFIGURE_INTERFACE_NAME,
+        VERIFY_CONFIGURATION_TX_ID)).isTrue();
+    assertThat(serviceWrapper.hasTransaction(CONFIGURE_INTERFACE_NAME,
+        APPLY_CONFIGURATION_TX_ID)).isTrue();
+    assertThat(serviceWrapper.hasTransaction(CONFIGURE_INTERFACE_NAME, 100)).isFalse();
+  }
+
+  @Test
+  void hasTransactionUnknownInterface() {
+    assertThat(serviceWrapper.hasTransaction("unknown-interface", 1)).isFalse();
+  }
+
   @Test
   void executeVerifyConfiguration() {
     String interfaceName = CONFIGURE_INTERFACE_NAME;
@@ -349,6 +377,29 @@ class ServiceWrapperIntegrationTest {
     assertThat(serviceWrapper.getPublicApiRelativePath()).isEqualTo(expectedPathFragment);
   }
 
+  @Test
+  void blockHooksOfServiceWithDefaultHooks() {
+    serviceWrapper = new ServiceWrapper(new NoHooksService(), instanceSpec, txInvoker, node);
+
+    assertThat(serviceWrapper.getBlockHooks()).isZero();
+  }
+
+  @Test
+  void blockHooksOfServiceOverridingHooks() {
+    serviceWrapper = new ServiceWrapper(new AfterTransactionsService(), instanceSpec, txInvoker,
+        node);
+
+    assertThat(serviceWrapper.getBlockHooks()).isEqualTo(AFTER_TRANSACTIONS_HOOK);
+  }
+
+  @Test
+  void blockHooksOfServiceInheritingHooks() {
+    serviceWrapper = new ServiceWrapper(new AllHooksService(), instanceSpec, txInvoker, node);
+
+    assertThat(serviceWrapper.getBlockHooks())
+        .isEqualTo(BEFORE_TRANSACTIONS_HOOK | AFTER_TRANSACTIONS_HOOK);
+  }
+
   private static ExecutionContext.Builder anyContext() {
     return ExecutionContext.builder()
         .serviceName(TEST_SERVICE_NAME)
@@ -360,4 +411,19 @@ class ServiceWrapperIntegrationTest {
 
   private interface ConfigurableService extends Service, Configurable {
   }
+
+  private static class NoHooksService implements Service {
+    @Override
+    public void createPublicApiHandlers(Node node, Router router) {}
+  }
+
+  private static class AfterTransactionsService extends NoHooksService {
+    @Override
+    public void afterTransactions(ExecutionContext context) {}
+  }
+
+  private static class AllHooksService extends AfterTransactionsService {
+    @Override
+    public void beforeTransactions(ExecutionContext context) {}
+  }
 }
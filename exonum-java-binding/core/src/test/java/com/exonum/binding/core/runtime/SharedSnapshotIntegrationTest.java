@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.exonum.binding.core.blockchain.BlockchainData;
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.proxy.ProxyScope;
+import com.exonum.binding.core.storage.database.AbstractAccess;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.storage.database.TemporaryDb;
+import com.exonum.binding.core.storage.indices.IndexAddress;
+import com.exonum.binding.core.storage.indices.MapIndex;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/*
+It is a unit test marked as IT because it loads classes with native methods (which, in turn,
+load the native library in static initializers).
+ */
+@ExtendWith(MockitoExtension.class)
+class SharedSnapshotIntegrationTest {
+
+  private static final String SERVICE_NAME = "test-service";
+  private static final IndexAddress MAP_ADDRESS = IndexAddress.valueOf("test-map");
+
+  @Mock
+  private BlockchainDataFactory blockchainDataFactory;
+  private TemporaryDb db;
+  private Cleaner cleaner;
+  private SharedSnapshot sharedSnapshot;
+
+  @BeforeEach
+  void setUp() {
+    db = TemporaryDb.newInstance();
+    cleaner = new Cleaner();
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    sharedSnapshot = new SharedSnapshot(snapshot);
+  }
+
+  @AfterEach
+  void tearDown() throws CloseFailuresException {
+    cleaner.close();
+    db.close();
+  }
+
+  @Test
+  void hasSingleReferenceOnceCreated() {
+    assertThat(sharedSnapshot.getRefCount()).isEqualTo(1);
+  }
+
+  @Test
+  void releaseLastReferenceDestroysSnapshot() {
+    sharedSnapshot.retain();
+
+    sharedSnapshot.release();
+    assertThat(cleaner.isClosed()).isFalse();
+
+    sharedSnapshot.release();
+    assertThat(cleaner.isClosed()).isTrue();
+  }
+
+  @Test
+  void retainDestroyedSnapshot() {
+    sharedSnapshot.release();
+
+    assertThrows(IllegalStateException.class, () -> sharedSnapshot.retain());
+  }
+
+  @Test
+  void withBlockchainDataReusesBlockchainDataInSameThread() {
+    when(blockchainDataFactory.fromRawAccess(any(AbstractAccess.class), any(Cleaner.class),
+        eq(SERVICE_NAME))).thenAnswer(invocation -> mock(BlockchainData.class));
+
+    BlockchainData d1 = sharedSnapshot.withBlockchainData(SERVICE_NAME, blockchainDataFactory,
+        d -> d);
+    BlockchainData d2 = sharedSnapshot.withBlockchainData(SERVICE_NAME, blockchainDataFactory,
+        d -> d);
+
+    assertThat(d1).isSameAs(d2);
+    verify(blockchainDataFactory).fromRawAccess(any(AbstractAccess.class), any(Cleaner.class),
+        eq(SERVICE_NAME));
+  }
+
+  @Test
+  void withBlockchainDataUsesThreadSnapshots() {
+    when(blockchainDataFactory.fromRawAccess(any(AbstractAccess.class), any(Cleaner.class),
+        eq(SERVICE_NAME))).thenAnswer(invocation -> mock(BlockchainData.class));
+
+    BlockchainData d1 = sharedSnapshot.withBlockchainData(SERVICE_NAME, blockchainDataFactory,
+        d -> d);
+    BlockchainData d2 = CompletableFuture.supplyAsync(() ->
+        sharedSnapshot.withBlockchainData(SERVICE_NAME, blockchainDataFactory, d -> d))
+        .join();
+
+    assertThat(d1).isNotSameAs(d2);
+    ArgumentCaptor<AbstractAccess> accesses = ArgumentCaptor.forClass(AbstractAccess.class);
+    verify(blockchainDataFactory, times(2)).fromRawAccess(accesses.capture(),
+        any(Cleaner.class), eq(SERVICE_NAME));
+    AbstractAccess s1 = accesses.getAllValues().get(0);
+    AbstractAccess s2 = accesses.getAllValues().get(1);
+    assertThat(s1).isNotSameAs(s2);
+    assertThat(s1.getAccessNativeHandle()).isNotEqualTo(s2.getAccessNativeHandle());
+  }
+
+  @Test
+  void destroyDestroysThreadProxies() {
+    ArgumentCaptor<Cleaner> threadCleaner = ArgumentCaptor.forClass(Cleaner.class);
+    when(blockchainDataFactory.fromRawAccess(any(AbstractAccess.class), threadCleaner.capture(),
+        eq(SERVICE_NAME))).thenReturn(mock(BlockchainData.class));
+    sharedSnapshot.withBlockchainData(SERVICE_NAME, blockchainDataFactory, d -> d);
+
+    sharedSnapshot.release();
+
+    assertThat(threadCleaner.getValue().isClosed()).isTrue();
+  }
+
+  @Test
+  void withBlockchainDataDestroysThreadProxiesIfTooMany() {
+    ArgumentCaptor<Cleaner> threadCleaner = ArgumentCaptor.forClass(Cleaner.class);
+    when(blockchainDataFactory.fromRawAccess(any(AbstractAccess.class), threadCleaner.capture(),
+        eq(SERVICE_NAME))).thenAnswer(invocation -> mock(BlockchainData.class));
+
+    sharedSnapshot.withBlockchainData(SERVICE_NAME, blockchainDataFactory, d -> {
+      Cleaner c = threadCleaner.getValue();
+      for (int i = 0; i < SharedSnapshot.MAX_THREAD_PROXIES; i++) {
+        c.add(() -> { });
+      }
+      return d;
+    });
+
+    assertThat(threadCleaner.getValue().isClosed()).isTrue();
+    assertThat(cleaner.isClosed()).isFalse();
+    // The next request gets new proxies
+    sharedSnapshot.withBlockchainData(SERVICE_NAME, blockchainDataFactory, d -> d);
+    assertThat(threadCleaner.getAllValues()).hasSize(2);
+  }
+
+  @Test
+  void withBlockchainDataActivatesThreadScopeForRequest() {
+    ArgumentCaptor<Cleaner> threadCleaner = ArgumentCaptor.forClass(Cleaner.class);
+    when(blockchainDataFactory.fromRawAccess(any(AbstractAccess.class), threadCleaner.capture(),
+        eq(SERVICE_NAME))).thenReturn(mock(BlockchainData.class));
+
+    boolean activeInRequest = sharedSnapshot.withBlockchainData(SERVICE_NAME,
+        blockchainDataFactory,
+        d -> threadCleaner.getValue().getScope().map(ProxyScope::isActive).orElse(false));
+
+    assertThat(activeInRequest).isTrue();
+    ProxyScope scope = threadCleaner.getValue().getScope().get();
+    assertThat(scope.isActive()).isFalse();
+  }
+
+  @Test
+  void leakedIndexFailsOutsideOfRequest() {
+    BlockchainDataFactory factory = new BlockchainDataFactory() {};
+    MapIndex<String, String> leakedMap = sharedSnapshot.withBlockchainData(SERVICE_NAME,
+        factory, d -> d.getExecutingServiceData().getMap(MAP_ADDRESS, string(), string()));
+
+    assertThrows(IllegalStateException.class, () -> leakedMap.get("k1"));
+
+    // The index may be used again in a subsequent request in the same thread
+    MapIndex<String, String> map = sharedSnapshot.withBlockchainData(SERVICE_NAME, factory,
+        d -> {
+          MapIndex<String, String> m = d.getExecutingServiceData()
+              .getMap(MAP_ADDRESS, string(), string());
+          assertThat(m.get("k1")).isNull();
+          return m;
+        });
+    assertThat(map).isSameAs(leakedMap);
+  }
+
+  @Test
+  void leakedIndexFailsInOtherThread() {
+    BlockchainDataFactory factory = new BlockchainDataFactory() {};
+
+    sharedSnapshot.withBlockchainData(SERVICE_NAME, factory, d -> {
+      MapIndex<String, String> map = d.getExecutingServiceData()
+          .getMap(MAP_ADDRESS, string(), string());
+      CompletionException e = assertThrows(CompletionException.class,
+          () -> CompletableFuture.runAsync(() -> map.get("k1")).join());
+      assertThat(e).hasCauseInstanceOf(IllegalStateException.class);
+      return map;
+    });
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.runtime;
+
+import static com.exonum.binding.core.runtime.ServiceRuntimeAdapter.TX_INFO_SIZE;
+import static com.exonum.binding.core.runtime.ServiceWrapper.DEFAULT_INTERFACE_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exonum.binding.common.runtime.ServiceArtifactId;
+import com.exonum.binding.core.blockchain.BlockchainData;
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.proxy.NativeDestructor;
+import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.service.ExecutionContext;
+import com.exonum.binding.core.service.Node;
+import com.exonum.binding.core.service.Service;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
+import com.exonum.binding.core.transaction.Transaction;
+import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus;
+import com.exonum.messages.core.runtime.Lifecycle.InstanceStatus.Simple;
+import com.sun.management.ThreadMXBean;
+import io.vertx.ext.web.Router;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the bytes the runtime allocates on the Java heap for each transaction, in addition
+ * to the allocations of the service. The transactions are executed through
+ * {@link ServiceRuntimeAdapter#executeTransaction} and {@link ServiceRuntime}, with a service
+ * that allocates nothing and a stub of the native database access.
+ */
+class TransactionAllocationBudgetIntegrationTest {
+
+  /**
+   * The bytes allocated per transaction, measured on JDK 17 when the budget was last revised:
+   * 408 bytes when interpreted, or compiled by C1 or tiered C2; and 336 bytes when compiled
+   * by C2 only. They include the cleaner, the transaction info, the execution context,
+   * the JFR events, and the native handle of the database access; but not its proxy,
+   * which the stub does not create.
+   */
+  private static final long BASELINE_BYTES = 408;
+
+  /**
+   * The budget per transaction: the baseline with a quarter of it for the differences
+   * between the JVM versions and configurations.
+   */
+  private static final long BUDGET_BYTES = BASELINE_BYTES * 5 / 4;
+
+  private static final int WARMUP_TRANSACTIONS = 200_000;
+  private static final int MEASURED_TRANSACTIONS = 100_000;
+
+  private static final int SERVICE_ID = 17;
+  private static final String SERVICE_NAME = "test-service";
+  private static final int TX_ID = 1;
+  private static final long BLOCKCHAIN_DATA_HANDLE = 0x0A;
+
+  private final byte[] arguments = new byte[8];
+  private final ByteBuffer txInfo = ByteBuffer.allocateDirect(TX_INFO_SIZE);
+  private ServiceRuntimeAdapter runtimeAdapter;
+
+  @BeforeEach
+  void setUp() {
+    ServiceLoader serviceLoader = mock(ServiceLoader.class);
+    ServicesFactory servicesFactory = mock(ServicesFactory.class);
+    RuntimeMetrics metrics = new RuntimeMetrics();
+    ServiceRuntime serviceRuntime = new ServiceRuntime(serviceLoader, servicesFactory,
+        mock(RuntimeTransport.class), mock(BlockchainDataFactory.class), Paths.get("/tmp/"),
+        AfterCommitDispatchConfig.sequential(), false, metrics);
+    serviceRuntime.initialize(mock(NodeProxy.class));
+
+    // Add the service
+    ServiceArtifactId artifactId = ServiceArtifactId.newJavaId("com.acme/foo-service", "1.0.0");
+    ServiceInstanceSpec instanceSpec = ServiceInstanceSpec.newInstance(SERVICE_NAME,
+        SERVICE_ID, artifactId);
+    LoadedServiceDefinition serviceDefinition = LoadedServiceDefinition
+        .newInstance(artifactId, TestServiceModule::new);
+    when(serviceLoader.findService(artifactId))
+        .thenReturn(Optional.of(serviceDefinition));
+    NoOpService service = new NoOpService();
+    ServiceWrapper serviceWrapper = new ServiceWrapper(service, instanceSpec,
+        new TransactionInvoker(service), mock(Node.class));
+    when(servicesFactory.createService(any(), any(), any()))
+        .thenReturn(serviceWrapper);
+    serviceRuntime.updateInstanceStatus(instanceSpec, InstanceStatus.newBuilder()
+        .setSimple(Simple.ACTIVE)
+        .build());
+
+    runtimeAdapter = new ServiceRuntimeAdapter(serviceRuntime,
+        new StubAccessFactory(mock(BlockchainData.class)), metrics);
+  }
+
+  @Test
+  void transactionAllocationsFitBudget() throws CloseFailuresException {
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported()
+        && threads.isThreadAllocatedMemoryEnabled());
+    long threadId = Thread.currentThread().getId();
+
+    executeTransactions(WARMUP_TRANSACTIONS);
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    executeTransactions(MEASURED_TRANSACTIONS);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    long allocatedPerTransaction = allocated / MEASURED_TRANSACTIONS;
+    assertThat(allocatedPerTransaction).isLessThanOrEqualTo(BUDGET_BYTES);
+  }
+
+  private void executeTransactions(int numTransactions) throws CloseFailuresException {
+    for (int i = 0; i < numTransactions; i++) {
+      runtimeAdapter.executeTransaction(SERVICE_ID, null, TX_ID, arguments,
+          BLOCKCHAIN_DATA_HANDLE, 0, txInfo);
+    }
+  }
+
+  public static class NoOpService implements Service {
+
+    @Transaction(TX_ID)
+    public void noOp(byte[] arguments, ExecutionContext context) {}
+
+    @Override
+    public void createPublicApiHandlers(Node node, Router router) {
+      // no-op
+    }
+  }
+
+  /**
+   * An access factory that registers the native handle of the database access in the cleaner,
+   * as the proxies do, without a native peer.
+   */
+  private static class StubAccessFactory implements AccessFactory {
+
+    private static final NativeDestructor DESTRUCTOR =
+        NativeDestructor.of(BlockchainData.class, handle -> { });
+
+    private final BlockchainData blockchainData;
+
+    StubAccessFactory(BlockchainData blockchainData) {
+      this.blockchainData = blockchainData;
+    }
+
+    @Override
+    public Snapshot createSnapshot(long nativeHandle, Cleaner cleaner) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Fork createFork(long nativeHandle, Cleaner cleaner) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BlockchainData createBlockchainData(long nativeHandle, Cleaner cleaner) {
+      cleaner.add(new NativeHandle(nativeHandle), DESTRUCTOR);
+      return blockchainData;
+    }
+  }
+}
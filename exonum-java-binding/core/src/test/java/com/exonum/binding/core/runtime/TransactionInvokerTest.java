@@ -37,6 +37,7 @@ class TransactionInvokerTest {
 
   static final int TRANSACTION_ID = 1;
   static final int TRANSACTION_ID_2 = 2;
+  static final int TRANSACTION_ID_3 = 3;
 
   private static final byte[] ARGUMENTS = new byte[0];
   @Mock
@@ -63,6 +64,15 @@ class TransactionInvokerTest {
         .contains(String.format("No method with transaction id (%s)", invalidTransactionId));
   }
 
+  @Test
+  void hasTransaction() {
+    TransactionInvoker invoker = new TransactionInvoker(new ValidService());
+
+    assertThat(invoker.hasTransaction(TRANSACTION_ID)).isTrue();
+    assertThat(invoker.hasTransaction(TRANSACTION_ID_2)).isTrue();
+    assertThat(invoker.hasTransaction(Integer.MAX_VALUE)).isFalse();
+  }
+
   @Test
   void invokeThrowingExecutionException() {
     ExecutionException e = new ExecutionException((byte) 0);
@@ -104,6 +114,27 @@ class TransactionInvokerTest {
     verify(service).transactionMethod(point, context);
   }
 
+  @Test
+  void invokeProtobufArgumentsServiceInvalidArguments() {
+    TransactionInvoker invoker = new TransactionInvoker(new ProtobufArgumentsService());
+    byte[] invalidArguments = {(byte) 0xFF};
+
+    assertThrows(IllegalArgumentException.class,
+        () -> invoker.invokeTransaction(TRANSACTION_ID, invalidArguments, context));
+  }
+
+  @Test
+  void invokeInheritedTransactionMethod() {
+    InheritingService service = spy(new InheritingService());
+    TransactionInvoker invoker = new TransactionInvoker(service);
+
+    invoker.invokeTransaction(TRANSACTION_ID, ARGUMENTS, context);
+    invoker.invokeTransaction(TRANSACTION_ID_3, ARGUMENTS, context);
+
+    verify(service).transactionMethod(ARGUMENTS, context);
+    verify(service).transactionMethod3(ARGUMENTS, context);
+  }
+
   static class BasicService implements Service {
 
     @Override
@@ -142,4 +173,11 @@ class TransactionInvokerTest {
     @SuppressWarnings("WeakerAccess") // Should be accessible
     public void transactionMethod(TestProtoMessages.Point arguments, ExecutionContext context) {}
   }
+
+  public static class InheritingService extends ValidService {
+
+    @Transaction(TRANSACTION_ID_3)
+    @SuppressWarnings("WeakerAccess") // Should be accessible
+    public void transactionMethod3(byte[] arguments, ExecutionContext context) {}
+  }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.database;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.storage.indices.IndexAddress;
+import com.exonum.binding.core.storage.indices.MapIndex;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentSnapshotViewIntegrationTest {
+
+  private static final IndexAddress MAP_ADDRESS = IndexAddress.valueOf("test_map");
+  private static final int NUM_THREADS = 4;
+  private static final int NUM_ENTRIES = 100;
+
+  private Cleaner cleaner;
+  private TemporaryDb db;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    cleaner = new Cleaner();
+    db = TemporaryDb.newInstance();
+    cleaner.add(db::close);
+    executor = Executors.newFixedThreadPool(NUM_THREADS);
+  }
+
+  @AfterEach
+  void tearDown() throws CloseFailuresException {
+    executor.shutdownNow();
+    cleaner.close();
+  }
+
+  @Test
+  void getSnapshotReturnsSameSnapshotInSameThread() throws CloseFailuresException {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    try (ConcurrentSnapshotView view = snapshot.newConcurrentView()) {
+      Snapshot s1 = view.getSnapshot();
+      Snapshot s2 = view.getSnapshot();
+
+      assertThat(s1).isSameAs(s2);
+      assertThat(s1).isNotSameAs(snapshot);
+      // The thread snapshot has its own native access
+      assertThat(s1.getAccessNativeHandle()).isNotEqualTo(snapshot.getAccessNativeHandle());
+    }
+  }
+
+  @Test
+  void getSnapshotReturnsDifferentSnapshotsInDifferentThreads() throws CloseFailuresException {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    try (ConcurrentSnapshotView view = snapshot.newConcurrentView()) {
+      Snapshot s1 = view.getSnapshot();
+      Snapshot s2 = CompletableFuture.supplyAsync(view::getSnapshot, executor).join();
+
+      assertThat(s1).isNotSameAs(s2);
+      assertThat(s1.getAccessNativeHandle()).isNotEqualTo(s2.getAccessNativeHandle());
+    }
+  }
+
+  @Test
+  void getSnapshotReturnsSnapshotOfEachView() throws CloseFailuresException {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    try (ConcurrentSnapshotView view1 = snapshot.newConcurrentView();
+        ConcurrentSnapshotView view2 = snapshot.newConcurrentView()) {
+      Snapshot s1 = view1.getSnapshot();
+      Snapshot s2 = view2.getSnapshot();
+
+      assertThat(s1).isNotSameAs(s2);
+      assertThat(view1.getSnapshot()).isSameAs(s1);
+    }
+  }
+
+  @Test
+  void closeDestroysThreadSnapshots() throws CloseFailuresException {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    ConcurrentSnapshotView view = snapshot.newConcurrentView();
+    Snapshot s1 = view.getSnapshot();
+    Snapshot s2 = CompletableFuture.supplyAsync(view::getSnapshot, executor).join();
+
+    view.close();
+
+    assertThat(view.isClosed()).isTrue();
+    assertThrows(IllegalStateException.class, s1::getAccessNativeHandle);
+    assertThrows(IllegalStateException.class, s2::getAccessNativeHandle);
+    // The original snapshot remains valid
+    assertDoesNotThrow(snapshot::getAccessNativeHandle);
+  }
+
+  @Test
+  void destroyThreadSnapshot() throws CloseFailuresException {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    try (ConcurrentSnapshotView view = snapshot.newConcurrentView()) {
+      Snapshot s1 = view.getSnapshot();
+      Snapshot otherThreadSnapshot = CompletableFuture.supplyAsync(view::getSnapshot, executor)
+          .join();
+
+      view.destroyThreadSnapshot();
+
+      assertThrows(IllegalStateException.class, s1::getAccessNativeHandle);
+      // The snapshots of other threads remain valid
+      assertDoesNotThrow(otherThreadSnapshot::getAccessNativeHandle);
+      // The next snapshot of this thread is a new one
+      Snapshot s2 = view.getSnapshot();
+      assertThat(s2).isNotSameAs(s1);
+      assertDoesNotThrow(s2::getAccessNativeHandle);
+    }
+  }
+
+  @Test
+  void destroyThreadSnapshotWithoutSnapshot() throws CloseFailuresException {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    try (ConcurrentSnapshotView view = snapshot.newConcurrentView()) {
+      assertDoesNotThrow(view::destroyThreadSnapshot);
+    }
+  }
+
+  @Test
+  void getSnapshotFailsIfClosed() throws CloseFailuresException {
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    ConcurrentSnapshotView view = snapshot.newConcurrentView();
+
+    view.close();
+
+    assertThrows(IllegalStateException.class, view::getSnapshot);
+  }
+
+  @Test
+  void viewIsClosedWithSnapshot() throws CloseFailuresException {
+    Cleaner snapshotCleaner = new Cleaner();
+    Snapshot snapshot = db.createSnapshot(snapshotCleaner);
+    ConcurrentSnapshotView view = snapshot.newConcurrentView();
+    Snapshot s1 = view.getSnapshot();
+
+    snapshotCleaner.close();
+
+    assertThat(view.isClosed()).isTrue();
+    assertThrows(IllegalStateException.class, s1::getAccessNativeHandle);
+    assertThrows(IllegalStateException.class, view::getSnapshot);
+  }
+
+  @Test
+  void newConcurrentViewFailsIfSnapshotIsClosed() throws CloseFailuresException {
+    Cleaner snapshotCleaner = new Cleaner();
+    Snapshot snapshot = db.createSnapshot(snapshotCleaner);
+
+    snapshotCleaner.close();
+
+    assertThrows(IllegalStateException.class, snapshot::newConcurrentView);
+  }
+
+  @Test
+  void threadsReadSameSnapshot() throws Exception {
+    try (Cleaner forkCleaner = new Cleaner()) {
+      Fork fork = db.createFork(forkCleaner);
+      MapIndex<String, String> map = fork.getMap(MAP_ADDRESS, string(), string());
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+        map.put("k" + i, "v" + i);
+      }
+      db.merge(fork);
+    }
+
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    try (ConcurrentSnapshotView view = snapshot.newConcurrentView()) {
+      List<Callable<Boolean>> readers = IntStream.range(0, NUM_ENTRIES)
+          .mapToObj(i -> (Callable<Boolean>) () -> {
+            MapIndex<String, String> map = view.getSnapshot()
+                .getMap(MAP_ADDRESS, string(), string());
+            return ("v" + i).equals(map.get("k" + i));
+          })
+          .collect(toList());
+
+      for (Future<Boolean> result : executor.invokeAll(readers)) {
+        assertThat(result.get()).isTrue();
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 
+import com.exonum.binding.core.storage.indices.IndexAddress;
 import com.exonum.binding.core.storage.indices.StorageIndex;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -71,6 +72,84 @@ class OpenIndexRegistryTest {
     }
   }
 
+  @Nested
+  class WithSingleIndexAddress {
+
+    private final Access access = mock(Access.class, "access 1");
+    private final IndexAddress address = IndexAddress.valueOf("index_1");
+    private final StorageIndex index = mock(StorageIndex.class, "index 1");
+
+    @BeforeEach
+    void registerIndex() {
+      registry.registerIndexAddress(access, address, index);
+    }
+
+    @Test
+    void canFindRegisteredIndex() {
+      Optional<StorageIndex> actual = registry.findIndex(access, IndexAddress.valueOf("index_1"));
+
+      assertThat(actual).hasValue(index);
+    }
+
+    @Test
+    void findIndexRecordsHit() {
+      registry.findIndex(access, address);
+
+      OpenIndexCacheStatistics statistics = registry.getCacheStatistics();
+      assertThat(statistics.getHitCount()).isEqualTo(1);
+      assertThat(statistics.getMissCount()).isZero();
+    }
+
+    @Test
+    void cannotFindRegisteredIndexWithOtherAccess() {
+      Access otherAccess = mock(Access.class, "access 2");
+
+      Optional<StorageIndex> actual = registry.findIndex(otherAccess, address);
+
+      assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void registerThrowsIfAlreadyRegisteredSameAddress() {
+      StorageIndex otherIndex = mock(StorageIndex.class, "other index");
+
+      Exception e = assertThrows(IllegalArgumentException.class,
+          () -> registry.registerIndexAddress(access, address, otherIndex));
+
+      String message = e.getMessage();
+      assertThat(message).contains(String.valueOf(address))
+          .contains(String.valueOf(index))
+          .contains(String.valueOf(otherIndex));
+    }
+
+    @Test
+    void clearRemovesTheIndex() {
+      registry.clear();
+
+      Optional<StorageIndex> actual = registry.findIndex(access, address);
+
+      assertThat(actual).isEmpty();
+    }
+  }
+
+  @Test
+  void findUnknownIndexAddress() {
+    Access access = mock(Access.class);
+    Optional<StorageIndex> index = registry.findIndex(access, IndexAddress.valueOf("unknown"));
+
+    assertThat(index).isEmpty();
+  }
+
+  @Test
+  void findUnknownIndexAddressRecordsMiss() {
+    Access access = mock(Access.class);
+    registry.findIndex(access, IndexAddress.valueOf("unknown"));
+
+    OpenIndexCacheStatistics statistics = registry.getCacheStatistics();
+    assertThat(statistics.getHitCount()).isZero();
+    assertThat(statistics.getMissCount()).isEqualTo(1);
+  }
+
   @Test
   void findUnknownIndex() {
     long unknownId = 1024L;
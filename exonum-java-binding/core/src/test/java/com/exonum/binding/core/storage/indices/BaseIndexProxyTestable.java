@@ -30,6 +30,7 @@ import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
 import com.exonum.binding.core.storage.database.Access;
 import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.OpenIndexCacheStatistics;
 import com.exonum.binding.core.storage.database.Snapshot;
 import com.exonum.binding.core.storage.database.TemporaryDb;
 import com.exonum.binding.test.RequiresNativeLibrary;
@@ -154,6 +155,47 @@ abstract class BaseIndexProxyTestable<IndexT extends StorageIndex> {
     }
   }
 
+  @Test
+  void indexConstructorAllowsMultipleInstancesFromSnapshot() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      String name = "test_index";
+      Snapshot snapshot = database.createSnapshot(cleaner);
+      // The index does not exist in the database, but must be de-duplicated by its address
+      IndexT i1 = create(name, snapshot);
+      IndexT i2 = create(name, snapshot);
+
+      assertNotNull(i1);
+      assertThat(i2, sameInstance(i1));
+    }
+  }
+
+  @Test
+  void indexConstructorFindsOpenIndexByAddress() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      String name = "test_index";
+      Fork fork = database.createFork(cleaner);
+      create(name, fork);
+      OpenIndexCacheStatistics statistics = fork.getOpenIndexCacheStatistics();
+      long hits = statistics.getHitCount();
+
+      create(name, fork);
+
+      assertThat(statistics.getHitCount(), equalTo(hits + 1));
+    }
+  }
+
+  @Test
+  void indexConstructorThrowsIfAccessClosedAfterIndexOpen() throws CloseFailuresException {
+    Fork fork;
+    String name = "test_index";
+    try (Cleaner cleaner = new Cleaner()) {
+      fork = database.createFork(cleaner);
+      create(name, fork);
+    }
+
+    assertThrows(IllegalStateException.class, () -> create(name, fork));
+  }
+
   @Test
   void indexConstructorThrowsIfIndexWithSameNameButOtherTypeIsOpened()
       throws CloseFailuresException {
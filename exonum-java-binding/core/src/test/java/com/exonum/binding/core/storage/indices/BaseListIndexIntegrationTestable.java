@@ -42,6 +42,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -206,6 +207,55 @@ abstract class BaseListIndexIntegrationTestable
     }
   }
 
+  @Test
+  void getRange() {
+    runTestWithView(database::createFork, (l) -> {
+      List<String> elements = TestStorageItems.values;
+      l.addAll(elements);
+
+      List<String> range = l.getRange(1, 4);
+
+      assertThat(range, equalTo(elements.subList(1, 4)));
+    });
+  }
+
+  @Test
+  void getRangeWholeList() {
+    runTestWithView(database::createFork, (l) -> {
+      List<String> elements = TestStorageItems.values;
+      l.addAll(elements);
+
+      List<String> range = l.getRange(0, elements.size());
+
+      assertThat(range, equalTo(elements));
+    });
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {0, 1, 2})
+  void getRangeEmpty(long index) {
+    runTestWithView(database::createFork, (l) -> {
+      l.add(V1);
+      l.add(V2);
+
+      List<String> range = l.getRange(index, index);
+
+      assertTrue(range.isEmpty());
+    });
+  }
+
+  @Test
+  void getRangeFailsIfInvalidRange() {
+    runTestWithView(database::createFork, (l) -> {
+      l.add(V1);
+      l.add(V2);
+
+      assertThrows(IndexOutOfBoundsException.class, () -> l.getRange(-1, 1));
+      assertThrows(IndexOutOfBoundsException.class, () -> l.getRange(1, 0));
+      assertThrows(IndexOutOfBoundsException.class, () -> l.getRange(0, 3));
+    });
+  }
+
   @Test
   void getLastEmptyList() {
     runTestWithView(database::createFork, (l) -> {
@@ -508,6 +558,37 @@ abstract class BaseListIndexIntegrationTestable
     });
   }
 
+  @Test
+  void streamOfSeveralRanges() {
+    runTestWithView(database::createFork, (l) -> {
+      List<String> elements = IntStream.range(0, 2 * ListSpliterator.MAX_RANGE_SIZE + 1)
+          .mapToObj(i -> "e" + i)
+          .collect(toList());
+      l.addAll(elements);
+
+      List<String> streamElements = l.stream()
+          .collect(toList());
+
+      assertThat(streamElements, equalTo(elements));
+    });
+  }
+
+  @Test
+  void parallelStream() {
+    runTestWithView(database::createFork, (l) -> {
+      List<String> elements = IntStream.range(0, 100)
+          .mapToObj(i -> "e" + i)
+          .collect(toList());
+      l.addAll(elements);
+
+      List<String> streamElements = l.stream()
+          .parallel()
+          .collect(toList());
+
+      assertThat(streamElements, equalTo(elements));
+    });
+  }
+
   @Test
   void streamIsLateBinding() {
     runTestWithView(database::createFork, (l) -> {
@@ -174,6 +174,117 @@ abstract class BaseProofMapIndexProxyIntegrationTestable
     });
   }
 
+  @Test
+  void getAll() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(key1, V1);
+      map.put(key3, V3);
+
+      Map<HashCode, String> values = map.getAll(ImmutableList.of(key1, key2, key3));
+
+      assertThat(values).containsExactly(Map.entry(key1, V1), Map.entry(key3, V3));
+    });
+  }
+
+  @Test
+  void containsAll() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(key1, V1);
+      map.put(key2, V2);
+
+      assertTrue(map.containsAll(ImmutableList.of(key1, key2)));
+      assertFalse(map.containsAll(ImmutableList.of(key1, key3)));
+    });
+  }
+
+  @Test
+  void removeAll() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(
+          key1, V1,
+          key2, V2,
+          key3, V3
+      ));
+
+      map.removeAll(ImmutableList.of(key1, key2));
+
+      assertFalse(map.containsKey(key1));
+      assertFalse(map.containsKey(key2));
+      assertThat(map.get(key3), equalTo(V3));
+    });
+  }
+
+  @Test
+  void removeAllFailsIfSnapshot() {
+    runTestWithView(database::createSnapshot,
+        (map) -> assertThrows(UnsupportedOperationException.class,
+            () -> map.removeAll(ImmutableList.of(key1))));
+  }
+
+  @Test
+  void putIfAbsent() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(key1, V1);
+
+      assertThat(map.putIfAbsent(key1, V2), equalTo(V1));
+      assertNull(map.putIfAbsent(key2, V2));
+
+      assertThat(map.get(key1), equalTo(V1));
+      assertThat(map.get(key2), equalTo(V2));
+    });
+  }
+
+  @Test
+  void replace() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(key1, V1);
+
+      assertThat(map.replace(key1, V2), equalTo(V1));
+      assertNull(map.replace(key2, V2));
+
+      assertThat(map.get(key1), equalTo(V2));
+      assertFalse(map.containsKey(key2));
+    });
+  }
+
+  @Test
+  void compute() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(key1, V1);
+
+      assertThat(map.compute(key1, (k, v) -> v + V2), equalTo(V1 + V2));
+      assertThat(map.compute(key2, (k, v) -> (v == null) ? V3 : V4), equalTo(V3));
+      assertNull(map.compute(key3, (k, v) -> null));
+
+      assertThat(map.get(key1), equalTo(V1 + V2));
+      assertThat(map.get(key2), equalTo(V3));
+      assertFalse(map.containsKey(key3));
+    });
+  }
+
+  @Test
+  void merge() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(key1, V1);
+      map.put(key3, V3);
+
+      assertThat(map.merge(key1, V2, String::concat), equalTo(V1 + V2));
+      assertThat(map.merge(key2, V2, String::concat), equalTo(V2));
+      assertNull(map.merge(key3, V4, (v1, v2) -> null));
+
+      assertThat(map.get(key1), equalTo(V1 + V2));
+      assertThat(map.get(key2), equalTo(V2));
+      assertFalse(map.containsKey(key3));
+    });
+  }
+
+  @Test
+  void mergeFailsIfSnapshot() {
+    runTestWithView(database::createSnapshot,
+        (map) -> assertThrows(UnsupportedOperationException.class,
+            () -> map.merge(key1, V1, String::concat)));
+  }
+
   @Test
   void getIndexHash_EmptyMap() {
     runTestWithView(database::createSnapshot,
@@ -420,6 +531,77 @@ abstract class BaseProofMapIndexProxyIntegrationTestable
     });
   }
 
+  @Test
+  void keysFromKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<HashCode, String>> entries = createSortedMapEntries();
+      putAll(map, entries);
+      List<HashCode> keysInMap = MapEntries.extractKeys(entries);
+      HashCode fromKey = keysInMap.get(2);
+
+      List<HashCode> keysFromIter = ImmutableList.copyOf(map.keys(fromKey));
+
+      assertThat(keysFromIter, equalTo(keysInMap.subList(2, keysInMap.size())));
+    });
+  }
+
+  @Test
+  void valuesFromKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<HashCode, String>> entries = createSortedMapEntries();
+      putAll(map, entries);
+      HashCode fromKey = entries.get(1).getKey();
+
+      List<String> valuesFromIter = ImmutableList.copyOf(map.values(fromKey));
+
+      List<String> valuesInMap = MapEntries.extractValues(entries);
+      assertThat(valuesFromIter, equalTo(valuesInMap.subList(1, valuesInMap.size())));
+    });
+  }
+
+  @Test
+  void entriesFromKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<HashCode, String>> entries = createSortedMapEntries();
+      putAll(map, entries);
+      HashCode fromKey = entries.get(3).getKey();
+
+      List<MapEntry<HashCode, String>> entriesFromIter =
+          ImmutableList.copyOf(map.entries(fromKey));
+
+      assertThat(entriesFromIter, equalTo(entries.subList(3, entries.size())));
+    });
+  }
+
+  @Test
+  void entriesInRange() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<HashCode, String>> entries = createSortedMapEntries();
+      putAll(map, entries);
+      HashCode fromKey = entries.get(1).getKey();
+      HashCode toKey = entries.get(4).getKey();
+
+      List<MapEntry<HashCode, String>> entriesFromIter =
+          ImmutableList.copyOf(map.entries(fromKey, toKey));
+
+      assertThat(entriesFromIter, equalTo(entries.subList(1, 4)));
+    });
+  }
+
+  @Test
+  void entriesWithPrefixOfFullKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<HashCode, String>> entries = createSortedMapEntries();
+      putAll(map, entries);
+      MapEntry<HashCode, String> entry = entries.get(2);
+
+      List<MapEntry<HashCode, String>> entriesFromIter =
+          ImmutableList.copyOf(map.entriesWithPrefix(entry.getKey()));
+
+      assertThat(entriesFromIter, equalTo(singletonList(entry)));
+    });
+  }
+
   @Test
   void getProofFromSingleKey() {
     runTestWithView(database::createFork, (map) -> {
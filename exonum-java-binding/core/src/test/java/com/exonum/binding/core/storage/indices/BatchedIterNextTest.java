@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeCallStatistics.Level;
+import com.exonum.binding.core.storage.indices.BatchedIterNext.NextBatchFunction;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+class BatchedIterNextTest {
+
+  private static final long ITER_HANDLE = 0x0A;
+  private static final int BATCH_SIZE = 2;
+
+  private NextBatchFunction nextBatchFunction;
+
+  @BeforeEach
+  void setUp() {
+    nextBatchFunction = mock(NextBatchFunction.class);
+  }
+
+  @Test
+  void nextReturnsNullIfEmpty() {
+    when(nextBatchFunction.nextBatch(anyLong(), anyInt()))
+        .thenReturn(bytes());
+    BatchedIterNext<byte[]> next = BatchedIterNext.ofArrays(nextBatchFunction, BATCH_SIZE);
+
+    assertThat(next.apply(ITER_HANDLE)).isNull();
+  }
+
+  @Test
+  void nextReturnsElementsOfAllBatches() {
+    when(nextBatchFunction.nextBatch(ITER_HANDLE, BATCH_SIZE))
+        .thenReturn(PackedArrays.pack(ImmutableList.of(bytes(1), bytes(2))))
+        .thenReturn(PackedArrays.pack(ImmutableList.of(bytes(3))))
+        .thenReturn(bytes());
+    BatchedIterNext<byte[]> next = BatchedIterNext.ofArrays(nextBatchFunction, BATCH_SIZE);
+
+    assertThat(next.apply(ITER_HANDLE)).isEqualTo(bytes(1));
+    assertThat(next.apply(ITER_HANDLE)).isEqualTo(bytes(2));
+    assertThat(next.apply(ITER_HANDLE)).isEqualTo(bytes(3));
+    assertThat(next.apply(ITER_HANDLE)).isNull();
+  }
+
+  @Test
+  void nextRequestsBatchOnlyWhenPreviousIsConsumed() {
+    when(nextBatchFunction.nextBatch(ITER_HANDLE, BATCH_SIZE))
+        .thenReturn(PackedArrays.pack(ImmutableList.of(bytes(1), bytes(2))));
+    BatchedIterNext<byte[]> next = BatchedIterNext.ofArrays(nextBatchFunction, BATCH_SIZE);
+
+    next.apply(ITER_HANDLE);
+    next.apply(ITER_HANDLE);
+
+    verify(nextBatchFunction, times(1)).nextBatch(ITER_HANDLE, BATCH_SIZE);
+  }
+
+  @Test
+  void nextDoesNotRequestBatchesAfterEnd() {
+    when(nextBatchFunction.nextBatch(ITER_HANDLE, BATCH_SIZE))
+        .thenReturn(bytes());
+    BatchedIterNext<byte[]> next = BatchedIterNext.ofArrays(nextBatchFunction, BATCH_SIZE);
+
+    assertThat(next.apply(ITER_HANDLE)).isNull();
+    assertThat(next.apply(ITER_HANDLE)).isNull();
+
+    verify(nextBatchFunction, times(1)).nextBatch(ITER_HANDLE, BATCH_SIZE);
+  }
+
+  @Test
+  void nextRecordsCallPerBatch() {
+    when(nextBatchFunction.nextBatch(ITER_HANDLE, BATCH_SIZE))
+        .thenReturn(PackedArrays.pack(ImmutableList.of(bytes(1), bytes(2))))
+        .thenReturn(bytes());
+    BatchedIterNext<byte[]> next = BatchedIterNext.ofArrays(nextBatchFunction, BATCH_SIZE);
+    NativeCallStatistics.reset();
+    NativeCallStatistics.setLevel(Level.OPERATIONS);
+    try {
+      next.apply(ITER_HANDLE);
+      next.apply(ITER_HANDLE);
+      next.apply(ITER_HANDLE);
+
+      assertThat(NativeCallStatistics.getCallsByOperation())
+          .containsExactly(entry("RustIter#nextBatch", 2L));
+    } finally {
+      NativeCallStatistics.setLevel(Level.OFF);
+      NativeCallStatistics.reset();
+    }
+  }
+
+  @Test
+  void nextReturnsEntries() {
+    when(nextBatchFunction.nextBatch(eq(ITER_HANDLE), anyInt()))
+        .thenReturn(PackedArrays.pack(ImmutableList.of(bytes("k1"), bytes("v1"),
+            bytes("k2"), bytes("v2"))));
+    BatchedIterNext<MapEntryInternal> next = BatchedIterNext.ofEntries(nextBatchFunction);
+
+    MapEntryInternal e1 = next.apply(ITER_HANDLE);
+    assertThat(e1.key).isEqualTo(bytes("k1"));
+    assertThat(e1.value).isEqualTo(bytes("v1"));
+    MapEntryInternal e2 = next.apply(ITER_HANDLE);
+    assertThat(e2.key).isEqualTo(bytes("k2"));
+    assertThat(e2.value).isEqualTo(bytes("v2"));
+  }
+
+  @Test
+  void nextFailsIfAbsentElementInBatch() {
+    when(nextBatchFunction.nextBatch(ITER_HANDLE, BATCH_SIZE))
+        .thenReturn(bytes(0xFF, 0xFF, 0xFF, 0xFF));
+    BatchedIterNext<byte[]> next = BatchedIterNext.ofArrays(nextBatchFunction, BATCH_SIZE);
+
+    assertThrows(IllegalArgumentException.class, () -> next.apply(ITER_HANDLE));
+  }
+
+  @Test
+  void rejectsNonPositiveBatchSize() {
+    assertThrows(IllegalArgumentException.class,
+        () -> BatchedIterNext.ofArrays(nextBatchFunction, 0));
+  }
+
+  @Test
+  void rejectsInitialBatchSizeExceedingMax() {
+    assertThrows(IllegalArgumentException.class,
+        () -> BatchedIterNext.ofArrays(nextBatchFunction, 4, 2));
+  }
+
+  @Test
+  void nextDoublesBatchSizeUpToMax() {
+    when(nextBatchFunction.nextBatch(eq(ITER_HANDLE), anyInt()))
+        .thenReturn(PackedArrays.pack(ImmutableList.of(bytes(1))));
+    BatchedIterNext<byte[]> next = BatchedIterNext.ofArrays(nextBatchFunction, 1, 4);
+
+    for (int i = 0; i < 4; i++) {
+      next.apply(ITER_HANDLE);
+    }
+
+    InOrder inOrder = inOrder(nextBatchFunction);
+    inOrder.verify(nextBatchFunction).nextBatch(ITER_HANDLE, 1);
+    inOrder.verify(nextBatchFunction).nextBatch(ITER_HANDLE, 2);
+    inOrder.verify(nextBatchFunction, times(2)).nextBatch(ITER_HANDLE, 4);
+  }
+
+  @Test
+  void rangeIterStartsWithSmallBatches() {
+    when(nextBatchFunction.nextBatch(eq(ITER_HANDLE), anyInt()))
+        .thenReturn(PackedArrays.pack(ImmutableList.of(bytes(1), bytes(2))));
+    BatchedIterNext<MapEntryInternal> next = BatchedIterNext.ofEntriesInRange(nextBatchFunction);
+
+    next.apply(ITER_HANDLE);
+
+    verify(nextBatchFunction).nextBatch(ITER_HANDLE, BatchedIterNext.INITIAL_RANGE_BATCH_SIZE);
+  }
+}
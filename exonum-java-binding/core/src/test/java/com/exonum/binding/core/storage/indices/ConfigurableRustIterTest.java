@@ -26,10 +26,13 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.proxy.ProxyScope;
 import com.google.common.collect.ImmutableList;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -102,11 +105,57 @@ class ConfigurableRustIterTest {
     assertThrows(ConcurrentModificationException.class, () -> iter.next());
   }
 
+  @Test
+  void nextStopsAtFirstElementOutOfRange() {
+    List<Integer> underlyingList = asList(1, 2, 3, 1);
+    createFromIterable(underlyingList, (e) -> e < 3);
+
+    List<Integer> iterElements = ImmutableList.copyOf(new RustIterAdapter<>(iter));
+
+    assertThat(iterElements, equalTo(asList(1, 2)));
+  }
+
+  @Test
+  void nextDoesNotRequestElementsAfterEnd() {
+    Iterator<Integer> underlying = asList(1, 2, 3).iterator();
+    iter = new ConfigurableRustIter<>(new NativeHandle(DEFAULT_NATIVE_HANDLE),
+        (h) -> underlying.next(), modCounter, (e) -> e < 2);
+
+    assertThat(iter.next(), equalTo(Optional.of(1)));
+    assertThat(iter.next(), equalTo(Optional.empty()));
+    assertThat(iter.next(), equalTo(Optional.empty()));
+    // Only the first out-of-range element must have been requested
+    assertThat(underlying.next(), equalTo(3));
+  }
+
+  @Test
+  void nextFailsOutsideOfScope() {
+    Iterator<Integer> underlying = asList(1, 2).iterator();
+    ProxyScope scope = ProxyScope.ofCurrentThread();
+    iter = new ConfigurableRustIter<>(new NativeHandle(DEFAULT_NATIVE_HANDLE),
+        (h) -> underlying.next(), modCounter, (e) -> true, scope);
+
+    assertThat(iter.next(), equalTo(Optional.of(1)));
+
+    scope.deactivate();
+
+    assertThrows(IllegalStateException.class, () -> iter.next());
+    // No element must have been requested
+    assertThat(underlying.next(), equalTo(2));
+  }
+
   private void createFromIterable(Iterable<Integer> it) {
     NativeHandle nh = new NativeHandle(DEFAULT_NATIVE_HANDLE);
     createFromIterable(nh, it);
   }
 
+  private void createFromIterable(Iterable<Integer> it, Predicate<Integer> inRange) {
+    Iterator<Integer> iterator = it.iterator();
+    iter = new ConfigurableRustIter<>(new NativeHandle(DEFAULT_NATIVE_HANDLE),
+        (h) -> iterator.hasNext() ? iterator.next() : null,
+        modCounter, inRange);
+  }
+
   private void createFromIterable(NativeHandle nativeHandle, Iterable<Integer> it) {
     Iterator<Integer> iterator = it.iterator();
     iter = new ConfigurableRustIter<>(nativeHandle,
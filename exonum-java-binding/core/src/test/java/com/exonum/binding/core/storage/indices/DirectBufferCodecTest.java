@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.bytes;
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.exonum.binding.common.serialization.Serializer;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class DirectBufferCodecTest {
+
+  private final DirectBufferCodec<String, byte[]> codec =
+      DirectBufferCodec.tryCreate(string(), bytes());
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void tryCreateWithArraySerializer() {
+    Serializer<String> serializer = mock(Serializer.class);
+
+    assertThat(DirectBufferCodec.tryCreate(serializer, bytes())).isNull();
+    assertThat(DirectBufferCodec.tryCreate(string(), serializer)).isNull();
+  }
+
+  @Test
+  void writeKey() {
+    ByteBuffer buffer = codec.writeKey("key");
+
+    assertThat(buffer).isNotNull();
+    assertThat(buffer.isDirect()).isTrue();
+    assertThat(buffer.position()).isEqualTo(3);
+    assertThat(contents(buffer, 0, 3)).containsExactly('k', 'e', 'y');
+  }
+
+  @Test
+  void writeEntry() {
+    ByteBuffer buffer = codec.writeEntry("k", new byte[] {1, 2});
+
+    assertThat(buffer).isNotNull();
+    assertThat(buffer.position()).isEqualTo(1);
+    assertThat(buffer.limit()).isEqualTo(3);
+    assertThat(contents(buffer, 0, 3)).containsExactly('k', 1, 2);
+  }
+
+  @Test
+  void writeEntryGrowsBuffer() {
+    byte[] value = new byte[DirectBufferCodec.INITIAL_CAPACITY];
+    value[value.length - 1] = 7;
+
+    ByteBuffer buffer = codec.writeEntry("k", value);
+
+    assertThat(buffer).isNotNull();
+    assertThat(buffer.capacity()).isGreaterThan(DirectBufferCodec.INITIAL_CAPACITY);
+    assertThat(buffer.position()).isEqualTo(1);
+    assertThat(buffer.limit()).isEqualTo(1 + value.length);
+    // Check the key is preserved
+    assertThat(buffer.get(0)).isEqualTo((byte) 'k');
+    assertThat(buffer.get(value.length)).isEqualTo((byte) 7);
+  }
+
+  @Test
+  void writeEntryExceedingMaxCapacity() {
+    byte[] value = new byte[DirectBufferCodec.MAX_CAPACITY];
+
+    assertThat(codec.writeEntry("k", value)).isNull();
+  }
+
+  @Test
+  void readValue() {
+    ByteBuffer buffer = codec.writeKey("key");
+    // Emulate the native code writing the size of the value, followed by the value
+    buffer.putInt(0, 2)
+        .put(DirectBufferCodec.VALUE_OFFSET, (byte) 3)
+        .put(DirectBufferCodec.VALUE_OFFSET + 1, (byte) 1);
+
+    int valueSize = DirectBufferCodec.readValueSize(buffer);
+    byte[] value = codec.readValue(buffer, valueSize);
+
+    assertThat(valueSize).isEqualTo(2);
+    assertThat(value).containsExactly(3, 1);
+  }
+
+  @Test
+  void readAbsentValueSize() {
+    ByteBuffer buffer = codec.writeKey("key");
+    buffer.putInt(0, DirectBufferCodec.ABSENT_VALUE);
+
+    assertThat(DirectBufferCodec.readValueSize(buffer)).isEqualTo(DirectBufferCodec.ABSENT_VALUE);
+  }
+
+  @Test
+  void fits() {
+    ByteBuffer buffer = codec.writeKey("k");
+    int maxValueSize = buffer.capacity() - DirectBufferCodec.VALUE_OFFSET;
+
+    assertThat(DirectBufferCodec.fits(buffer, maxValueSize)).isTrue();
+    assertThat(DirectBufferCodec.fits(buffer, maxValueSize + 1)).isFalse();
+  }
+
+  @Test
+  void reserve() {
+    int valueSize = 2 * DirectBufferCodec.INITIAL_CAPACITY;
+
+    codec.reserve(valueSize);
+
+    ByteBuffer buffer = codec.writeKey("k");
+    assertThat(DirectBufferCodec.fits(buffer, valueSize)).isTrue();
+  }
+
+  @Test
+  void reserveExceedingMaxCapacity() {
+    int capacity = codec.writeKey("k").capacity();
+
+    codec.reserve(DirectBufferCodec.MAX_CAPACITY);
+
+    assertThat(codec.writeKey("k").capacity()).isEqualTo(capacity);
+  }
+
+  private static byte[] contents(ByteBuffer buffer, int from, int to) {
+    byte[] contents = new byte[to - from];
+    ByteBuffer view = buffer.duplicate();
+    view.clear()
+        .position(from)
+        .limit(to);
+    view.get(contents);
+    return contents;
+  }
+}
@@ -30,13 +30,16 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
 import com.google.common.collect.ImmutableList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 
 class KeySetIndexProxyIntegrationTest
@@ -116,6 +119,45 @@ class KeySetIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void iteratorFromElement() {
+    runTestWithView(database::createFork, (set) -> {
+      List<String> elements = TestStorageItems.keys;
+      elements.forEach(set::add);
+
+      Iterator<String> iterator = set.iterator(elements.get(1));
+      List<String> iterElements = ImmutableList.copyOf(iterator);
+
+      assertThat(iterElements, equalTo(elements.subList(1, elements.size())));
+    });
+  }
+
+  @Test
+  void iteratorInRange() {
+    runTestWithView(database::createFork, (set) -> {
+      List<String> elements = TestStorageItems.keys;
+      elements.forEach(set::add);
+
+      Iterator<String> iterator = set.iterator(elements.get(1), elements.get(3));
+      List<String> iterElements = ImmutableList.copyOf(iterator);
+
+      assertThat(iterElements, equalTo(elements.subList(1, 3)));
+    });
+  }
+
+  @Test
+  void iteratorWithPrefix() {
+    runTestWithView(database::createFork, (set) -> {
+      List<String> elements = ImmutableList.of("a", "ba", "bb", "c");
+      elements.forEach(set::add);
+
+      Iterator<String> iterator = set.iteratorWithPrefix("b");
+      List<String> iterElements = ImmutableList.copyOf(iterator);
+
+      assertThat(iterElements, equalTo(ImmutableList.of("ba", "bb")));
+    });
+  }
+
   @Test
   void testStream() {
     runTestWithView(database::createFork, (set) -> {
@@ -132,6 +174,21 @@ class KeySetIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void closedStreamIsDestroyed() {
+    runTestWithView(database::createFork, (access, set) -> {
+      TestStorageItems.keys.forEach(set::add);
+      Cleaner cleaner = ((AbstractAccess) access).getCleaner();
+      int numActions = cleaner.getNumRegisteredActions();
+
+      try (Stream<String> stream = set.stream()) {
+        assertThat(stream.findFirst(), equalTo(Optional.of(TestStorageItems.keys.get(0))));
+      }
+
+      assertThat(cleaner.getNumRegisteredActions(), equalTo(numActions));
+    });
+  }
+
   @Test
   void removesAddedElement() {
     runTestWithView(database::createFork, (set) -> {
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ListIndexTest {
+
+  private ListIndex<String> list;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    list = mock(ListIndex.class, CALLS_REAL_METHODS);
+    doReturn(3L).when(list).size();
+    doReturn("a").when(list).get(0L);
+    doReturn("b").when(list).get(1L);
+    doReturn("c").when(list).get(2L);
+  }
+
+  @Test
+  void getRange() {
+    List<String> elements = list.getRange(1, 3);
+
+    assertThat(elements).containsExactly("b", "c");
+  }
+
+  @Test
+  void getEmptyRange() {
+    List<String> elements = list.getRange(1, 1);
+
+    assertThat(elements).isEmpty();
+  }
+
+  @Test
+  void getRangeOutOfBounds() {
+    assertThrows(IndexOutOfBoundsException.class, () -> list.getRange(1, 4));
+  }
+
+  @Test
+  void getRangeOfInvalidBounds() {
+    assertThrows(IndexOutOfBoundsException.class, () -> list.getRange(2, 1));
+  }
+}
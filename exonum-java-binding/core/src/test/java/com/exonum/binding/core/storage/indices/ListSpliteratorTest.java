@@ -16,6 +16,7 @@
 
 package com.exonum.binding.core.storage.indices;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -24,14 +25,19 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.List;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.junit.jupiter.api.DisplayName;
@@ -284,6 +290,46 @@ class ListSpliteratorTest {
     assertThat(spliterator.estimateSize()).isEqualTo(0);
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, ListSpliterator.MAX_RANGE_SIZE, ListSpliterator.MAX_RANGE_SIZE + 1,
+      2 * ListSpliterator.MAX_RANGE_SIZE + 1})
+  void forEachRemainingReadsElementsInRanges(int size) {
+    int[] source = IntStream.range(0, size).toArray();
+    ListIndex<Integer> list = createListMock();
+    when(list.size()).thenReturn((long) size);
+    List<long[]> ranges = new ArrayList<>();
+    lenient().when(list.getRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+      long from = invocation.getArgument(0);
+      long to = invocation.getArgument(1);
+      ranges.add(new long[] {from, to});
+      return LongStream.range(from, to)
+          .mapToObj(i -> source[(int) i])
+          .collect(toList());
+    });
+    ModificationCounter counter = mock(ModificationCounter.class);
+    Spliterator<Integer> spliterator = new ListSpliterator<>(list, counter, true);
+
+    List<Integer> elements = new ArrayList<>();
+    spliterator.forEachRemaining(elements::add);
+
+    assertThat(elements).containsExactlyElementsOf(Ints.asList(source));
+    int expectedRanges = (size + ListSpliterator.MAX_RANGE_SIZE - 1)
+        / ListSpliterator.MAX_RANGE_SIZE;
+    assertThat(ranges).hasSize(expectedRanges);
+    verify(list, never()).get(anyLong());
+  }
+
+  @Test
+  void forEachRemainingAfterTryAdvance() {
+    Spliterator<Integer> spliterator = createSpliteratorOf(new int[] {1, 2, 3});
+
+    spliterator.tryAdvance(NULL_CONSUMER);
+    List<Integer> elements = new ArrayList<>();
+    spliterator.forEachRemaining(elements::add);
+
+    assertThat(elements).containsExactly(2, 3);
+  }
+
   private static Spliterator<Integer> createSpliteratorOf(int[] source) {
     ListIndex<Integer> list = createListMock();
     lenient().when(list.get(anyLong())).thenAnswer((Answer<Integer>) invocation -> {
@@ -291,6 +337,13 @@ class ListSpliteratorTest {
       return source[Math.toIntExact(index)];
     });
     lenient().when(list.size()).thenReturn((long) source.length);
+    lenient().when(list.getRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+      int from = Math.toIntExact(invocation.getArgument(0));
+      int to = Math.toIntExact(invocation.getArgument(1));
+      return IntStream.range(from, to)
+          .mapToObj(i -> source[i])
+          .collect(toList());
+    });
 
     ModificationCounter modCounter = mock(ModificationCounter.class);
     lenient().when(modCounter.isModifiedSince(anyInt()))
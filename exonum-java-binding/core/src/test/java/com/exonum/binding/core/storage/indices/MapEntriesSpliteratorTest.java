@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.google.common.primitives.UnsignedBytes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapEntriesSpliteratorTest {
+
+  private static final int NUM_ENTRIES = 1000;
+
+  private NavigableMap<byte[], Integer> source;
+  private List<FakeStorageIterator> createdIterators;
+
+  @BeforeEach
+  void setUp() {
+    source = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+    Random random = new Random(1);
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      byte[] key = new byte[MapEntriesSpliterator.SPLIT_KEY_SIZE];
+      random.nextBytes(key);
+      source.put(key, i);
+    }
+    createdIterators = new ArrayList<>();
+  }
+
+  @Test
+  void trySplitNotSplittable() {
+    MapEntriesSpliterator<byte[], Integer> spliterator = createSpliterator(false);
+
+    assertNull(spliterator.trySplit());
+  }
+
+  @Test
+  void trySplitAfterTraversalStarted() {
+    MapEntriesSpliterator<byte[], Integer> spliterator = createSpliterator(true);
+
+    assertTrue(spliterator.tryAdvance(e -> { }));
+
+    assertNull(spliterator.trySplit());
+  }
+
+  @Test
+  void trySplitUpToMaxDepth() {
+    MapEntriesSpliterator<byte[], Integer> spliterator = createSpliterator(true);
+
+    for (int i = 0; i < MapEntriesSpliterator.MAX_SPLIT_DEPTH; i++) {
+      assertThat(spliterator.trySplit()).isNotNull();
+    }
+
+    assertNull(spliterator.trySplit());
+  }
+
+  @Test
+  void trySplitHalvesEstimatedSize() {
+    MapEntriesSpliterator<byte[], Integer> spliterator = createSpliterator(true);
+    long initialSize = spliterator.estimateSize();
+
+    Spliterator<MapEntry<byte[], Integer>> prefix = spliterator.trySplit();
+
+    assertThat(prefix.estimateSize()).isEqualTo(initialSize / 2);
+    assertThat(spliterator.estimateSize()).isEqualTo(initialSize / 2);
+  }
+
+  @Test
+  void splitsPreserveOrder() {
+    MapEntriesSpliterator<byte[], Integer> spliterator = createSpliterator(true);
+
+    Spliterator<MapEntry<byte[], Integer>> prefix = spliterator.trySplit();
+
+    List<Integer> values = new ArrayList<>();
+    prefix.forEachRemaining(e -> values.add(e.getValue()));
+    spliterator.forEachRemaining(e -> values.add(e.getValue()));
+    assertThat(values).containsExactlyElementsOf(source.values());
+  }
+
+  @Test
+  void sequentialStream() {
+    MapEntriesSpliterator<byte[], Integer> spliterator = createSpliterator(false);
+
+    List<Integer> values = streamOf(spliterator)
+        .map(MapEntry::getValue)
+        .collect(toList());
+
+    assertThat(values).containsExactlyElementsOf(source.values());
+    assertThat(createdIterators).hasSize(1);
+  }
+
+  @Test
+  void parallelStream() {
+    MapEntriesSpliterator<byte[], Integer> spliterator = createSpliterator(true);
+
+    List<Integer> values = streamOf(spliterator)
+        .parallel()
+        .map(MapEntry::getValue)
+        .collect(toList());
+
+    assertThat(values).containsExactlyElementsOf(source.values());
+  }
+
+  @Test
+  void closeClosesIteratorsOfAllSplits() {
+    MapEntriesSpliterator<byte[], Integer> spliterator = createSpliterator(true);
+    Spliterator<MapEntry<byte[], Integer>> prefix = spliterator.trySplit();
+    prefix.tryAdvance(e -> { });
+    spliterator.tryAdvance(e -> { });
+
+    spliterator.close();
+
+    assertThat(createdIterators).hasSize(2)
+        .allMatch(it -> it.closed);
+  }
+
+  @Test
+  void characteristics() {
+    assertTrue(createSpliterator(true).hasCharacteristics(Spliterator.IMMUTABLE));
+    assertFalse(createSpliterator(false).hasCharacteristics(Spliterator.IMMUTABLE));
+    assertTrue(createSpliterator(false).hasCharacteristics(
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL));
+  }
+
+  private MapEntriesSpliterator<byte[], Integer> createSpliterator(boolean splittable) {
+    return new MapEntriesSpliterator<>(this::createIterator, this, splittable);
+  }
+
+  private static Stream<MapEntry<byte[], Integer>> streamOf(
+      MapEntriesSpliterator<byte[], Integer> spliterator) {
+    return StreamSupport.stream(spliterator, false)
+        .onClose(spliterator::close);
+  }
+
+  private FakeStorageIterator createIterator(@Nullable byte[] fromKey,
+      @Nullable byte[] toKeyExclusive) {
+    NavigableMap<byte[], Integer> range = source;
+    if (fromKey != null) {
+      range = range.tailMap(fromKey, true);
+    }
+    if (toKeyExclusive != null) {
+      range = range.headMap(toKeyExclusive, false);
+    }
+    FakeStorageIterator iterator = new FakeStorageIterator(range.entrySet().iterator());
+    // Accessed under the lock passed to the spliterator
+    createdIterators.add(iterator);
+    return iterator;
+  }
+
+  private static class FakeStorageIterator implements StorageIterator<MapEntry<byte[], Integer>> {
+
+    final Iterator<Map.Entry<byte[], Integer>> entries;
+    volatile boolean closed;
+
+    FakeStorageIterator(Iterator<Map.Entry<byte[], Integer>> entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return entries.hasNext();
+    }
+
+    @Override
+    public MapEntry<byte[], Integer> next() {
+      Map.Entry<byte[], Integer> e = entries.next();
+      return MapEntry.valueOf(e.getKey(), e.getValue());
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -20,6 +20,7 @@ import static com.exonum.binding.common.serialization.StandardSerializers.string
 import static com.exonum.binding.core.storage.indices.MapEntries.putAll;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.K1;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.K2;
+import static com.exonum.binding.core.storage.indices.TestStorageItems.K3;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V1;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V2;
 import static com.exonum.binding.core.storage.indices.TestStorageItems.V3;
@@ -37,7 +38,10 @@ import com.exonum.binding.common.collect.MapEntry;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.core.proxy.Cleaner;
 import com.exonum.binding.core.proxy.CloseFailuresException;
+import com.exonum.binding.core.storage.database.AbstractAccess;
 import com.exonum.binding.core.storage.database.Access;
+import com.exonum.binding.core.storage.database.Fork;
+import com.exonum.binding.core.storage.database.Snapshot;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
@@ -47,6 +51,7 @@ import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -171,6 +176,66 @@ class MapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void getAllReturnsPresentValues() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(
+          K1, V1,
+          K2, V2
+      ));
+
+      Map<String, String> values = map.getAll(ImmutableList.of(K2, K3, K1));
+
+      assertThat(values, equalTo(ImmutableMap.of(K2, V2, K1, V1)));
+    });
+  }
+
+  @Test
+  void getAllEmptyKeys() {
+    runTestWithView(database::createSnapshot, (map) -> {
+      Map<String, String> values = map.getAll(ImmutableList.of());
+
+      assertTrue(values.isEmpty());
+    });
+  }
+
+  @Test
+  void containsAllShouldReturnTrueIfHasMappingsForAllKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(
+          K1, V1,
+          K2, V2
+      ));
+
+      assertTrue(map.containsAll(ImmutableList.of(K1, K2)));
+      assertTrue(map.containsAll(ImmutableList.of()));
+      assertFalse(map.containsAll(ImmutableList.of(K1, K3)));
+    });
+  }
+
+  @Test
+  void removeAllRemovesAllKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      map.putAll(ImmutableMap.of(
+          K1, V1,
+          K2, V2,
+          K3, V3
+      ));
+
+      map.removeAll(ImmutableList.of(K1, K3));
+
+      assertThat(ImmutableList.copyOf(map.keys()), equalTo(ImmutableList.of(K2)));
+    });
+  }
+
+  @Test
+  void removeAllShouldFailWithSnapshot() {
+    runTestWithView(database::createSnapshot, (map) -> {
+      assertThrows(UnsupportedOperationException.class,
+          () -> map.removeAll(ImmutableList.of(K1)));
+    });
+  }
+
   @Test
   void getShouldReturnSuccessfullyPutEmptyValue() {
     runTestWithView(database::createFork, (map) -> {
@@ -260,6 +325,117 @@ class MapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void getOptional() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      assertThat(map.getOptional(K1), equalTo(Optional.of(V1)));
+      assertThat(map.getOptional(K2), equalTo(Optional.empty()));
+    });
+  }
+
+  @Test
+  void putIfAbsent() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      assertThat(map.putIfAbsent(K1, V2), equalTo(V1));
+      assertNull(map.putIfAbsent(K2, V2));
+
+      assertThat(map.get(K1), equalTo(V1));
+      assertThat(map.get(K2), equalTo(V2));
+    });
+  }
+
+  @Test
+  void putIfAbsentShouldFailWithSnapshot() {
+    runTestWithView(database::createSnapshot, (map) ->
+        assertThrows(UnsupportedOperationException.class, () -> map.putIfAbsent(K1, V1)));
+  }
+
+  @Test
+  void replace() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      assertThat(map.replace(K1, V2), equalTo(V1));
+      assertNull(map.replace(K2, V2));
+
+      assertThat(map.get(K1), equalTo(V2));
+      assertFalse(map.containsKey(K2));
+    });
+  }
+
+  @Test
+  void compute() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      assertThat(map.compute(K1, (k, v) -> k + v), equalTo(K1 + V1));
+      assertThat(map.compute(K2, (k, v) -> (v == null) ? V2 : V3), equalTo(V2));
+
+      assertThat(map.get(K1), equalTo(K1 + V1));
+      assertThat(map.get(K2), equalTo(V2));
+    });
+  }
+
+  @Test
+  void computeRemovesIfNull() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      assertNull(map.compute(K1, (k, v) -> null));
+      assertNull(map.compute(K2, (k, v) -> null));
+
+      assertFalse(map.containsKey(K1));
+      assertFalse(map.containsKey(K2));
+    });
+  }
+
+  @Test
+  void computeOfAbsentKeyToNullDoesNotInvalidateIterators() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      Iterator<String> iterator = map.keys();
+      assertNull(map.compute(K2, (k, v) -> null));
+
+      assertThat(iterator.next(), equalTo(K1));
+    });
+  }
+
+  @Test
+  void computeFailsIfSnapshot() {
+    runTestWithView(database::createSnapshot, (map) -> {
+      assertThrows(UnsupportedOperationException.class, () -> map.compute(K1, (k, v) -> null));
+    });
+  }
+
+  @Test
+  void merge() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      assertThat(map.merge(K1, V2, String::concat), equalTo(V1 + V2));
+      assertThat(map.merge(K2, V2, String::concat), equalTo(V2));
+
+      assertThat(map.get(K1), equalTo(V1 + V2));
+      assertThat(map.get(K2), equalTo(V2));
+    });
+  }
+
+  @Test
+  void mergeRemovesIfNull() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      assertNull(map.merge(K1, V2, (v1, v2) -> null));
+
+      assertFalse(map.containsKey(K1));
+    });
+  }
+
   @Test
   void removeSuccessfullyPutValue() {
     runTestWithView(database::createFork, (map) -> {
@@ -357,6 +533,139 @@ class MapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void entriesShouldReturnIterWithAllValuesInSeveralBatches() {
+    runTestWithView(database::createFork, (map) -> {
+      int numEntries = 2 * BatchedIterNext.DEFAULT_BATCH_SIZE + 1;
+      List<MapEntry<String, String>> entries = IntStream.range(0, numEntries)
+          .mapToObj(i -> MapEntry.valueOf(String.format("key%04d", i), "v" + i))
+          .collect(Collectors.toList());
+      putAll(map, entries);
+
+      List<MapEntry<String, String>> iterEntries = ImmutableList.copyOf(map.entries());
+      List<String> keysFromIter = ImmutableList.copyOf(map.keys());
+
+      assertThat(iterEntries, equalTo(entries));
+      assertThat(keysFromIter, equalTo(MapEntries.extractKeys(entries)));
+    });
+  }
+
+  @Test
+  void keysFromKeyShouldSkipPrecedingKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(4);
+      putAll(map, entries);
+
+      List<String> keysFromIter = ImmutableList.copyOf(map.keys("b"));
+
+      assertThat(keysFromIter, equalTo(ImmutableList.of("b", "c", "d")));
+    });
+  }
+
+  @Test
+  void keysFromAbsentKeyShouldStartAtNextKey() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(3);
+      putAll(map, entries);
+
+      List<String> keysFromIter = ImmutableList.copyOf(map.keys("aa"));
+
+      assertThat(keysFromIter, equalTo(ImmutableList.of("b", "c")));
+    });
+  }
+
+  @Test
+  void valuesFromKeyShouldSkipPrecedingValues() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(3);
+      putAll(map, entries);
+
+      List<String> valuesFromIter = ImmutableList.copyOf(map.values("b"));
+
+      assertThat(valuesFromIter, equalTo(ImmutableList.of("v2", "v3")));
+    });
+  }
+
+  @Test
+  void entriesFromKeyShouldSkipPrecedingEntries() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(3);
+      putAll(map, entries);
+
+      List<MapEntry<String, String>> iterEntries = ImmutableList.copyOf(map.entries("b"));
+
+      assertThat(iterEntries, equalTo(entries.subList(1, 3)));
+    });
+  }
+
+  @Test
+  void entriesInRangeShouldReturnEntriesInRange() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(5);
+      putAll(map, entries);
+
+      List<MapEntry<String, String>> iterEntries = ImmutableList.copyOf(map.entries("b", "d"));
+
+      assertThat(iterEntries, equalTo(entries.subList(1, 3)));
+    });
+  }
+
+  @Test
+  void entriesInEmptyRangeShouldReturnEmptyIter() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(3);
+      putAll(map, entries);
+
+      Iterator<MapEntry<String, String>> iterator = map.entries("c", "a");
+
+      assertFalse(iterator.hasNext());
+    });
+  }
+
+  @Test
+  void keysWithPrefixShouldReturnMatchingKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put("a", V1);
+      map.put("ab", V2);
+      map.put("abc", V3);
+      map.put("b", V4);
+
+      List<String> keysFromIter = ImmutableList.copyOf(map.keysWithPrefix("ab"));
+
+      assertThat(keysFromIter, equalTo(ImmutableList.of("ab", "abc")));
+    });
+  }
+
+  @Test
+  void entriesWithPrefixShouldReturnMatchingEntries() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put("a", V1);
+      map.put("ba", V2);
+      map.put("bb", V3);
+      map.put("c", V4);
+
+      List<MapEntry<String, String>> iterEntries =
+          ImmutableList.copyOf(map.entriesWithPrefix("b"));
+
+      assertThat(iterEntries, equalTo(ImmutableList.of(
+          MapEntry.valueOf("ba", V2), MapEntry.valueOf("bb", V3))));
+    });
+  }
+
+  @Test
+  void entriesInRangeIterNextShouldFailIfThisMapModified() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(3);
+      putAll(map, entries);
+
+      Iterator<MapEntry<String, String>> iterator = map.entries("a", "c");
+      iterator.next();
+      map.put("new key", "new value");
+
+      assertThrows(ConcurrentModificationException.class, iterator::next);
+    });
+  }
+
   @Test
   void clearEmptyFork() {
     runTestWithView(database::createFork,
@@ -413,6 +722,64 @@ class MapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void exhaustedIteratorIsDestroyed() {
+    runTestWithView(database::createFork, (access, map) -> {
+      map.put(K1, V1);
+      Cleaner cleaner = ((AbstractAccess) access).getCleaner();
+      int numActions = cleaner.getNumRegisteredActions();
+
+      Iterator<String> keys = map.keys();
+      assertThat(cleaner.getNumRegisteredActions(), equalTo(numActions + 1));
+
+      keys.next();
+      assertThat(cleaner.getNumRegisteredActions(), equalTo(numActions));
+    });
+  }
+
+  @Test
+  void closedIteratorIsDestroyed() {
+    runTestWithView(database::createFork, (access, map) -> {
+      putAll(map, createMapEntries(3));
+      Cleaner cleaner = ((AbstractAccess) access).getCleaner();
+      int numActions = cleaner.getNumRegisteredActions();
+
+      try (StorageIterator<MapEntry<String, String>> entries = map.entries()) {
+        entries.next();
+      }
+
+      assertThat(cleaner.getNumRegisteredActions(), equalTo(numActions));
+    });
+  }
+
+  @Test
+  void entriesStream() {
+    runTestWithView(database::createFork, (map) -> {
+      List<MapEntry<String, String>> entries = createSortedMapEntries(5);
+      putAll(map, entries);
+
+      try (Stream<MapEntry<String, String>> stream = map.entriesStream()) {
+        assertThat(stream.collect(Collectors.toList()), equalTo(entries));
+      }
+    });
+  }
+
+  @Test
+  void parallelEntriesStreamOfSnapshot() throws CloseFailuresException {
+    List<MapEntry<String, String>> entries = createSortedMapEntries(20);
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      putAll(createMap(MAP_NAME, fork), entries);
+      database.merge(fork);
+
+      Snapshot snapshot = database.createSnapshot(cleaner);
+      MapIndexProxy<String, String> map = createMap(MAP_NAME, snapshot);
+      try (Stream<MapEntry<String, String>> stream = map.entriesStream().parallel()) {
+        assertThat(stream.collect(Collectors.toList()), equalTo(entries));
+      }
+    }
+  }
+
   @Test
   void isEmptyShouldReturnTrueForEmptyMap() {
     runTestWithView(database::createSnapshot, (map) -> assertTrue(map.isEmpty()));
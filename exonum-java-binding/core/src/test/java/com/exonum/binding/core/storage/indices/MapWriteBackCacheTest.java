@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.bytes;
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.protobuf.ByteString;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapWriteBackCacheTest {
+
+  private FakeNativeMap nativeMap;
+  private MapWriteBackCache<String, String> cache;
+
+  @BeforeEach
+  void setUp() {
+    nativeMap = new FakeNativeMap();
+    cache = new MapWriteBackCache<>(string(), string(), nativeMap);
+  }
+
+  @Test
+  void getCachesValue() {
+    nativeMap.entries.put(key("k1"), bytes("v1"));
+
+    assertThat(cache.get("k1")).isEqualTo("v1");
+    assertThat(cache.get("k1")).isEqualTo("v1");
+    assertThat(cache.containsKey("k1")).isTrue();
+
+    assertThat(nativeMap.reads).isEqualTo(1);
+  }
+
+  @Test
+  void getCachesAbsentValue() {
+    assertThat(cache.get("k1")).isNull();
+    assertThat(cache.containsKey("k1")).isFalse();
+
+    assertThat(nativeMap.reads).isEqualTo(1);
+  }
+
+  @Test
+  void containsKeyDoesNotLoadValue() {
+    nativeMap.entries.put(key("k1"), bytes("v1"));
+
+    assertThat(cache.containsKey("k1")).isTrue();
+    assertThat(nativeMap.reads).isEqualTo(1);
+
+    // The value is loaded on the first request
+    assertThat(cache.get("k1")).isEqualTo("v1");
+    assertThat(cache.get("k1")).isEqualTo("v1");
+    assertThat(nativeMap.reads).isEqualTo(2);
+  }
+
+  @Test
+  void putIsBuffered() {
+    cache.put("k1", "v1");
+
+    assertThat(cache.get("k1")).isEqualTo("v1");
+    assertThat(cache.containsKey("k1")).isTrue();
+    assertThat(nativeMap.entries).isEmpty();
+    assertThat(nativeMap.reads).isZero();
+  }
+
+  @Test
+  void getReturnsNewValueObjects() {
+    MapWriteBackCache<String, byte[]> bytesCache =
+        new MapWriteBackCache<>(string(), bytes(), nativeMap);
+    nativeMap.entries.put(key("k1"), bytes(1, 2));
+
+    byte[] value = bytesCache.get("k1");
+    value[0] = 10;
+
+    assertThat(bytesCache.get("k1")).isEqualTo(bytes(1, 2));
+  }
+
+  @Test
+  void putDoesNotKeepValueObject() {
+    MapWriteBackCache<String, byte[]> bytesCache =
+        new MapWriteBackCache<>(string(), bytes(), nativeMap);
+    byte[] value = bytes(1, 2);
+
+    bytesCache.put("k1", value);
+    value[0] = 10;
+
+    assertThat(bytesCache.get("k1")).isEqualTo(bytes(1, 2));
+    bytesCache.flush();
+    assertThat(nativeMap.entries.get(key("k1"))).isEqualTo(bytes(1, 2));
+  }
+
+  @Test
+  void removeIsBuffered() {
+    nativeMap.entries.put(key("k1"), bytes("v1"));
+
+    cache.remove("k1");
+
+    assertThat(cache.get("k1")).isNull();
+    assertThat(cache.containsKey("k1")).isFalse();
+    assertThat(nativeMap.entries).containsKey(key("k1"));
+    assertThat(nativeMap.reads).isZero();
+  }
+
+  @Test
+  void flushWritesModificationsInBatches() {
+    nativeMap.entries.put(key("k1"), bytes("v1"));
+    nativeMap.entries.put(key("k2"), bytes("v2"));
+    cache.put("k1", "v11");
+    cache.put("k3", "v3");
+    cache.put("k4", "v4");
+    cache.remove("k2");
+    cache.remove("k4");
+
+    cache.flush();
+
+    assertThat(nativeMap.entries).containsOnly(
+        Map.entry(key("k1"), bytes("v11")),
+        Map.entry(key("k3"), bytes("v3")));
+    assertThat(nativeMap.batches).isEqualTo(2);
+  }
+
+  @Test
+  void flushKeepsCachedValues() {
+    cache.put("k1", "v1");
+
+    cache.flush();
+
+    assertThat(cache.get("k1")).isEqualTo("v1");
+    assertThat(nativeMap.reads).isZero();
+  }
+
+  @Test
+  void flushWithoutModifications() {
+    cache.get("k1");
+
+    cache.flush();
+
+    assertThat(nativeMap.batches).isZero();
+  }
+
+  @Test
+  void secondFlushWritesNothing() {
+    cache.put("k1", "v1");
+    cache.flush();
+
+    cache.flush();
+
+    assertThat(nativeMap.batches).isEqualTo(1);
+  }
+
+  @Test
+  void discardDropsModifications() {
+    nativeMap.entries.put(key("k1"), bytes("v1"));
+    cache.put("k1", "v11");
+    cache.put("k2", "v2");
+
+    cache.discard();
+    cache.flush();
+
+    assertThat(cache.get("k1")).isEqualTo("v1");
+    assertThat(cache.get("k2")).isNull();
+    assertThat(nativeMap.batches).isZero();
+  }
+
+  private static ByteString key(String key) {
+    return ByteString.copyFromUtf8(key);
+  }
+
+  private static class FakeNativeMap implements MapWriteBackCache.NativeMap {
+
+    final Map<ByteString, byte[]> entries = new HashMap<>();
+    int reads;
+    int batches;
+
+    @Override
+    public boolean containsKey(byte[] key) {
+      reads++;
+      return entries.containsKey(ByteString.copyFrom(key));
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+      reads++;
+      return entries.get(ByteString.copyFrom(key));
+    }
+
+    @Override
+    public void putAll(byte[] packedEntries) {
+      batches++;
+      List<byte[]> elements = PackedArrays.unpack(packedEntries);
+      for (int i = 0; i < elements.size(); i += 2) {
+        entries.put(ByteString.copyFrom(elements.get(i)), elements.get(i + 1));
+      }
+    }
+
+    @Override
+    public void removeAll(byte[] packedKeys) {
+      batches++;
+      for (byte[] key : PackedArrays.unpack(packedKeys)) {
+        entries.remove(ByteString.copyFrom(key));
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.exonum.binding.core.proxy.NativeCallCounts;
+import com.exonum.binding.core.proxy.NativeCallStatistics;
+import com.exonum.binding.core.proxy.NativeCallStatistics.Level;
+import java.util.function.LongFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NativeIterNextTest {
+
+  private static final long ITER_HANDLE = 0x0A;
+
+  @BeforeEach
+  void enableStatistics() {
+    NativeCallStatistics.reset();
+    NativeCallStatistics.setLevel(Level.OPERATIONS);
+  }
+
+  @AfterEach
+  void disableStatistics() {
+    NativeCallStatistics.setLevel(Level.OFF);
+    NativeCallStatistics.reset();
+  }
+
+  @Test
+  void nextRecordsEachCall() {
+    LongFunction<byte[]> nextFunction = iterOf(bytes(1, 2), bytes(3));
+    NativeIterNext<byte[]> next = NativeIterNext.ofArrays(nextFunction);
+
+    assertThat(next.apply(ITER_HANDLE)).isEqualTo(bytes(1, 2));
+    assertThat(next.apply(ITER_HANDLE)).isEqualTo(bytes(3));
+    assertThat(next.apply(ITER_HANDLE)).isNull();
+
+    NativeCallCounts counts = NativeCallStatistics.getTotalCounts();
+    assertThat(counts.getCalls()).isEqualTo(3);
+    assertThat(counts.getBytesFromNative()).isEqualTo(3);
+    assertThat(NativeCallStatistics.getCallsByOperation())
+        .containsExactly(entry("RustIter#next", 3L));
+  }
+
+  @Test
+  void nextRecordsEntryBytes() {
+    LongFunction<MapEntryInternal> nextFunction = iterOf(
+        new MapEntryInternal(bytes("k1"), bytes("value")));
+    NativeIterNext<MapEntryInternal> next = NativeIterNext.ofEntries(nextFunction);
+
+    MapEntryInternal entry = next.apply(ITER_HANDLE);
+
+    assertThat(entry.key).isEqualTo(bytes("k1"));
+    assertThat(NativeCallStatistics.getTotalCounts().getBytesFromNative()).isEqualTo(7);
+  }
+
+  @SafeVarargs
+  private static <E> LongFunction<E> iterOf(E... elements) {
+    int[] position = {0};
+    return handle -> {
+      assertThat(handle).isEqualTo(ITER_HANDLE);
+      return (position[0] < elements.length) ? elements[position[0]++] : null;
+    };
+  }
+}
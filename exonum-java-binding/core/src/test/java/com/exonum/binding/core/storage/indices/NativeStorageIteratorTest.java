@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.exonum.binding.core.proxy.Cleaner;
+import com.exonum.binding.core.proxy.NativeHandle;
+import com.exonum.binding.core.proxy.ProxyDestructor;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NativeStorageIteratorTest {
+
+  private static final long ITER_HANDLE = 0x0A;
+
+  private Cleaner cleaner;
+  private LongConsumer disposeOperation;
+  private NativeHandle handle;
+  private ProxyDestructor destructor;
+
+  @BeforeEach
+  void setUp() {
+    cleaner = new Cleaner();
+    disposeOperation = mock(LongConsumer.class);
+    handle = new NativeHandle(ITER_HANDLE);
+    destructor = ProxyDestructor.newRegistered(cleaner, handle, RustIter.class,
+        disposeOperation);
+  }
+
+  @Test
+  void transformsElements() {
+    StorageIterator<String> iterator = createIterator(ImmutableList.of(1, 2));
+
+    assertThat(ImmutableList.copyOf(iterator)).containsExactly("1", "2");
+  }
+
+  @Test
+  void destroysEmptyImmediately() {
+    StorageIterator<String> iterator = createIterator(emptyList());
+
+    assertThat(iterator.hasNext()).isFalse();
+    verify(disposeOperation).accept(ITER_HANDLE);
+    assertThat(cleaner.getNumRegisteredActions()).isZero();
+  }
+
+  @Test
+  void destroysOnceExhausted() {
+    StorageIterator<String> iterator = createIterator(ImmutableList.of(1, 2));
+
+    iterator.next();
+    verify(disposeOperation, never()).accept(ITER_HANDLE);
+    assertThat(cleaner.getNumRegisteredActions()).isEqualTo(1);
+
+    iterator.next();
+    verify(disposeOperation).accept(ITER_HANDLE);
+    assertThat(cleaner.getNumRegisteredActions()).isZero();
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test
+  void closeDestroysNotExhausted() {
+    StorageIterator<String> iterator = createIterator(ImmutableList.of(1, 2, 3));
+    iterator.next();
+
+    iterator.close();
+
+    verify(disposeOperation).accept(ITER_HANDLE);
+    assertThat(cleaner.getNumRegisteredActions()).isZero();
+    assertThat(iterator.hasNext()).isFalse();
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  void closeIsIdempotent() {
+    StorageIterator<String> iterator = createIterator(ImmutableList.of(1, 2));
+
+    iterator.close();
+    iterator.close();
+
+    verify(disposeOperation).accept(ITER_HANDLE);
+  }
+
+  @Test
+  void closeAfterCleanerClosed() throws Exception {
+    StorageIterator<String> iterator = createIterator(ImmutableList.of(1, 2));
+    cleaner.close();
+
+    iterator.close();
+
+    verify(disposeOperation).accept(ITER_HANDLE);
+  }
+
+  private StorageIterator<String> createIterator(List<Integer> elements) {
+    return new NativeStorageIterator<>(elements.iterator(), String::valueOf, destructor, cleaner);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static com.exonum.binding.test.Bytes.bytes;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Bytes;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PackedArraysTest {
+
+  @Test
+  void packEmpty() {
+    assertThat(PackedArrays.pack(emptyList())).isEmpty();
+  }
+
+  @Test
+  void packSeveral() {
+    byte[] packed = PackedArrays.pack(ImmutableList.of(bytes(10), bytes(), bytes(20, 21)));
+
+    assertThat(packed).containsExactly(bytes(0, 0, 0, 1, 10, 0, 0, 0, 0, 0, 0, 0, 2, 20, 21));
+  }
+
+  @Test
+  void unpackEmpty() {
+    assertThat(PackedArrays.unpack(bytes())).isEmpty();
+  }
+
+  @Test
+  void unpackWithAbsent() {
+    byte[] packed = bytes(0, 0, 0, 1, 10, 0xFF, 0xFF, 0xFF, 0xFF, 0, 0, 0, 0);
+
+    List<byte[]> elements = PackedArrays.unpack(packed);
+
+    assertThat(elements).containsExactly(bytes(10), null, bytes());
+  }
+
+  @Test
+  void unpackTruncatedLength() {
+    byte[] packed = bytes(0, 0);
+
+    assertThrows(IllegalArgumentException.class, () -> PackedArrays.unpack(packed));
+  }
+
+  @Test
+  void unpackTruncatedElement() {
+    byte[] packed = bytes(0, 0, 0, 2, 10);
+
+    assertThrows(IllegalArgumentException.class, () -> PackedArrays.unpack(packed));
+  }
+
+  @Test
+  void readElementAdvancesPosition() {
+    ByteBuffer packed = ByteBuffer.wrap(bytes(0, 0, 0, 1, 10, 0, 0, 0, 1, 20));
+
+    assertThat(PackedArrays.readElement(packed)).containsExactly(10);
+    assertThat(packed.position()).isEqualTo(5);
+    assertThat(PackedArrays.readElement(packed)).containsExactly(20);
+    assertThat(packed.hasRemaining()).isFalse();
+  }
+
+  @Test
+  void packUnpackRoundTrip() {
+    List<byte[]> elements = ImmutableList.of(bytes("k1"), bytes(), bytes("long value"));
+
+    List<byte[]> unpacked = PackedArrays.unpack(PackedArrays.pack(elements));
+
+    assertThat(unpacked).containsExactlyElementsOf(elements);
+  }
+
+  @Test
+  void packEntries() {
+    Map<String, String> entries = ImmutableMap.of("k1", "v1", "k2", "v2");
+
+    byte[] packed = PackedArrays.packEntries(entries, string(), string());
+
+    assertThat(PackedArrays.unpack(packed))
+        .containsExactly(bytes("k1"), bytes("v1"), bytes("k2"), bytes("v2"));
+  }
+
+  @Test
+  void unpackPresentValues() {
+    List<String> keys = ImmutableList.of("k1", "k2", "k3");
+    byte[] packedValues = Bytes.concat(
+        PackedArrays.pack(ImmutableList.of(bytes("v1"))),
+        bytes(0xFF, 0xFF, 0xFF, 0xFF),
+        PackedArrays.pack(ImmutableList.of(bytes("v3"))));
+
+    Map<String, String> values = PackedArrays.unpackPresentValues(keys, packedValues, string());
+
+    assertThat(values).containsExactly(Map.entry("k1", "v1"), Map.entry("k3", "v3"));
+  }
+
+  @Test
+  void unpackPresentValuesSizeMismatch() {
+    List<String> keys = ImmutableList.of("k1", "k2");
+    byte[] packedValues = PackedArrays.pack(ImmutableList.of(bytes("v1")));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> PackedArrays.unpackPresentValues(keys, packedValues, string()));
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class StorageKeysTest {
+
+  @Test
+  void lessThan() {
+    Predicate<byte[]> lessThan = StorageKeys.lessThan(bytes(1, 2));
+
+    assertThat(lessThan).accepts(bytes(), bytes(1), bytes(1, 1), bytes(1, 1, 0xFF), bytes(0, 3));
+    assertThat(lessThan).rejects(bytes(1, 2), bytes(1, 2, 0), bytes(1, 3), bytes(2));
+  }
+
+  @Test
+  void lessThanComparesBytesAsUnsigned() {
+    Predicate<byte[]> lessThan = StorageKeys.lessThan(bytes(0x80));
+
+    assertThat(lessThan).accepts(bytes(0x7F));
+    assertThat(lessThan).rejects(bytes(0xFF));
+  }
+
+  @Test
+  void startsWith() {
+    Predicate<byte[]> startsWith = StorageKeys.startsWith(bytes(1, 2));
+
+    assertThat(startsWith).accepts(bytes(1, 2), bytes(1, 2, 0), bytes(1, 2, 0xFF, 0xFF));
+    assertThat(startsWith).rejects(bytes(), bytes(1), bytes(1, 3), bytes(2, 2), bytes(0, 1, 2));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "a", "ab"})
+  void emptyPrefixAcceptsAll(String key) {
+    Predicate<byte[]> startsWith = StorageKeys.startsWith(bytes());
+
+    assertThat(startsWith).accepts(bytes(key));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.core.storage.indices;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.exonum.binding.core.storage.indices.WriteBackCache.CachedIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WriteBackCacheTest {
+
+  private WriteBackCache cache;
+  private CachedIndex index1;
+  private CachedIndex index2;
+
+  @BeforeEach
+  void setUp() {
+    cache = new WriteBackCache();
+    index1 = mock(CachedIndex.class);
+    index2 = mock(CachedIndex.class);
+    cache.register(index1);
+    cache.register(index2);
+  }
+
+  @Test
+  void flush() {
+    cache.flush();
+
+    verify(index1).flush();
+    verify(index2).flush();
+  }
+
+  @Test
+  void discard() {
+    cache.discard();
+
+    verify(index1).discard();
+    verify(index2).discard();
+  }
+}